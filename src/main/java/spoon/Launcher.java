@@ -22,12 +22,12 @@ import com.martiansoftware.jsap.JSAPException;
 import com.martiansoftware.jsap.JSAPResult;
 import com.martiansoftware.jsap.Switch;
 import com.martiansoftware.jsap.stringparsers.FileStringParser;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import spoon.compiler.Environment;
 import spoon.compiler.SpoonCompiler;
+import spoon.compiler.SpoonFolder;
 import spoon.compiler.SpoonResource;
 import spoon.compiler.SpoonResourceHelper;
 import spoon.processing.Processor;
@@ -36,17 +36,23 @@ import spoon.reflect.factory.Factory;
 import spoon.reflect.factory.FactoryImpl;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.PrettyPrinter;
+import spoon.reflect.visitor.SniperJavaPrettyPrinter;
 import spoon.support.DefaultCoreFactory;
 import spoon.support.JavaOutputProcessor;
+import spoon.support.ModelDaemon;
 import spoon.support.StandardEnvironment;
 import spoon.support.compiler.FileSystemFile;
 import spoon.support.compiler.FileSystemFolder;
 import spoon.support.compiler.jdt.JDTBasedSpoonCompiler;
 import spoon.support.gui.SpoonModelTree;
+import spoon.support.util.OutputFiles;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -127,12 +133,27 @@ public class Launcher implements SpoonAPI {
 	public void addInputResource(String path) {
 		File file = new File(path);
 		if (file.isDirectory()) {
-			addInputResource(new FileSystemFolder(file));
+			addInputResource(createInputFolder(file));
 		} else {
 			addInputResource(new FileSystemFile(file));
 		}
 	}
 
+	/**
+	 * Creates an input folder filtered with the include and exclude patterns
+	 * of the arguments.
+	 */
+	private FileSystemFolder createInputFolder(File directory) {
+		return new FileSystemFolder(directory, getPatterns("include"), getPatterns("exclude"));
+	}
+
+	private List<String> getPatterns(String argument) {
+		if (jsapActualArgs == null || jsapActualArgs.getString(argument) == null) {
+			return new ArrayList<String>();
+		}
+		return Arrays.asList(jsapActualArgs.getString(argument).split(File.pathSeparator));
+	}
+
 	private void addInputResource(SpoonResource resource) {
 		modelBuilder.addInputSource(resource);
 	}
@@ -229,6 +250,22 @@ public class Launcher implements SpoonAPI {
 			opt2.setHelp("List of path to sources files.");
 			jsap.registerParameter(opt2);
 
+			// Filters of the input directories
+			opt2 = new FlaggedOption("include");
+			opt2.setLongFlag("include");
+			opt2.setStringParser(JSAP.STRING_PARSER);
+			opt2.setRequired(false);
+			opt2.setHelp("List of glob patterns of the files of the input directories to be used (e.g. **/*.java), relatively to these directories.");
+			jsap.registerParameter(opt2);
+
+			opt2 = new FlaggedOption("exclude");
+			opt2.setLongFlag("exclude");
+			opt2.setStringParser(JSAP.STRING_PARSER);
+			opt2.setRequired(false);
+			opt2.setHelp("List of glob patterns of the files and directories of the input directories to be skipped (e.g. **/generated), "
+					+ "relatively to these directories.");
+			jsap.registerParameter(opt2);
+
 			// Processor qualified name
 			opt2 = new FlaggedOption("processors");
 			opt2.setShortFlag('p');
@@ -363,6 +400,73 @@ public class Launcher implements SpoonAPI {
 			sw1.setDefault("false");
 			jsap.registerParameter(sw1);
 
+			// Number of threads used to build the model.
+			opt2 = new FlaggedOption("build-threads");
+			opt2.setLongFlag("build-threads");
+			opt2.setStringParser(JSAP.INTEGER_PARSER);
+			opt2.setDefault("1");
+			opt2.setHelp("Number of threads used to build the model from the compilation units (1 for a sequential build).");
+			jsap.registerParameter(opt2);
+
+			// Number of threads used to print the model.
+			opt2 = new FlaggedOption("output-threads");
+			opt2.setLongFlag("output-threads");
+			opt2.setStringParser(JSAP.INTEGER_PARSER);
+			opt2.setDefault("1");
+			opt2.setHelp("Number of threads used to print the source files of the model (1 for a sequential printing).");
+			jsap.registerParameter(opt2);
+
+			// Cache of the model between builds.
+			opt2 = new FlaggedOption("model-cache");
+			opt2.setLongFlag("model-cache");
+			opt2.setStringParser(FileStringParser.getParser());
+			opt2.setRequired(false);
+			opt2.setHelp("Directory where the model of the unchanged compilation units is cached between builds.");
+			jsap.registerParameter(opt2);
+
+			// Lazy build of the bodies.
+			sw1 = new Switch("lazy-bodies");
+			sw1.setLongFlag("lazy-bodies");
+			sw1.setHelp("Builds the bodies of the methods, constructors and initializers of a compilation unit when one of them is first accessed.");
+			jsap.registerParameter(sw1);
+
+			// Build of the declarations only.
+			sw1 = new Switch("declarations-only");
+			sw1.setLongFlag("declarations-only");
+			sw1.setHelp("Builds only the declarations (types, fields and executables signatures), without the bodies and the field initializers.");
+			jsap.registerParameter(sw1);
+
+			// Printing of the changed declarations only.
+			sw1 = new Switch("sniper");
+			sw1.setLongFlag("sniper");
+			sw1.setHelp("Prints only the declarations changed since the model was built, and copies the rest of the original source code as is.");
+			jsap.registerParameter(sw1);
+
+			// Build, processing and printing by batches of compilation units.
+			opt2 = new FlaggedOption("streaming");
+			opt2.setLongFlag("streaming");
+			opt2.setStringParser(JSAP.INTEGER_PARSER);
+			opt2.setDefault("0");
+			opt2.setHelp("Number of compilation units built, processed and printed at once, the whole model being built first if 0. "
+					+ "All the processors must be compilation unit local.");
+			jsap.registerParameter(opt2);
+
+			// Resident model.
+			opt2 = new FlaggedOption("daemon");
+			opt2.setLongFlag("daemon");
+			opt2.setStringParser(JSAP.STRING_PARSER);
+			opt2.setRequired(false);
+			opt2.setHelp("Keeps the model in memory once built and serves requests on it (see spoon.support.ModelDaemon), "
+					+ "on the standard input if '-', or else on a local socket which port and access token are written to the given file.");
+			jsap.registerParameter(opt2);
+
+			opt2 = new FlaggedOption("daemon-idle-timeout");
+			opt2.setLongFlag("daemon-idle-timeout");
+			opt2.setStringParser(JSAP.INTEGER_PARSER);
+			opt2.setDefault("3600");
+			opt2.setHelp("Number of seconds without request after which the daemon stops (0 to never stop).");
+			jsap.registerParameter(opt2);
+
 			// Enable generation of javadoc.
 			sw1 = new Switch("generate-javadoc");
 			sw1.setShortFlag('j');
@@ -404,14 +508,26 @@ public class Launcher implements SpoonAPI {
 		environment.setGenerateJavadoc(jsapActualArgs.getBoolean("generate-javadoc"));
 
 		environment.setShouldCompile(jsapActualArgs.getBoolean("compile"));
+		environment.setBuildThreads(jsapActualArgs.getInt("build-threads"));
+		environment.setOutputThreads(jsapActualArgs.getInt("output-threads"));
+		environment.setModelCacheDirectory(jsapActualArgs.getFile("model-cache"));
+		environment.setLazyBodies(jsapActualArgs.getBoolean("lazy-bodies"));
+		environment.setDeclarationsOnly(jsapActualArgs.getBoolean("declarations-only"));
+		environment.setStreamingBatchSize(jsapActualArgs.getInt("streaming"));
+		environment.setSniperMode(jsapActualArgs.getBoolean("sniper"));
 
 		// now we are ready to create a spoon compiler
 		modelBuilder = createCompiler();
 
 		if (getArguments().getString("input") != null) {
 			for (String s : getArguments().getString("input").split("[" + File.pathSeparatorChar + "]")) {
+				File file = new File(s);
+				if (file.isDirectory()) {
+					modelBuilder.addInputSource(createInputFolder(file));
+					continue;
+				}
 				try {
-					modelBuilder.addInputSource(SpoonResourceHelper.createResource(new File(s)));
+					modelBuilder.addInputSource(SpoonResourceHelper.createResource(file));
 				} catch (FileNotFoundException e) {
 					throw new SpoonException(e);
 				}
@@ -579,6 +695,9 @@ public class Launcher implements SpoonAPI {
 	}
 
 	public PrettyPrinter createPrettyPrinter() {
+		if (getEnvironment().isSniperMode()) {
+			return new SniperJavaPrettyPrinter(getEnvironment());
+		}
 		return new DefaultJavaPrettyPrinter(getEnvironment());
 	}
 
@@ -601,6 +720,13 @@ public class Launcher implements SpoonAPI {
 	 * <li>Processed source code compilation (optional):
 	 * {@link SpoonCompiler#compile()}.</li>
 	 * </ol>
+	 *
+	 * In streaming mode (see {@link Environment#getStreamingBatchSize()}), the
+	 * building, processing and printing tasks are performed by batches of
+	 * compilation units: {@link SpoonCompiler#stream(int, List, Collection, OutputType)}.
+	 *
+	 * With the <code>--daemon</code> argument, the model is then kept in
+	 * memory to serve requests: {@link ModelDaemon}.
 	 */
 	@Override
 	public void run() {
@@ -613,16 +739,24 @@ public class Launcher implements SpoonAPI {
 		long t = 0;
 		long tstart = System.currentTimeMillis();
 
-		buildModel();
+		if (env.getStreamingBatchSize() > 0) {
+			stream();
+		} else {
+			buildModel();
 
-		process();
+			process();
 
-		prettyprint();
+			prettyprint();
+		}
 
 		if (env.shouldCompile()) {
 			modelBuilder.compile();
 		}
 
+		if (jsapActualArgs.getString("daemon") != null) {
+			daemon(jsapActualArgs.getString("daemon"));
+		}
+
 		t = System.currentTimeMillis();
 
 		env.debugMessage("program spooning done in " + (t - tstart) + " ms");
@@ -673,6 +807,39 @@ public class Launcher implements SpoonAPI {
 		getEnvironment().debugMessage("model processed in " + (System.currentTimeMillis() - tstart) + " ms");
 	}
 
+	/**
+	 * Builds, processes and prints the model by batches of compilation units.
+	 */
+	private void stream() {
+		if (getEnvironment().shouldCompile()) {
+			throw new SpoonException("The processed sources cannot be compiled in streaming mode");
+		}
+		long tstart = System.currentTimeMillis();
+		OutputType outputType = OutputType.fromString(jsapActualArgs.getString("output-type"));
+		modelBuilder.stream(getEnvironment().getStreamingBatchSize(), getProcessorTypes(), getProcessors(), outputType);
+		copyResources();
+		getEnvironment().debugMessage("model streamed in " + (System.currentTimeMillis() - tstart) + " ms");
+	}
+
+	/**
+	 * Serves requests on the built model until the daemon stops.
+	 */
+	private void daemon(String portFile) {
+		if (getEnvironment().getStreamingBatchSize() > 0) {
+			throw new SpoonException("The model is not kept in memory in streaming mode");
+		}
+		ModelDaemon daemon = new ModelDaemon(this);
+		try {
+			if ("-".equals(portFile)) {
+				daemon.serve(new BufferedReader(new InputStreamReader(System.in)), new PrintWriter(System.out));
+			} else {
+				daemon.listen(new File(portFile), jsapActualArgs.getInt("daemon-idle-timeout") * 1000L);
+			}
+		} catch (IOException e) {
+			throw new SpoonException(e);
+		}
+	}
+
 	@Override
 	public void prettyprint() {
 		long tstart = System.currentTimeMillis();
@@ -683,25 +850,41 @@ public class Launcher implements SpoonAPI {
 			throw new SpoonException(e);
 		}
 
+		copyResources();
+
+		getEnvironment().debugMessage("pretty-printed in " + (System.currentTimeMillis() - tstart) + " ms");
+	}
+
+	private void copyResources() {
 		if (getEnvironment().isCopyResources()) {
-			for (File dirInputSource : modelBuilder.getInputSources()) {
-				if (dirInputSource.isDirectory()) {
-					final Collection<?> resources = FileUtils.listFiles(dirInputSource, RESOURCES_FILE_FILTER, ALL_DIR_FILTER);
-					for (Object resource : resources) {
-						final String resourceParentPath = ((File) resource).getParent();
-						final String packageDir = resourceParentPath.substring(dirInputSource.getPath().length());
+			int resources = 0;
+			int copiedResources = 0;
+			// the listing of the input folders made to build the model is
+			// reused, the folders not being walked again
+			for (SpoonFolder inputFolder : modelBuilder.getSource().getSubFolders()) {
+				if (inputFolder instanceof FileSystemFolder) {
+					FileSystemFolder fileSystemFolder = (FileSystemFolder) inputFolder;
+					String inputPath = inputFolder.getPath();
+					for (File resource : fileSystemFolder.getAllFileSystemFiles()) {
+						if (!RESOURCES_FILE_FILTER.accept(resource)) {
+							continue;
+						}
+						final String packageDir = resource.getParent().substring(inputPath.length());
 						final String targetDirectory = modelBuilder.getSourceOutputDirectory() + packageDir;
+						resources++;
 						try {
-							FileUtils.copyFileToDirectory((File) resource, new File(targetDirectory));
+							// the unchanged resources are not copied again
+							if (OutputFiles.copy(resource, fileSystemFolder.getAttributes(resource).size(), new File(targetDirectory, resource.getName()))) {
+								copiedResources++;
+							}
 						} catch (IOException e) {
 							throw new SpoonException(e);
 						}
 					}
 				}
 			}
+			getEnvironment().debugMessage(copiedResources + " of the " + resources + " resources copied");
 		}
-
-		getEnvironment().debugMessage("pretty-printed in " + (System.currentTimeMillis() - tstart) + " ms");
 	}
 
 	public SpoonModelBuilder getModelBuilder() {
@@ -20,8 +20,11 @@ package spoon;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import spoon.compiler.SpoonFile;
+import spoon.compiler.SpoonFolder;
 import spoon.compiler.SpoonResource;
 import spoon.processing.Processor;
 import spoon.reflect.declaration.CtElement;
@@ -95,6 +98,12 @@ public interface SpoonModelBuilder {
 	 */
 	Set<File> getInputSources();
 
+	/**
+	 * Gets the folder holding the files and folders given as input sources to
+	 * this builder.
+	 */
+	SpoonFolder getSource();
+
 	/**
 	 * Adds a file/directory to be used to build templates. By default, the
 	 * files should be Java source files or Jar files containing the sources.
@@ -144,6 +153,57 @@ public interface SpoonModelBuilder {
 	 */
 	boolean build();
 
+	/**
+	 * Updates the model previously built by {@link #build()} with the given
+	 * changed (or added) and deleted input files, without building the other
+	 * files again. The types and compilation units of these files are removed
+	 * from the factory and the changed files are parsed again, the types they
+	 * refer to being resolved against the existing model. A changed file which
+	 * content is the same as when it was last built is ignored.
+	 *
+	 * <p>
+	 * The files are matched with the compilation units of the factory by
+	 * canonical path. Templates are not updated.
+	 * </p>
+	 *
+	 * @param changedFiles
+	 * 		the files that were modified or added since the last build
+	 * @param deletedFiles
+	 * 		the files that were removed since the last build
+	 * @return true if the changed files were successfully compiled with the
+	 * core Java compiler, false if some errors were encountered
+	 * @throws spoon.SpoonException
+	 * 		when the model was not built yet
+	 */
+	boolean update(List<SpoonFile> changedFiles, List<SpoonFile> deletedFiles);
+
+	/**
+	 * Builds, processes and prints the input sources by batches of
+	 * compilation units, instead of building the whole model first. Each
+	 * batch is built (the types of the other input files being resolved from
+	 * their sources), processed with the given processors, printed and then
+	 * removed from the factory before the next one is built, so that the model
+	 * of a single batch is in memory at once. The types declared by an input
+	 * file are looked up in the other batches by the package declaration and
+	 * the name of this file, as with a source path.
+	 *
+	 * @param batchSize
+	 * 		the number of compilation units of a batch
+	 * @param processorTypes
+	 * 		the qualified names of the processors, instantiated for each batch
+	 * @param processors
+	 * 		the processors, which must be
+	 * 		{@link spoon.processing.CompilationUnitLocal}
+	 * @param outputType
+	 * 		the output method (see {@link #generateProcessedSourceFiles(OutputType)})
+	 * @return true if the Java was successfully compiled with the core Java
+	 * compiler, false if some errors were encountered while compiling
+	 * @throws spoon.SpoonException
+	 * 		when the model was already built or when a processor is not
+	 * 		compilation unit local
+	 */
+	boolean stream(int batchSize, List<String> processorTypes, Collection<Processor<? extends CtElement>> processors, OutputType outputType);
+
 	/**
 	 * Processes the Java model with the given processors.
 	 */
@@ -173,6 +233,19 @@ public interface SpoonModelBuilder {
 	 */
 	boolean compile();
 
+	/**
+	 * Generates the bytecode associated to the classes stored in this
+	 * compiler's factory, without writing it. The compilation units are
+	 * compiled by several threads and, on the next calls, only the units which
+	 * changed since the previous call are compiled again (the units depending
+	 * on them are not). The classes can be loaded with a
+	 * {@link spoon.support.compiler.InMemoryClassLoader}.
+	 *
+	 * @return the bytes of the class files, by binary name
+	 * @see #getSourceClasspath()
+	 */
+	Map<String, byte[]> compileInMemory();
+
 	/**
 	 * Generates the bytecode by compiling the input sources. The bytecode is
 	 * generated in the directory given by {@link #getBinaryOutputDirectory()}.
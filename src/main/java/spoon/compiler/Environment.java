@@ -321,4 +321,134 @@ public interface Environment {
 	 * Sets the compile argument.
 	 */
 	void setShouldCompile(boolean shouldCompile);
+
+	/**
+	 * Gets the number of threads used to build the model from the compilation
+	 * units given by the Java compiler (1 means a sequential build).
+	 */
+	int getBuildThreads();
+
+	/**
+	 * Sets the number of threads used to build the model. Whatever the number
+	 * of threads, the built model is the same as the one of a sequential build.
+	 */
+	void setBuildThreads(int buildThreads);
+
+	/**
+	 * Gets the directory where the model of the compilation units is cached
+	 * between builds, or null if no cache is used.
+	 */
+	File getModelCacheDirectory();
+
+	/**
+	 * Sets the directory where the model of the compilation units is cached.
+	 * A compilation unit is loaded from this cache instead of being built
+	 * when its source, the classpath and the compliance level did not change
+	 * since it was cached (null disables the cache).
+	 */
+	void setModelCacheDirectory(File modelCacheDirectory);
+
+	/**
+	 * Tells if the bodies of the executables are built lazily.
+	 */
+	boolean isLazyBodies();
+
+	/**
+	 * Sets the lazy mode, in which the model is built without the bodies of
+	 * the methods, constructors and initializers. The bodies of the
+	 * executables of a compilation unit are built the first time one of them
+	 * is accessed, with {@link spoon.reflect.declaration.CtExecutable#getBody()}
+	 * (and thus by scanners), by compiling this unit again. The source files
+	 * must not change in the meantime.
+	 */
+	void setLazyBodies(boolean lazyBodies);
+
+	/**
+	 * Tells if only the declarations are built.
+	 */
+	boolean isDeclarationsOnly();
+
+	/**
+	 * Sets the declarations-only mode, in which the model only contains the
+	 * types, fields and executables with their signatures, modifiers and
+	 * annotations: the bodies of the executables and the default expressions
+	 * of the fields are never built. Processors of code elements (see
+	 * {@link spoon.reflect.code.CtCodeElement}) cannot be used in this mode.
+	 */
+	void setDeclarationsOnly(boolean declarationsOnly);
+
+	/**
+	 * Gets the number of compilation units built, processed and printed at
+	 * once by {@link spoon.Launcher#run()} (0 if the whole model is built
+	 * first).
+	 */
+	int getStreamingBatchSize();
+
+	/**
+	 * Sets the streaming mode, in which the input sources are built, processed
+	 * and printed by batches of the given number of compilation units, each
+	 * batch being removed from the model before the next one is built (see
+	 * {@link spoon.SpoonModelBuilder#stream(int, java.util.List, java.util.Collection, spoon.OutputType)}).
+	 * The memory needed is then proportional to the size of a batch instead of
+	 * the size of the program, but all the processors must be
+	 * {@link spoon.processing.CompilationUnitLocal}. 0 disables this mode.
+	 */
+	void setStreamingBatchSize(int streamingBatchSize);
+
+	/**
+	 * Gets the number of threads used to print the source files of the model
+	 * (1 means a sequential printing).
+	 */
+	int getOutputThreads();
+
+	/**
+	 * Sets the number of threads used to print the source files, each thread
+	 * having its own printer. Whatever the number of threads, the printed
+	 * files are the same as the ones of a sequential printing.
+	 */
+	void setOutputThreads(int outputThreads);
+
+	/**
+	 * Tells if the compilation units are printed in sniper mode, in which the
+	 * unchanged parts of the original source code are copied instead of being
+	 * printed again.
+	 */
+	boolean isSniperMode();
+
+	/**
+	 * Sets the sniper mode, in which the state of the model is recorded when
+	 * it is built, and only the declarations which changed since then are
+	 * printed again, the rest of the compilation units being copied from the
+	 * original source code with its formatting and comments (see
+	 * {@link spoon.reflect.visitor.SniperJavaPrettyPrinter}).
+	 */
+	void setSniperMode(boolean sniperMode);
+
+	/**
+	 * Tells if the references cache the declarations they resolve (see
+	 * {@link spoon.reflect.reference.CtTypeReference#getDeclaration()},
+	 * {@link spoon.reflect.reference.CtExecutableReference#getDeclaration()}
+	 * and {@link spoon.reflect.reference.CtFieldReference#getDeclaration()}).
+	 */
+	boolean isResolutionCacheEnabled();
+
+	/**
+	 * Enables or disables the cache of the resolved declarations, in which
+	 * a reference keeps its declaration until the model is modified (see
+	 * {@link spoon.reflect.ModelVersion}). It is enabled by default.
+	 */
+	void setResolutionCacheEnabled(boolean resolutionCacheEnabled);
+
+	/**
+	 * Gets the number of declarations found in the cache of the resolved
+	 * declarations.
+	 */
+	long getResolutionCacheHits();
+
+	/**
+	 * Gets the number of declarations resolved while the cache of the resolved
+	 * declarations was enabled, because they were not in the cache or the
+	 * model was modified since they were resolved.
+	 */
+	long getResolutionCacheMisses();
 }
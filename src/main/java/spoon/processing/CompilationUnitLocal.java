@@ -0,0 +1,31 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.processing;
+
+/**
+ * This interface should be implemented by processors which only read and
+ * change, for each processed element, the compilation unit of this element
+ * (the other types are only known through references). Only such processors
+ * can be applied by batches of compilation units, the rest of the model not
+ * being in memory (see
+ * {@link spoon.compiler.Environment#setStreamingBatchSize(int)}). The
+ * {@link Processor#init()} and {@link Processor#processingDone()} methods
+ * are then called once per batch.
+ */
+public interface CompilationUnitLocal {
+}
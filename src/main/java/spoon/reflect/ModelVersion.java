@@ -0,0 +1,64 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.reflect;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The version of the model of a factory (see
+ * {@link spoon.reflect.factory.Factory#getModelVersion()}), which changes each
+ * time an element or a reference of the model is modified. The values
+ * computed from the whole model (e.g. the declarations resolved by the
+ * references) are cached with the version they were computed at, and computed
+ * again when the version changed.
+ *
+ * <p>
+ * The model mutators (the <code>set*</code>, <code>add*</code>,
+ * <code>remove*</code>, <code>insert*</code> and <code>replace</code>
+ * methods of the elements and the references) call
+ * <code>modified()</code> on the modified node, and so do the collections of
+ * the elements (see {@link spoon.support.util.ModelList} and
+ * {@link spoon.support.util.ModelSet}), which the getters of the model
+ * return (e.g. <code>getStatements().add(s)</code>). Setting the parent of an
+ * element is not a modification. The values computed from a single node (e.g.
+ * its signature) are cleared by the node instead.
+ * </p>
+ */
+public final class ModelVersion implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// the model is modified by the threads of a parallel build
+	private final LongAdder version = new LongAdder();
+
+	/**
+	 * Gets the current version of the model.
+	 */
+	public long get() {
+		return version.sum();
+	}
+
+	/**
+	 * Tells that the model is modified, which invalidates the values cached
+	 * from it.
+	 */
+	public void modified() {
+		version.increment();
+	}
+}
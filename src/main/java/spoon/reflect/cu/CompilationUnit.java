@@ -40,10 +40,35 @@ public interface CompilationUnit extends FactoryAccessor {
 	CtType<?> getMainType();
 
 	/**
-	 * Gets the original source code as a string.
+	 * Gets the original source code as a string, decoded with the encoding of
+	 * this compilation unit. The source code is read again from the file when
+	 * it was reclaimed by the garbage collector.
 	 */
 	String getOriginalSourceCode();
 
+	/**
+	 * Gets the encoding of the file of this compilation unit (null for the
+	 * default encoding of the platform).
+	 */
+	String getEncoding();
+
+	/**
+	 * Sets the encoding of the file of this compilation unit.
+	 */
+	void setEncoding(String encoding);
+
+	/**
+	 * Gets the positions of the line separators in the original source code,
+	 * in increasing order.
+	 */
+	int[] getLineSeparatorPositions();
+
+	/**
+	 * Sets the positions of the line separators in the original source code,
+	 * as computed by the compiler.
+	 */
+	void setLineSeparatorPositions(int[] lineSeparatorPositions);
+
 	/**
 	 * Helper method to get the begin index of the line that corresponds to the
 	 * given index.
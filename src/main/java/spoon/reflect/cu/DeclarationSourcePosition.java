@@ -0,0 +1,37 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.reflect.cu;
+
+/**
+ * The position of a declaration (a type, a field, a method, a constructor or
+ * an initializer) in a source file. Unlike its source start and end, which
+ * delimit its name, the declaration start and end delimit the whole
+ * declaration, from its javadoc comment to its closing brace or semicolon.
+ */
+public interface DeclarationSourcePosition extends SourcePosition {
+
+	/**
+	 * Gets the index at which the declaration starts in the source file.
+	 */
+	int getDeclarationStart();
+
+	/**
+	 * Gets the index at which the declaration ends in the source file.
+	 */
+	int getDeclarationEnd();
+
+}
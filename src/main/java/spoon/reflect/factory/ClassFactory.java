@@ -60,11 +60,12 @@ public class ClassFactory extends TypeFactory {
 	public <T> CtClass<T> create(CtPackage owner, String simpleName) {
 		CtClass<T> c = factory.Core().createClass();
 		c.setSimpleName(simpleName);
+		// the parent gives the qualified name the types are sorted by
+		c.setParent(owner);
 		if (owner.getTypes().contains(c)) {
-			owner.getTypes().remove(c);
+			owner.removeType(c);
 		}
-		owner.getTypes().add(c);
-		c.setParent(owner);
+		owner.addType(c);
 		return c;
 	}
 
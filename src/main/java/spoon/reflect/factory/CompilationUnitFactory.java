@@ -27,6 +27,7 @@ import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.support.reflect.cu.ImportImpl;
+import spoon.support.visitor.ModelSnapshot;
 
 /**
  * A factory to create some evaluation utilities on the Spoon metamodel.
@@ -51,6 +52,17 @@ public class CompilationUnitFactory extends SubFactory {
 		return compilationUnits;
 	}
 
+	private final ModelSnapshot snapshot = new ModelSnapshot();
+
+	/**
+	 * Gets the state of the types of the compilation units as they were built,
+	 * which is recorded in sniper mode only (see
+	 * {@link spoon.compiler.Environment#isSniperMode()}).
+	 */
+	public ModelSnapshot getSnapshot() {
+		return snapshot;
+	}
+
 	/**
 	 * Creates a compilation unit with no associated files.
 	 */
@@ -60,9 +72,9 @@ public class CompilationUnitFactory extends SubFactory {
 	}
 
 	/**
-	 * Creates or gets a compilation unit for a given file path.
+	 * Creates or gets a compilation unit for a given file path (thread-safe).
 	 */
-	public CompilationUnit create(String filePath) {
+	public synchronized CompilationUnit create(String filePath) {
 		CompilationUnit cu = compilationUnits.get(filePath);
 		if (cu == null) {
 			if ("".equals(filePath)) {
@@ -63,6 +63,7 @@ import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.code.CtVariableWrite;
 import spoon.reflect.code.CtWhile;
 import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.DeclarationSourcePosition;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtAnnotationType;
@@ -359,6 +360,14 @@ public interface CoreFactory {
 			CompilationUnit compilationUnit,
 			int start, int end, int[] lineSeparatorPositions);
 
+	/**
+	 * Creates the source position of a declaration.
+	 */
+	DeclarationSourcePosition createDeclarationSourcePosition(
+			CompilationUnit compilationUnit,
+			int start, int end, int declarationStart, int declarationEnd,
+			int[] lineSeparatorPositions);
+
 	/**
 	 * Creates a statement list.
 	 */
@@ -1,6 +1,7 @@
 package spoon.reflect.factory;
 
 import spoon.compiler.Environment;
+import spoon.reflect.ModelVersion;
 
 /**
  * Provides the sub-factories required by Spoon.
@@ -19,6 +20,12 @@ public interface Factory {
 
 	Environment getEnvironment(); // used 71 times
 
+	/**
+	 * Gets the version of the model of this factory, which changes each time
+	 * the model is modified.
+	 */
+	ModelVersion getModelVersion();
+
 	PackageFactory Package(); // used 30 times
 
 	CodeFactory Code(); // used 28 times
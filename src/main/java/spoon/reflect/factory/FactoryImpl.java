@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Random;
 
 import spoon.compiler.Environment;
+import spoon.reflect.ModelVersion;
 import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.declaration.CtAnnotationType;
 import spoon.reflect.declaration.CtClass;
@@ -146,6 +147,12 @@ public class FactoryImpl implements Factory, Serializable {
 		return environment;
 	}
 
+	private final ModelVersion modelVersion = new ModelVersion();
+
+	public ModelVersion getModelVersion() {
+		return modelVersion;
+	}
+
 	private transient ExecutableFactory executable;
 
 	/**
@@ -240,15 +247,20 @@ public class FactoryImpl implements Factory, Serializable {
 		return compilationUnit;
 	}
 
-	private transient TypeFactory type;
+	private transient volatile TypeFactory type;
 
 	/**
-	 * The {@link CtType} sub-factory.
+	 * The {@link CtType} sub-factory. It is created once, since it indexes the
+	 * types of the model.
 	 */
 	@Override
 	public TypeFactory Type() {
 		if (type == null) {
-			type = new TypeFactory(this);
+			synchronized (this) {
+				if (type == null) {
+					type = new TypeFactory(this);
+				}
+			}
 		}
 		return type;
 	}
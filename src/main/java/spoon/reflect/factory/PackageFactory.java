@@ -140,12 +140,13 @@ public class PackageFactory extends SubFactory implements Serializable {
 	}
 
 	/**
-	 * Gets or creates a package.
+	 * Gets or creates a package. This method is thread-safe, so that several
+	 * tree builders can create packages at the same time.
 	 *
 	 * @param qualifiedName
 	 * 		the full name of the package
 	 */
-	public CtPackage getOrCreate(String qualifiedName) {
+	public synchronized CtPackage getOrCreate(String qualifiedName) {
 		StringTokenizer token = new StringTokenizer(qualifiedName, CtPackage.PACKAGE_SEPARATOR);
 		CtPackage last = rootPackage;
 
@@ -155,8 +156,7 @@ public class PackageFactory extends SubFactory implements Serializable {
 			if (next == null) {
 				next = factory.Core().createPackage();
 				next.setSimpleName(name);
-				next.setParent(last);
-				last.getPackages().add(next);
+				last.addPackage(next);
 			}
 			last = next;
 		}
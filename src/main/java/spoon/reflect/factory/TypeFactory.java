@@ -19,9 +19,15 @@ package spoon.reflect.factory;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtTypeParameter;
@@ -36,6 +42,53 @@ public class TypeFactory extends SubFactory {
 
 	CtTypeReference<?> nullType;
 
+	/**
+	 * The version of the types and the packages of the model, which changes
+	 * when a type or a package is added, removed or renamed.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * The created types by qualified name, built by the first lookup and then
+	 * maintained as the types and the packages are added, removed and
+	 * renamed (see {@link spoon.support.util.DeclarationSet}).
+	 */
+	private volatile Map<String, CtType<?>> types;
+
+	/**
+	 * The maintained index, which the lookups use once it is built.
+	 */
+	private Map<String, CtType<?>> indexedTypes;
+
+	/**
+	 * The indexed types which have the name of another type which is looked
+	 * up in their place.
+	 */
+	private Map<String, List<CtType<?>>> shadowedTypes;
+
+	/**
+	 * The names of the indexed types and packages, null for the root package
+	 * and the types which are not looked up.
+	 */
+	private Map<CtElement, String> names;
+
+	/**
+	 * The lists of the created types, for a version of the types.
+	 */
+	private static final class TypeLists {
+		final long version;
+
+		final List<CtType<?>> topLevelTypes = new ArrayList<CtType<?>>();
+
+		final List<CtType<?>> allTypes = new ArrayList<CtType<?>>();
+
+		TypeLists(long version) {
+			this.version = version;
+		}
+	}
+
+	private volatile TypeLists lists;
+
 	public final CtTypeReference<Void> VOID = createReference(Void.class);
 	public final CtTypeReference<String> STRING = createReference(String.class);
 	public final CtTypeReference<Boolean> BOOLEAN = createReference(Boolean.class);
@@ -176,10 +229,29 @@ public class TypeFactory extends SubFactory {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> CtType<T> get(String qualifiedName) {
+		// the sub-factories of the types share the index of the type factory
+		TypeFactory typeFactory = factory.Type();
+		Map<String, CtType<?>> current = typeFactory.types;
+		if (current == null) {
+			current = typeFactory.buildIndex();
+		}
+		CtType<?> type = current.get(qualifiedName);
+		// the local types are not indexed
+		if (type != null || qualifiedName.indexOf(CtType.INNERTTYPE_SEPARATOR) < 0) {
+			return (CtType<T>) type;
+		}
+		return lookup(qualifiedName);
+	}
+
+	/**
+	 * Gets a created type by walking through the packages and the types.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CtType<T> lookup(String qualifiedName) {
 		int inertTypeIndex = qualifiedName.lastIndexOf(CtType.INNERTTYPE_SEPARATOR);
 		if (inertTypeIndex > 0) {
 			String s = qualifiedName.substring(0, inertTypeIndex);
-			CtType<T> t = get(s);
+			CtType<T> t = lookup(s);
 			if (t == null) {
 				return null;
 			}
@@ -205,11 +277,7 @@ public class TypeFactory extends SubFactory {
 	 * Gets the list of all top-level created types.
 	 */
 	public List<CtType<?>> getAll() {
-		List<CtType<?>> types = new ArrayList<CtType<?>>();
-		for (CtPackage pack : factory.Package().getAll()) {
-			types.addAll(pack.getTypes());
-		}
-		return types;
+		return new ArrayList<CtType<?>>(factory.Type().getLists().topLevelTypes);
 	}
 
 	/**
@@ -219,19 +287,251 @@ public class TypeFactory extends SubFactory {
 		if (!includeNestedTypes) {
 			return getAll();
 		}
-		List<CtType<?>> types = new ArrayList<CtType<?>>();
-		for (CtPackage pack : factory.Package().getAll()) {
+		return new ArrayList<CtType<?>>(factory.Type().getLists().allTypes);
+	}
+
+	/**
+	 * Gets the lists of the created types, built again when a type or a
+	 * package was added, removed or renamed since they were built.
+	 */
+	private TypeLists getLists() {
+		// the version is read first, a concurrent modification making the
+		// lists outdated
+		long v = version.get();
+		TypeLists current = lists;
+		if (current != null && current.version == v) {
+			return current;
+		}
+		current = new TypeLists(v);
+		addTypes(current, factory.Package().getRootPackage());
+		lists = current;
+		return current;
+	}
+
+	private void addTypes(TypeLists lists, CtPackage pack) {
+		for (CtType<?> type : pack.getTypes()) {
+			lists.topLevelTypes.add(type);
+			addNestedTypes(lists, type);
+		}
+		for (CtPackage subPackage : pack.getPackages()) {
+			addTypes(lists, subPackage);
+		}
+	}
+
+	private void addNestedTypes(TypeLists lists, CtType<?> type) {
+		lists.allTypes.add(type);
+		for (CtType<?> nestedType : type.getNestedTypes()) {
+			addNestedTypes(lists, nestedType);
+		}
+	}
+
+	/**
+	 * Indexes the types of the model by qualified name, unless it was done.
+	 */
+	private synchronized Map<String, CtType<?>> buildIndex() {
+		if (types == null) {
+			names = new IdentityHashMap<CtElement, String>();
+			indexedTypes = new ConcurrentHashMap<String, CtType<?>>();
+			shadowedTypes = new HashMap<String, List<CtType<?>>>();
+			index(factory.Package().getRootPackage(), null);
+			// the lookups use the index once it is built
+			types = indexedTypes;
+		}
+		return types;
+	}
+
+	/**
+	 * Tells that the given type or package was added to its parent, so that
+	 * it is indexed with its content. The type and package sets of the model
+	 * call it (see {@link spoon.support.util.DeclarationSet}).
+	 */
+	public synchronized void declarationAdded(CtElement declaration) {
+		version.incrementAndGet();
+		if (types == null || !declaration.isParentInitialized()) {
+			return;
+		}
+		CtElement parent = declaration.getParent();
+		if (!names.containsKey(parent) || !contains(parent, declaration)) {
+			return;
+		}
+		// a type or a package moved without being removed is indexed again
+		unindex(declaration);
+		index(declaration, getName(parent, declaration));
+	}
+
+	/**
+	 * Tells that the given type or package was removed from its parent, so
+	 * that it is not indexed anymore with its content.
+	 */
+	public synchronized void declarationRemoved(CtElement declaration) {
+		version.incrementAndGet();
+		if (types == null || !names.containsKey(declaration)) {
+			return;
+		}
+		// e.g. a set being cloned is cleared, its elements being still in
+		// the original set
+		if (declaration.isParentInitialized() && contains(declaration.getParent(), declaration)) {
+			return;
+		}
+		unindex(declaration);
+	}
+
+	/**
+	 * Tells that the given type or package was renamed, so that it is
+	 * indexed again with its content.
+	 */
+	public synchronized void declarationRenamed(CtElement declaration) {
+		version.incrementAndGet();
+		if (types == null || !names.containsKey(declaration) || !declaration.isParentInitialized()) {
+			return;
+		}
+		CtElement parent = declaration.getParent();
+		if (!names.containsKey(parent)) {
+			return;
+		}
+		unindex(declaration);
+		index(declaration, getName(parent, declaration));
+	}
+
+	private static boolean contains(CtElement parent, CtElement declaration) {
+		if (parent instanceof CtPackage) {
+			if (declaration instanceof CtPackage) {
+				return ((CtPackage) parent).getPackages().contains(declaration);
+			}
+			return ((CtPackage) parent).getTypes().contains(declaration);
+		}
+		if (parent instanceof CtType) {
+			return ((CtType<?>) parent).getNestedTypes().contains(declaration);
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the name of the given type or package looked up by
+	 * {@link #get(String)}, or null if it is not looked up.
+	 */
+	private String getName(CtElement parent, CtElement declaration) {
+		String parentName = names.get(parent);
+		String simpleName = ((CtNamedElement) declaration).getSimpleName();
+		if (declaration instanceof CtPackage) {
+			return parentName == null ? simpleName : parentName + CtPackage.PACKAGE_SEPARATOR + simpleName;
+		}
+		if (parentName == null) {
+			// the types of the root package are not looked up
+			return null;
+		}
+		if (parent instanceof CtPackage) {
+			if (CtPackage.TOP_LEVEL_PACKAGE_NAME.equals(parentName)) {
+				return simpleName;
+			}
+			return parentName + CtPackage.PACKAGE_SEPARATOR + simpleName;
+		}
+		return parentName + CtType.INNERTTYPE_SEPARATOR + simpleName;
+	}
+
+	private void index(CtElement declaration, String name) {
+		names.put(declaration, name);
+		if (declaration instanceof CtPackage) {
+			CtPackage pack = (CtPackage) declaration;
 			for (CtType<?> type : pack.getTypes()) {
-				addNestedType(types, type);
+				index(type, getName(pack, type));
+			}
+			for (CtPackage subPackage : pack.getPackages()) {
+				index(subPackage, getName(pack, subPackage));
+			}
+		} else if (declaration instanceof CtType) {
+			CtType<?> type = (CtType<?>) declaration;
+			if (name != null) {
+				indexType(name, type);
+			}
+			for (CtType<?> nestedType : type.getNestedTypes()) {
+				index(nestedType, getName(type, nestedType));
+			}
+		}
+	}
+
+	private void unindex(CtElement declaration) {
+		if (!names.containsKey(declaration)) {
+			return;
+		}
+		String name = names.remove(declaration);
+		if (declaration instanceof CtPackage) {
+			CtPackage pack = (CtPackage) declaration;
+			for (CtType<?> type : pack.getTypes()) {
+				unindex(type);
+			}
+			for (CtPackage subPackage : pack.getPackages()) {
+				unindex(subPackage);
+			}
+		} else if (declaration instanceof CtType) {
+			CtType<?> type = (CtType<?>) declaration;
+			if (name != null) {
+				unindexType(name, type);
+			}
+			for (CtType<?> nestedType : type.getNestedTypes()) {
+				unindex(nestedType);
+			}
+		}
+	}
+
+	/**
+	 * Indexes the given type, unless a type of the same name comes first in
+	 * the order of the sets of the model, as when the packages are walked.
+	 */
+	private void indexType(String name, CtType<?> type) {
+		CtType<?> indexed = indexedTypes.get(name);
+		if (indexed == null) {
+			indexedTypes.put(name, type);
+		} else if (type.getSignature().compareTo(indexed.getSignature()) < 0) {
+			shadow(name, indexed);
+			indexedTypes.put(name, type);
+		} else {
+			shadow(name, type);
+		}
+	}
+
+	private void shadow(String name, CtType<?> type) {
+		List<CtType<?>> shadowed = shadowedTypes.get(name);
+		if (shadowed == null) {
+			shadowed = new ArrayList<CtType<?>>(1);
+			shadowedTypes.put(name, shadowed);
+		}
+		shadowed.add(type);
+	}
+
+	/**
+	 * Removes the given type from the index, the first type of the same name
+	 * being looked up in its place.
+	 */
+	private void unindexType(String name, CtType<?> type) {
+		List<CtType<?>> shadowed = shadowedTypes.get(name);
+		if (indexedTypes.get(name) == type) {
+			if (shadowed == null) {
+				indexedTypes.remove(name);
+				return;
+			}
+			int first = 0;
+			for (int i = 1; i < shadowed.size(); i++) {
+				if (shadowed.get(i).getSignature().compareTo(shadowed.get(first).getSignature()) < 0) {
+					first = i;
+				}
+			}
+			indexedTypes.put(name, shadowed.get(first));
+			removeShadowed(name, shadowed, first);
+		} else if (shadowed != null) {
+			for (int i = 0; i < shadowed.size(); i++) {
+				if (shadowed.get(i) == type) {
+					removeShadowed(name, shadowed, i);
+					return;
+				}
 			}
 		}
-		return types;
 	}
 
-	private void addNestedType(List<CtType<?>> list, CtType<?> t) {
-		list.add(t);
-		for (CtType<?> nt : t.getNestedTypes()) {
-			addNestedType(list, nt);
+	private void removeShadowed(String name, List<CtType<?>> shadowed, int i) {
+		shadowed.remove(i);
+		if (shadowed.isEmpty()) {
+			shadowedTypes.remove(name);
 		}
 	}
 
@@ -17,6 +17,8 @@
 
 package spoon.reflect.visitor;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -140,6 +142,19 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 	 */
 	public static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
+	/**
+	 * The number of characters given at once to the writer of the result (see
+	 * {@link #writeResult(Writer)}).
+	 */
+	private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The capacity above which the result buffer is not kept for the next
+	 * result by {@link #reset()}, so that a printer reused after a large
+	 * compilation unit does not hold its memory.
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
 	Map<Integer, Integer> lineNumberMapping = new HashMap<Integer, Integer>();
 
 	public class PrintingContext {
@@ -147,6 +162,19 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 
 		Stack<CtTypeReference<?>> currentThis = new Stack<CtTypeReference<?>>();
 
+		/**
+		 * Tells if the given type is one of the types being printed, whatever
+		 * their type arguments.
+		 */
+		boolean isInCurrentThis(CtTypeReference<?> type) {
+			for (CtTypeReference<?> current : currentThis) {
+				if (current.getQualifiedName().equals(type.getQualifiedName())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
 		Stack<CtElement> elementStack = new Stack<CtElement>();
 
 		CtType<?> currentTopLevel;
@@ -199,12 +227,18 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 	/**
 	 * Handle imports of classes.
 	 */
-	private ImportScanner importsContext = new ImportScannerImpl();
+	ImportScannerImpl importsContext = new ImportScannerImpl();
+
+	/**
+	 * Tells if the imports are collected while printing the type references,
+	 * instead of being computed by a scan of the printed elements first.
+	 */
+	boolean collectingImports = false;
 
 	/**
 	 * The string buffer in which the code is generated.
 	 */
-	private StringBuffer sbf = new StringBuffer();
+	private StringBuilder sbf = new StringBuilder();
 
 	/**
 	 * Environment which Spoon is executed.
@@ -297,8 +331,12 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 	 * @see spoon.reflect.visitor.JavaPrettyPrinter#getPackageDeclaration()
 	 */
 	public String getPackageDeclaration() {
-		StringBuffer bck = sbf;
-		sbf = new StringBuffer();
+		StringBuilder bck = sbf;
+		sbf = new StringBuilder();
+		// the lines of the package declaration are not the ones of the type
+		int lineBck = line;
+		Map<Integer, Integer> lineNumberMappingBck = lineNumberMapping;
+		lineNumberMapping = new HashMap<Integer, Integer>();
 
 		for (CtAnnotation<?> a : context.currentTopLevel.getPackage().getAnnotations()) {
 			a.accept(this);
@@ -309,6 +347,8 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		}
 		String ret = sbf.toString();
 		sbf = bck;
+		line = lineBck;
+		lineNumberMapping = lineNumberMappingBck;
 
 		return ret;
 	}
@@ -322,6 +362,22 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		return sbf.toString();
 	}
 
+	/**
+	 * Writes the contents of the compilation unit to the given writer (e.g. an
+	 * {@link java.io.OutputStreamWriter} with an encoding, or a writer of a
+	 * channel given by {@link java.nio.channels.Channels#newWriter}), without
+	 * building a string of them. The writer is flushed but not closed.
+	 */
+	public void writeResult(Writer writer) throws IOException {
+		char[] buffer = new char[OUTPUT_BUFFER_SIZE];
+		for (int start = 0; start < sbf.length(); start += buffer.length) {
+			int end = Math.min(sbf.length(), start + buffer.length);
+			sbf.getChars(start, end, buffer, 0);
+			writer.write(buffer, 0, end - start);
+		}
+		writer.flush();
+	}
+
 	/**
 	 * Increments the current number of tabs.
 	 */
@@ -354,12 +410,33 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 	}
 
 	/**
-	 * Make the imports for all elements.
+	 * Make the imports for all elements. The imports are collected while
+	 * printing the given element (see {@link #scan(CtElement)}), without
+	 * scanning it first.
 	 */
 	public void computeImports(CtElement element) {
 		if (env.isAutoImports()) {
-			importsContext.computeImports(element);
+			// the names of the enclosing types hide the imported types
+			List<CtType<?>> enclosingTypes = new ArrayList<CtType<?>>();
+			for (CtElement e = element; e != null; e = e.isParentInitialized() ? e.getParent() : null) {
+				if (e instanceof CtType) {
+					enclosingTypes.add((CtType<?>) e);
+				}
+			}
+			importsContext.initImports(enclosingTypes);
+			collectingImports = true;
+		}
+	}
+
+	/**
+	 * Tells if the given type reference can be printed with its simple name,
+	 * importing it if the imports are collected.
+	 */
+	private boolean isImported(CtTypeReference<?> ref) {
+		if (collectingImports && ref.getDeclaringType() == null && !(ref instanceof CtArrayTypeReference)) {
+			return importsContext.addImport(ref);
 		}
+		return importsContext.isImported(ref);
 	}
 
 	/**
@@ -1063,7 +1140,7 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 				}
 				// print type if not annonymous class ref and not within the
 				// current scope
-				printType = !"".equals(declTypeRef.getSimpleName()) && !(declTypeRef.equals(ref2));
+				printType = !"".equals(declTypeRef.getSimpleName()) && !(declTypeRef.getQualifiedName().equals(ref2.getQualifiedName()));
 			} else {
 				printType = !"".equals(declTypeRef.getSimpleName());
 			}
@@ -1437,7 +1514,15 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 	}
 
 	public void reset() {
-		sbf = new StringBuffer();
+		// the buffer is reused for the next result, unless it grew too large
+		if (sbf.capacity() > MAX_RETAINED_CAPACITY) {
+			sbf = new StringBuilder();
+		} else {
+			sbf.setLength(0);
+		}
+		// the mapping of the previous result is kept by its users
+		line = 1;
+		lineNumberMapping = new HashMap<Integer, Integer>();
 	}
 
 	public DefaultJavaPrettyPrinter writeModifiers(CtModifiable m) {
@@ -1523,8 +1608,9 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		// call and the declaring type of the type of the constructor call are equals or not.
 		// If yes, Bar is a intern class of Foo and we don't need to print fully qualified name.
 		// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=474593
-		if (getTopLevelType(ctConstructorCall).getReference().equals(ctConstructorCall.getType().getDeclaringType())
-				&& ctConstructorCall.getType().getDeclaringType().getActualTypeArguments().size() > 0) {
+		CtTypeReference<?> declaringType = ctConstructorCall.getType().getDeclaringType();
+		if (declaringType != null && getTopLevelType(ctConstructorCall).getQualifiedName().equals(declaringType.getQualifiedName())
+				&& declaringType.getActualTypeArguments().size() > 0) {
 			context.ignoreEnclosingClass = true;
 		}
 
@@ -1684,6 +1770,10 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		if (type.isTopLevel()) {
 			context.currentTopLevel = type;
 		}
+		if (collectingImports) {
+			// e.g. the local types hide the imported types
+			importsContext.addTypeImports(type);
+		}
 		visitCtNamedElement(type);
 		writeModifiers(type);
 	}
@@ -1778,7 +1868,7 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 
 	public void visitCtTypeParameterReference(CtTypeParameterReference ref) {
 		printTypeAnnotations(ref);
-		if (importsContext.isImported(ref)) {
+		if (isImported(ref)) {
 			write(ref.getSimpleName());
 		} else {
 			write(ref.getQualifiedName());
@@ -1804,12 +1894,12 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 			return;
 		}
 
-		if (importsContext.isImported(ref) && ref.getPackage() != null) {
+		if (isImported(ref) && ref.getPackage() != null) {
 			printTypeAnnotations(ref);
 			write(ref.getSimpleName());
 		} else {
 			if (ref.getDeclaringType() != null) {
-				if (!context.currentThis.contains(ref.getDeclaringType()) || ref.getModifiers().contains(ModifierKind.STATIC) || hasDeclaringTypeWithGenerics(ref)) {
+				if (!context.isInCurrentThis(ref.getDeclaringType()) || ref.getModifiers().contains(ModifierKind.STATIC) || hasDeclaringTypeWithGenerics(ref)) {
 					if (!context.ignoreEnclosingClass) {
 						boolean ign = context.ignoreGenerics;
 						context.ignoreGenerics = false;
@@ -1866,12 +1956,12 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 			return;
 		}
 
-		if (importsContext.isImported(ref) && ref.getPackage() != null) {
+		if (isImported(ref) && ref.getPackage() != null) {
 			printTypeAnnotations(ref);
 			write(ref.getSimpleName());
 		} else {
 			if (ref.getDeclaringType() != null) {
-				if (!context.currentThis.contains(ref.getDeclaringType())
+				if (!context.isInCurrentThis(ref.getDeclaringType())
 						|| ref.getModifiers().contains(ModifierKind.STATIC)
 						|| hasDeclaringTypeWithGenerics(ref)) {
 					if (!context.ignoreEnclosingClass) {
@@ -2076,7 +2166,7 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		return this;
 	}
 
-	private int line = 1;
+	int line = 1;
 
 	/**
 	 * Generates a new line.
@@ -2210,19 +2300,59 @@ public class DefaultJavaPrettyPrinter implements CtVisitor, PrettyPrinter {
 		write(statement.getValue());
 	}
 
-	private CompilationUnit sourceCompilationUnit;
+	CompilationUnit sourceCompilationUnit;
 
 	public void calculate(CompilationUnit sourceCompilationUnit, List<CtType<?>> types) {
 		this.sourceCompilationUnit = sourceCompilationUnit;
-		Collection<CtTypeReference<?>> imports = Collections.emptyList();
-		for (CtType<?> t : types) {
-			imports = computeImports(t);
+		if (!env.isAutoImports() || types.isEmpty()) {
+			writeHeader(types, Collections.<CtTypeReference<?>>emptyList());
+			for (CtType<?> t : types) {
+				scan(t);
+				writeln().writeln().writeTabs();
+			}
+			return;
+		}
+		// the imports are collected while printing the types, and inserted
+		// in the header afterwards
+		context.currentTopLevel = types.get(0);
+		importsContext.initImports(types);
+		collectingImports = true;
+		try {
+			writeHeader(types, Collections.<CtTypeReference<?>>emptyList());
+			// before the empty line ending the header
+			int importsIndex = sbf.length() - LINE_SEPARATOR.length();
+			int importsLine = line - 1;
+			for (CtType<?> t : types) {
+				scan(t);
+				writeln().writeln().writeTabs();
+			}
+			insertImports(importsIndex, importsLine, importsContext.getImports(types.get(0)));
+		} finally {
+			collectingImports = false;
+		}
+	}
+
+	/**
+	 * Inserts the given imports at the given index of the result, which is at
+	 * the beginning of the given line, and shifts the line numbers of the
+	 * following lines.
+	 */
+	private void insertImports(int index, int importsLine, Collection<CtTypeReference<?>> imports) {
+		if (imports.isEmpty()) {
+			return;
+		}
+		StringBuilder header = new StringBuilder();
+		for (CtTypeReference<?> ref : imports) {
+			header.append("import ").append(ref.getQualifiedName()).append(";").append(LINE_SEPARATOR);
 		}
-		writeHeader(types, imports);
-		for (CtType<?> t : types) {
-			scan(t);
-			writeln().writeln().writeTabs();
+		sbf.insert(index, header);
+		line += imports.size();
+		Map<Integer, Integer> shiftedMapping = new HashMap<Integer, Integer>();
+		for (Entry<Integer, Integer> mapping : lineNumberMapping.entrySet()) {
+			int key = mapping.getKey();
+			shiftedMapping.put(key >= importsLine ? key + imports.size() : key, mapping.getValue());
 		}
+		lineNumberMapping = shiftedMapping;
 	}
 
 	public Map<Integer, Integer> getLineNumberMapping() {
@@ -4,6 +4,7 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -31,7 +32,6 @@ public class ImportScannerImpl extends CtScanner implements ImportScanner {
 	@Override
 	public <T> void visitCtFieldAccess(CtFieldAccess<T> f) {
 		enter(f);
-		scan(f.getVariable());
 		// scan(fieldAccess.getType());
 		scan(f.getAnnotations());
 		scanReferences(f.getTypeCasts());
@@ -147,13 +147,35 @@ public class ImportScannerImpl extends CtScanner implements ImportScanner {
 		return false;
 	}
 
+	/**
+	 * Clears the imports, and adds the given types and their nested types, so
+	 * that the imports of the other types can then be collected one by one
+	 * while printing them (see {@link #addImport(CtTypeReference)}).
+	 */
+	void initImports(List<CtType<?>> types) {
+		imports.clear();
+		for (CtType<?> type : types) {
+			addTypeImports(type);
+		}
+	}
+
+	/**
+	 * Adds the given type and its nested types to the imports.
+	 */
+	void addTypeImports(CtType<?> type) {
+		addImport(type.getReference());
+		for (CtType<?> t : type.getNestedTypes()) {
+			addTypeImports(t);
+		}
+	}
+
 	/**
 	 * Gets imports in imports Map for the key simpleType given.
 	 *
 	 * @param simpleType
 	 * @return Collection of {@link spoon.reflect.reference.CtTypeReference}
 	 */
-	private Collection<CtTypeReference<?>> getImports(
+	Collection<CtTypeReference<?>> getImports(
 			CtType<?> simpleType) {
 		if (imports.isEmpty()) {
 			return Collections.EMPTY_LIST;
@@ -178,9 +200,12 @@ public class ImportScannerImpl extends CtScanner implements ImportScanner {
 	}
 
 	/**
-	 * Adds a type to the imports.
+	 * Adds a type to the imports, unless another type with the same simple
+	 * name is imported.
+	 *
+	 * @return true if the type is imported
 	 */
-	private boolean addImport(CtTypeReference<?> ref) {
+	boolean addImport(CtTypeReference<?> ref) {
 		if (imports.containsKey(ref.getSimpleName())) {
 			return isImported(ref);
 		}
@@ -22,7 +22,7 @@ public interface PrettyPrinter {
 	String getResult();
 
 	/**
-	 * Resets the buffering of results
+	 * Resets the buffering of results, and the line number mapping
 	 */
 	void reset();
 
@@ -0,0 +1,330 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.reflect.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import spoon.compiler.Environment;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.DeclarationSourcePosition;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtAnnotationType;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtType;
+import spoon.support.visitor.ModelSnapshot;
+
+/**
+ * A printer which copies the original source code of the declarations which
+ * did not change since the model was built, and prints only the changed
+ * declarations (see {@link Environment#isSniperMode()}). The comments and the
+ * formatting of the unchanged declarations are thus preserved.
+ *
+ * <p>
+ * The changes are detected with the snapshot of the model (see
+ * {@link spoon.reflect.factory.CompilationUnitFactory#getSnapshot()}) at the
+ * level of the type members: a member which changed is printed again as a
+ * whole, and a type whose header (e.g. its name or its modifiers) changed is
+ * printed again with its members. The printed declarations use fully
+ * qualified names, since the imports of the original source code are kept.
+ * When the original source code of a type cannot be spliced, the compilation
+ * unit is printed as by the {@link DefaultJavaPrettyPrinter}.
+ * </p>
+ */
+public class SniperJavaPrettyPrinter extends DefaultJavaPrettyPrinter {
+
+	/**
+	 * The fields of a type which hold its members, the members being spliced
+	 * one by one when only these fields changed.
+	 */
+	private static final List<String> MEMBER_FIELDS = Arrays.asList("constructors", "anonymousExecutables", "nestedTypes", "fields", "methods");
+
+	private String source;
+
+	private ModelSnapshot snapshot;
+
+	/**
+	 * Creates a new sniper printer.
+	 */
+	public SniperJavaPrettyPrinter(Environment env) {
+		super(env);
+	}
+
+	@Override
+	public void calculate(CompilationUnit sourceCompilationUnit, List<CtType<?>> types) {
+		if (sourceCompilationUnit == null || sourceCompilationUnit.getOriginalSourceCode() == null || types.isEmpty()) {
+			super.calculate(sourceCompilationUnit, types);
+			return;
+		}
+		source = sourceCompilationUnit.getOriginalSourceCode();
+		snapshot = sourceCompilationUnit.getFactory().CompilationUnit().getSnapshot();
+		List<CtType<?>> declaredTypes = sourceCompilationUnit.getDeclaredTypes();
+		for (CtType<?> type : declaredTypes) {
+			if (!isSpliceable(type, sourceCompilationUnit) || snapshot.getChangedFields(type).contains("parent")) {
+				super.calculate(sourceCompilationUnit, types);
+				return;
+			}
+		}
+		for (CtType<?> type : types) {
+			if (!declaredTypes.contains(type)) {
+				super.calculate(sourceCompilationUnit, types);
+				return;
+			}
+		}
+		this.sourceCompilationUnit = sourceCompilationUnit;
+		// the original imports are kept, the printed declarations use fully
+		// qualified names
+		importsContext = new ImportScannerImpl();
+
+		copy(0, getStart(declaredTypes.get(0)));
+		if (types.equals(declaredTypes)) {
+			for (int i = 0; i < types.size(); i++) {
+				if (i > 0) {
+					copy(getEnd(types.get(i - 1)), getStart(types.get(i)));
+				}
+				spliceTopLevel(types.get(i));
+			}
+			copy(getEnd(types.get(types.size() - 1)), source.length());
+		} else {
+			for (CtType<?> type : types) {
+				spliceTopLevel(type);
+				writeln().writeln();
+			}
+		}
+	}
+
+	private void spliceTopLevel(CtType<?> type) {
+		context.currentTopLevel = type;
+		context.nbTabs = 0;
+		splice(type, 0);
+	}
+
+	/**
+	 * Prints the given type, copying the original source code of its
+	 * unchanged parts.
+	 *
+	 * @param depth
+	 * 		the number of tabulations of the type declaration
+	 */
+	private void splice(CtType<?> type, int depth) {
+		if (snapshot.isUnchangedTree(type)) {
+			copy(getStart(type), getEnd(type));
+			return;
+		}
+		List<CtElement> originalMembers = getOriginalMembers(type);
+		if (!isHeaderUnchanged(type) || originalMembers == null) {
+			print(type, depth);
+			return;
+		}
+
+		List<CtElement> members = getMembers(type);
+		Set<CtElement> currentMembers = newIdentitySet(members);
+		context.currentThis.push(type.getReference());
+		int offset = getStart(type);
+		for (CtElement member : originalMembers) {
+			if (!currentMembers.contains(member)) {
+				// the member is removed with the white spaces preceding it
+				int start = getStart(member);
+				while (start > offset && Character.isWhitespace(source.charAt(start - 1))) {
+					start--;
+				}
+				copy(offset, start);
+				offset = getEnd(member);
+				continue;
+			}
+			copy(offset, getStart(member));
+			if (member instanceof CtType) {
+				splice((CtType<?>) member, depth + 1);
+			} else if (snapshot.isUnchangedTree(member)) {
+				copy(getStart(member), getEnd(member));
+			} else {
+				print(member, depth + 1);
+			}
+			offset = getEnd(member);
+		}
+		if (originalMembers.isEmpty()) {
+			offset = source.indexOf('{', type.getPosition().getSourceEnd()) + 1;
+			copy(getStart(type), offset);
+		}
+		Set<CtElement> recordedMembers = newIdentitySet(originalMembers);
+		for (CtElement member : members) {
+			if (!recordedMembers.contains(member)) {
+				context.nbTabs = depth + 1;
+				writeln().writeln().writeTabs().scan(member);
+			}
+		}
+		copy(offset, getEnd(type));
+		context.currentThis.pop();
+	}
+
+	private Set<CtElement> newIdentitySet(List<CtElement> elements) {
+		Set<CtElement> set = Collections.newSetFromMap(new IdentityHashMap<CtElement, Boolean>());
+		set.addAll(elements);
+		return set;
+	}
+
+	/**
+	 * Prints the given element with the given number of tabulations.
+	 */
+	private void print(CtElement element, int depth) {
+		context.nbTabs = depth;
+		scan(element);
+	}
+
+	/**
+	 * Tells if only the members of the given type changed.
+	 */
+	private boolean isHeaderUnchanged(CtType<?> type) {
+		if (type instanceof CtEnum || type instanceof CtAnnotationType) {
+			// the enum values and the annotation methods have their own syntax
+			return false;
+		}
+		Set<String> changedFields = snapshot.getChangedFields(type);
+		changedFields.removeAll(MEMBER_FIELDS);
+		return changedFields.isEmpty();
+	}
+
+	/**
+	 * Gets the members of the given type when it was recorded, in the order of
+	 * the source code, or null if their original source code cannot be
+	 * spliced.
+	 */
+	private List<CtElement> getOriginalMembers(CtType<?> type) {
+		List<CtElement> members = new ArrayList<CtElement>();
+		for (CtElement element : snapshot.getRecordedElements(type)) {
+			if (!element.isImplicit() && element.getPosition() instanceof DeclarationSourcePosition
+					&& element.getPosition().getCompilationUnit() == type.getPosition().getCompilationUnit()
+					&& getStart(element) > getStart(type) && getEnd(element) < getEnd(type)) {
+				members.add(element);
+			}
+		}
+		Collections.sort(members, new Comparator<CtElement>() {
+			@Override
+			public int compare(CtElement e1, CtElement e2) {
+				return getStart(e1) - getStart(e2);
+			}
+		});
+		for (int i = 0; i < members.size(); i++) {
+			CtElement member = members.get(i);
+			// e.g. the fields declared together share their declaration (the
+			// declarations include the comments ending their lines)
+			if (i > 0 && getStart(member) < getEnd(members.get(i - 1))) {
+				return null;
+			}
+			if (member instanceof CtType && !isSpliceable((CtType<?>) member, type.getPosition().getCompilationUnit())) {
+				return null;
+			}
+		}
+		return members;
+	}
+
+	/**
+	 * Gets the current members of the given type, as printed by
+	 * {@link DefaultJavaPrettyPrinter#visitCtClass(CtClass)}.
+	 */
+	private List<CtElement> getMembers(CtType<?> type) {
+		List<CtElement> members = new ArrayList<CtElement>();
+		if (type instanceof CtClass) {
+			CtClass<?> ctClass = (CtClass<?>) type;
+			for (CtElement constructor : ctClass.getConstructors()) {
+				if (!constructor.isImplicit()) {
+					members.add(constructor);
+				}
+			}
+			members.addAll(ctClass.getAnonymousExecutables());
+		}
+		members.addAll(type.getNestedTypes());
+		members.addAll(type.getFields());
+		members.addAll(type.getMethods());
+		return members;
+	}
+
+	private boolean isSpliceable(CtType<?> type, CompilationUnit cu) {
+		SourcePosition position = type.getPosition();
+		return snapshot.isRecorded(type) && position instanceof DeclarationSourcePosition && position.getCompilationUnit() == cu
+				&& getEnd(type) <= source.length() && source.charAt(getEnd(type) - 1) == '}';
+	}
+
+	/**
+	 * Gets the index of the first character of the declaration of the given
+	 * element in the original source code.
+	 */
+	private int getStart(CtElement element) {
+		return ((DeclarationSourcePosition) element.getPosition()).getDeclarationStart();
+	}
+
+	/**
+	 * Gets the index following the last character of the declaration of the
+	 * given element in the original source code.
+	 */
+	private int getEnd(CtElement element) {
+		return ((DeclarationSourcePosition) element.getPosition()).getDeclarationEnd() + 1;
+	}
+
+	/**
+	 * Copies the given range of the original source code, and maps its lines
+	 * to the original ones.
+	 */
+	private void copy(int start, int end) {
+		if (start >= end) {
+			return;
+		}
+		int originalLine = getOriginalLine(start);
+		// the end of a printed line is not mapped
+		if ((start == 0 || source.charAt(start - 1) == '\n') && !lineNumberMapping.containsKey(line)) {
+			lineNumberMapping.put(line, originalLine);
+		}
+		for (int i = start; i < end; i++) {
+			char c = source.charAt(i);
+			write(c);
+			if (c == '\n') {
+				line++;
+				originalLine++;
+				lineNumberMapping.put(line, originalLine);
+			}
+		}
+	}
+
+	/**
+	 * Gets the line of the given index of the original source code.
+	 */
+	private int getOriginalLine(int index) {
+		int[] separators = sourceCompilationUnit.getLineSeparatorPositions();
+		if (separators == null) {
+			return 1;
+		}
+		int i = Arrays.binarySearch(separators, index);
+		// the separators before the index, the separator at the index ending
+		// its line
+		return (i >= 0 ? i : -i - 1) + 1;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		source = null;
+		snapshot = null;
+	}
+}
@@ -64,6 +64,7 @@ import spoon.reflect.code.CtVariableRead;
 import spoon.reflect.code.CtVariableWrite;
 import spoon.reflect.code.CtWhile;
 import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.DeclarationSourcePosition;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtAnnotationType;
@@ -72,6 +73,7 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtConstructor;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtMethod;
@@ -136,6 +138,7 @@ import spoon.support.reflect.code.CtVariableReadImpl;
 import spoon.support.reflect.code.CtVariableWriteImpl;
 import spoon.support.reflect.code.CtWhileImpl;
 import spoon.support.reflect.cu.CompilationUnitImpl;
+import spoon.support.reflect.cu.DeclarationSourcePositionImpl;
 import spoon.support.reflect.cu.SourcePositionImpl;
 import spoon.support.reflect.declaration.CompilationUnitVirtualImpl;
 import spoon.support.reflect.declaration.CtAnnotationImpl;
@@ -159,8 +162,12 @@ import spoon.support.reflect.reference.CtImplicitTypeReferenceImpl;
 import spoon.support.reflect.reference.CtLocalVariableReferenceImpl;
 import spoon.support.reflect.reference.CtPackageReferenceImpl;
 import spoon.support.reflect.reference.CtParameterReferenceImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
 import spoon.support.reflect.reference.CtTypeParameterReferenceImpl;
 import spoon.support.reflect.reference.CtTypeReferenceImpl;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelNode;
+import spoon.support.util.ModelSet;
 import spoon.support.util.RtHelper;
 
 import java.io.Serializable;
@@ -214,6 +221,12 @@ public class DefaultCoreFactory implements CoreFactory, Serializable {
 			}
 			// System.out.println("cloning " + object + "["
 			// + object.getClass().getSimpleName() + "]");
+			// lazily built bodies are built before being copied
+			if (object instanceof CtExecutable) {
+				((CtExecutable<?>) object).getBody();
+			} else if (object instanceof CtAnonymousExecutable) {
+				((CtAnonymousExecutable) object).getBody();
+			}
 			result = (T) object.getClass().newInstance();
 			if (result instanceof CtElement) {
 				// if (cloningContext.isEmpty()) {
@@ -236,7 +249,7 @@ public class DefaultCoreFactory implements CoreFactory, Serializable {
 				// .get(cloningContext.size() - 2));
 				// // }
 				// } else {
-				if (!f.getName().equals("parent")) {
+				if (!f.getName().equals("parent") && !f.getName().equals("owner")) {
 					Object fieldValue = f.get(object);
 					if (!Modifier.isFinal(f.getModifiers()) && !Modifier.isStatic(f.getModifiers())) {
 						if (fieldValue instanceof Collection) {
@@ -245,6 +258,12 @@ public class DefaultCoreFactory implements CoreFactory, Serializable {
 								c = (Collection<Object>) fieldValue;
 							} else {
 								c = (Collection<Object>) fieldValue.getClass().getMethod("clone").invoke(fieldValue);
+								// the copy tells the clone when it is modified
+								if (c instanceof ModelList) {
+									((ModelList<Object>) c).setOwner((ModelNode) result);
+								} else if (c instanceof ModelSet) {
+									((ModelSet<Object>) c).setOwner((ModelNode) result);
+								}
 								c.clear();
 								for (Object o : (Collection<Object>) fieldValue) {
 									c.add(clone(o, cloningContext));
@@ -268,7 +287,9 @@ public class DefaultCoreFactory implements CoreFactory, Serializable {
 						} else {
 							// System.err.println(" cloning field " + f+" :
 							// "+cloningContext.peek().getClass().getSimpleName());
-							f.set(result, clone(f.get(object), cloningContext));
+							Object value = clone(f.get(object), cloningContext);
+							CtReferenceImpl.setOwner(value, (ModelNode) result);
+							f.set(result, value);
 						}
 					}
 				}
@@ -706,6 +727,10 @@ public class DefaultCoreFactory implements CoreFactory, Serializable {
 		return new SourcePositionImpl(compilationUnit, start, end, lineSeparatorPositions);
 	}
 
+	public DeclarationSourcePosition createDeclarationSourcePosition(CompilationUnit compilationUnit, int start, int end, int declarationStart, int declarationEnd, int[] lineSeparatorPositions) {
+		return new DeclarationSourcePositionImpl(compilationUnit, start, end, declarationStart, declarationEnd, lineSeparatorPositions);
+	}
+
 	public CompilationUnit createCompilationUnit() {
 		CompilationUnit cu = new CompilationUnitImpl();
 		cu.setFactory(getMainFactory());
@@ -18,13 +18,15 @@
 package spoon.support;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import spoon.Launcher;
 import spoon.processing.AbstractProcessor;
@@ -35,6 +37,9 @@ import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.PrettyPrinter;
+import spoon.reflect.visitor.SniperJavaPrettyPrinter;
+import spoon.support.util.OutputFiles;
+import spoon.support.util.ParallelWork;
 
 //import spoon.reflect.cu.CompilationUnit;
 
@@ -50,6 +55,18 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 
 	boolean writePackageAnnotationFile = true;
 
+	/**
+	 * The top-level types printed by several threads when the processing is
+	 * done (see {@link spoon.compiler.Environment#getOutputThreads()}).
+	 */
+	List<CtType<?>> typesToPrint = new ArrayList<CtType<?>>();
+
+	/**
+	 * The number of created files which were actually written, the other ones
+	 * having already the printed content.
+	 */
+	AtomicInteger writtenFiles = new AtomicInteger();
+
 	/**
 	 * Creates a new processor for generating Java source files.
 	 *
@@ -75,6 +92,15 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 		return printedFiles;
 	}
 
+	/**
+	 * Gets the number of created files (see {@link #getCreatedFiles()}) which
+	 * were written, the files which already had the printed content being
+	 * left untouched.
+	 */
+	public int getWrittenFileCount() {
+		return writtenFiles.get();
+	}
+
 	public File getOutputDirectory() {
 		return directory;
 	}
@@ -113,6 +139,15 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 	 * original sources).
 	 */
 	public void createJavaFile(CtType<?> element) {
+		addCreatedFiles(createJavaFile(element, printer, writePackageAnnotationFile));
+		lineNumberMappings.put(element.getQualifiedName(), printer.getLineNumberMapping());
+	}
+
+	/**
+	 * Prints the given top-level type with the given printer, and returns the
+	 * created files.
+	 */
+	private List<File> createJavaFile(CtType<?> element, PrettyPrinter printer, boolean writePackageAnnotationFile) {
 
 		getEnvironment().debugMessage("printing " + element.getQualifiedName() + " to " + directory);
 
@@ -120,7 +155,8 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 		if (!element.isTopLevel()) {
 			throw new IllegalArgumentException();
 		}
-		;
+
+		List<File> files = new ArrayList<File>();
 
 		CompilationUnit cu = null;
 		if (element.getPosition() != null) {
@@ -134,12 +170,8 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 		List<CtType<?>> toBePrinted = new ArrayList<CtType<?>>();
 		toBePrinted.add(element);
 
-		printer.calculate(cu, toBePrinted);
-
 		CtPackage pack = element.getPackage();
 
-		PrintStream stream = null;
-
 		// create package directory
 		File packageDir;
 		if (pack.getQualifiedName().equals(CtPackage.TOP_LEVEL_PACKAGE_NAME)) {
@@ -148,67 +180,142 @@ public class JavaOutputProcessor extends AbstractProcessor<CtType<?>> implements
 			// Create current package dir
 			packageDir = new File(directory.getAbsolutePath() + File.separatorChar + pack.getQualifiedName().replace('.', File.separatorChar));
 		}
-		if (!packageDir.exists()) {
-			if (!packageDir.mkdirs()) {
-				throw new RuntimeException("Error creating output directory");
-			}
+		// the directory may be created meanwhile by another printing thread
+		if (!packageDir.mkdirs() && !packageDir.isDirectory()) {
+			throw new RuntimeException("Error creating output directory");
 		}
 
+		File file = new File(packageDir.getAbsolutePath() + File.separatorChar + element.getSimpleName() + DefaultJavaPrettyPrinter.JAVA_FILE_EXTENSION);
+		boolean packageAnnotations = writePackageAnnotationFile && pack.getAnnotations().size() > 0;
+		// the types recorded unchanged are not printed again
+		if (!packageAnnotations && OutputFiles.isUpToDate(file, cu, toBePrinted)) {
+			files.add(file);
+			return files;
+		}
+
+		printer.calculate(cu, toBePrinted);
+		// the file is written with the encoding its source was read with
+		String encoding = cu != null ? cu.getEncoding() : null;
+
 		// Create package annotation file
-		if (writePackageAnnotationFile && element.getPackage().getAnnotations().size() > 0) {
+		if (packageAnnotations) {
 			File packageAnnot = new File(packageDir.getAbsolutePath() + File.separatorChar + DefaultJavaPrettyPrinter.JAVA_PACKAGE_DECLARATION);
-			if (!printedFiles.contains(packageAnnot)) {
-				printedFiles.add(packageAnnot);
-			}
-			try {
-				stream = new PrintStream(packageAnnot);
-				stream.println(printer.getPackageDeclaration());
-				stream.close();
-			} catch (FileNotFoundException e) {
-				Launcher.LOGGER.error(e.getMessage(), e);
-			} finally {
-				if (stream != null) {
-					stream.close();
-				}
-			}
+			files.add(packageAnnot);
+			write(packageAnnot, printer.getPackageDeclaration() + System.getProperty("line.separator"), encoding);
 		}
 
 		// print type
+		files.add(file);
 		try {
-			File file = new File(packageDir.getAbsolutePath() + File.separatorChar + element.getSimpleName() + DefaultJavaPrettyPrinter.JAVA_FILE_EXTENSION);
-			file.createNewFile();
-			if (!printedFiles.contains(file)) {
-				printedFiles.add(file);
+			if (OutputFiles.write(file, printer, encoding)) {
+				writtenFiles.incrementAndGet();
 			}
-			stream = new PrintStream(file);
-			stream.print(printer.getResult());
-			for (CtType<?> t : toBePrinted) {
-				lineNumberMappings.put(t.getQualifiedName(), printer.getLineNumberMapping());
-			}
-			stream.close();
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			Launcher.LOGGER.error(e.getMessage(), e);
+		}
+		return files;
+	}
+
+	/**
+	 * Writes the given file with the given encoding, unless it already has
+	 * the given content.
+	 */
+	private void write(File file, String content, String encoding) {
+		try {
+			if (OutputFiles.write(file, content, encoding)) {
+				writtenFiles.incrementAndGet();
+			}
 		} catch (IOException e) {
 			Launcher.LOGGER.error(e.getMessage(), e);
-		} finally {
-			if (stream != null) {
-				stream.close();
+		}
+	}
+
+	private void addCreatedFiles(List<File> files) {
+		for (File file : files) {
+			if (!printedFiles.contains(file)) {
+				printedFiles.add(file);
+			}
+		}
+	}
+
+	/**
+	 * Creates the Java files of the given top-level types with
+	 * {@link spoon.compiler.Environment#getOutputThreads()} threads, each of
+	 * them printing with its own printer (see {@link #createPrinter()}). The
+	 * created files and the line number mappings are recorded in the order of
+	 * the types, as by a sequential printing.
+	 */
+	public void createJavaFiles(final List<CtType<?>> types) {
+		// the package annotation file of a package is printed with its first
+		// type only
+		final boolean[] writePackageAnnotationFiles = new boolean[types.size()];
+		Set<CtPackage> packages = new HashSet<CtPackage>();
+		for (int i = 0; i < types.size(); i++) {
+			writePackageAnnotationFiles[i] = writePackageAnnotationFile && packages.add(types.get(i).getPackage());
+		}
+		final List<List<File>> files = new ArrayList<List<File>>(Collections.<List<File>>nCopies(types.size(), null));
+		final List<Map<Integer, Integer>> mappings = new ArrayList<Map<Integer, Integer>>(Collections.<Map<Integer, Integer>>nCopies(types.size(), null));
+
+		int threads = Math.max(1, Math.min(getEnvironment().getOutputThreads(), types.size()));
+		getEnvironment().debugMessage("printing " + types.size() + " types with " + threads + " threads");
+		new ParallelWork<PrettyPrinter>() {
+			@Override
+			protected PrettyPrinter createWorker() {
+				return createPrinter();
+			}
+
+			@Override
+			protected void process(PrettyPrinter threadPrinter, int index) {
+				files.set(index, createJavaFile(types.get(index), threadPrinter, writePackageAnnotationFiles[index]));
+				mappings.set(index, threadPrinter.getLineNumberMapping());
+				threadPrinter.reset();
 			}
+		}.run(types.size(), threads);
+
+		for (int i = 0; i < types.size(); i++) {
+			addCreatedFiles(files.get(i));
+			lineNumberMappings.put(types.get(i).getQualifiedName(), mappings.get(i));
 		}
+	}
 
+	/**
+	 * Creates the printer of a printing thread (see
+	 * {@link #createJavaFiles(List)}). The subclasses printing with another
+	 * printer than the {@link DefaultJavaPrettyPrinter} override it.
+	 */
+	protected PrettyPrinter createPrinter() {
+		if (getEnvironment().isSniperMode()) {
+			return new SniperJavaPrettyPrinter(getEnvironment());
+		}
+		return new DefaultJavaPrettyPrinter(getEnvironment());
 	}
 
 	/**
 	 * Creates a source file for each processed top-level type and pretty prints
-	 * its contents.
+	 * its contents. When several output threads are used, the types are
+	 * printed when the processing is done.
 	 */
 	public void process(CtType<?> type) {
 		if (type.isTopLevel()) {
+			if (getEnvironment().getOutputThreads() > 1) {
+				typesToPrint.add(type);
+				return;
+			}
 			createJavaFile(type);
 		}
 		printer.reset();
 	}
 
+	@Override
+	public void processingDone() {
+		if (!typesToPrint.isEmpty()) {
+			List<CtType<?>> types = typesToPrint;
+			typesToPrint = new ArrayList<CtType<?>>();
+			createJavaFiles(types);
+		}
+		getEnvironment().debugMessage(writtenFiles.get() + " of the " + printedFiles.size() + " created files written");
+	}
+
 	public void setOutputDirectory(File directory) {
 		this.directory = directory;
 	}
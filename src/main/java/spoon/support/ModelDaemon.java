@@ -0,0 +1,373 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.compiler.Environment;
+import spoon.compiler.SpoonFile;
+import spoon.compiler.SpoonFolder;
+import spoon.processing.FileGenerator;
+import spoon.processing.ProcessingManager;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.Query;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.compiler.FileSystemFile;
+import spoon.support.compiler.FileSystemFolder;
+
+/**
+ * Keeps the model built by a launcher in memory and serves requests on it, so
+ * that the model does not have to be built again for each run.
+ *
+ * <p>
+ * A request is a line made of a command and of its arguments, separated by
+ * whitespaces. The answer is made of the result lines of the command,
+ * followed by a line <code>OK</code>, or by a line <code>ERROR</code> and
+ * the error message when the command fails. The commands are:
+ * </p>
+ * <ul>
+ * <li><code>status</code>: the number of compilation units and of types of
+ * the model, and the time the daemon has been running, in ms.</li>
+ * <li><code>update &lt;file&gt;...</code>: updates the model with the given
+ * input files, the files which do not exist any more being removed from the
+ * model (see {@link spoon.SpoonModelBuilder#update(List, List)}).</li>
+ * <li><code>refresh</code>: walks the input folders again, which are
+ * otherwise listed once (e.g. for the resources copied by <code>print</code>),
+ * and gives the number of files listed.</li>
+ * <li><code>process &lt;processor&gt;...</code>: processes the model with the
+ * processors of the given qualified names.</li>
+ * <li><code>print [&lt;file&gt;...]</code>: prints the compilation units of
+ * the given input files, or the whole model if no file is given.</li>
+ * <li><code>query &lt;element type&gt;</code>: gives the positions of the
+ * elements of the model of the given qualified interface name (e.g.
+ * <code>spoon.reflect.code.CtInvocation</code>).</li>
+ * <li><code>shutdown</code>: stops the daemon.</li>
+ * </ul>
+ *
+ * <p>
+ * The requests are served one at a time, by {@link #serve(BufferedReader, PrintWriter)}
+ * (e.g. on the standard input) or by {@link #listen(File, long)} on a local
+ * socket. The requests made on the socket start with the token written in
+ * the port file, which only the owner of the daemon can read.
+ * </p>
+ */
+public class ModelDaemon {
+
+	private final Launcher launcher;
+
+	private final long startTime = System.currentTimeMillis();
+
+	private boolean shutdown = false;
+
+	/**
+	 * The time a connection may stay without request, in ms, after which it
+	 * is closed, so that a silent client does not block the other ones.
+	 */
+	private int connectionTimeout = 60000;
+
+	/**
+	 * Creates a daemon serving the model of the given launcher, which must be
+	 * already built.
+	 */
+	public ModelDaemon(Launcher launcher) {
+		this.launcher = launcher;
+	}
+
+	/**
+	 * Sets the time a connection to the socket may stay without request, in
+	 * ms, after which it is closed (0 to keep it open).
+	 */
+	public void setConnectionTimeout(int connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	/**
+	 * Tells if the daemon received a <code>shutdown</code> request.
+	 */
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	/**
+	 * Serves the requests read from the given reader, until its end or a
+	 * <code>shutdown</code> request.
+	 */
+	public void serve(BufferedReader in, PrintWriter out) throws IOException {
+		serve(in, out, null);
+	}
+
+	/**
+	 * Serves the requests which start with the given token (if not null),
+	 * until the end of the reader, a <code>shutdown</code> request or a
+	 * request without the token.
+	 */
+	private void serve(BufferedReader in, PrintWriter out, String token) throws IOException {
+		String line;
+		while (!shutdown && (line = in.readLine()) != null) {
+			if (line.trim().length() == 0) {
+				continue;
+			}
+			String[] request = line.trim().split("\\s+");
+			if (token != null) {
+				if (!MessageDigest.isEqual(token.getBytes("UTF-8"), request[0].getBytes("UTF-8"))) {
+					out.println("ERROR Invalid token");
+					out.flush();
+					return;
+				}
+				request = Arrays.copyOfRange(request, 1, request.length);
+				if (request.length == 0) {
+					continue;
+				}
+			}
+			try {
+				execute(request, out);
+				out.println("OK");
+			} catch (Exception e) {
+				Launcher.LOGGER.error(e.getMessage(), e);
+				out.println("ERROR " + e.getMessage());
+			}
+			out.flush();
+		}
+	}
+
+	/**
+	 * Serves the requests of the connections to a local socket, until a
+	 * <code>shutdown</code> request or until no connection is made during the
+	 * given idle timeout. The port of the socket and the token the requests
+	 * must start with are written in the given file (<code>&lt;port&gt;
+	 * &lt;token&gt;</code>), which only its owner can read, and which is
+	 * deleted when the daemon stops. A single daemon may run with a given port
+	 * file: it holds a lock on the file of the same name ending with
+	 * <code>.lock</code>, which is kept.
+	 *
+	 * @param portFile
+	 * 		the file where the port is written
+	 * @param idleTimeout
+	 * 		the idle time after which the daemon stops, in ms (0 to never
+	 * 		stop)
+	 * @throws SpoonException
+	 * 		when a daemon is already running with the port file
+	 */
+	public void listen(File portFile, long idleTimeout) throws IOException {
+		File absolutePortFile = portFile.getAbsoluteFile();
+		absolutePortFile.getParentFile().mkdirs();
+		RandomAccessFile lockFile = new RandomAccessFile(new File(absolutePortFile.getPath() + ".lock"), "rw");
+		try {
+			FileLock lock;
+			try {
+				lock = lockFile.getChannel().tryLock();
+			} catch (OverlappingFileLockException e) {
+				// held by another daemon of this virtual machine
+				lock = null;
+			}
+			if (lock == null) {
+				throw new SpoonException("A daemon is already running on the port of " + portFile);
+			}
+			listen(absolutePortFile, idleTimeout, createToken());
+		} finally {
+			// releases the lock
+			lockFile.close();
+		}
+	}
+
+	private static String createToken() {
+		byte[] token = new byte[16];
+		new SecureRandom().nextBytes(token);
+		return String.format("%032x", new BigInteger(1, token));
+	}
+
+	private void listen(File portFile, long idleTimeout, String token) throws IOException {
+		ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+		try {
+			server.setSoTimeout((int) Math.min(idleTimeout, Integer.MAX_VALUE));
+			writePortFile(portFile, server.getLocalPort() + " " + token);
+			while (!shutdown) {
+				Socket socket;
+				try {
+					socket = server.accept();
+				} catch (SocketTimeoutException e) {
+					launcher.getEnvironment().debugMessage("daemon idle for " + idleTimeout + " ms, stopping");
+					break;
+				}
+				try {
+					socket.setSoTimeout(connectionTimeout);
+					serve(new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8")),
+							new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8")), token);
+				} catch (SocketTimeoutException e) {
+					launcher.getEnvironment().debugMessage("connection idle for " + connectionTimeout + " ms, closing");
+				} finally {
+					socket.close();
+				}
+			}
+		} finally {
+			server.close();
+			portFile.delete();
+		}
+	}
+
+	/**
+	 * Writes the port file, which is only readable and writable by its owner,
+	 * in a temporary file which is then renamed.
+	 */
+	private static void writePortFile(File portFile, String content) throws IOException {
+		File tmp = new File(portFile.getPath() + ".tmp");
+		tmp.delete();
+		if (!tmp.createNewFile()) {
+			throw new IOException("Cannot create " + tmp);
+		}
+		tmp.setReadable(false, false);
+		tmp.setWritable(false, false);
+		tmp.setExecutable(false, false);
+		if (!tmp.setReadable(true, true) || !tmp.setWritable(true, true)) {
+			tmp.delete();
+			throw new IOException("Cannot restrict the permissions of " + tmp);
+		}
+		FileUtils.writeStringToFile(tmp, content, "UTF-8");
+		portFile.delete();
+		if (!tmp.renameTo(portFile)) {
+			tmp.delete();
+			throw new IOException("Cannot write " + portFile);
+		}
+	}
+
+	/**
+	 * Tells if a daemon is listening on the port written in the given file.
+	 */
+	public static boolean isRunning(File portFile) {
+		if (!portFile.isFile()) {
+			return false;
+		}
+		try {
+			int port = Integer.parseInt(FileUtils.readFileToString(portFile).trim().split("\\s+")[0]);
+			new Socket(InetAddress.getLoopbackAddress(), port).close();
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private void execute(String[] request, PrintWriter out) throws Exception {
+		String command = request[0];
+		List<String> arguments = Arrays.asList(request).subList(1, request.length);
+		Factory factory = launcher.getFactory();
+		if ("status".equals(command)) {
+			out.println("compilation-units " + factory.CompilationUnit().getMap().size());
+			out.println("types " + factory.Type().getAll().size());
+			out.println("uptime " + (System.currentTimeMillis() - startTime));
+		} else if ("update".equals(command)) {
+			List<SpoonFile> changedFiles = new ArrayList<SpoonFile>();
+			List<SpoonFile> deletedFiles = new ArrayList<SpoonFile>();
+			for (String path : arguments) {
+				File file = new File(path);
+				(file.exists() ? changedFiles : deletedFiles).add(new FileSystemFile(file));
+			}
+			out.println("compiled " + launcher.getModelBuilder().update(changedFiles, deletedFiles));
+		} else if ("refresh".equals(command)) {
+			SpoonFolder source = launcher.getModelBuilder().getSource();
+			for (SpoonFolder inputFolder : source.getSubFolders()) {
+				if (inputFolder instanceof FileSystemFolder) {
+					((FileSystemFolder) inputFolder).refresh();
+				}
+			}
+			out.println("files " + source.getAllFiles().size());
+		} else if ("process".equals(command)) {
+			launcher.getModelBuilder().process(arguments);
+		} else if ("print".equals(command)) {
+			// the files created by the previous requests are not kept
+			resetOutputWriter();
+			if (arguments.isEmpty()) {
+				launcher.prettyprint();
+			} else {
+				print(factory, arguments);
+			}
+		} else if ("query".equals(command)) {
+			if (arguments.size() != 1) {
+				throw new SpoonException("query expects an element type");
+			}
+			@SuppressWarnings("unchecked")
+			Class<CtElement> type = (Class<CtElement>) Class.forName(arguments.get(0), false, CtElement.class.getClassLoader());
+			if (!CtElement.class.isAssignableFrom(type)) {
+				throw new SpoonException("Not an element type: " + type.getName());
+			}
+			for (CtElement element : Query.getElements(factory, new TypeFilter<CtElement>(type))) {
+				out.println(element.getPosition());
+			}
+		} else if ("shutdown".equals(command)) {
+			shutdown = true;
+		} else {
+			throw new SpoonException("Unknown command: " + command);
+		}
+	}
+
+	/**
+	 * Replaces the default file generator by a new one writing to the same
+	 * directory.
+	 */
+	private void resetOutputWriter() {
+		Environment environment = launcher.getEnvironment();
+		FileGenerator<? extends CtElement> generator = environment.getDefaultFileGenerator();
+		if (generator != null) {
+			environment.setDefaultFileGenerator(launcher.createOutputWriter(generator.getOutputDirectory(), environment));
+		}
+	}
+
+	private void print(Factory factory, List<String> paths) {
+		FileGenerator<? extends CtElement> generator = factory.getEnvironment().getDefaultFileGenerator();
+		if (generator == null) {
+			throw new SpoonException("No output directory");
+		}
+		List<CtType<?>> types = new ArrayList<CtType<?>>();
+		for (String path : paths) {
+			CompilationUnit cu = factory.CompilationUnit().getMap().get(new FileSystemFile(new File(path)).getPath());
+			if (cu == null) {
+				throw new SpoonException("Not an input file: " + path);
+			}
+			types.addAll(cu.getDeclaredTypes());
+		}
+		ProcessingManager printing = new QueueProcessingManager(factory);
+		printing.addProcessor(generator);
+		printing.process(types);
+	}
+}
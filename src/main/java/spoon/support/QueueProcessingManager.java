@@ -22,7 +22,10 @@ import spoon.SpoonException;
 import spoon.processing.AbstractProcessor;
 import spoon.processing.ProcessingManager;
 import spoon.processing.Processor;
+import spoon.reflect.code.CtCodeElement;
+import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
 import spoon.support.util.Timer;
 import spoon.support.visitor.ProcessingVisitor;
@@ -70,9 +73,31 @@ public class QueueProcessingManager implements ProcessingManager {
 
 	public boolean addProcessor(Processor<?> p) {
 		p.setFactory(getFactory());
+		if (getFactory().getEnvironment().isDeclarationsOnly()) {
+			checkDeclarationProcessor(p);
+		}
 		return getProcessors().add(p);
 	}
 
+	/**
+	 * Rejects a processor of code elements, since they are not built when only
+	 * the declarations are (see
+	 * {@link spoon.compiler.Environment#setDeclarationsOnly(boolean)}).
+	 */
+	private void checkDeclarationProcessor(Processor<?> p) {
+		if (p.getProcessedElementTypes() == null) {
+			return;
+		}
+		for (Class<? extends CtElement> type : p.getProcessedElementTypes()) {
+			// classes are statements and annotations are expressions, but
+			// they are also built with the declarations
+			if (CtCodeElement.class.isAssignableFrom(type) && !CtType.class.isAssignableFrom(type) && !CtAnnotation.class.isAssignableFrom(type)) {
+				throw new SpoonException("Processor " + p.getClass().getName() + " processes " + type.getSimpleName()
+						+ " elements, which are not built when only the declarations are built");
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public void addProcessor(String qualifiedName) {
 		try {
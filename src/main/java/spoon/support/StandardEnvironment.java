@@ -29,6 +29,7 @@ import java.net.URLClassLoader;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
@@ -98,6 +99,26 @@ public class StandardEnvironment implements Serializable, Environment {
 
 	private boolean shouldCompile;
 
+	private int buildThreads = 1;
+
+	private File modelCacheDirectory;
+
+	private boolean lazyBodies = false;
+
+	private boolean declarationsOnly = false;
+
+	private int streamingBatchSize = 0;
+
+	private int outputThreads = 1;
+
+	private boolean sniperMode = false;
+
+	private boolean resolutionCacheEnabled = true;
+
+	private final AtomicLong resolutionCacheHits = new AtomicLong();
+
+	private final AtomicLong resolutionCacheMisses = new AtomicLong();
+
 	/**
 	 * Creates a new environment with a <code>null</code> default file
 	 * generator.
@@ -151,6 +172,117 @@ public class StandardEnvironment implements Serializable, Environment {
 		this.shouldCompile = shouldCompile;
 	}
 
+	@Override
+	public int getBuildThreads() {
+		return buildThreads;
+	}
+
+	@Override
+	public void setBuildThreads(int buildThreads) {
+		if (buildThreads < 1) {
+			throw new SpoonException("The number of build threads must be at least 1.");
+		}
+		this.buildThreads = buildThreads;
+	}
+
+	@Override
+	public File getModelCacheDirectory() {
+		return modelCacheDirectory;
+	}
+
+	@Override
+	public void setModelCacheDirectory(File modelCacheDirectory) {
+		this.modelCacheDirectory = modelCacheDirectory;
+	}
+
+	@Override
+	public boolean isLazyBodies() {
+		return lazyBodies;
+	}
+
+	@Override
+	public void setLazyBodies(boolean lazyBodies) {
+		this.lazyBodies = lazyBodies;
+	}
+
+	@Override
+	public boolean isDeclarationsOnly() {
+		return declarationsOnly;
+	}
+
+	@Override
+	public void setDeclarationsOnly(boolean declarationsOnly) {
+		this.declarationsOnly = declarationsOnly;
+	}
+
+	@Override
+	public int getStreamingBatchSize() {
+		return streamingBatchSize;
+	}
+
+	@Override
+	public void setStreamingBatchSize(int streamingBatchSize) {
+		this.streamingBatchSize = streamingBatchSize;
+	}
+
+	@Override
+	public int getOutputThreads() {
+		return outputThreads;
+	}
+
+	@Override
+	public void setOutputThreads(int outputThreads) {
+		if (outputThreads < 1) {
+			throw new SpoonException("The number of output threads must be at least 1.");
+		}
+		this.outputThreads = outputThreads;
+	}
+
+	@Override
+	public boolean isSniperMode() {
+		return sniperMode;
+	}
+
+	@Override
+	public void setSniperMode(boolean sniperMode) {
+		this.sniperMode = sniperMode;
+	}
+
+	@Override
+	public boolean isResolutionCacheEnabled() {
+		return resolutionCacheEnabled;
+	}
+
+	@Override
+	public void setResolutionCacheEnabled(boolean resolutionCacheEnabled) {
+		this.resolutionCacheEnabled = resolutionCacheEnabled;
+	}
+
+	/**
+	 * Counts a resolution of a declaration by a reference while the cache of
+	 * the resolved declarations is enabled.
+	 *
+	 * @param cached
+	 * 		tells if the declaration was found in the cache
+	 */
+	public void countResolution(boolean cached) {
+		if (cached) {
+			resolutionCacheHits.incrementAndGet();
+		} else {
+			resolutionCacheMisses.incrementAndGet();
+		}
+	}
+
+	@Override
+	public long getResolutionCacheHits() {
+		return resolutionCacheHits.get();
+	}
+
+	@Override
+	public long getResolutionCacheMisses() {
+		return resolutionCacheMisses.get();
+	}
+
 	private Level toLevel(String level) {
 		if (level == null || level.isEmpty()) {
 			throw new SpoonException("Wrong level given at Spoon.");
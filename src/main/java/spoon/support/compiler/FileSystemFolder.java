@@ -20,8 +20,12 @@ package spoon.support.compiler;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import spoon.Launcher;
 import spoon.SpoonException;
@@ -33,20 +37,94 @@ public class FileSystemFolder implements SpoonFolder {
 
 	File file;
 
+	List<String> includes;
+
+	List<String> excludes;
+
+	private Map<File, BasicFileAttributes> scannedFiles;
+
+	private List<SpoonFile> allFiles;
+
 	public FileSystemFolder(File file) {
+		this(file, Collections.<String>emptyList(), Collections.<String>emptyList());
+	}
+
+	/**
+	 * Creates a folder which files are filtered with the given include and
+	 * exclude glob patterns, matched against their path relative to the folder
+	 * (e.g. <code>**&#47;generated</code> to skip all the directories named
+	 * <code>generated</code>).
+	 */
+	public FileSystemFolder(File file, List<String> includes, List<String> excludes) {
 		super();
 		if (!file.isDirectory()) {
 			throw new SpoonException("Not a directory " + file);
 		}
 		this.file = file;
-	}
-
-	public List<SpoonFile> getAllFiles() {
-		List<SpoonFile> all = new ArrayList<SpoonFile>(getFiles());
-		for (SpoonFolder f : getSubFolders()) {
-			all.addAll(f.getAllFiles());
+		this.includes = includes;
+		this.excludes = excludes;
+	}
+
+	/**
+	 * Walks the tree of this folder at the first call following the creation
+	 * of the folder or a {@link #refresh()}, the result being shared by
+	 * {@link #getAllFiles()}, {@link #getAllJavaFiles()},
+	 * {@link #getAllFileSystemFiles()} and {@link #getAttributes(File)}.
+	 */
+	private synchronized Map<File, BasicFileAttributes> getScannedFiles() {
+		if (scannedFiles == null) {
+			// the linked map keeps the order of the scan
+			scannedFiles = new LinkedHashMap<File, BasicFileAttributes>();
+			for (FileTreeScanner.ScannedFile f : new FileTreeScanner(toFile().toPath(), includes, excludes).scan()) {
+				scannedFiles.put(f.path.toFile(), f.attributes);
+			}
+		}
+		return scannedFiles;
+	}
+
+	/**
+	 * Forgets the files listed by the last walk of the tree of this folder,
+	 * so that the next listing lists the files which were added or deleted
+	 * since.
+	 */
+	public synchronized void refresh() {
+		scannedFiles = null;
+		allFiles = null;
+	}
+
+	/**
+	 * Gets the regular files of this folder and of its sub-folders, archives
+	 * included, which are not excluded by the patterns of this folder, as
+	 * listed by the last walk of the tree (see {@link #refresh()}).
+	 */
+	public List<File> getAllFileSystemFiles() {
+		return new ArrayList<File>(getScannedFiles().keySet());
+	}
+
+	/**
+	 * Gets the attributes of the given file read by the last walk of the
+	 * tree, or null if the file was not listed.
+	 */
+	public BasicFileAttributes getAttributes(File file) {
+		return getScannedFiles().get(file);
+	}
+
+	public synchronized List<SpoonFile> getAllFiles() {
+		if (allFiles == null) {
+			allFiles = new ArrayList<SpoonFile>();
+			for (File f : getScannedFiles().keySet()) {
+				if (SpoonResourceHelper.isArchive(f)) {
+					try {
+						allFiles.addAll(SpoonResourceHelper.createFolder(f).getAllFiles());
+					} catch (FileNotFoundException e) {
+						Launcher.LOGGER.error(e.getMessage(), e);
+					}
+				} else {
+					allFiles.add(new FileSystemFile(f));
+				}
+			}
 		}
-		return all;
+		return new ArrayList<SpoonFile>(allFiles);
 	}
 
 	public List<SpoonFile> getFiles() {
@@ -99,14 +177,11 @@ public class FileSystemFolder implements SpoonFolder {
 
 	public List<SpoonFile> getAllJavaFiles() {
 		List<SpoonFile> files = new ArrayList<SpoonFile>();
-		for (SpoonFile f : getFiles()) {
+		for (SpoonFile f : getAllFiles()) {
 			if (f.isJava()) {
 				files.add(f);
 			}
 		}
-		for (SpoonFolder fol : getSubFolders()) {
-			files.addAll(fol.getAllJavaFiles());
-		}
 		return files;
 	}
 
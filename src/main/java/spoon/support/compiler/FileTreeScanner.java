@@ -0,0 +1,145 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.compiler;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import spoon.SpoonException;
+
+/**
+ * Lists the regular files of a directory tree, the sub-directories being
+ * walked in parallel. The files are given in a stable order: the files of a
+ * directory sorted by name, followed by the files of its sub-directories
+ * sorted by name.
+ *
+ * <p>
+ * The include and exclude patterns are globs (see
+ * {@link java.nio.file.FileSystem#getPathMatcher(String)}) matched against
+ * the paths relative to the root of the tree. A directory matching an exclude
+ * pattern is skipped with its content. If include patterns are given, a file
+ * must match one of them.
+ * </p>
+ */
+class FileTreeScanner {
+
+	/**
+	 * A file found by the scan, with the attributes read while walking the
+	 * tree.
+	 */
+	static class ScannedFile {
+		final Path path;
+
+		final BasicFileAttributes attributes;
+
+		ScannedFile(Path path, BasicFileAttributes attributes) {
+			this.path = path;
+			this.attributes = attributes;
+		}
+	}
+
+	private final Path root;
+
+	private final List<PathMatcher> includes = new ArrayList<PathMatcher>();
+
+	private final List<PathMatcher> excludes = new ArrayList<PathMatcher>();
+
+	FileTreeScanner(Path root, List<String> includes, List<String> excludes) {
+		this.root = root;
+		for (String pattern : includes) {
+			this.includes.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+		}
+		for (String pattern : excludes) {
+			this.excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+		}
+	}
+
+	/**
+	 * Scans the tree.
+	 */
+	List<ScannedFile> scan() {
+		return ForkJoinPool.commonPool().invoke(new DirectoryScan(root));
+	}
+
+	private boolean matches(List<PathMatcher> matchers, Path path) {
+		Path relativePath = root.relativize(path);
+		for (PathMatcher matcher : matchers) {
+			if (matcher.matches(relativePath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Lists the entries of a directory, and forks the scan of its
+	 * sub-directories.
+	 */
+	private class DirectoryScan extends RecursiveTask<List<ScannedFile>> {
+		private static final long serialVersionUID = 1L;
+
+		private final Path directory;
+
+		DirectoryScan(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		protected List<ScannedFile> compute() {
+			final Map<Path, ScannedFile> files = new TreeMap<Path, ScannedFile>();
+			final Map<Path, DirectoryScan> subDirectories = new TreeMap<Path, DirectoryScan>();
+			try {
+				Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+						if (matches(excludes, file)) {
+							return FileVisitResult.CONTINUE;
+						}
+						if (attributes.isDirectory()) {
+							subDirectories.put(file, new DirectoryScan(file));
+						} else if (attributes.isRegularFile() && (includes.isEmpty() || matches(includes, file))) {
+							files.put(file, new ScannedFile(file, attributes));
+						}
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				throw new SpoonException(e);
+			}
+			List<ScannedFile> result = new ArrayList<ScannedFile>(files.values());
+			for (DirectoryScan scan : invokeAll(subDirectories.values())) {
+				result.addAll(scan.join());
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.compiler;
+
+import java.util.Map;
+
+/**
+ * A class loader that defines the classes of in-memory class files, such as
+ * the ones given by {@link spoon.SpoonModelBuilder#compileInMemory()}. The
+ * other classes are loaded by the parent class loader. As a class can be
+ * defined only once by a class loader, a new loader is created to load the
+ * classes of a new compilation.
+ *
+ * <p>
+ * The in-memory classes are loaded before the ones of the parent class loader,
+ * so that the transformed classes are loaded instead of the original ones.
+ * </p>
+ */
+public class InMemoryClassLoader extends ClassLoader {
+
+	private final Map<String, byte[]> classes;
+
+	/**
+	 * @param classes
+	 * 		the bytes of the class files, by binary name
+	 */
+	public InMemoryClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+		super(parent);
+		this.classes = classes;
+	}
+
+	public InMemoryClassLoader(Map<String, byte[]> classes) {
+		this(classes, Thread.currentThread().getContextClassLoader());
+	}
+
+	@Override
+	protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if (!classes.containsKey(name)) {
+			return super.loadClass(name, resolve);
+		}
+		Class<?> c = findLoadedClass(name);
+		if (c == null) {
+			c = findClass(name);
+		}
+		if (resolve) {
+			resolveClass(c);
+		}
+		return c;
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		byte[] bytes = classes.get(name);
+		if (bytes == null) {
+			throw new ClassNotFoundException(name);
+		}
+		return defineClass(name, bytes, 0, bytes.length);
+	}
+}
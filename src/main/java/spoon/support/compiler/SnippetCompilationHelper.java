@@ -1,11 +1,18 @@
 package spoon.support.compiler;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import spoon.SpoonException;
 import spoon.compiler.ModelBuildingException;
 import spoon.compiler.SpoonCompiler;
 import spoon.reflect.code.CtBlock;
+import spoon.reflect.code.CtCodeElement;
 import spoon.reflect.code.CtCodeSnippetExpression;
 import spoon.reflect.code.CtCodeSnippetStatement;
 import spoon.reflect.code.CtExpression;
@@ -13,12 +20,15 @@ import spoon.reflect.code.CtReturn;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.Filter;
+import spoon.reflect.visitor.ImportScannerImpl;
 import spoon.reflect.visitor.Query;
 import spoon.support.compiler.jdt.JDTSnippetCompiler;
 import spoon.support.reflect.declaration.CtElementImpl;
@@ -31,7 +41,7 @@ public class SnippetCompilationHelper {
 		Set<ModifierKind> backup = EnumSet.noneOf(ModifierKind.class);
 		backup.addAll(workCopy.getModifiers());
 
-		workCopy.getModifiers().remove(ModifierKind.PUBLIC);
+		workCopy.removeModifier(ModifierKind.PUBLIC);
 
 		try {
 			build(f, workCopy.toString());
@@ -69,7 +79,7 @@ public class SnippetCompilationHelper {
 		CtStatement ret = wrapper.getBody().getStatements().get(0);
 
 		// Clean up
-		c.getPackage().getTypes().remove(c);
+		c.getPackage().removeType(c);
 
 		// check typing?
 
@@ -77,7 +87,11 @@ public class SnippetCompilationHelper {
 	}
 
 	private static CtClass<?> createWrapper(CtStatement st, Factory f) {
-		CtClass<?> w = f.Class().create("Wrapper");
+		return createWrapper("Wrapper", st, f);
+	}
+
+	private static CtClass<?> createWrapper(String name, CtStatement st, Factory f) {
+		CtClass<?> w = f.Class().create(name);
 
 		CtBlock<Void> body = f.Core().createBlock();
 
@@ -107,6 +121,120 @@ public class SnippetCompilationHelper {
 
 	}
 
+	/**
+	 * Compiles the given statement and expression snippets in a single build,
+	 * each snippet being wrapped in its own class of the default package.
+	 *
+	 * @see #compileSnippets(List, List)
+	 */
+	public static List<CtCodeElement> compileSnippets(List<? extends CtCodeElement> snippets)
+			throws SnippetCompilationError {
+		return compileSnippets(snippets, Collections.<CtType<?>>nCopies(snippets.size(), null));
+	}
+
+	/**
+	 * Compiles the given statement and expression snippets in a single build,
+	 * each snippet being wrapped in its own class. The wrapper of a snippet is
+	 * declared in the package of its context type, with the imports of this
+	 * type, so that the snippet can use the simple names of the types which
+	 * the context type uses.
+	 *
+	 * @param snippets
+	 * 		{@link CtCodeSnippetStatement}s and
+	 * 		{@link CtCodeSnippetExpression}s of the same factory
+	 * @param contextTypes
+	 * 		the context type of each snippet, or null for a snippet to be
+	 * 		compiled in the default package without imports
+	 * @return the compiled {@link CtStatement}s and {@link CtExpression}s, in
+	 * the order of the snippets
+	 */
+	public static List<CtCodeElement> compileSnippets(List<? extends CtCodeElement> snippets, List<? extends CtType<?>> contextTypes)
+			throws SnippetCompilationError {
+		if (snippets.size() != contextTypes.size()) {
+			throw new SpoonException("Expected a context type for each snippet");
+		}
+		List<CtCodeElement> compiled = new ArrayList<CtCodeElement>();
+		if (snippets.isEmpty()) {
+			return compiled;
+		}
+		Factory f = snippets.get(0).getFactory();
+		List<String> names = new ArrayList<String>();
+		try {
+			Map<String, String> contents = new LinkedHashMap<String, String>();
+			int index = 0;
+			for (int i = 0; i < snippets.size(); i++) {
+				CtCodeElement snippet = snippets.get(i);
+				CtType<?> contextType = contextTypes.get(i);
+				String packageName = CtPackage.TOP_LEVEL_PACKAGE_NAME;
+				if (contextType != null) {
+					packageName = contextType.getPackage().getQualifiedName();
+				}
+				String prefix = CtPackage.TOP_LEVEL_PACKAGE_NAME.equals(packageName) ? "" : packageName + ".";
+				String name;
+				do {
+					name = prefix + "Wrapper" + index++;
+				} while (f.Type().get(name) != null);
+				names.add(name);
+				CtClass<?> w;
+				if (snippet instanceof CtCodeSnippetStatement) {
+					w = createWrapper(name, (CtStatement) snippet, f);
+				} else if (snippet instanceof CtCodeSnippetExpression) {
+					w = createWrapper(name, (CtExpression<?>) snippet, f);
+				} else {
+					throw new SpoonException("Not a code snippet: " + snippet);
+				}
+				StringBuilder content = new StringBuilder();
+				if (!prefix.isEmpty()) {
+					content.append("package ").append(packageName).append(";").append(DefaultJavaPrettyPrinter.LINE_SEPARATOR);
+				}
+				if (contextType != null) {
+					CtType<?> topLevelType = contextType;
+					while (topLevelType.getDeclaringType() != null) {
+						topLevelType = topLevelType.getDeclaringType();
+					}
+					for (CtTypeReference<?> ref : new ImportScannerImpl().computeImports(topLevelType)) {
+						content.append("import ").append(ref.getQualifiedName()).append(";").append(DefaultJavaPrettyPrinter.LINE_SEPARATOR);
+					}
+				}
+				content.append(w.toString());
+				// each wrapper is built from a file named after it
+				contents.put(name.replace('.', '/') + DefaultJavaPrettyPrinter.JAVA_FILE_EXTENSION, content.toString());
+				// the wrapper is replaced by the compiled one
+				w.getPackage().removeType(w);
+			}
+
+			build(f, contents);
+
+			for (int i = 0; i < snippets.size(); i++) {
+				CtStatement ret = f.Class().get(names.get(i)).getMethodsByName("wrap").get(0).getBody().getStatements().get(0);
+				if (snippets.get(i) instanceof CtCodeSnippetStatement) {
+					compiled.add(ret);
+				} else {
+					compiled.add(((CtReturn<?>) ret).getReturnedExpression());
+				}
+			}
+		} finally {
+			// Clean up (delete wrappers from factory)
+			for (String name : names) {
+				CtType<?> c = f.Type().get(name);
+				if (c != null) {
+					c.getPackage().removeType(c);
+				}
+			}
+		}
+		return compiled;
+	}
+
+	private static void build(Factory f, Map<String, String> contents) {
+		SpoonCompiler builder = new JDTSnippetCompiler(f, contents);
+		try {
+			builder.build();
+		} catch (Exception e) {
+			throw new ModelBuildingException(
+					"snippet compilation error while compiling " + contents.size() + " snippets", e);
+		}
+	}
+
 	private static void build(Factory f, String contents) {
 		// Build contents
 		SpoonCompiler builder = new JDTSnippetCompiler(f, contents);
@@ -146,14 +274,19 @@ public class SnippetCompilationHelper {
 				.get(0);
 
 		// Clean up (delete wrapper from factory)
-		c.getPackage().getTypes().remove(c);
+		c.getPackage().removeType(c);
 
 		return ret.getReturnedExpression();
 	}
 
 	private static <R, B extends R> CtClass<?> createWrapper(
 			CtExpression<B> st, Factory f) {
-		CtClass<?> w = f.Class().create("Wrapper");
+		return createWrapper("Wrapper", st, f);
+	}
+
+	private static <R, B extends R> CtClass<?> createWrapper(String name,
+			CtExpression<B> st, Factory f) {
+		CtClass<?> w = f.Class().create(name);
 
 		CtBlock<B> body = f.Core().createBlock();
 		CtReturn<B> ret = f.Core().createReturn();
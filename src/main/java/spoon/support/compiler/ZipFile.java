@@ -19,8 +19,10 @@ package spoon.support.compiler;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 
+import spoon.Launcher;
 import spoon.compiler.SpoonFile;
 import spoon.compiler.SpoonFolder;
 
@@ -39,8 +41,24 @@ public class ZipFile implements SpoonFile {
 		this.parent = parent;
 	}
 
+	/**
+	 * Creates a file which content is inflated from the archive of the parent
+	 * folder each time it is read.
+	 */
+	public ZipFile(ZipFolder parent, String name) {
+		this(parent, name, null);
+	}
+
 	public InputStream getContent() {
-		return new ByteArrayInputStream(buffer);
+		if (buffer != null) {
+			return new ByteArrayInputStream(buffer);
+		}
+		try {
+			return parent.getContent(name);
+		} catch (IOException e) {
+			Launcher.LOGGER.error(e.getMessage(), e);
+		}
+		return null;
 	}
 
 	public String getName() {
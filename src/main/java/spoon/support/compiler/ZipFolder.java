@@ -19,18 +19,22 @@ package spoon.support.compiler;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
+import org.apache.commons.io.IOUtils;
+
 import spoon.Launcher;
 import spoon.compiler.SpoonFile;
 import spoon.compiler.SpoonFolder;
@@ -70,40 +74,61 @@ public class ZipFolder implements SpoonFolder {
 	}
 
 	public List<SpoonFile> getFiles() {
-		// Indexing content
+		// Indexing content from the central directory, the entries are
+		// inflated when their content is read
 		if (files == null) {
 			files = new ArrayList<SpoonFile>();
-			ZipInputStream zipInput = null;
+			java.util.zip.ZipFile zip = null;
 			try {
-				zipInput = new ZipInputStream(new BufferedInputStream(
-						new FileInputStream(file)));
-
-				ZipEntry entry;
-				while ((entry = zipInput.getNextEntry()) != null) {
-					// deflate in buffer
-					final int buffer = 2048;
-					ByteArrayOutputStream output = new ByteArrayOutputStream(
-							buffer);
-					int count;
-					byte data[] = new byte[buffer];
-					while ((count = zipInput.read(data, 0, buffer)) != -1) {
-						output.write(data, 0, count);
+				zip = new java.util.zip.ZipFile(file);
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					if (!entry.isDirectory()) {
+						files.add(new ZipFile(this, entry.getName()));
 					}
-					output.flush();
-					output.close();
-
-					files.add(new ZipFile(this, entry.getName(), output
-							.toByteArray()));
 				}
-				zipInput.close();
-
 			} catch (Exception e) {
 				Launcher.LOGGER.error(e.getMessage(), e);
+			} finally {
+				closeQuietly(zip);
 			}
 		}
 		return files;
 	}
 
+	/**
+	 * Gets the content of the given entry, inflated from the archive which is
+	 * only open while it is read, so that no archive is left open.
+	 */
+	InputStream getContent(String entryName) throws IOException {
+		java.util.zip.ZipFile zip = new java.util.zip.ZipFile(file);
+		try {
+			ZipEntry entry = zip.getEntry(entryName);
+			if (entry == null) {
+				throw new FileNotFoundException(entryName + " not found in " + file);
+			}
+			InputStream content = zip.getInputStream(entry);
+			try {
+				return new ByteArrayInputStream(IOUtils.toByteArray(content));
+			} finally {
+				content.close();
+			}
+		} finally {
+			zip.close();
+		}
+	}
+
+	private static void closeQuietly(java.util.zip.ZipFile zip) {
+		if (zip != null) {
+			try {
+				zip.close();
+			} catch (IOException e) {
+				Launcher.LOGGER.error(e.getMessage(), e);
+			}
+		}
+	}
+
 	public String getName() {
 		return file.getName();
 	}
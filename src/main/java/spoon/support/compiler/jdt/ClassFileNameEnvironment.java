@@ -0,0 +1,116 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.compiler.jdt;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+
+import spoon.SpoonException;
+import spoon.reflect.declaration.CtPackage;
+
+/**
+ * A name environment that answers the types of in-memory class files (e.g.
+ * the classes of the compilation units which did not change since the
+ * previous compilation), so that only some units of the model have to be
+ * compiled again. The in-memory classes are looked up first, since they are
+ * compiled from the model, the other lookups being delegated to the given
+ * environment (the classpath).
+ */
+class ClassFileNameEnvironment implements INameEnvironment {
+
+	private final INameEnvironment delegate;
+
+	private final Map<String, byte[]> classes;
+
+	private final Set<String> packages = new HashSet<String>();
+
+	/**
+	 * @param classes
+	 * 		the bytes of the class files, by binary name
+	 */
+	ClassFileNameEnvironment(INameEnvironment delegate, Map<String, byte[]> classes) {
+		this.delegate = delegate;
+		this.classes = classes;
+		for (String name : classes.keySet()) {
+			int i = name.lastIndexOf(CtPackage.PACKAGE_SEPARATOR);
+			while (i > 0) {
+				packages.add(name.substring(0, i));
+				i = name.lastIndexOf(CtPackage.PACKAGE_SEPARATOR, i - 1);
+			}
+		}
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+		NameEnvironmentAnswer answer = findClassFile(CharOperation.toString(compoundTypeName));
+		if (answer != null) {
+			return answer;
+		}
+		return delegate.findType(compoundTypeName);
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+		NameEnvironmentAnswer answer;
+		if (packageName == null || packageName.length == 0) {
+			answer = findClassFile(new String(typeName));
+		} else {
+			answer = findClassFile(CharOperation.toString(packageName) + CtPackage.PACKAGE_SEPARATOR + new String(typeName));
+		}
+		if (answer != null) {
+			return answer;
+		}
+		return delegate.findType(typeName, packageName);
+	}
+
+	private NameEnvironmentAnswer findClassFile(String binaryName) {
+		byte[] bytes = classes.get(binaryName);
+		if (bytes == null) {
+			return null;
+		}
+		try {
+			return new NameEnvironmentAnswer(new ClassFileReader(bytes, (binaryName.replace('.', '/') + ".class").toCharArray()), null);
+		} catch (ClassFormatException e) {
+			throw new SpoonException(e);
+		}
+	}
+
+	@Override
+	public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+		String name;
+		if (parentPackageName == null || parentPackageName.length == 0) {
+			name = new String(packageName);
+		} else {
+			name = CharOperation.toString(parentPackageName) + CtPackage.PACKAGE_SEPARATOR + new String(packageName);
+		}
+		return packages.contains(name) || delegate.isPackage(parentPackageName, packageName);
+	}
+
+	@Override
+	public void cleanup() {
+		delegate.cleanup();
+	}
+
+}
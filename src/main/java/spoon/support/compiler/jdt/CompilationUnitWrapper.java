@@ -1,6 +1,5 @@
 package spoon.support.compiler.jdt;
 
-import org.apache.commons.io.IOUtils;
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
 
 import spoon.Launcher;
@@ -10,7 +9,8 @@ class CompilationUnitWrapper extends CompilationUnit {
 	private final JDTBasedSpoonCompiler jdtCompiler;
 
 	CompilationUnitWrapper(JDTBasedSpoonCompiler jdtCompiler, CompilationUnit wrappedUnit) {
-		super(null, wrappedUnit.fileName != null ? new String(
+		// the contents of the in-memory units are kept
+		super(wrappedUnit.contents, wrappedUnit.fileName != null ? new String(
 				wrappedUnit.fileName) : null, null,
 				wrappedUnit.destinationPath != null ? new String(
 						wrappedUnit.destinationPath) : null, false);
@@ -26,8 +26,8 @@ class CompilationUnitWrapper extends CompilationUnit {
 				if (this.jdtCompiler.loadedContent.containsKey(s)) {
 					return this.jdtCompiler.loadedContent.get(s);
 				} else {
-					char[] content = IOUtils
-							.toCharArray(this.jdtCompiler.getCompilationUnitInputStream(s));
+					// the printed contents are not encoded to be read again
+					char[] content = this.jdtCompiler.printCompilationUnit(s).getResult().toCharArray();
 					this.jdtCompiler.loadedContent.put(s, content);
 					return content;
 				}
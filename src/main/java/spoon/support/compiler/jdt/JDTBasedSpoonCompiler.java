@@ -21,10 +21,19 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Level;
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
-import org.eclipse.jdt.internal.compiler.batch.Main;
 import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import spoon.Launcher;
 import spoon.OutputType;
 import spoon.SpoonException;
@@ -35,6 +44,7 @@ import spoon.compiler.SpoonFile;
 import spoon.compiler.SpoonFolder;
 import spoon.compiler.SpoonResource;
 import spoon.compiler.SpoonResourceHelper;
+import spoon.processing.CompilationUnitLocal;
 import spoon.processing.ProcessingManager;
 import spoon.processing.Processor;
 import spoon.reflect.declaration.CtElement;
@@ -43,18 +53,23 @@ import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.PrettyPrinter;
+import spoon.reflect.visitor.SniperJavaPrettyPrinter;
 import spoon.support.QueueProcessingManager;
 import spoon.support.compiler.FileSystemFile;
 import spoon.support.compiler.VirtualFolder;
+import spoon.support.util.OutputFiles;
+import spoon.support.util.ParallelWork;
+import spoon.support.visitor.ModelSnapshot;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.security.MessageDigest;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -62,6 +77,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class JDTBasedSpoonCompiler implements SpoonCompiler {
 
@@ -160,13 +177,112 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 	}
 
 	protected boolean buildSources() {
-		if (sources.getAllJavaFiles().isEmpty()) {
+		// the input folders are walked once for the whole build
+		List<SpoonFile> files = sources.getAllJavaFiles();
+		if (files.isEmpty()) {
 			return true;
 		}
 		initInputClassLoader();
 		// long t=System.currentTimeMillis();
 		// Build input
 		JDTBatchCompiler batchCompiler = createBatchCompiler();
+		List<String> args = createSourceBuildArgs();
+		// args.add("-nowarn");
+		// Set<String> paths = new HashSet<String>();
+		// for (SpoonFile file : files) {
+		// // We can not use file.getPath() because of in-memory code or files
+		// // within archives
+		// paths.add(file.getFileSystemParent().getPath());
+		// }
+		args.addAll(toStringList(files));
+
+		getFactory().getEnvironment().debugMessage("build args: " + args);
+
+		batchCompiler.configure(args.toArray(new String[0]));
+		batchCompiler.ignoreMethodBodies = getEnvironment().isLazyBodies() || getEnvironment().isDeclarationsOnly();
+
+		List<SpoonFile> filesToBuild = files;
+		if (buildOnlyOutdatedFiles) {
+			if (outputDirectory.exists()) {
+				@SuppressWarnings("unchecked") Collection<File> outputFiles = FileUtils.listFiles(outputDirectory, new String[] { "java" }, true);
+				keepOutdatedFiles(filesToBuild, outputFiles);
+			} else {
+				keepOutdatedFiles(filesToBuild, new ArrayList<File>());
+			}
+		}
+		Map<String, String> cacheKeys = null;
+		ModelCache cache = null;
+		if (getEnvironment().getModelCacheDirectory() != null) {
+			cacheKeys = new HashMap<String, String>();
+			cache = new ModelCache(factory, getEnvironment().getModelCacheDirectory(), createSourceBuildArgs());
+			filesToBuild = loadCachedUnits(cache, filesToBuild, cacheKeys);
+		}
+
+		CompilationUnitDeclaration[] units;
+		if (filesToBuild.isEmpty()) {
+			units = new CompilationUnitDeclaration[0];
+		} else if (cache != null && filesToBuild.size() < cacheKeys.size()) {
+			// the types of the cached units are answered from the model
+			INameEnvironment modelEnvironment = new ModelNameEnvironment(factory, environment != null ? environment : batchCompiler.getLibraryAccess(), encoding, Collections.<String>emptySet());
+			units = batchCompiler.getUnits(filesToBuild, modelEnvironment);
+		} else {
+			units = batchCompiler.getUnits(filesToBuild);
+		}
+
+		// here we build the model
+		buildModel(units, getEnvironment().isDeclarationsOnly());
+		batchCompiler.cleanup();
+		recordSourceDigests(units);
+
+		recordSnapshots();
+
+		// the units built without their bodies are not cached
+		if (cache != null && !getEnvironment().isLazyBodies() && !getEnvironment().isDeclarationsOnly()) {
+			List<String> paths = new ArrayList<String>(units.length);
+			for (CompilationUnitDeclaration unit : units) {
+				if (unit != null) {
+					paths.add(new String(unit.getFileName()));
+				}
+			}
+			cache.store(paths, cacheKeys, sourceDigests);
+		}
+
+		return probs.size() == 0;
+	}
+
+	/**
+	 * Loads the units of the given files which are in the model cache.
+	 *
+	 * @return the files that must be built
+	 */
+	private List<SpoonFile> loadCachedUnits(ModelCache cache, List<SpoonFile> files, Map<String, String> cacheKeys) {
+		List<SpoonFile> filesToBuild = new ArrayList<SpoonFile>();
+		// an entry is only loaded if the units it depends on did not change
+		Map<String, byte[]> digests = new HashMap<String, byte[]>();
+		for (SpoonFile file : files) {
+			digests.put(getCompilationUnitPath(file), digest(getContent(file)));
+		}
+		for (SpoonFile file : files) {
+			String path = getCompilationUnitPath(file);
+			byte[] digest = digests.get(path);
+			String key = cache.getKey(digest);
+			cacheKeys.put(path, key);
+			if (cache.load(path, key, digests)) {
+				sourceDigests.put(path, digest);
+				factory.CompilationUnit().getMap().get(path).setEncoding(encoding);
+			} else {
+				filesToBuild.add(file);
+			}
+		}
+		factory.getEnvironment().debugMessage("loaded " + (files.size() - filesToBuild.size()) + " units from the model cache");
+		return filesToBuild;
+	}
+
+	/**
+	 * Creates the JDT arguments used to build the input sources, the source
+	 * files excepted.
+	 */
+	private List<String> createSourceBuildArgs() {
 		List<String> args = new ArrayList<String>();
 		args.add("-1." + javaCompliance);
 		if (encoding != null) {
@@ -197,56 +313,414 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 				}
 			}
 		}
-		// args.add("-nowarn");
-		// Set<String> paths = new HashSet<String>();
-		// for (SpoonFile file : files) {
-		// // We can not use file.getPath() because of in-memory code or files
-		// // within archives
-		// paths.add(file.getFileSystemParent().getPath());
-		// }
-		args.addAll(toStringList(sources.getAllJavaFiles()));
+		return args;
+	}
 
-		getFactory().getEnvironment().debugMessage("build args: " + args);
+	/**
+	 * Digests of the contents the compilation units were built from, indexed
+	 * by path.
+	 */
+	private final Map<String, byte[]> sourceDigests = new HashMap<String, byte[]>();
+
+	private void recordSourceDigests(CompilationUnitDeclaration[] units) {
+		for (CompilationUnitDeclaration unit : units) {
+			if (unit != null) {
+				sourceDigests.put(new String(unit.getFileName()), digest(unit.compilationResult.compilationUnit.getContents()));
+			}
+		}
+	}
+
+	private static byte[] digest(char[] content) {
+		try {
+			return MessageDigest.getInstance("MD5").digest(new String(content).getBytes("UTF-8"));
+		} catch (Exception e) {
+			throw new SpoonException(e);
+		}
+	}
+
+	private char[] getContent(SpoonFile file) {
+		InputStream content = file.getContent();
+		try {
+			return IOUtils.toCharArray(content, encoding);
+		} catch (IOException e) {
+			throw new SpoonException(e);
+		} finally {
+			IOUtils.closeQuietly(content);
+		}
+	}
+
+	/**
+	 * Gets the path of the compilation unit built from the given file.
+	 */
+	private String getCompilationUnitPath(SpoonFile file) {
+		return file.isActualFile() ? file.getPath() : file.getName();
+	}
+
+	@Override
+	public boolean update(List<SpoonFile> changedFiles, List<SpoonFile> deletedFiles) {
+		if (!build) {
+			throw new SpoonException("Model not built yet");
+		}
+		long t = System.currentTimeMillis();
+		for (SpoonFile file : deletedFiles) {
+			String path = getCompilationUnitPath(file);
+			removeCompilationUnit(path);
+			sourceDigests.remove(path);
+		}
+		List<SpoonFile> filesToBuild = new ArrayList<SpoonFile>();
+		for (SpoonFile file : changedFiles) {
+			String path = getCompilationUnitPath(file);
+			if (MessageDigest.isEqual(digest(getContent(file)), sourceDigests.get(path))) {
+				continue;
+			}
+			removeCompilationUnit(path);
+			filesToBuild.add(file);
+		}
+		factory.getEnvironment().debugMessage("updating sources: " + filesToBuild);
+		if (filesToBuild.isEmpty()) {
+			return true;
+		}
 
+		initInputClassLoader();
+		probs.clear();
+		JDTBatchCompiler batchCompiler = createBatchCompiler();
+		List<String> args = createSourceBuildArgs();
+		args.addAll(toStringList(filesToBuild));
+		getFactory().getEnvironment().debugMessage("update args: " + args);
 		batchCompiler.configure(args.toArray(new String[0]));
+		batchCompiler.ignoreMethodBodies = getEnvironment().isLazyBodies() || getEnvironment().isDeclarationsOnly();
 
-		List<SpoonFile> filesToBuild = sources.getAllJavaFiles();
-		if (buildOnlyOutdatedFiles) {
-			if (outputDirectory.exists()) {
-				@SuppressWarnings("unchecked") Collection<File> outputFiles = FileUtils.listFiles(outputDirectory, new String[] { "java" }, true);
-				keepOutdatedFiles(filesToBuild, outputFiles);
+		// the other types are answered from the model
+		INameEnvironment modelEnvironment = new ModelNameEnvironment(factory, environment != null ? environment : batchCompiler.getLibraryAccess(), encoding, Collections.<String>emptySet());
+		CompilationUnitDeclaration[] units = batchCompiler.getUnits(filesToBuild, modelEnvironment);
+		buildModel(units, getEnvironment().isDeclarationsOnly());
+		batchCompiler.cleanup();
+		recordSourceDigests(units);
+		recordSnapshots();
+
+		reportProblems(factory.getEnvironment());
+		factory.getEnvironment().debugMessage("updated in " + (System.currentTimeMillis() - t) + " ms");
+		return probs.size() == 0;
+	}
+
+	@Override
+	public boolean stream(int batchSize, List<String> processorTypes, Collection<Processor<? extends CtElement>> processors, OutputType outputType) {
+		if (factory == null) {
+			throw new SpoonException("Factory not initialized");
+		}
+		if (build) {
+			throw new SpoonException("Model already built");
+		}
+		if (batchSize < 1) {
+			throw new SpoonException("Invalid batch size: " + batchSize);
+		}
+		build = true;
+		long t = System.currentTimeMillis();
+		javaCompliance = factory.getEnvironment().getComplianceLevel();
+		initInputClassLoader();
+		// the processors are checked before the first batch is built
+		ProcessingManager processing = createStreamProcessing(processorTypes, processors);
+		boolean success = buildTemplates();
+
+		// the types of the other batches are answered from their sources
+		List<SpoonFile> files = sources.getAllJavaFiles();
+		Map<String, String> typeFiles = new HashMap<String, String>();
+		Set<String> packages = new HashSet<String>();
+		indexSourceTypes(files, typeFiles, packages);
+
+		for (int start = 0; start < files.size(); start += batchSize) {
+			List<SpoonFile> batch = files.subList(start, Math.min(files.size(), start + batchSize));
+			factory.getEnvironment().debugMessage("streaming sources: " + batch);
+			probs.clear();
+			JDTBatchCompiler batchCompiler = createBatchCompiler();
+			List<String> args = createSourceBuildArgs();
+			args.addAll(toStringList(batch));
+			batchCompiler.configure(args.toArray(new String[0]));
+			batchCompiler.ignoreMethodBodies = getEnvironment().isDeclarationsOnly();
+
+			Set<String> batchPaths = new HashSet<String>();
+			for (SpoonFile file : batch) {
+				batchPaths.add(getCompilationUnitPath(file));
+			}
+			INameEnvironment sourceEnvironment = new ModelNameEnvironment(environment != null ? environment : batchCompiler.getLibraryAccess(), encoding, typeFiles, packages, batchPaths);
+			buildModel(batchCompiler.getUnits(batch, sourceEnvironment), getEnvironment().isDeclarationsOnly());
+			batchCompiler.cleanup();
+			recordSnapshots();
+			reportProblems(factory.getEnvironment());
+			success &= probs.isEmpty();
+
+			// the processing manager consumes its processors
+			if (processing == null) {
+				processing = createStreamProcessing(processorTypes, processors);
+			}
+			processing.process();
+			processing = null;
+			generateProcessedSourceFiles(outputType);
+
+			for (String path : batchPaths) {
+				removeCompilationUnit(path);
+			}
+		}
+		factory.getEnvironment().debugMessage("streamed in " + (System.currentTimeMillis() - t) + " ms");
+		return success;
+	}
+
+	/**
+	 * Creates the processing manager of a batch of compilation units, whose
+	 * processors must be {@link CompilationUnitLocal}.
+	 */
+	private ProcessingManager createStreamProcessing(List<String> processorTypes, Collection<Processor<? extends CtElement>> processors) {
+		ProcessingManager processing = new QueueProcessingManager(factory);
+		for (String processorType : processorTypes) {
+			processing.addProcessor(processorType);
+		}
+		for (Processor<? extends CtElement> processor : processors) {
+			processing.addProcessor(processor);
+		}
+		for (Processor<?> processor : processing.getProcessors()) {
+			if (!(processor instanceof CompilationUnitLocal)) {
+				throw new SpoonException("Processor " + processor.getClass().getName() + " cannot be applied by batches of compilation units");
+			}
+		}
+		return processing;
+	}
+
+	/**
+	 * Indexes the types of the given source files by the package they declare
+	 * and their name, which is enough to find the public top-level types. The
+	 * package declarations are read by a diet parse of the files (the method
+	 * bodies are skipped).
+	 */
+	private void indexSourceTypes(List<SpoonFile> files, Map<String, String> typeFiles, Set<String> packages) {
+		Map<String, String> settings = new HashMap<String, String>();
+		settings.put(CompilerOptions.OPTION_Source, "1." + javaCompliance);
+		settings.put(CompilerOptions.OPTION_Compliance, "1." + javaCompliance);
+		CompilerOptions options = new CompilerOptions(settings);
+		Parser parser = new Parser(new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(), options, new DefaultProblemFactory()), false);
+		for (SpoonFile file : files) {
+			if (!file.isActualFile()) {
+				continue;
+			}
+			CompilationUnit source = new CompilationUnit(getContent(file), file.getName(), null);
+			CompilationUnitDeclaration unit = parser.dietParse(source, new CompilationResult(source, 0, 1, options.maxProblemsPerUnit));
+			String name = file.getName().substring(0, file.getName().lastIndexOf('.'));
+			if (unit.currentPackage != null) {
+				String pack = CharOperation.toString(unit.currentPackage.getImportName());
+				typeFiles.put(pack + CtPackage.PACKAGE_SEPARATOR + name, getCompilationUnitPath(file));
+				for (int i = pack.indexOf(CtPackage.PACKAGE_SEPARATOR); i >= 0; i = pack.indexOf(CtPackage.PACKAGE_SEPARATOR, i + 1)) {
+					packages.add(pack.substring(0, i));
+				}
+				packages.add(pack);
 			} else {
-				keepOutdatedFiles(filesToBuild, new ArrayList<File>());
+				typeFiles.put(name, getCompilationUnitPath(file));
 			}
 		}
-		CompilationUnitDeclaration[] units = batchCompiler.getUnits(filesToBuild);
+	}
 
-		// here we build the model
-		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
+	/**
+	 * Removes a compilation unit and the types it declares from the model, as
+	 * well as the packages left empty.
+	 */
+	private void removeCompilationUnit(String path) {
+		spoon.reflect.cu.CompilationUnit cu = factory.CompilationUnit().getMap().remove(path);
+		if (cu == null) {
+			return;
+		}
+		for (CtType<?> type : cu.getDeclaredTypes()) {
+			factory.CompilationUnit().getSnapshot().remove(type);
+			CtPackage pack = type.getPackage();
+			if (pack == null) {
+				continue;
+			}
+			pack.removeType(type);
+			while (pack.getTypes().isEmpty() && pack.getPackages().isEmpty() && pack.getAnnotations().isEmpty()
+					&& pack != factory.Package().getRootPackage()) {
+				CtPackage parent = pack.getDeclaringPackage();
+				if (parent == null) {
+					parent = factory.Package().getRootPackage();
+				}
+				parent.removePackage(pack);
+				pack = parent;
+			}
+		}
+	}
+
+	/**
+	 * Builds the Spoon model of the given JDT compilation units in the
+	 * factory. When {@link Environment#getBuildThreads()} is greater than 1,
+	 * the units are dispatched to several threads, each of them having its own
+	 * {@link JDTTreeBuilder}.
+	 */
+	protected void buildModel(CompilationUnitDeclaration[] units) {
+		buildModel(units, false);
+	}
+
+	/**
+	 * Builds the model of the given units, leaving the bodies and the field
+	 * initializers out if only the declarations are built. Only the builds
+	 * of the sources leave them out (see
+	 * {@link Environment#isDeclarationsOnly()}), the templates and the
+	 * snippets being built with their bodies.
+	 */
+	private void buildModel(final CompilationUnitDeclaration[] units, final boolean declarationsOnly) {
+		int threads = Math.min(getEnvironment().getBuildThreads(), units.length);
+		if (threads > 1) {
+			factory.getEnvironment().debugMessage("building model with " + threads + " threads");
+			initSubFactories();
+		}
+		new ParallelWork<JDTTreeBuilder>() {
+			@Override
+			protected JDTTreeBuilder createWorker() {
+				JDTTreeBuilder builder = createTreeBuilder();
+				builder.declarationsOnly = declarationsOnly;
+				return builder;
+			}
+
+			@Override
+			protected void process(JDTTreeBuilder builder, int index) {
+				units[index].traverse(builder, units[index].scope);
+			}
+
+			@Override
+			protected void finish(JDTTreeBuilder builder) {
+				recordReferenceCache(builder);
+			}
+		}.run(units.length, threads);
+		initCompilationUnits(units);
+	}
+
+	/**
+	 * Records the state of the types which are not recorded yet, in sniper
+	 * mode (see {@link Environment#isSniperMode()}).
+	 */
+	private void recordSnapshots() {
+		if (!getEnvironment().isSniperMode()) {
+			return;
+		}
+		ModelSnapshot snapshot = factory.CompilationUnit().getSnapshot();
+		for (spoon.reflect.cu.CompilationUnit cu : factory.CompilationUnit().getMap().values()) {
+			for (CtType<?> type : cu.getDeclaredTypes()) {
+				if (!snapshot.isRecorded(type)) {
+					snapshot.record(type);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gives the encoding and the line separators computed by JDT to the
+	 * compilation units built from the given units, so that their original
+	 * source code is decoded like JDT did and their lines are not searched
+	 * again.
+	 */
+	private void initCompilationUnits(CompilationUnitDeclaration[] units) {
 		for (CompilationUnitDeclaration unit : units) {
-			unit.traverse(builder, unit.scope);
+			spoon.reflect.cu.CompilationUnit cu = factory.CompilationUnit().getMap().get(new String(unit.getFileName()));
+			if (cu != null) {
+				cu.setEncoding(encoding);
+				cu.setLineSeparatorPositions(unit.compilationResult.lineSeparatorPositions);
+			}
 		}
+	}
 
-		return probs.size() == 0;
+	/**
+	 * Counts of the type references built from cacheable bindings and of
+	 * those copied from the binding cache of the tree builders (see
+	 * {@link JDTTreeBuilder.ReferenceBuilder#bindingCache}).
+	 */
+	private final AtomicLong referenceCacheLookups = new AtomicLong();
+
+	private final AtomicLong referenceCacheHits = new AtomicLong();
+
+	private void recordReferenceCache(JDTTreeBuilder builder) {
+		referenceCacheLookups.addAndGet(builder.references.cacheLookups);
+		referenceCacheHits.addAndGet(builder.references.cacheHits);
+		factory.getEnvironment().debugMessage("reference cache: " + builder.references.cacheHits + " hits for " + builder.references.cacheLookups + " cacheable references");
+	}
+
+	/**
+	 * Gets the ratio of the type references which were copied from the
+	 * binding cache of the tree builders, among the references of bindings
+	 * that can be cached, since this compiler was created.
+	 */
+	public double getReferenceCacheHitRate() {
+		long lookups = referenceCacheLookups.get();
+		return lookups == 0 ? 0 : (double) referenceCacheHits.get() / lookups;
+	}
+
+	private JDTTreeBuilder createTreeBuilder() {
+		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
+		builder.compiler = this;
+		return builder;
+	}
+
+	/**
+	 * Compiles again the unit of the given path, with its method bodies, the
+	 * other types being answered from the model (see {@link LazyBodyLoader}).
+	 */
+	synchronized CompilationUnitDeclaration buildUnitWithBodies(String path) {
+		SpoonFile file = new FileSystemFile(new File(path));
+		if (!MessageDigest.isEqual(digest(getContent(file)), sourceDigests.get(path))) {
+			throw new SpoonException("Cannot build the bodies of " + path + ", the file changed since the model was built");
+		}
+		JDTBatchCompiler batchCompiler = createBatchCompiler();
+		List<String> args = createSourceBuildArgs();
+		args.add(path);
+		batchCompiler.configure(args.toArray(new String[0]));
+		INameEnvironment modelEnvironment = new ModelNameEnvironment(factory, environment != null ? environment : batchCompiler.getLibraryAccess(), encoding, Collections.singleton(path));
+		int problems = probs.size();
+		CompilationUnitDeclaration[] units = batchCompiler.getUnits(Collections.<SpoonFile>singletonList(file), modelEnvironment);
+		// the jars are opened again if the bodies still look types up
+		batchCompiler.cleanup();
+		for (CategorizedProblem problem : new ArrayList<CategorizedProblem>(probs.subList(problems, probs.size()))) {
+			report(getEnvironment(), problem);
+		}
+		if (units.length == 0) {
+			throw new SpoonException("Cannot build the bodies of " + path);
+		}
+		return units[0];
 	}
 
+	/**
+	 * Sub-factories are lazily created, they must exist before several tree
+	 * builders share the factory.
+	 */
+	private void initSubFactories() {
+		factory.Core();
+		factory.Type();
+		factory.Enum();
+		factory.Package();
+		factory.Code();
+		factory.Class();
+		factory.Field();
+		factory.Executable();
+		factory.CompilationUnit();
+		factory.Interface();
+		factory.Method();
+		factory.Annotation();
+		factory.Eval();
+		factory.Constructor();
+	}
+
+	/**
+	 * Gets the JDT arguments of the given source files. The files which are
+	 * not on the file system (in archives or in memory) are not part of the
+	 * arguments: they are given to JDT as in-memory compilation units (see
+	 * {@link JDTBatchCompiler#getCompilationUnits(List)} and
+	 * {@link JDTBatchCompiler#addVirtualFiles(List)}).
+	 */
 	private Collection<? extends String> toStringList(List<SpoonFile> files) {
 		List<String> res = new ArrayList<String>();
 		for (SpoonFile f : files) {
 			if (f.isActualFile()) {
 				res.add(f.toString());
-			} else {
-				try {
-					File file = File.createTempFile(f.getName(), ".java");
-					file.deleteOnExit();
-					IOUtils.copy(f.getContent(), new FileOutputStream(file));
-
-					res.add(file.toString());
-				} catch (IOException e) {
-					throw new RuntimeException(e.getMessage(), e);
-				}
 			}
 		}
+		if (res.isEmpty() && !files.isEmpty()) {
+			// JDT is not configured without a file or a class to compile
+			res.add("-classNames");
+			res.add(Object.class.getName());
+		}
 		return res;
 	}
 
@@ -360,10 +834,8 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 		}
 
 		// here we build the model in the template factory
-		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
-		for (CompilationUnitDeclaration unit : units) {
-			unit.traverse(builder, unit.scope);
-		}
+		buildModel(units);
+		batchCompiler.cleanup();
 
 		return probs.size() == 0;
 
@@ -627,6 +1099,7 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 
 		} else {
 			args.addAll(toStringList(sources.getAllJavaFiles()));
+			batchCompiler.addVirtualFiles(sources.getAllJavaFiles());
 		}
 
 		getFactory().getEnvironment().debugMessage("compile args: " + args);
@@ -644,6 +1117,141 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 
 	}
 
+	/**
+	 * The printed contents of the compilation units compiled in memory
+	 * without error, indexed by path.
+	 */
+	private final Map<String, char[]> compiledContents = new HashMap<String, char[]>();
+
+	/**
+	 * The class files of the compilation units compiled in memory, by binary
+	 * name, indexed by path.
+	 */
+	private final Map<String, Map<String, byte[]>> compiledClasses = new HashMap<String, Map<String, byte[]>>();
+
+	/**
+	 * The simple names referenced by the compilation units compiled in
+	 * memory, indexed by path.
+	 */
+	private final Map<String, Set<String>> compiledReferences = new HashMap<String, Set<String>>();
+
+	@Override
+	public Map<String, byte[]> compileInMemory() {
+		initInputClassLoader();
+		long t = System.currentTimeMillis();
+		javaCompliance = factory.getEnvironment().getComplianceLevel();
+		probs.clear();
+
+		// the units are printed before the compilation, which is run by
+		// several threads
+		final Map<String, char[]> contents = new HashMap<String, char[]>();
+		for (String path : factory.CompilationUnit().getMap().keySet()) {
+			contents.put(path, printCompilationUnit(path).getResult().toCharArray());
+		}
+		compiledContents.keySet().retainAll(contents.keySet());
+		compiledClasses.keySet().retainAll(contents.keySet());
+		compiledReferences.keySet().retainAll(contents.keySet());
+
+		// only the units which changed since the previous compilation and
+		// their dependents (e.g. the units inlining a changed constant) are
+		// compiled, the others being answered from their class files
+		Set<String> changed = new HashSet<String>();
+		Set<String> changedNames = new HashSet<String>();
+		for (Map.Entry<String, char[]> entry : contents.entrySet()) {
+			if (!Arrays.equals(entry.getValue(), compiledContents.get(entry.getKey()))) {
+				changed.add(entry.getKey());
+				addDeclaredNames(entry.getKey(), changedNames);
+			}
+		}
+		boolean dependents = !changed.isEmpty();
+		while (dependents) {
+			dependents = false;
+			for (Map.Entry<String, Set<String>> entry : compiledReferences.entrySet()) {
+				if (!changed.contains(entry.getKey()) && !Collections.disjoint(entry.getValue(), changedNames)) {
+					changed.add(entry.getKey());
+					addDeclaredNames(entry.getKey(), changedNames);
+					dependents = true;
+				}
+			}
+		}
+		List<CompilationUnit> units = new ArrayList<CompilationUnit>();
+		for (String path : changed) {
+			units.add(new CompilationUnit(contents.get(path), path, encoding));
+			compiledContents.remove(path);
+			compiledClasses.remove(path);
+			compiledReferences.remove(path);
+		}
+		factory.getEnvironment().debugMessage("compiling in memory: " + units.size() + " of " + contents.size() + " compilation units");
+
+		if (!units.isEmpty()) {
+			JDTBatchCompiler batchCompiler = createBatchCompiler();
+			List<String> args = createSourceBuildArgs();
+			// JDT is not configured without a file or a class to compile
+			args.add("-classNames");
+			args.add(Object.class.getName());
+			batchCompiler.configure(args.toArray(new String[0]));
+
+			INameEnvironment classFileEnvironment = new ClassFileNameEnvironment(environment != null ? environment : batchCompiler.getLibraryAccess(), getCompiledClasses());
+			batchCompiler.compile(units.toArray(new CompilationUnit[0]), classFileEnvironment, new ICompilerRequestor() {
+				public void acceptResult(CompilationResult result) {
+					String path = new String(result.getFileName());
+					if (result.hasErrors()) {
+						for (CategorizedProblem problem : result.problems) {
+							reportProblem(problem);
+						}
+					} else {
+						compiledContents.put(path, contents.get(path));
+					}
+					Map<String, byte[]> classes = new HashMap<String, byte[]>();
+					for (ClassFile classFile : result.getClassFiles()) {
+						classes.put(CharOperation.toString(classFile.getCompoundName()), classFile.getBytes());
+					}
+					compiledClasses.put(path, classes);
+					Set<String> references = new HashSet<String>();
+					if (result.simpleNameReferences != null) {
+						for (char[] name : result.simpleNameReferences) {
+							references.add(new String(name));
+						}
+					}
+					compiledReferences.put(path, references);
+				}
+			});
+			batchCompiler.cleanup();
+			reportProblems(factory.getEnvironment());
+		}
+
+		factory.getEnvironment().debugMessage("compiled in memory in " + (System.currentTimeMillis() - t) + " ms");
+		return getCompiledClasses();
+	}
+
+	/**
+	 * Adds the simple names of the types declared by the given compilation
+	 * unit, in the model and in its previous class files, to the given set.
+	 */
+	private void addDeclaredNames(String path, Set<String> names) {
+		spoon.reflect.cu.CompilationUnit cu = factory.CompilationUnit().getMap().get(path);
+		if (cu != null) {
+			for (CtType<?> type : cu.getDeclaredTypes()) {
+				names.add(type.getSimpleName());
+			}
+		}
+		Map<String, byte[]> classes = compiledClasses.get(path);
+		if (classes != null) {
+			for (String binaryName : classes.keySet()) {
+				String simpleName = binaryName.substring(binaryName.lastIndexOf(CtPackage.PACKAGE_SEPARATOR) + 1);
+				names.addAll(Arrays.asList(simpleName.split("\\$")));
+			}
+		}
+	}
+
+	private Map<String, byte[]> getCompiledClasses() {
+		Map<String, byte[]> classes = new HashMap<String, byte[]>();
+		for (Map<String, byte[]> unitClasses : compiledClasses.values()) {
+			classes.putAll(unitClasses);
+		}
+		return classes;
+	}
+
 	Factory factory;
 
 	Map<String, char[]> loadedContent = new HashMap<String, char[]>();
@@ -699,62 +1307,87 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 
 		factory.getEnvironment().debugMessage("Generating source files to: " + outputDirectory);
 
-		List<File> printedFiles = new ArrayList<File>();
-		for (spoon.reflect.cu.CompilationUnit cu : factory.CompilationUnit().getMap().values()) {
-
-			factory.getEnvironment().debugMessage("Generating source for compilation unit: " + cu.getFile());
-
-			CtType<?> element = cu.getMainType();
-
-			CtPackage pack = element.getPackage();
-
-			// create package directory
-			File packageDir;
-			if (pack.getQualifiedName().equals(CtPackage.TOP_LEVEL_PACKAGE_NAME)) {
-				packageDir = new File(outputDirectory.getAbsolutePath());
-			} else {
-				// Create current package directory
-				packageDir = new File(outputDirectory.getAbsolutePath() + File.separatorChar + pack.getQualifiedName().replace('.', File.separatorChar));
+		final List<spoon.reflect.cu.CompilationUnit> units = new ArrayList<spoon.reflect.cu.CompilationUnit>(factory.CompilationUnit().getMap().values());
+		final AtomicInteger writtenFiles = new AtomicInteger();
+		int threads = Math.min(getEnvironment().getOutputThreads(), units.size());
+		if (threads > 1) {
+			// each compilation unit is printed by its own printer
+			factory.getEnvironment().debugMessage("generating source files with " + threads + " threads");
+		}
+		new ParallelWork<Void>() {
+			@Override
+			protected Void createWorker() {
+				return null;
 			}
-			if (!packageDir.exists()) {
-				if (!packageDir.mkdirs()) {
-					throw new RuntimeException("Error creating output directory");
+
+			@Override
+			protected void process(Void worker, int index) {
+				if (generateSourceFile(units.get(index))) {
+					writtenFiles.incrementAndGet();
 				}
 			}
+		}.run(units.size(), threads);
+		factory.getEnvironment().debugMessage(writtenFiles.get() + " of the " + units.size() + " source files written");
+	}
 
-			// print type
-			try {
-				File file = new File(packageDir.getAbsolutePath() + File.separatorChar + element.getSimpleName() + DefaultJavaPrettyPrinter.JAVA_FILE_EXTENSION);
-				file.createNewFile();
+	/**
+	 * Prints the given compilation unit to its source file, unless the file
+	 * already has the printed content.
+	 *
+	 * @return true if the file was written
+	 */
+	private boolean generateSourceFile(spoon.reflect.cu.CompilationUnit cu) {
+		factory.getEnvironment().debugMessage("Generating source for compilation unit: " + cu.getFile());
 
-				// the path must be given relatively to to the working directory
-				InputStream is = getCompilationUnitInputStream(cu.getFile().getPath());
+		CtType<?> element = cu.getMainType();
 
-				IOUtils.copy(is, new FileOutputStream(file));
+		CtPackage pack = element.getPackage();
 
-				if (!printedFiles.contains(file)) {
-					printedFiles.add(file);
-				}
+		// create package directory
+		File packageDir;
+		if (pack.getQualifiedName().equals(CtPackage.TOP_LEVEL_PACKAGE_NAME)) {
+			packageDir = new File(outputDirectory.getAbsolutePath());
+		} else {
+			// Create current package directory
+			packageDir = new File(outputDirectory.getAbsolutePath() + File.separatorChar + pack.getQualifiedName().replace('.', File.separatorChar));
+		}
+		// the directory may be created meanwhile by another thread
+		if (!packageDir.mkdirs() && !packageDir.isDirectory()) {
+			throw new RuntimeException("Error creating output directory");
+		}
 
-			} catch (Exception e) {
-				Launcher.LOGGER.error(e.getMessage(), e);
+		// print type
+		try {
+			File file = new File(packageDir.getAbsolutePath() + File.separatorChar + element.getSimpleName() + DefaultJavaPrettyPrinter.JAVA_FILE_EXTENSION);
+			// the units recorded unchanged are not printed again
+			if (OutputFiles.isUpToDate(file, cu, cu.getDeclaredTypes())) {
+				return false;
 			}
+			// the path must be given relatively to to the working directory
+			return OutputFiles.write(file, printCompilationUnit(cu.getFile().getPath()), cu.getEncoding());
+		} catch (Exception e) {
+			Launcher.LOGGER.error(e.getMessage(), e);
+			return false;
 		}
 	}
 
 	protected InputStream getCompilationUnitInputStream(String path) {
+		return new ByteArrayInputStream(printCompilationUnit(path).getResult().getBytes());
+	}
+
+	/**
+	 * Prints the compilation unit of the given path with a new printer, and
+	 * returns this printer holding the result.
+	 */
+	protected PrettyPrinter printCompilationUnit(String path) {
 		Environment env = factory.getEnvironment();
 		spoon.reflect.cu.CompilationUnit cu = factory.CompilationUnit().getMap().get(path);
 		List<CtType<?>> toBePrinted = cu.getDeclaredTypes();
 
-		PrettyPrinter printer = null;
-
-		if (printer == null) {
-			printer = new DefaultJavaPrettyPrinter(env);
-		}
+		PrettyPrinter printer = env.isSniperMode() ? new SniperJavaPrettyPrinter(env) : new DefaultJavaPrettyPrinter(env);
 		printer.calculate(cu, toBePrinted);
 
-		return new ByteArrayInputStream(printer.getResult().toString().getBytes());
+		return printer;
 	}
 
 	@Override
@@ -769,7 +1402,7 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 		long t = System.currentTimeMillis();
 		javaCompliance = factory.getEnvironment().getComplianceLevel();
 
-		Main batchCompiler = createBatchCompiler(false);
+		JDTBatchCompiler batchCompiler = createBatchCompiler(false);
 		List<String> args = new ArrayList<String>();
 		args.add("-1." + javaCompliance);
 		if (encoding != null) {
@@ -817,6 +1450,7 @@ public class JDTBasedSpoonCompiler implements SpoonCompiler {
 		// args.addAll(paths);
 
 		args.addAll(toStringList(sources.getAllJavaFiles()));
+		batchCompiler.addVirtualFiles(sources.getAllJavaFiles());
 
 		// configure(args.toArray(new String[0]));
 
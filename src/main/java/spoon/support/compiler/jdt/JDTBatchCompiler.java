@@ -1,7 +1,10 @@
 package spoon.support.compiler.jdt;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -9,13 +12,17 @@ import java.util.Set;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
 import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 
-import spoon.Launcher;
+import spoon.SpoonException;
 import spoon.compiler.SpoonFile;
 
 // we use a fully qualified name to make it clear we are extending jdt
@@ -27,6 +34,11 @@ class JDTBatchCompiler extends org.eclipse.jdt.internal.compiler.batch.Main {
 	protected JDTBasedSpoonCompiler jdtCompiler;
 	private boolean useFactory;
 
+	/**
+	 * Whether the method bodies of the units are left out.
+	 */
+	boolean ignoreMethodBodies = false;
+
 	JDTBatchCompiler(JDTBasedSpoonCompiler jdtCompiler, boolean useFactory) {
 		super(new PrintWriter(System.out), new PrintWriter(
 		/* new NullOutputStream() */System.err), false, null, null);
@@ -55,9 +67,84 @@ class JDTBatchCompiler extends org.eclipse.jdt.internal.compiler.batch.Main {
 		ignoredFiles.add(filePath);
 	}
 
+	private List<SpoonFile> virtualFiles = new ArrayList<SpoonFile>();
+
+	/**
+	 * Adds the files of the given ones which are not on the file system to the
+	 * units to compile, as in-memory units (they are not given as arguments).
+	 */
+	void addVirtualFiles(List<SpoonFile> files) {
+		for (SpoonFile f : files) {
+			if (!f.isActualFile()) {
+				virtualFiles.add(f);
+			}
+		}
+	}
+
+	private final List<FileSystem> libraryAccesses = new ArrayList<FileSystem>();
+
+	/**
+	 * Creates a name environment of the classpath in which the jars are
+	 * shared with the other builds (see {@link SharedClasspathJar}). The jars
+	 * are released when the environment is cleaned up, once, by JDT or by
+	 * {@link #cleanup()}.
+	 */
+	@Override
+	public FileSystem getLibraryAccess() {
+		FileSystem.Classpath[] classpaths = new FileSystem.Classpath[this.checkedClasspaths.length];
+		for (int i = 0; i < classpaths.length; i++) {
+			if (this.checkedClasspaths[i] instanceof ClasspathJar) {
+				classpaths[i] = SharedClasspathJar.get((ClasspathJar) this.checkedClasspaths[i]);
+			} else {
+				classpaths[i] = this.checkedClasspaths[i];
+			}
+		}
+		FileSystem libraryAccess = new FileSystem(classpaths, this.filenames) {
+			private boolean cleaned = false;
+
+			@Override
+			public synchronized void cleanup() {
+				if (!cleaned) {
+					cleaned = true;
+					super.cleanup();
+				}
+			}
+		};
+		synchronized (libraryAccesses) {
+			libraryAccesses.add(libraryAccess);
+		}
+		return libraryAccess;
+	}
+
+	/**
+	 * Cleans up the name environments created by this compiler, once the
+	 * model is built with them, so that the shared jars are released.
+	 */
+	public void cleanup() {
+		synchronized (libraryAccesses) {
+			for (FileSystem libraryAccess : libraryAccesses) {
+				libraryAccess.cleanup();
+			}
+			libraryAccesses.clear();
+		}
+	}
+
 	@Override
 	public CompilationUnit[] getCompilationUnits() {
-		CompilationUnit[] units = super.getCompilationUnits();
+		CompilationUnit[] units;
+		if (this.filenames == null) {
+			// only in-memory units
+			units = new CompilationUnit[0];
+		} else {
+			units = super.getCompilationUnits();
+		}
+		if (!virtualFiles.isEmpty()) {
+			List<CompilationUnit> l = new ArrayList<CompilationUnit>(Arrays.asList(units));
+			for (SpoonFile f : virtualFiles) {
+				l.add(createVirtualUnit(f));
+			}
+			units = l.toArray(new CompilationUnit[0]);
+		}
 		if (!ignoredFiles.isEmpty()) {
 			List<CompilationUnit> l = new ArrayList<CompilationUnit>();
 			for (CompilationUnit unit : units) {
@@ -78,10 +165,10 @@ class JDTBatchCompiler extends org.eclipse.jdt.internal.compiler.batch.Main {
 
 	public CompilationUnit[] getCompilationUnits(List<SpoonFile> files) {
 		Set<String> fileNames = new HashSet<String>();
-		List<SpoonFile> virtualFiles = new ArrayList<SpoonFile>();
+		List<SpoonFile> inMemoryFiles = new ArrayList<SpoonFile>();
 		for (SpoonFile f : files) {
 			if (!f.isActualFile()) {
-				virtualFiles.add(f);
+				inMemoryFiles.add(f);
 			} else {
 				fileNames.add(f.getPath());
 			}
@@ -94,17 +181,23 @@ class JDTBatchCompiler extends org.eclipse.jdt.internal.compiler.batch.Main {
 				culist.add(unit);
 			}
 		}
-		for (SpoonFile f : virtualFiles) {
-			try {
-				culist.add(new CompilationUnit(IOUtils.toCharArray(f
-						.getContent()), f.getName(), null));
-			} catch (Exception e) {
-				Launcher.LOGGER.error(e.getMessage(), e);
-			}
+		for (SpoonFile f : inMemoryFiles) {
+			culist.add(createVirtualUnit(f));
 		}
 		return culist.toArray(new CompilationUnit[0]);
 	}
 
+	private CompilationUnit createVirtualUnit(SpoonFile f) {
+		InputStream content = f.getContent();
+		try {
+			return new CompilationUnit(IOUtils.toCharArray(content, this.jdtCompiler.getEncoding()), f.getName(), null);
+		} catch (IOException e) {
+			throw new SpoonException(e);
+		} finally {
+			IOUtils.closeQuietly(content);
+		}
+	}
+
 	public CompilationUnitDeclaration[] getUnits(List<SpoonFile> files) {
 		startTime = System.currentTimeMillis();
 		INameEnvironment environment = this.jdtCompiler.environment;
@@ -117,9 +210,47 @@ class JDTBatchCompiler extends org.eclipse.jdt.internal.compiler.batch.Main {
 				environment, getHandlingPolicy(), compilerOptions,
 				this.jdtCompiler.requestor, getProblemFactory(), this.out,
 				null);
+		treeBuilderCompiler.ignoreMethodBodies = ignoreMethodBodies;
 		CompilationUnitDeclaration[] units = treeBuilderCompiler
 				.buildUnits(getCompilationUnits(files));
 		return units;
 	}
 
+
+	/**
+	 * Builds the units of the given files only, the types they refer to being
+	 * looked up in the given name environment. The compilation units answered
+	 * by this environment are only used to complete the bindings.
+	 */
+	public CompilationUnitDeclaration[] getUnits(List<SpoonFile> files, INameEnvironment environment) {
+		startTime = System.currentTimeMillis();
+		CompilerOptions compilerOptions = new CompilerOptions(this.options);
+		compilerOptions.parseLiteralExpressionsAsConstants = false;
+		TreeBuilderCompiler treeBuilderCompiler = new TreeBuilderCompiler(
+				environment, getHandlingPolicy(), compilerOptions,
+				this.jdtCompiler.requestor, getProblemFactory(), this.out,
+				null);
+		treeBuilderCompiler.ignoreMethodBodies = ignoreMethodBodies;
+		return treeBuilderCompiler.buildUnits(getCompilationUnits(files), false);
+	}
+
+	/**
+	 * Compiles the given units, the class files being given to the requestor
+	 * instead of being written. Unlike {@link #compile(String[])}, the units
+	 * are compiled by several threads, whatever the
+	 * <code>jdt.compiler.useSingleThread</code> system property. The results
+	 * have the names referenced by their units (see
+	 * {@link CompilationResult#simpleNameReferences}).
+	 */
+	void compile(ICompilationUnit[] units, INameEnvironment environment, ICompilerRequestor requestor) {
+		startTime = System.currentTimeMillis();
+		CompilerOptions compilerOptions = new CompilerOptions(this.options);
+		compilerOptions.produceReferenceInfo = true;
+		Compiler compiler = new Compiler(environment, getHandlingPolicy(),
+				compilerOptions, requestor,
+				getProblemFactory(), this.out, null);
+		compiler.useSingleThread = false;
+		compiler.compile(units);
+	}
+
 }
@@ -5,6 +5,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
@@ -14,6 +15,7 @@ import spoon.compiler.Environment;
 import spoon.reflect.factory.Factory;
 import spoon.support.compiler.SnippetCompilationError;
 import spoon.support.compiler.VirtualFile;
+import spoon.support.reflect.declaration.CompilationUnitVirtualImpl;
 
 public class JDTSnippetCompiler extends JDTBasedSpoonCompiler {
 
@@ -22,6 +24,17 @@ public class JDTSnippetCompiler extends JDTBasedSpoonCompiler {
 		addInputSource(new VirtualFile(contents, ""));
 	}
 
+	/**
+	 * Creates a compiler building several snippets at once, each content being
+	 * a compilation unit given by the name of its file.
+	 */
+	public JDTSnippetCompiler(Factory factory, Map<String, String> contents) {
+		super(factory);
+		for (Map.Entry<String, String> content : contents.entrySet()) {
+			addInputSource(new VirtualFile(content.getValue(), content.getKey()));
+		}
+	}
+
 	@Override
 	public boolean build() {
 		if (factory == null) {
@@ -100,11 +113,30 @@ public class JDTSnippetCompiler extends JDTBasedSpoonCompiler {
 			f.delete();
 		}
 
-		// here we build the model
-		JDTTreeBuilder builder = new JDTTreeBuilder(factory);
+		// the units of the named snippets are read from memory, and are not
+		// kept in the model
+		List<String> paths = new ArrayList<String>();
 		for (CompilationUnitDeclaration unit : units) {
-			unit.traverse(builder, unit.scope);
+			String path = new String(unit.getFileName());
+			if (!path.isEmpty()) {
+				CompilationUnitVirtualImpl cu = new CompilationUnitVirtualImpl();
+				cu.setFactory(factory);
+				cu.setFile(new File(path));
+				cu.setOriginalSourceCode(new String(unit.compilationResult.compilationUnit.getContents()));
+				factory.CompilationUnit().getMap().put(path, cu);
+				paths.add(path);
+			}
+		}
+
+		// here we build the model
+		try {
+			buildModel(units);
+		} finally {
+			for (String path : paths) {
+				factory.CompilationUnit().getMap().remove(path);
+			}
 		}
+		batchCompiler.cleanup();
 
 		return getProblems().size() == 0;
 	}
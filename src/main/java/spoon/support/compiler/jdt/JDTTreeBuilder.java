@@ -23,11 +23,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.apache.log4j.Logger;
@@ -146,6 +146,7 @@ import org.eclipse.jdt.internal.compiler.lookup.ProblemMethodBinding;
 import org.eclipse.jdt.internal.compiler.lookup.ProblemReferenceBinding;
 import org.eclipse.jdt.internal.compiler.lookup.RawTypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
+import org.eclipse.jdt.internal.compiler.lookup.Scope;
 import org.eclipse.jdt.internal.compiler.lookup.SourceTypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.TypeVariableBinding;
@@ -201,6 +202,7 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtConstructor;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtInterface;
 import spoon.reflect.declaration.CtMethod;
@@ -215,6 +217,7 @@ import spoon.reflect.reference.CtArrayTypeReference;
 import spoon.reflect.reference.CtCatchVariableReference;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.reference.CtImplicitTypeReference;
 import spoon.reflect.reference.CtLocalVariableReference;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtParameterReference;
@@ -299,7 +302,19 @@ public class JDTTreeBuilder extends ASTVisitor {
 					sourceEnd = ((MethodDeclaration) node).bodyEnd;
 				}
 				CompilationUnit cu = factory.CompilationUnit().create(new String(compilationunitdeclaration.getFileName()));
-				e.setPosition(cf.createSourcePosition(cu, sourceStart, sourceEnd, compilationunitdeclaration.compilationResult.lineSeparatorPositions));
+				int[] lineSeparatorPositions = compilationunitdeclaration.compilationResult.lineSeparatorPositions;
+				if (e instanceof CtType && node instanceof TypeDeclaration) {
+					TypeDeclaration declaration = (TypeDeclaration) node;
+					e.setPosition(cf.createDeclarationSourcePosition(cu, sourceStart, sourceEnd, declaration.declarationSourceStart, declaration.declarationSourceEnd, lineSeparatorPositions));
+				} else if (e instanceof CtExecutable && node instanceof AbstractMethodDeclaration) {
+					AbstractMethodDeclaration declaration = (AbstractMethodDeclaration) node;
+					e.setPosition(cf.createDeclarationSourcePosition(cu, sourceStart, sourceEnd, declaration.declarationSourceStart, declaration.declarationSourceEnd, lineSeparatorPositions));
+				} else if ((e instanceof CtField || e instanceof CtAnonymousExecutable) && node instanceof FieldDeclaration) {
+					FieldDeclaration declaration = (FieldDeclaration) node;
+					e.setPosition(cf.createDeclarationSourcePosition(cu, sourceStart, sourceEnd, declaration.declarationSourceStart, declaration.declarationSourceEnd, lineSeparatorPositions));
+				} else {
+					e.setPosition(cf.createSourcePosition(cu, sourceStart, sourceEnd, lineSeparatorPositions));
+				}
 			}
 			ASTPair pair = stack.peek();
 			CtElement current = pair.element;
@@ -363,8 +378,6 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 	public class ReferenceBuilder {
 
-		Map<String, CtTypeReference<?>> basestypes = new TreeMap<String, CtTypeReference<?>>();
-
 		Set<String> typevars = new TreeSet<String>();
 
 		boolean bounds = false;
@@ -376,8 +389,14 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return ref;
 		}
 
-		@SuppressWarnings("unchecked")
 		public <T> CtExecutableReference<T> getExecutableReference(MethodBinding exec) {
+			synchronized (getBindingLock()) {
+				return buildExecutableReference(exec);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> CtExecutableReference<T> buildExecutableReference(MethodBinding exec) {
 			if (exec == null) {
 				return null;
 			}
@@ -439,8 +458,85 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return ref;
 		}
 
-		// Map<TypeBinding, CtTypeReference<?>> bindingCache = new
-		// HashMap<TypeBinding, CtTypeReference<?>>();
+		/**
+		 * The references built from the bindings which do not depend on the
+		 * context (see {@link #isCacheable(TypeBinding)}), by binding, for the
+		 * explicit and the implicit references. A reference is copied from
+		 * its template, since the references are mutable.
+		 */
+		Map<TypeBinding, CtTypeReference<?>> bindingCache = new IdentityHashMap<TypeBinding, CtTypeReference<?>>();
+
+		Map<TypeBinding, CtTypeReference<?>> implicitBindingCache = new IdentityHashMap<TypeBinding, CtTypeReference<?>>();
+
+		/**
+		 * The number of references of cacheable bindings built, and of those
+		 * copied from the cache.
+		 */
+		int cacheLookups = 0;
+
+		int cacheHits = 0;
+
+		/**
+		 * Tells if the reference of a binding only depends on this binding: the
+		 * types of the classpath and the member types of the sources, their
+		 * parameterizations and arrays, without type variables, wildcards and
+		 * type annotations.
+		 */
+		private boolean isCacheable(TypeBinding binding) {
+			if (binding.hasTypeAnnotations()) {
+				return false;
+			}
+			if (binding instanceof BaseTypeBinding) {
+				return true;
+			}
+			if (binding instanceof ArrayBinding) {
+				return isCacheable(binding.leafComponentType());
+			}
+			if (binding instanceof RawTypeBinding || binding instanceof MissingTypeBinding || binding instanceof LocalTypeBinding || binding.isAnonymousType()) {
+				return false;
+			}
+			if (binding instanceof ParameterizedTypeBinding) {
+				if (((ParameterizedTypeBinding) binding).arguments != null) {
+					for (TypeBinding b : ((ParameterizedTypeBinding) binding).arguments) {
+						if (!isCacheable(b)) {
+							return false;
+						}
+					}
+				}
+			} else if (!(binding instanceof BinaryTypeBinding) && !(binding instanceof SourceTypeBinding)) {
+				return false;
+			}
+			return binding.enclosingType() == null || isCacheable(binding.enclosingType());
+		}
+
+		/**
+		 * Copies a type reference built from a cacheable binding.
+		 */
+		private CtTypeReference<?> copyTypeReference(CtTypeReference<?> template) {
+			CtTypeReference<?> ref;
+			if (template instanceof CtArrayTypeReference) {
+				CtArrayTypeReference<?> arrayref = factory.Core().createArrayTypeReference();
+				arrayref.setComponentType(copyTypeReference(((CtArrayTypeReference<?>) template).getComponentType()));
+				ref = arrayref;
+			} else if (template instanceof CtImplicitTypeReference) {
+				ref = factory.Core().createImplicitTypeReference();
+			} else {
+				ref = factory.Core().createTypeReference();
+			}
+			ref.setSimpleName(template.getSimpleName());
+			if (template.getDeclaringType() != null) {
+				ref.setDeclaringType(copyTypeReference(template.getDeclaringType()));
+			}
+			if (template.getPackage() != null) {
+				CtPackageReference pack = factory.Core().createPackageReference();
+				pack.setSimpleName(template.getPackage().getSimpleName());
+				ref.setPackage(pack);
+			}
+			for (CtTypeReference<?> argument : template.getActualTypeArguments()) {
+				ref.addActualTypeArgument(copyTypeReference(argument));
+			}
+			return ref;
+		}
 
 		public <T> CtTypeReference<T> getTypeReference(TypeBinding binding, TypeReference ref) {
 			CtTypeReference<T> ctRef = getTypeReference(binding);
@@ -452,13 +548,25 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return ctRef;
 		}
 
-		@SuppressWarnings("unchecked")
 		public <T> CtTypeReference<T> getTypeReference(TypeBinding binding) {
+			synchronized (getBindingLock()) {
+				return buildTypeReference(binding);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> CtTypeReference<T> buildTypeReference(TypeBinding binding) {
 			if (binding == null) {
 				return null;
 			}
 
-			CtTypeReference<?> ref = null;
+			Map<TypeBinding, CtTypeReference<?>> cache = JDTTreeBuilder.this.context.isGenericTypeExplicit ? bindingCache : implicitBindingCache;
+			CtTypeReference<?> ref = cache.get(binding);
+			if (ref != null) {
+				cacheLookups++;
+				cacheHits++;
+				return (CtTypeReference<T>) copyTypeReference(ref);
+			}
 
 			if (binding instanceof RawTypeBinding) {
 				ref = getTypeReference(((ParameterizedTypeBinding) binding).genericType());
@@ -544,7 +652,6 @@ public class JDTTreeBuilder extends ASTVisitor {
 				}
 				if (bounds && b.superInterfaces != null && b.superInterfaces != Binding.NO_SUPERINTERFACES) {
 					bounds = false;
-					// bindingCache.put(binding, ref);
 					for (int i = 0, length = b.superInterfaces.length; i < length; i++) {
 						TypeBinding tb = b.superInterfaces[i];
 						((CtTypeParameterReference) ref).addBound(getTypeReference(tb));
@@ -556,12 +663,10 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 			} else if (binding instanceof BaseTypeBinding) {
 				String name = new String(binding.sourceName());
-				ref = basestypes.get(name);
-				if (ref == null) {
-					ref = factory.Core().createTypeReference();
-					ref.setSimpleName(name);
-					basestypes.put(name, ref);
-				}
+				// the references are not shared, since they tell their owner
+				// when they are modified
+				ref = factory.Core().createTypeReference();
+				ref.setSimpleName(name);
 			} else if (binding instanceof WildcardBinding) {
 				if (!JDTTreeBuilder.this.context.isGenericTypeExplicit) {
 					ref = factory.Core().createImplicitTypeReference();
@@ -639,8 +744,11 @@ public class JDTTreeBuilder extends ASTVisitor {
 			} else {
 				throw new RuntimeException("Unknown TypeBinding: " + binding.getClass() + " " + binding);
 			}
-			// bindingCache.remove(binding);
 			addTypeAnnotationFromBindingToReference(binding, ref);
+			if (isCacheable(binding)) {
+				cacheLookups++;
+				cache.put(binding, copyTypeReference(ref));
+			}
 			return (CtTypeReference<T>) ref;
 		}
 
@@ -654,6 +762,12 @@ public class JDTTreeBuilder extends ASTVisitor {
 		}
 
 		public <A extends java.lang.annotation.Annotation> CtAnnotation<A> getTypeCtAnnotation(AnnotationBinding annotationBinding) {
+			synchronized (getBindingLock()) {
+				return buildTypeCtAnnotation(annotationBinding);
+			}
+		}
+
+		private <A extends java.lang.annotation.Annotation> CtAnnotation<A> buildTypeCtAnnotation(AnnotationBinding annotationBinding) {
 			CtAnnotation<A> a = factory.Core().createAnnotation();
 			CtTypeReference<A> t = references.getTypeReference(annotationBinding.getAnnotationType());
 			a.setAnnotationType(t);
@@ -680,8 +794,14 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return value;
 		}
 
-		@SuppressWarnings("unchecked")
 		public <T> CtVariableReference<T> getVariableReference(MethodBinding methbin) {
+			synchronized (getBindingLock()) {
+				return buildVariableReference(methbin);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> CtVariableReference<T> buildVariableReference(MethodBinding methbin) {
 			CtFieldReference<T> ref = factory.Core().createFieldReference();
 			ref.setSimpleName(new String(methbin.selector));
 			ref.setType((CtTypeReference<T>) getTypeReference(methbin.returnType));
@@ -694,8 +814,14 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return ref;
 		}
 
-		@SuppressWarnings("unchecked")
 		public <T> CtFieldReference<T> getVariableReference(FieldBinding varbin) {
+			synchronized (getBindingLock()) {
+				return buildVariableReference(varbin);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> CtFieldReference<T> buildVariableReference(FieldBinding varbin) {
 			CtFieldReference<T> ref = factory.Core().createFieldReference();
 			if (varbin == null) {
 				return ref;
@@ -713,8 +839,14 @@ public class JDTTreeBuilder extends ASTVisitor {
 			return ref;
 		}
 
-		@SuppressWarnings("unchecked")
 		public <T> CtVariableReference<T> getVariableReference(VariableBinding varbin) {
+			synchronized (getBindingLock()) {
+				return buildVariableReference(varbin);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> CtVariableReference<T> buildVariableReference(VariableBinding varbin) {
 
 			if (varbin instanceof FieldBinding) {
 				return getVariableReference((FieldBinding) varbin);
@@ -867,12 +999,42 @@ public class JDTTreeBuilder extends ASTVisitor {
 
 	public boolean template = false;
 
+	/**
+	 * The compiler that builds the model, used to build the bodies which are
+	 * left out by JDT.
+	 */
+	JDTBasedSpoonCompiler compiler;
+
+	/**
+	 * Tells if the bodies and the field initializers are left out, which is
+	 * set by the compiler for the sources of a declarations-only build only.
+	 */
+	boolean declarationsOnly = false;
+
+	/**
+	 * The loader of the bodies of the current compilation unit.
+	 */
+	private LazyBodyLoader bodyLoader;
+
 	public JDTTreeBuilder(Factory factory) {
 		super();
 		this.factory = factory;
 		LOGGER.setLevel(factory.getEnvironment().getLevel());
 	}
 
+	/**
+	 * Gets the lock held while the bindings are read. The bindings resolve
+	 * themselves lazily against the JDT lookup environment (e.g. the enclosing
+	 * type of a binary type), which is shared by the tree builders of a
+	 * parallel build, so the environment is the lock.
+	 */
+	Object getBindingLock() {
+		if (context.compilationunitdeclaration != null && context.compilationunitdeclaration.scope != null) {
+			return context.compilationunitdeclaration.scope.environment;
+		}
+		return this;
+	}
+
 	private void createExpression(StringLiteralConcatenation literal, BlockScope scope, List<Expression> rst) {
 		if (rst.isEmpty()) {
 			return;
@@ -928,12 +1090,14 @@ public class JDTTreeBuilder extends ASTVisitor {
 				// superclasses aren't in the same package and when their visibilities are "default".
 				List<ModifierKind> modifiers = Arrays.asList(ModifierKind.PUBLIC, ModifierKind.PROTECTED);
 				final TypeBinding resolvedType = typeDeclaration.superclass.resolvedType;
-				if (resolvedType instanceof MemberTypeBinding && resolvedType.enclosingType() != null && !getModifiers(resolvedType.enclosingType().modifiers).containsAll(modifiers)) {
-					typeDeclaration.superclass.resolvedType = new SpoonReferenceBinding(typeDeclaration.superclass.resolvedType.sourceName(),
-							(ReferenceBinding) typeDeclaration.enclosingType.superclass.resolvedType);
-				} else if (resolvedType instanceof BinaryTypeBinding && resolvedType.enclosingType() != null && !getModifiers(resolvedType.enclosingType().modifiers).containsAll(modifiers)) {
-					typeDeclaration.superclass.resolvedType = new SpoonReferenceBinding(typeDeclaration.superclass.resolvedType.sourceName(),
-							(ReferenceBinding) typeDeclaration.enclosingType.superclass.resolvedType);
+				synchronized (getBindingLock()) {
+					if (resolvedType instanceof MemberTypeBinding && resolvedType.enclosingType() != null && !getModifiers(resolvedType.enclosingType().modifiers).containsAll(modifiers)) {
+						typeDeclaration.superclass.resolvedType = new SpoonReferenceBinding(typeDeclaration.superclass.resolvedType.sourceName(),
+								(ReferenceBinding) typeDeclaration.enclosingType.superclass.resolvedType);
+					} else if (resolvedType instanceof BinaryTypeBinding && resolvedType.enclosingType() != null && !getModifiers(resolvedType.enclosingType().modifiers).containsAll(modifiers)) {
+						typeDeclaration.superclass.resolvedType = new SpoonReferenceBinding(typeDeclaration.superclass.resolvedType.sourceName(),
+								(ReferenceBinding) typeDeclaration.enclosingType.superclass.resolvedType);
+					}
 				}
 			}
 			if (typeDeclaration.superclass != null) {
@@ -1000,7 +1164,10 @@ public class JDTTreeBuilder extends ASTVisitor {
 	}
 
 	private String computeAnonymousName(SourceTypeBinding binding) {
-		final String poolName = String.valueOf(binding.constantPoolName());
+		final String poolName;
+		synchronized (getBindingLock()) {
+			poolName = String.valueOf(binding.constantPoolName());
+		}
 		final int lastIndexSeparator = poolName.lastIndexOf(CtType.INNERTTYPE_SEPARATOR);
 		return poolName.substring(lastIndexSeparator + 1, lastIndexSeparator + 2);
 	}
@@ -1945,6 +2112,11 @@ public class JDTTreeBuilder extends ASTVisitor {
 			}
 		}
 
+		if (isBodyLeftOut(constructorDeclaration.scope)) {
+			addLazyBody(c, constructorDeclaration);
+			return false;
+		}
+
 		// Create block
 		if (!constructorDeclaration.isAbstract()) {
 			CtBlock<?> b = factory.Core().createBlock();
@@ -2070,7 +2242,7 @@ public class JDTTreeBuilder extends ASTVisitor {
 			}
 		}
 
-		if (fieldDeclaration.initialization != null) {
+		if (fieldDeclaration.initialization != null && !declarationsOnly) {
 			fieldDeclaration.initialization.traverse(this, scope);
 		}
 		return false;
@@ -2174,9 +2346,75 @@ public class JDTTreeBuilder extends ASTVisitor {
 			b.addModifier(ModifierKind.STATIC);
 		}
 		context.enter(b, initializer);
+		if (isBodyLeftOut(scope)) {
+			addLazyBody(b, initializer);
+			return false;
+		}
 		return true;
 	}
 
+	/**
+	 * Tells if the body of an executable is not built now, either because
+	 * only the declarations are built or because it was not parsed by JDT
+	 * (see {@link TreeBuilderCompiler#ignoreMethodBodies}) and has to be built
+	 * later. The bodies of local and anonymous types are parsed with the body
+	 * or the field in which they are declared.
+	 *
+	 * @param scope
+	 * 		the scope of the executable
+	 */
+	private boolean isBodyLeftOut(MethodScope scope) {
+		if (declarationsOnly) {
+			return true;
+		}
+		if (context.compilationunitdeclaration == null || !context.compilationunitdeclaration.ignoreMethodBodies || scope == null) {
+			return false;
+		}
+		Scope parent = scope.parent;
+		while (parent instanceof ClassScope) {
+			parent = parent.parent;
+		}
+		return parent instanceof CompilationUnitScope;
+	}
+
+	private void addLazyBody(CtElement executable, ASTNode declaration) {
+		if (declarationsOnly) {
+			// the body is never built
+			return;
+		}
+		String path = new String(context.compilationunitdeclaration.getFileName());
+		if (bodyLoader == null || !bodyLoader.getPath().equals(path)) {
+			bodyLoader = new LazyBodyLoader(compiler, path);
+		}
+		bodyLoader.add(executable, declaration);
+	}
+
+	/**
+	 * Builds the body of an executable which was built without it, from its
+	 * declaration in a unit compiled with the method bodies.
+	 */
+	void buildBody(CtElement executable, ASTNode declaration, CompilationUnitDeclaration unit, BlockScope scope) {
+		context.compilationunitdeclaration = unit;
+		context.enter(executable, declaration);
+		if (declaration instanceof Initializer) {
+			((Initializer) declaration).block.traverse(this, scope);
+		} else {
+			AbstractMethodDeclaration method = (AbstractMethodDeclaration) declaration;
+			CtBlock<?> b = factory.Core().createBlock();
+			context.enter(b, method);
+			if (method instanceof ConstructorDeclaration && ((ConstructorDeclaration) method).constructorCall != null) {
+				((ConstructorDeclaration) method).constructorCall.traverse(this, method.scope);
+			}
+			if (method.statements != null) {
+				for (Statement s : method.statements) {
+					s.traverse(this, method.scope);
+				}
+			}
+			context.exit(method);
+		}
+		context.exit(declaration);
+	}
+
 	@Override
 	public boolean visit(InstanceOfExpression instanceOfExpression, BlockScope scope) {
 		CtBinaryOperator<?> op = factory.Core().createBinaryOperator();
@@ -2385,8 +2623,12 @@ public class JDTTreeBuilder extends ASTVisitor {
 			}
 		}
 
-		// Create block
 		if (!methodDeclaration.isAbstract() && (methodDeclaration.modifiers & ClassFileConstants.AccNative) == 0) {
+			if (isBodyLeftOut(methodDeclaration.scope)) {
+				addLazyBody(m, methodDeclaration);
+				return false;
+			}
+			// Create block
 			CtBlock<?> b = factory.Core().createBlock();
 			context.enter(b, methodDeclaration);
 		}
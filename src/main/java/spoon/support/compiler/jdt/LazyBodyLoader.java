@@ -0,0 +1,103 @@
+package spoon.support.compiler.jdt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.ASTVisitor;
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.ConstructorDeclaration;
+import org.eclipse.jdt.internal.compiler.ast.Initializer;
+import org.eclipse.jdt.internal.compiler.ast.MethodDeclaration;
+import org.eclipse.jdt.internal.compiler.lookup.BlockScope;
+import org.eclipse.jdt.internal.compiler.lookup.ClassScope;
+import org.eclipse.jdt.internal.compiler.lookup.MethodScope;
+
+import spoon.reflect.declaration.CtElement;
+import spoon.support.reflect.declaration.BodyLoader;
+import spoon.support.reflect.declaration.CtAnonymousExecutableImpl;
+import spoon.support.reflect.declaration.CtExecutableImpl;
+
+/**
+ * Builds the bodies of the executables of a compilation unit that was built
+ * without them (see {@link spoon.compiler.Environment#setLazyBodies(boolean)}).
+ * When the first of these bodies is accessed, the unit is compiled again with
+ * its method bodies and all the bodies are built at once.
+ */
+class LazyBodyLoader implements BodyLoader {
+
+	private final JDTBasedSpoonCompiler compiler;
+
+	private final String path;
+
+	/**
+	 * The executables which body is not built yet, by source start of their
+	 * declaration.
+	 */
+	private final Map<Integer, CtElement> executables = new HashMap<Integer, CtElement>();
+
+	LazyBodyLoader(JDTBasedSpoonCompiler compiler, String path) {
+		this.compiler = compiler;
+		this.path = path;
+	}
+
+	String getPath() {
+		return path;
+	}
+
+	void add(CtElement executable, ASTNode declaration) {
+		executables.put(declaration.sourceStart, executable);
+		setBodyLoader(executable, this);
+	}
+
+	private static void setBodyLoader(CtElement executable, BodyLoader loader) {
+		if (executable instanceof CtExecutableImpl) {
+			((CtExecutableImpl<?>) executable).setBodyLoader(loader);
+		} else {
+			((CtAnonymousExecutableImpl) executable).setBodyLoader(loader);
+		}
+	}
+
+	@Override
+	public synchronized void loadBodies() {
+		if (executables.isEmpty()) {
+			return;
+		}
+		try {
+			final CompilationUnitDeclaration unit = compiler.buildUnitWithBodies(path);
+			final JDTTreeBuilder builder = new JDTTreeBuilder(compiler.getFactory());
+			unit.traverse(new ASTVisitor() {
+				@Override
+				public boolean visit(MethodDeclaration methodDeclaration, ClassScope scope) {
+					return buildBody(methodDeclaration, methodDeclaration.scope);
+				}
+
+				@Override
+				public boolean visit(ConstructorDeclaration constructorDeclaration, ClassScope scope) {
+					return buildBody(constructorDeclaration, constructorDeclaration.scope);
+				}
+
+				@Override
+				public boolean visit(Initializer initializer, MethodScope scope) {
+					return buildBody(initializer, scope);
+				}
+
+				private boolean buildBody(ASTNode declaration, BlockScope scope) {
+					CtElement executable = executables.remove(declaration.sourceStart);
+					if (executable != null) {
+						builder.buildBody(executable, declaration, unit, scope);
+					}
+					return false;
+				}
+			}, unit.scope);
+		} finally {
+			// the executables that were not found keep a null body
+			for (CtElement executable : new ArrayList<CtElement>(executables.values())) {
+				setBodyLoader(executable, null);
+			}
+			executables.clear();
+		}
+	}
+
+}
@@ -0,0 +1,481 @@
+package spoon.support.compiler.jdt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+
+import spoon.SpoonException;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.reference.CtReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelNode;
+
+/**
+ * An on-disk cache of the types declared by compilation units. An entry is
+ * keyed by a digest of the unit source and of the build configuration (the
+ * JDT arguments, that contain the classpath and the compliance level, and the
+ * size and the modification time of the files of the classpath). The types
+ * are serialized apart from the rest of the model: the packages and the
+ * compilation unit they refer to are written by name and resolved in the
+ * factory when the entry is loaded.
+ *
+ * <p>
+ * The model of a unit also depends on the other units, since its references
+ * are resolved against their types. An entry thus records the digests of the
+ * sources of the units which declare the types it refers to, and it is not
+ * loaded if one of them changed. The least recently used entries are deleted
+ * when the size of the cache exceeds its maximum size.
+ * </p>
+ */
+class ModelCache {
+
+	/**
+	 * The default maximum size of the cache directory, in bytes.
+	 */
+	static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+	private final Factory factory;
+
+	private final File directory;
+
+	private final byte[] configuration;
+
+	private long maxSize = DEFAULT_MAX_SIZE;
+
+	ModelCache(Factory factory, File directory, List<String> buildArgs) {
+		this.factory = factory;
+		this.directory = directory;
+		this.configuration = digest(buildArgs.toString().getBytes(Charset.forName("UTF-8")), digestClasspath(buildArgs));
+	}
+
+	/**
+	 * Sets the maximum size of the cache directory, in bytes.
+	 */
+	void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Digests the paths, the sizes and the modification times of the files
+	 * of the classpath given in the build arguments, so that the entries are
+	 * not loaded when a jar or a class is replaced.
+	 */
+	private static byte[] digestClasspath(List<String> buildArgs) {
+		int cp = buildArgs.indexOf("-cp");
+		if (cp < 0 || cp + 1 >= buildArgs.size()) {
+			return new byte[0];
+		}
+		StringBuilder files = new StringBuilder();
+		for (String path : buildArgs.get(cp + 1).split(File.pathSeparator)) {
+			appendClasspathFile(files, new File(path));
+		}
+		return digest(files.toString().getBytes(Charset.forName("UTF-8")));
+	}
+
+	private static void appendClasspathFile(StringBuilder files, File file) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					if (child.isDirectory() || child.getName().endsWith(".class")) {
+						appendClasspathFile(files, child);
+					}
+				}
+			}
+		} else if (file.isFile()) {
+			files.append(file.getPath()).append(':').append(file.length()).append(':').append(file.lastModified()).append('\n');
+		}
+	}
+
+	/**
+	 * Gets the key of the entry of a unit which source has the given digest.
+	 */
+	String getKey(byte[] sourceDigest) {
+		byte[] key = digest(configuration, sourceDigest);
+		StringBuilder builder = new StringBuilder(key.length * 2);
+		for (byte b : key) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+			builder.append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+
+	private static byte[] digest(byte[]... contents) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			for (byte[] content : contents) {
+				digest.update(content);
+			}
+			return digest.digest();
+		} catch (Exception e) {
+			throw new SpoonException(e);
+		}
+	}
+
+	private File getEntry(String key) {
+		return new File(directory, key + ".ser");
+	}
+
+	/**
+	 * Loads the types of the compilation unit of the given path in the
+	 * factory.
+	 *
+	 * @param sourceDigests
+	 * 		the digests of the sources of the units of the build, by path
+	 * @return false if there is no entry for this key, if one of the units
+	 * it depends on changed or if it cannot be read
+	 */
+	boolean load(String path, String key, Map<String, byte[]> sourceDigests) {
+		File entry = getEntry(key);
+		if (!entry.isFile()) {
+			return false;
+		}
+		final CompilationUnit cu = factory.CompilationUnit().create(path);
+		List<CtType<?>> types;
+		InputStream in = null;
+		try {
+			in = new BufferedInputStream(new FileInputStream(entry));
+			ObjectInputStream ois = new EntryInputStream(in, cu);
+			@SuppressWarnings("unchecked") Map<String, byte[]> dependencies = (Map<String, byte[]>) ois.readObject();
+			for (Map.Entry<String, byte[]> dependency : dependencies.entrySet()) {
+				if (!Arrays.equals(dependency.getValue(), sourceDigests.get(dependency.getKey()))) {
+					factory.getEnvironment().debugMessage("cached unit " + path + " is outdated by " + dependency.getKey());
+					factory.CompilationUnit().getMap().remove(path);
+					return false;
+				}
+			}
+			@SuppressWarnings("unchecked") List<CtType<?>> read = (List<CtType<?>>) ois.readObject();
+			types = read;
+		} catch (Exception e) {
+			factory.getEnvironment().debugMessage("cannot load cached unit " + path + ": " + e);
+			factory.CompilationUnit().getMap().remove(path);
+			return false;
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+		for (CtType<?> type : types) {
+			new CtScanner() {
+				// the owners of the references are not serialized
+				private final Deque<ModelNode> owners = new ArrayDeque<ModelNode>();
+
+				@Override
+				public void enter(CtElement e) {
+					e.setFactory(factory);
+					owners.push((ModelNode) e);
+					super.enter(e);
+				}
+
+				@Override
+				protected void exit(CtElement e) {
+					owners.pop();
+					super.exit(e);
+				}
+
+				@Override
+				protected void enterReference(CtReference e) {
+					e.setFactory(factory);
+					CtReferenceImpl.setOwner(e, owners.peek());
+					owners.push((ModelNode) e);
+					super.enterReference(e);
+				}
+
+				@Override
+				protected void exitReference(CtReference e) {
+					owners.pop();
+					super.exitReference(e);
+				}
+			}.scan(type);
+			CtPackage pack = (CtPackage) type.getParent();
+			pack.removeType(type);
+			pack.addType(type);
+			cu.getDeclaredTypes().add(type);
+		}
+		// the least recently used entries are evicted first
+		entry.setLastModified(System.currentTimeMillis());
+		return true;
+	}
+
+	/**
+	 * Stores the types of the compilation units of the given paths, and
+	 * evicts the least recently used entries if the cache is too large.
+	 *
+	 * @param keys
+	 * 		the keys of the entries, by path
+	 * @param sourceDigests
+	 * 		the digests of the sources of the units of the build, by path
+	 */
+	void store(Collection<String> paths, Map<String, String> keys, Map<String, byte[]> sourceDigests) {
+		Map<CompilationUnit, String> unitPaths = new IdentityHashMap<CompilationUnit, String>();
+		for (Map.Entry<String, CompilationUnit> unit : factory.CompilationUnit().getMap().entrySet()) {
+			unitPaths.put(unit.getValue(), unit.getKey());
+		}
+		for (String path : paths) {
+			String key = keys.get(path);
+			if (key != null) {
+				store(path, key, getDependencies(path, unitPaths, sourceDigests));
+			}
+		}
+		evict();
+	}
+
+	/**
+	 * Gets the digests of the sources of the units declaring the types the
+	 * types of the unit of the given path refer to, and their supertypes
+	 * transitively, by path.
+	 */
+	private Map<String, byte[]> getDependencies(String path, Map<CompilationUnit, String> unitPaths, Map<String, byte[]> sourceDigests) {
+		CompilationUnit cu = factory.CompilationUnit().getMap().get(path);
+		if (cu == null) {
+			return new HashMap<String, byte[]>();
+		}
+		DependencyScanner scanner = new DependencyScanner(path, unitPaths, sourceDigests);
+		for (CtType<?> type : cu.getDeclaredTypes()) {
+			scanner.addDependency(type);
+			scanner.scan(type);
+		}
+		return scanner.dependencies;
+	}
+
+	/**
+	 * Collects the units declaring the types referred to by the scanned
+	 * elements. The units declaring their supertypes are collected as well,
+	 * since the members a unit uses may be inherited from them.
+	 */
+	private class DependencyScanner extends CtScanner {
+		final Map<String, byte[]> dependencies = new HashMap<String, byte[]>();
+
+		private final String path;
+
+		private final Map<CompilationUnit, String> unitPaths;
+
+		private final Map<String, byte[]> sourceDigests;
+
+		private final Set<CtType<?>> visited = Collections.newSetFromMap(new IdentityHashMap<CtType<?>, Boolean>());
+
+		DependencyScanner(String path, Map<CompilationUnit, String> unitPaths, Map<String, byte[]> sourceDigests) {
+			this.path = path;
+			this.unitPaths = unitPaths;
+			this.sourceDigests = sourceDigests;
+		}
+
+		@Override
+		public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
+			addDependency(factory.Type().get(reference.getQualifiedName()));
+			super.visitCtTypeReference(reference);
+		}
+
+		void addDependency(CtType<?> type) {
+			if (type == null || !visited.add(type)) {
+				return;
+			}
+			if (type.getPosition() != null) {
+				String dependency = unitPaths.get(type.getPosition().getCompilationUnit());
+				if (dependency != null && !dependency.equals(path) && sourceDigests.containsKey(dependency)) {
+					dependencies.put(dependency, sourceDigests.get(dependency));
+				}
+			}
+			if (type.getSuperclass() != null) {
+				addDependency(factory.Type().get(type.getSuperclass().getQualifiedName()));
+			}
+			for (CtTypeReference<?> superInterface : type.getSuperInterfaces()) {
+				addDependency(factory.Type().get(superInterface.getQualifiedName()));
+			}
+		}
+	}
+
+	private void store(String path, String key, Map<String, byte[]> dependencies) {
+		CompilationUnit cu = factory.CompilationUnit().getMap().get(path);
+		if (cu == null || cu.getDeclaredTypes().isEmpty()) {
+			// package-info units only hold package annotations
+			return;
+		}
+		File entry = getEntry(key);
+		File tmp = new File(directory, key + ".tmp");
+		OutputStream out = null;
+		try {
+			directory.mkdirs();
+			out = new BufferedOutputStream(new FileOutputStream(tmp));
+			ObjectOutputStream oos = new EntryOutputStream(out);
+			oos.writeObject(dependencies);
+			oos.writeObject(new ArrayList<CtType<?>>(cu.getDeclaredTypes()));
+			oos.close();
+			if (!tmp.renameTo(entry)) {
+				tmp.delete();
+			}
+		} catch (IOException e) {
+			factory.getEnvironment().debugMessage("cannot cache unit " + path + ": " + e);
+			tmp.delete();
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the size of the cache
+	 * does not exceed its maximum size.
+	 */
+	private void evict() {
+		File[] entries = directory.listFiles();
+		if (entries == null) {
+			return;
+		}
+		long size = 0;
+		for (File entry : entries) {
+			size += entry.length();
+		}
+		if (size <= maxSize) {
+			return;
+		}
+		final Map<File, Long> lastModified = new HashMap<File, Long>();
+		for (File entry : entries) {
+			lastModified.put(entry, entry.lastModified());
+		}
+		List<File> sorted = new ArrayList<File>(Arrays.asList(entries));
+		Collections.sort(sorted, new Comparator<File>() {
+			@Override
+			public int compare(File f1, File f2) {
+				return lastModified.get(f1).compareTo(lastModified.get(f2));
+			}
+		});
+		for (File entry : sorted) {
+			if (size <= maxSize) {
+				break;
+			}
+			long length = entry.length();
+			if (entry.getName().endsWith(".ser") && entry.delete()) {
+				size -= length;
+			}
+		}
+	}
+
+	/**
+	 * Stands for a package in a cache entry.
+	 */
+	private static class PackageName implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		final String qualifiedName;
+
+		PackageName(String qualifiedName) {
+			this.qualifiedName = qualifiedName;
+		}
+	}
+
+	/**
+	 * Stands for the compilation unit of a cache entry.
+	 */
+	private static class CompilationUnitMarker implements Serializable {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static class EntryOutputStream extends ObjectOutputStream {
+		EntryOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof CtPackage) {
+				return new PackageName(((CtPackage) obj).getQualifiedName());
+			}
+			if (obj instanceof CompilationUnit) {
+				return new CompilationUnitMarker();
+			}
+			return obj;
+		}
+	}
+
+	private class EntryInputStream extends ObjectInputStream {
+		private final CompilationUnit cu;
+
+		EntryInputStream(InputStream in, CompilationUnit cu) throws IOException {
+			super(in);
+			this.cu = cu;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof PackageName) {
+				return factory.Package().getOrCreate(((PackageName) obj).qualifiedName);
+			}
+			if (obj instanceof CompilationUnitMarker) {
+				return cu;
+			}
+			return obj;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			// an entry only holds elements of the model, which is checked
+			// before any class of the stream is loaded
+			if (!isAllowed(desc.getName())) {
+				throw new InvalidClassException(desc.getName(), "not allowed in a cache entry");
+			}
+			try {
+				return Class.forName(desc.getName(), false, ModelCache.class.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+
+		/**
+		 * Tells if a class of the given name may be read from an entry: the
+		 * classes of Spoon, which include the markers of the entries, the
+		 * classes of java.util and java.lang, and their arrays.
+		 */
+		private boolean isAllowed(String name) {
+			String className = name;
+			while (className.startsWith("[")) {
+				className = className.substring(1);
+			}
+			if (className.length() == 1) {
+				// an array of a primitive type
+				return name.startsWith("[");
+			}
+			if (className.startsWith("L") && className.endsWith(";")) {
+				className = className.substring(1, className.length() - 1);
+			}
+			return className.startsWith("spoon.") || isInPackage(className, "java.util") || isInPackage(className, "java.lang");
+		}
+
+		private boolean isInPackage(String className, String packageName) {
+			return className.startsWith(packageName + ".") && className.indexOf('.', packageName.length() + 1) < 0;
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+package spoon.support.compiler.jdt;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+
+/**
+ * A name environment that answers the types of an already built model (or of
+ * an index of the input files) with the source files they come from, so that
+ * a subset of the input files can be built without giving all the other files
+ * to JDT. The lookups are first delegated to the given environment (the
+ * classpath).
+ */
+class ModelNameEnvironment implements INameEnvironment {
+
+	private final INameEnvironment delegate;
+
+	private final String encoding;
+
+	private final Map<String, String> typeFiles;
+
+	private final Set<String> packages;
+
+	private final Collection<String> builtPaths;
+
+	/**
+	 * @param builtPaths
+	 * 		the paths of the units being built, which types must not be
+	 * 		answered from the model
+	 */
+	ModelNameEnvironment(Factory factory, INameEnvironment delegate, String encoding, Collection<String> builtPaths) {
+		this(delegate, encoding, new HashMap<String, String>(), new HashSet<String>(), builtPaths);
+		for (Map.Entry<String, spoon.reflect.cu.CompilationUnit> entry : factory.CompilationUnit().getMap().entrySet()) {
+			for (CtType<?> type : entry.getValue().getDeclaredTypes()) {
+				typeFiles.put(type.getQualifiedName(), entry.getKey());
+			}
+		}
+		for (CtPackage pack : factory.Package().getAll()) {
+			packages.add(pack.getQualifiedName());
+		}
+	}
+
+	/**
+	 * @param typeFiles
+	 * 		the paths of the source files, by qualified name of the types they
+	 * 		declare
+	 * @param packages
+	 * 		the qualified names of the packages of these types
+	 * @param builtPaths
+	 * 		the paths of the units being built, which types must not be
+	 * 		answered
+	 */
+	ModelNameEnvironment(INameEnvironment delegate, String encoding, Map<String, String> typeFiles, Set<String> packages, Collection<String> builtPaths) {
+		this.delegate = delegate;
+		this.encoding = encoding;
+		this.typeFiles = typeFiles;
+		this.packages = packages;
+		this.builtPaths = builtPaths;
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+		NameEnvironmentAnswer answer = delegate.findType(compoundTypeName);
+		if (answer != null) {
+			return answer;
+		}
+		return findSourceType(CharOperation.toString(compoundTypeName));
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+		NameEnvironmentAnswer answer = delegate.findType(typeName, packageName);
+		if (answer != null) {
+			return answer;
+		}
+		if (packageName == null || packageName.length == 0) {
+			return findSourceType(new String(typeName));
+		}
+		return findSourceType(CharOperation.toString(packageName) + CtPackage.PACKAGE_SEPARATOR + new String(typeName));
+	}
+
+	private NameEnvironmentAnswer findSourceType(String qualifiedName) {
+		String path = typeFiles.get(qualifiedName);
+		if (path == null || builtPaths.contains(path) || !new File(path).isFile()) {
+			return null;
+		}
+		return new NameEnvironmentAnswer(new CompilationUnit(null, path, encoding), null);
+	}
+
+	@Override
+	public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+		if (delegate.isPackage(parentPackageName, packageName)) {
+			return true;
+		}
+		if (parentPackageName == null || parentPackageName.length == 0) {
+			return packages.contains(new String(packageName));
+		}
+		return packages.contains(CharOperation.toString(parentPackageName) + CtPackage.PACKAGE_SEPARATOR + new String(packageName));
+	}
+
+	@Override
+	public void cleanup() {
+		delegate.cleanup();
+	}
+
+}
@@ -437,10 +437,8 @@ public class ParentExiter extends CtInheritanceScanner {
 	@Override
 	public void visitCtPackage(CtPackage ctPackage) {
 		if (child instanceof CtType) {
-			if (ctPackage.getTypes().contains(child)) {
-				ctPackage.getTypes().remove(child);
-			}
-			ctPackage.getTypes().add((CtType<?>) child);
+			ctPackage.removeType((CtType<?>) child);
+			ctPackage.addType((CtType<?>) child);
 			this.jdtTreeBuilder.context.addCreatedType((CtType<?>) child);
 			if (child.getPosition() != null && child.getPosition().getCompilationUnit() != null) {
 				child.getPosition().getCompilationUnit().getDeclaredTypes().add((CtType<?>) child);
@@ -0,0 +1,253 @@
+package spoon.support.compiler.jdt;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+
+/**
+ * A jar of the classpath shared by all the builds of the JVM, so that it is
+ * opened and its packages are indexed once instead of once per name
+ * environment (see {@link JDTBatchCompiler#getLibraryAccess()}). A jar is
+ * shared as long as its modification date and its size do not change: a
+ * changed jar is opened again by the next build, the former one being closed
+ * when the builds using it release it.
+ *
+ * <p>
+ * The name environments release their jars when they are cleaned up. The
+ * jars which are not used anymore are kept open for the next builds, up to
+ * {@link #MAX_IDLE_JARS} jars, the least recently released ones being closed.
+ * A closed jar is opened again if it is still used, e.g. by the bodies of the
+ * methods built lazily.
+ * </p>
+ */
+class SharedClasspathJar implements FileSystem.Classpath {
+
+	/**
+	 * The maximal number of jars kept open while no build uses them.
+	 */
+	static final int MAX_IDLE_JARS = 512;
+
+	private static final Map<String, SharedClasspathJar> JARS = new HashMap<String, SharedClasspathJar>();
+
+	/**
+	 * The open jars which no build uses, the least recently released first.
+	 */
+	private static final Set<SharedClasspathJar> IDLE_JARS = new LinkedHashSet<SharedClasspathJar>();
+
+	/**
+	 * Gets the shared jar of the same file as the given jar entry, which is
+	 * used until it is released by {@link #reset()}.
+	 */
+	static synchronized FileSystem.Classpath get(ClasspathJar jar) {
+		File file = new File(jar.getPath());
+		SharedClasspathJar shared = JARS.get(jar.getPath());
+		if (shared != null && (shared.lastModified != file.lastModified() || shared.length != file.length())) {
+			// the builds using the former jar still read it
+			JARS.remove(jar.getPath());
+			shared.stale = true;
+			if (shared.references == 0) {
+				IDLE_JARS.remove(shared);
+				shared.close();
+			}
+			shared = null;
+		}
+		if (shared == null) {
+			shared = new SharedClasspathJar(jar, file);
+			JARS.put(jar.getPath(), shared);
+		}
+		shared.references++;
+		IDLE_JARS.remove(shared);
+		return shared;
+	}
+
+	private static synchronized void release(SharedClasspathJar shared) {
+		if (shared.references == 0 || --shared.references > 0) {
+			return;
+		}
+		if (shared.stale) {
+			shared.close();
+			return;
+		}
+		IDLE_JARS.add(shared);
+		if (IDLE_JARS.size() > MAX_IDLE_JARS) {
+			Iterator<SharedClasspathJar> it = IDLE_JARS.iterator();
+			SharedClasspathJar eldest = it.next();
+			it.remove();
+			JARS.remove(eldest.getPath());
+			eldest.close();
+		}
+	}
+
+	private final ClasspathJar jar;
+
+	private final long lastModified;
+
+	private final long length;
+
+	/**
+	 * The number of the name environments using this jar.
+	 */
+	private int references = 0;
+
+	/**
+	 * Tells if the file changed since this jar was opened.
+	 */
+	private boolean stale = false;
+
+	/**
+	 * Tells if the jar is open, the lookups being done while it is not
+	 * closed.
+	 */
+	private volatile boolean open = false;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private SharedClasspathJar(ClasspathJar jar, File file) {
+		this.jar = jar;
+		this.lastModified = file.lastModified();
+		this.length = file.length();
+	}
+
+	@Override
+	public void initialize() throws IOException {
+		lock.writeLock().lock();
+		try {
+			if (!open) {
+				jar.initialize();
+				// builds the package index, which is then only read
+				jar.isPackage("");
+				open = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Releases this jar, which is closed if no build uses it (see
+	 * {@link #MAX_IDLE_JARS}).
+	 */
+	@Override
+	public void reset() {
+		release(this);
+	}
+
+	/**
+	 * Closes the jar, once the lookups in progress are done.
+	 */
+	private void close() {
+		lock.writeLock().lock();
+		try {
+			jar.reset();
+			open = false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Starts a lookup in the jar, which is opened again if it was closed.
+	 *
+	 * @return false if the jar cannot be opened
+	 */
+	private boolean startLookup() {
+		lock.readLock().lock();
+		while (!open) {
+			lock.readLock().unlock();
+			try {
+				initialize();
+			} catch (IOException e) {
+				return false;
+			}
+			lock.readLock().lock();
+		}
+		return true;
+	}
+
+	private void endLookup() {
+		lock.readLock().unlock();
+	}
+
+	@Override
+	public char[][][] findTypeNames(String qualifiedPackageName) {
+		if (!startLookup()) {
+			return null;
+		}
+		try {
+			return jar.findTypeNames(qualifiedPackageName);
+		} finally {
+			endLookup();
+		}
+	}
+
+	@Override
+	public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageName, String qualifiedBinaryFileName) {
+		if (!startLookup()) {
+			return null;
+		}
+		try {
+			return jar.findClass(typeName, qualifiedPackageName, qualifiedBinaryFileName);
+		} finally {
+			endLookup();
+		}
+	}
+
+	@Override
+	public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageName, String qualifiedBinaryFileName, boolean asBinaryOnly) {
+		if (!startLookup()) {
+			return null;
+		}
+		try {
+			return jar.findClass(typeName, qualifiedPackageName, qualifiedBinaryFileName, asBinaryOnly);
+		} finally {
+			endLookup();
+		}
+	}
+
+	@Override
+	public boolean isPackage(String qualifiedPackageName) {
+		if (!startLookup()) {
+			return false;
+		}
+		try {
+			return jar.isPackage(qualifiedPackageName);
+		} finally {
+			endLookup();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public List fetchLinkedJars(FileSystem.ClasspathSectionProblemReporter problemReporter) {
+		return jar.fetchLinkedJars(problemReporter);
+	}
+
+	@Override
+	public char[] normalizedPath() {
+		return jar.normalizedPath();
+	}
+
+	@Override
+	public String getPath() {
+		return jar.getPath();
+	}
+
+	/**
+	 * Tells if the jar is open.
+	 */
+	boolean isOpen() {
+		return open;
+	}
+
+}
@@ -1,6 +1,8 @@
 package spoon.support.compiler.jdt;
 
+import java.io.File;
 import java.io.PrintWriter;
+import java.util.Arrays;
 
 import org.eclipse.jdt.core.compiler.CompilationProgress;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
@@ -13,6 +15,12 @@ import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 
 class TreeBuilderCompiler extends org.eclipse.jdt.internal.compiler.Compiler {
 
+	/**
+	 * When true, the method bodies of the units are not parsed (see
+	 * {@link JDTTreeBuilder}).
+	 */
+	boolean ignoreMethodBodies = false;
+
 	TreeBuilderCompiler(INameEnvironment environment, IErrorHandlingPolicy policy, CompilerOptions options,
 			ICompilerRequestor requestor, IProblemFactory problemFactory, PrintWriter out,
 			CompilationProgress progress) {
@@ -20,6 +28,16 @@ class TreeBuilderCompiler extends org.eclipse.jdt.internal.compiler.Compiler {
 	}
 
 	public CompilationUnitDeclaration[] buildUnits(CompilationUnit[] sourceUnits) {
+		return buildUnits(sourceUnits, true);
+	}
+
+	/**
+	 * Builds the given source units. When <code>injectedUnits</code> is
+	 * false, the units injected by the lookup environment (e.g. the source
+	 * files answered by the name environment) are only used to complete the
+	 * bindings: they are neither resolved nor returned.
+	 */
+	public CompilationUnitDeclaration[] buildUnits(CompilationUnit[] sourceUnits, boolean injectedUnits) {
 
 		// //////////////////////////////////////////////////////////////////////////
 		// This code is largely inspired from JDT's
@@ -32,10 +50,15 @@ class TreeBuilderCompiler extends org.eclipse.jdt.internal.compiler.Compiler {
 
 		// process all units (some more could be injected in the loop by
 		// the lookup environment)
-		for (; i < this.totalUnits; i++) {
+		for (; i < (injectedUnits ? this.totalUnits : sourceUnits.length); i++) {
 			unit = unitsToProcess[i];
 			// System.err.println(unit);
-			this.parser.getMethodBodies(unit);
+			// the bodies of in-memory units could not be parsed later
+			if (ignoreMethodBodies && new File(new String(unit.getFileName())).isFile()) {
+				unit.ignoreMethodBodies = true;
+			} else {
+				this.parser.getMethodBodies(unit);
+			}
 
 			// fault in fields & methods
 			if (unit.scope != null) {
@@ -49,13 +72,18 @@ class TreeBuilderCompiler extends org.eclipse.jdt.internal.compiler.Compiler {
 
 			// type checking
 			unit.resolve();
-			// flow analysis
-			unit.analyseCode();
+			// flow analysis (which needs the bodies)
+			if (!unit.ignoreMethodBodies) {
+				unit.analyseCode();
+			}
 
 			unit.ignoreFurtherInvestigation = false;
 			requestor.acceptResult(unit.compilationResult);
 		}
 
+		if (!injectedUnits) {
+			return Arrays.copyOf(this.unitsToProcess, sourceUnits.length);
+		}
 		return this.unitsToProcess;
 	}
 }
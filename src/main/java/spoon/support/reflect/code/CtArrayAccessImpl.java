@@ -40,6 +40,7 @@ public abstract class CtArrayAccessImpl<T, V extends CtExpression<?>>
 
 	@Override
 	public <C extends CtArrayAccess<T, V>> C setIndexExpression(CtExpression<Integer> expression) {
+		modified();
 		expression.setParent(this);
 		this.expression = expression;
 		return (C) this;
@@ -40,6 +40,7 @@ public class CtAssertImpl<T> extends CtStatementImpl implements CtAssert<T> {
 
 	@Override
 	public <A extends CtAssert<T>> A setAssertExpression(CtExpression<Boolean> asserted) {
+		modified();
 		asserted.setParent(this);
 		this.asserted = asserted;
 		return (A) this;
@@ -52,6 +53,7 @@ public class CtAssertImpl<T> extends CtStatementImpl implements CtAssert<T> {
 
 	@Override
 	public <A extends CtAssert<T>> A setExpression(CtExpression<T> value) {
+		modified();
 		if (value != null) {
 			value.setParent(this);
 		}
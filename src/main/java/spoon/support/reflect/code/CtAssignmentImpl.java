@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtAssignment;
@@ -30,6 +29,8 @@ import spoon.reflect.declaration.CtTypedElement;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.CASTS_CONTAINER_DEFAULT_CAPACITY;
 
@@ -71,6 +72,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 
 	@Override
 	public <C extends CtAssignment<T, A>> C setAssigned(CtExpression<T> assigned) {
+		modified();
 		assigned.setParent(this);
 		this.assigned = assigned;
 		return (C) this;
@@ -78,6 +80,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 
 	@Override
 	public <C extends CtRHSReceiver<A>> C setAssignment(CtExpression<A> assignment) {
+		modified();
 		assignment.setParent(this);
 		this.assignment = assignment;
 		return (C) this;
@@ -85,20 +88,24 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExpression<T>> C setTypeCasts(List<CtTypeReference<?>> casts) {
-		this.typeCasts = casts;
+		modified();
+		this.typeCasts = new ModelList<CtTypeReference<?>>(this, casts);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExpression<T>> C addTypeCast(CtTypeReference<?> type) {
+		modified();
 		if (typeCasts == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			typeCasts = new ArrayList<CtTypeReference<?>>(CASTS_CONTAINER_DEFAULT_CAPACITY);
+			typeCasts = new ModelList<CtTypeReference<?>>(this, CASTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		typeCasts.add(type);
 		return (C) this;
@@ -106,6 +113,7 @@ public class CtAssignmentImpl<T, A extends T> extends CtStatementImpl implements
 
 	@Override
 	public <E extends T> void replace(CtExpression<E> element) {
+		modified();
 		replace((CtElement) element);
 	}
 
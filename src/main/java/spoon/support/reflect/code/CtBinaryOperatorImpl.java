@@ -48,6 +48,7 @@ public class CtBinaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtBi
 
 	@Override
 	public <C extends CtBinaryOperator<T>> C setLeftHandOperand(CtExpression<?> expression) {
+		modified();
 		expression.setParent(this);
 		leftHandOperand = expression;
 		return (C) this;
@@ -55,6 +56,7 @@ public class CtBinaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtBi
 
 	@Override
 	public <C extends CtBinaryOperator<T>> C setRightHandOperand(CtExpression<?> expression) {
+		modified();
 		expression.setParent(this);
 		rightHandOperand = expression;
 		return (C) this;
@@ -62,6 +64,7 @@ public class CtBinaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtBi
 
 	@Override
 	public <C extends CtBinaryOperator<T>> C setKind(BinaryOperatorKind kind) {
+		modified();
 		this.kind = kind;
 		return (C) this;
 	}
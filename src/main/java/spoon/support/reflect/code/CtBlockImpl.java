@@ -30,6 +30,7 @@ import spoon.reflect.visitor.CtVisitor;
 import spoon.reflect.visitor.Filter;
 import spoon.reflect.visitor.Query;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -67,6 +68,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtBlock<R>> T insertBegin(CtStatementList statements) {
+		modified();
 		if (getParent() != null
 				&& getParent() instanceof CtConstructor
 				&& getStatements().size() > 0) {
@@ -80,7 +82,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 			}
 		}
 		if (this.statements == CtElementImpl.<CtStatement>emptyList()) {
-			this.statements = new ArrayList<CtStatement>(
+			this.statements = new ModelList<CtStatement>(this,
 					statements.getStatements().size()
 							+ BLOCK_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
@@ -90,6 +92,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtBlock<R>> T insertBegin(CtStatement statement) {
+		modified();
 		try {
 			if (getParent() != null
 					&& getParent() instanceof CtConstructor
@@ -113,6 +116,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtBlock<R>> T insertEnd(CtStatement statement) {
+		modified();
 		ensureModifiableStatementsList();
 		addStatement(statement);
 		return (T) this;
@@ -120,6 +124,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtBlock<R>> T insertEnd(CtStatementList statements) {
+		modified();
 		for (CtStatement s : statements.getStatements()) {
 			insertEnd(s);
 		}
@@ -129,6 +134,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 	@Override
 	public <T extends CtBlock<R>> T insertAfter(Filter<? extends CtStatement> insertionPoints,
 												CtStatement statement) {
+		modified();
 		for (CtStatement e : Query.getElements(this, insertionPoints)) {
 			e.insertAfter(statement);
 		}
@@ -139,6 +145,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 	public <T extends CtBlock<R>> T insertAfter(
 			Filter<? extends CtStatement> insertionPoints,
 			CtStatementList statements) {
+		modified();
 		for (CtStatement e : Query.getElements(this, insertionPoints)) {
 			e.insertAfter(statements);
 		}
@@ -149,6 +156,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 	public <T extends CtBlock<R>> T insertBefore(
 			Filter<? extends CtStatement> insertionPoints,
 			CtStatement statement) {
+		modified();
 		for (CtStatement e : Query.getElements(this, insertionPoints)) {
 			e.insertBefore(statement);
 		}
@@ -159,6 +167,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 	public <T extends CtBlock<R>> T insertBefore(
 			Filter<? extends CtStatement> insertionPoints,
 			CtStatementList statements) {
+		modified();
 		for (CtStatement e : Query.getElements(this, insertionPoints)) {
 			e.insertBefore(statements);
 		}
@@ -167,6 +176,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtStatementList> T setStatements(List<CtStatement> statements) {
+		modified();
 		this.statements.clear();
 		for (CtStatement s : statements) {
 			addStatement(s);
@@ -176,6 +186,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends CtStatementList> T addStatement(CtStatement statement) {
+		modified();
 		ensureModifiableStatementsList();
 		statement.setParent(this);
 		this.statements.add(statement);
@@ -184,13 +195,14 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	private void ensureModifiableStatementsList() {
 		if (this.statements == CtElementImpl.<CtStatement>emptyList()) {
-			this.statements = new ArrayList<CtStatement>(
+			this.statements = new ModelList<CtStatement>(this,
 					BLOCK_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 	}
 
 	@Override
 	public void removeStatement(CtStatement statement) {
+		modified();
 		if (this.statements != CtElementImpl.<CtStatement>emptyList()) {
 			this.statements.remove(statement);
 		}
@@ -206,6 +218,7 @@ public class CtBlockImpl<R> extends CtStatementImpl implements CtBlock<R> {
 
 	@Override
 	public <T extends R> void replace(CtBlock<T> element) {
+		modified();
 		replace((CtElement) element);
 	}
 
@@ -37,6 +37,7 @@ public class CtBreakImpl extends CtStatementImpl implements CtBreak {
 
 	@Override
 	public <T extends CtBreak> T setTargetLabel(String targetLabel) {
+		modified();
 		this.targetLabel = targetLabel;
 		return (T) this;
 	}
@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -27,6 +26,7 @@ import spoon.reflect.code.CtStatement;
 import spoon.reflect.code.CtStatementList;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.CASE_STATEMENTS_CONTAINER_DEFAULT_CAPACITY;
 
@@ -54,6 +54,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 
 	@Override
 	public <T extends CtCase<E>> T setCaseExpression(CtExpression<E> caseExpression) {
+		modified();
 		caseExpression.setParent(this);
 		this.caseExpression = caseExpression;
 		return (T) this;
@@ -61,6 +62,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 
 	@Override
 	public <T extends CtStatementList> T setStatements(List<CtStatement> statements) {
+		modified();
 		this.statements.clear();
 		for (CtStatement stmt : statements) {
 			addStatement(stmt);
@@ -70,8 +72,9 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 
 	@Override
 	public <T extends CtStatementList> T addStatement(CtStatement statement) {
+		modified();
 		if (statements == CtElementImpl.<CtStatement>emptyList()) {
-			statements = new ArrayList<CtStatement>(CASE_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
+			statements = new ModelList<CtStatement>(this, CASE_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		statement.setParent(this);
 		statements.add(statement);
@@ -80,6 +83,7 @@ public class CtCaseImpl<E> extends CtStatementImpl implements CtCase<E> {
 
 	@Override
 	public void removeStatement(CtStatement statement) {
+		modified();
 		if (statements == CtElementImpl.<CtStatement>emptyList()) {
 			return;
 		}
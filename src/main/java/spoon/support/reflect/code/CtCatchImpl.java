@@ -46,6 +46,7 @@ public class CtCatchImpl extends CtCodeElementImpl implements CtCatch {
 
 	@Override
 	public <T extends CtCatch> T setBody(CtBlock<?> body) {
+		modified();
 		body.setParent(this);
 		this.body = body;
 		return (T) this;
@@ -53,6 +54,7 @@ public class CtCatchImpl extends CtCodeElementImpl implements CtCatch {
 
 	@Override
 	public <T extends CtCatch> T setParameter(CtCatchVariable<? extends Throwable> parameter) {
+		modified();
 		parameter.setParent(this);
 		this.parameter = parameter;
 		return (T) this;
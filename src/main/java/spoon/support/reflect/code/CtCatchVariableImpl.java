@@ -12,8 +12,9 @@ import spoon.reflect.reference.CtCatchVariableReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -59,25 +60,30 @@ public class CtCatchVariableImpl<T> extends CtCodeElementImpl implements CtCatch
 
 	@Override
 	public <C extends CtVariable<T>> C setDefaultExpression(CtExpression<T> defaultExpression) {
+		modified();
 		throw new UnsupportedOperationException();
 	}
 
 	@Override
 	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		modified();
 		this.name = simpleName;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
 	@Override
 	public <T extends CtMultiTypedElement> T addMultiType(CtTypeReference<?> ref) {
+		modified();
 		if (types == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			types = new ArrayList<CtTypeReference<?>>(
+			types = new ModelList<CtTypeReference<?>>(this,
 					CATCH_VARIABLE_MULTI_TYPES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		types.add(ref);
@@ -86,6 +92,7 @@ public class CtCatchVariableImpl<T> extends CtCodeElementImpl implements CtCatch
 
 	@Override
 	public boolean removeMultiType(CtTypeReference<?> ref) {
+		modified();
 		return types.remove(ref);
 	}
 
@@ -106,12 +113,14 @@ public class CtCatchVariableImpl<T> extends CtCodeElementImpl implements CtCatch
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -121,11 +130,13 @@ public class CtCatchVariableImpl<T> extends CtCodeElementImpl implements CtCatch
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
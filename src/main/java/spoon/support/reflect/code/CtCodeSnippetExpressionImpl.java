@@ -23,6 +23,7 @@ public class CtCodeSnippetExpressionImpl<T> extends CtExpressionImpl<T>
 	}
 
 	public <C extends CtCodeSnippet> C setValue(String value) {
+		modified();
 		this.value = value;
 		return (C) this;
 	}
@@ -23,6 +23,7 @@ public class CtCodeSnippetStatementImpl extends CtStatementImpl implements
 	}
 
 	public <C extends CtCodeSnippet> C setValue(String value) {
+		modified();
 		this.value = value;
 		return (C) this;
 	}
@@ -52,6 +52,7 @@ public class CtConditionalImpl<T> extends CtExpressionImpl<T> implements CtCondi
 
 	@Override
 	public <C extends CtConditional<T>> C setElseExpression(CtExpression<T> elseExpression) {
+		modified();
 		elseExpression.setParent(this);
 		this.elseExpression = elseExpression;
 		return (C) this;
@@ -59,6 +60,7 @@ public class CtConditionalImpl<T> extends CtExpressionImpl<T> implements CtCondi
 
 	@Override
 	public <C extends CtConditional<T>> C setCondition(CtExpression<Boolean> condition) {
+		modified();
 		condition.setParent(this);
 		this.condition = condition;
 		return (C) this;
@@ -66,6 +68,7 @@ public class CtConditionalImpl<T> extends CtExpressionImpl<T> implements CtCondi
 
 	@Override
 	public <C extends CtConditional<T>> C setThenExpression(CtExpression<T> thenExpression) {
+		modified();
 		thenExpression.setParent(this);
 		this.thenExpression = thenExpression;
 		return (C) this;
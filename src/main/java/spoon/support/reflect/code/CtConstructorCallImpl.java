@@ -11,8 +11,9 @@ import spoon.reflect.reference.CtGenericElementReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -50,30 +51,35 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertAfter(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertBefore(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertAfter(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertBefore(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public void replace(CtElement element) {
+		modified();
 		if (element instanceof CtStatementList) {
 			CtStatementImpl.replace(this, (CtStatementList) element);
 		} else {
@@ -83,6 +89,7 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C setArguments(List<CtExpression<?>> arguments) {
+		modified();
 		this.arguments.clear();
 		for (CtExpression<?> expr : arguments) {
 			addArgument(expr);
@@ -92,8 +99,9 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C addArgument(CtExpression<?> argument) {
+		modified();
 		if (arguments == CtElementImpl.<CtExpression<?>>emptyList()) {
-			arguments = new ArrayList<CtExpression<?>>(PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
+			arguments = new ModelList<CtExpression<?>>(this, PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		argument.setParent(this);
 		arguments.add(argument);
@@ -102,6 +110,7 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public void removeArgument(CtExpression<?> argument) {
+		modified();
 		if (arguments != CtElementImpl.<CtExpression<?>>emptyList()) {
 			arguments.remove(argument);
 		}
@@ -109,18 +118,22 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C setExecutable(CtExecutableReference<T> executable) {
+		modified();
 		this.executable = executable;
+		CtReferenceImpl.setOwner(this.executable, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C setLabel(String label) {
+		modified();
 		this.label = label;
 		return (C) this;
 	}
 
 	@Override
 	public void replace(CtStatement element) {
+		modified();
 		replace((CtElement) element);
 	}
 
@@ -132,15 +145,17 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 	@Override
 	public <T extends CtGenericElementReference> T setActualTypeArguments(
 			List<CtTypeReference<?>> actualTypeArguments) {
-		this.actualTypeArguments = actualTypeArguments;
+		modified();
+		this.actualTypeArguments = new ModelList<CtTypeReference<?>>(this, actualTypeArguments);
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtGenericElementReference> T addActualTypeArgument(
 			CtTypeReference<?> actualTypeArgument) {
+		modified();
 		if (actualTypeArguments == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			actualTypeArguments = new ArrayList<CtTypeReference<?>>(
+			actualTypeArguments = new ModelList<CtTypeReference<?>>(this,
 					CONSTRUCTOR_CALL_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		actualTypeArguments.add(actualTypeArgument);
@@ -149,6 +164,7 @@ public class CtConstructorCallImpl<T> extends CtTargetedExpressionImpl<T, CtExpr
 
 	@Override
 	public boolean removeActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		return actualTypeArguments != CtElementImpl.<CtTypeReference<?>>emptyList()
 				&& actualTypeArguments.remove(actualTypeArgument);
 	}
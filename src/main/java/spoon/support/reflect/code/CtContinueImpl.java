@@ -40,6 +40,7 @@ public class CtContinueImpl extends CtStatementImpl implements CtContinue {
 
 	@Override
 	public <T extends CtContinue> T setLabelledStatement(CtStatement labelledStatement) {
+		modified();
 		if (labelledStatement != null) {
 			labelledStatement.setParent(this);
 		}
@@ -54,6 +55,7 @@ public class CtContinueImpl extends CtStatementImpl implements CtContinue {
 
 	@Override
 	public <T extends CtContinue> T setTargetLabel(String targetLabel) {
+		modified();
 		this.targetLabel = targetLabel;
 		return (T) this;
 	}
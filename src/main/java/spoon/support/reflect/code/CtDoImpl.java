@@ -38,6 +38,7 @@ public class CtDoImpl extends CtLoopImpl implements CtDo {
 
 	@Override
 	public <T extends CtDo> T setLoopingExpression(CtExpression<Boolean> expression) {
+		modified();
 		expression.setParent(this);
 		this.expression = expression;
 		return (T) this;
@@ -4,6 +4,7 @@ import spoon.reflect.code.CtExecutableReferenceExpression;
 import spoon.reflect.code.CtExpression;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.reflect.reference.CtReferenceImpl;
 
 public class CtExecutableReferenceExpressionImpl<T, E extends CtExpression<?>>
 		extends CtTargetedExpressionImpl<T, E> implements CtExecutableReferenceExpression<T, E> {
@@ -21,7 +22,9 @@ public class CtExecutableReferenceExpressionImpl<T, E extends CtExpression<?>>
 
 	@Override
 	public <C extends CtExecutableReferenceExpression<T, E>> C setExecutable(CtExecutableReference<T> executable) {
+		modified();
 		this.executable = executable;
+		CtReferenceImpl.setOwner(this.executable, this);
 		return (C) this;
 	}
 }
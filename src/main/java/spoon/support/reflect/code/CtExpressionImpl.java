@@ -22,8 +22,9 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtTypedElement;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.CASTS_CONTAINER_DEFAULT_CAPACITY;
@@ -47,20 +48,24 @@ public abstract class CtExpressionImpl<T> extends CtCodeElementImpl implements
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExpression<T>> C setTypeCasts(List<CtTypeReference<?>> casts) {
-		this.typeCasts = casts;
+		modified();
+		this.typeCasts = new ModelList<CtTypeReference<?>>(this, casts);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExpression<T>> C addTypeCast(CtTypeReference<?> type) {
+		modified();
 		if (typeCasts == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			typeCasts = new ArrayList<CtTypeReference<?>>(
+			typeCasts = new ModelList<CtTypeReference<?>>(this,
 					CASTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		typeCasts.add(type);
@@ -69,6 +74,7 @@ public abstract class CtExpressionImpl<T> extends CtCodeElementImpl implements
 
 	@Override
 	public <E extends T> void replace(CtExpression<E> element) {
+		modified();
 		replace((CtElement) element);
 	}
 
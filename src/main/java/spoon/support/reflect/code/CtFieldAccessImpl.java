@@ -43,6 +43,7 @@ public abstract class CtFieldAccessImpl<T> extends CtVariableReadImpl<T> impleme
 	@Override
 	public <C extends CtTargetedExpression<T, CtExpression<?>>> C setTarget(
 			CtExpression<?> target) {
+		modified();
 		if (target != null) {
 			target.setParent(this);
 		}
@@ -57,6 +58,7 @@ public abstract class CtFieldAccessImpl<T> extends CtVariableReadImpl<T> impleme
 
 	@Override
 	public <C extends CtVariableAccess<T>> C setVariable(CtVariableReference<T> variable) {
+		modified();
 		return super.setVariable(variable);
 	}
 }
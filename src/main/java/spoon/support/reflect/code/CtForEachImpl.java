@@ -46,6 +46,7 @@ public class CtForEachImpl extends CtLoopImpl implements CtForEach {
 
 	@Override
 	public <T extends CtForEach> T setExpression(CtExpression<?> expression) {
+		modified();
 		expression.setParent(this);
 		this.expression = expression;
 		return (T) this;
@@ -53,6 +54,7 @@ public class CtForEachImpl extends CtLoopImpl implements CtForEach {
 
 	@Override
 	public <T extends CtForEach> T setVariable(CtLocalVariable<?> variable) {
+		modified();
 		variable.setParent(this);
 		this.variable = variable;
 		return (T) this;
@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtExpression;
@@ -25,6 +24,7 @@ import spoon.reflect.code.CtFor;
 import spoon.reflect.code.CtStatement;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities
 		.FOR_INIT_STATEMENTS_CONTAINER_DEFAULT_CAPACITY;
@@ -52,6 +52,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public <T extends CtFor> T setExpression(CtExpression<Boolean> expression) {
+		modified();
 		if (expression != null) {
 			expression.setParent(this);
 		}
@@ -66,8 +67,9 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public <T extends CtFor> T addForInit(CtStatement statement) {
+		modified();
 		if (forInit == CtElementImpl.<CtStatement>emptyList()) {
-			forInit = new ArrayList<CtStatement>(FOR_INIT_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
+			forInit = new ModelList<CtStatement>(this, FOR_INIT_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		statement.setParent(this);
 		forInit.add(statement);
@@ -76,6 +78,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public <T extends CtFor> T setForInit(List<CtStatement> statements) {
+		modified();
 		this.forInit.clear();
 		for (CtStatement stmt : statements) {
 			addForInit(stmt);
@@ -85,6 +88,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public boolean removeForInit(CtStatement statement) {
+		modified();
 		return forInit != CtElementImpl.<CtStatement>emptyList() && forInit.remove(statement);
 	}
 
@@ -95,8 +99,9 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public <T extends CtFor> T addForUpdate(CtStatement statement) {
+		modified();
 		if (forUpdate == CtElementImpl.<CtStatement>emptyList()) {
-			forUpdate = new ArrayList<CtStatement>(
+			forUpdate = new ModelList<CtStatement>(this,
 					FOR_UPDATE_STATEMENTS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		statement.setParent(this);
@@ -106,6 +111,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public <T extends CtFor> T setForUpdate(List<CtStatement> statements) {
+		modified();
 		this.forUpdate.clear();
 		for (CtStatement stmt : statements) {
 			addForUpdate(stmt);
@@ -115,6 +121,7 @@ public class CtForImpl extends CtLoopImpl implements CtFor {
 
 	@Override
 	public boolean removeForUpdate(CtStatement statement) {
+		modified();
 		return forUpdate != CtElementImpl.<CtStatement>emptyList() && forUpdate.remove(statement);
 	}
 
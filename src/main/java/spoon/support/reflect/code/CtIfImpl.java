@@ -57,6 +57,7 @@ public class CtIfImpl extends CtStatementImpl implements CtIf {
 
 	@Override
 	public <T extends CtIf> T setCondition(CtExpression<Boolean> condition) {
+		modified();
 		condition.setParent(this);
 		this.condition = condition;
 		return (T) this;
@@ -64,6 +65,7 @@ public class CtIfImpl extends CtStatementImpl implements CtIf {
 
 	@Override
 	public <T extends CtIf> T setElseStatement(CtStatement elseStatement) {
+		modified();
 		if (elseStatement != null) {
 			elseStatement.setParent(this);
 		}
@@ -73,6 +75,7 @@ public class CtIfImpl extends CtStatementImpl implements CtIf {
 
 	@Override
 	public <T extends CtIf> T setThenStatement(CtStatement thenStatement) {
+		modified();
 		// then branch might be null: `if (condition) ;`
 		if (thenStatement != null) {
 			thenStatement.setParent(this);
@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtAbstractInvocation;
@@ -29,6 +28,8 @@ import spoon.reflect.declaration.CtElement;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities
 		.PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
@@ -55,8 +56,9 @@ public class CtInvocationImpl<T> extends CtTargetedExpressionImpl<T, CtExpressio
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C addArgument(CtExpression<?> argument) {
+		modified();
 		if (arguments == CtElementImpl.<CtExpression<?>>emptyList()) {
-			arguments = new ArrayList<CtExpression<?>>(PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
+			arguments = new ModelList<CtExpression<?>>(this, PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		argument.setParent(this);
 		arguments.add(argument);
@@ -65,6 +67,7 @@ public class CtInvocationImpl<T> extends CtTargetedExpressionImpl<T, CtExpressio
 
 	@Override
 	public void removeArgument(CtExpression<?> argument) {
+		modified();
 		if (arguments != CtElementImpl.<CtExpression<?>>emptyList()) {
 			arguments.remove(argument);
 		}
@@ -77,30 +80,35 @@ public class CtInvocationImpl<T> extends CtTargetedExpressionImpl<T, CtExpressio
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertAfter(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertBefore(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertAfter(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertBefore(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C setArguments(List<CtExpression<?>> arguments) {
+		modified();
 		this.arguments.clear();
 		for (CtExpression<?> expr : arguments) {
 			addArgument(expr);
@@ -110,7 +118,9 @@ public class CtInvocationImpl<T> extends CtTargetedExpressionImpl<T, CtExpressio
 
 	@Override
 	public <C extends CtAbstractInvocation<T>> C setExecutable(CtExecutableReference<T> executable) {
+		modified();
 		this.executable = executable;
+		CtReferenceImpl.setOwner(this.executable, this);
 		return (C) this;
 	}
 
@@ -121,17 +131,20 @@ public class CtInvocationImpl<T> extends CtTargetedExpressionImpl<T, CtExpressio
 
 	@Override
 	public <C extends CtStatement> C setLabel(String label) {
+		modified();
 		this.label = label;
 		return (C) this;
 	}
 
 	@Override
 	public void replace(CtStatement element) {
+		modified();
 		replace((CtElement) element);
 	}
 
 	@Override
 	public void replace(CtElement element) {
+		modified();
 		if (element instanceof CtStatementList) {
 			CtStatementImpl.replace(this, (CtStatementList) element);
 		} else {
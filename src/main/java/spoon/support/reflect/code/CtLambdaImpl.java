@@ -11,12 +11,12 @@ import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
 
@@ -39,6 +39,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		modified();
 		this.simpleName = simpleName;
 		return (C) this;
 	}
@@ -51,6 +52,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <B extends T, C extends CtExecutable<T>> C setBody(CtBlock<B> body) {
+		modified();
 		if (expression != null) {
 			throw new SpoonException("A lambda can't have two bodys.");
 		}
@@ -66,6 +68,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <C extends CtExecutable<T>> C setParameters(List<CtParameter<?>> params) {
+		modified();
 		this.parameters.clear();
 		for (CtParameter<?> p : params) {
 			addParameter(p);
@@ -75,8 +78,9 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <C extends CtExecutable<T>> C addParameter(CtParameter<?> parameter) {
+		modified();
 		if (parameters == CtElementImpl.<CtParameter<?>>emptyList()) {
-			parameters = new ArrayList<CtParameter<?>>(
+			parameters = new ModelList<CtParameter<?>>(this,
 					PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		parameter.setParent(this);
@@ -86,6 +90,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public boolean removeParameter(CtParameter<?> parameter) {
+		modified();
 		return parameters != CtElementImpl.<CtParameter<?>>emptyList()
 				&& parameters.remove(parameter);
 	}
@@ -97,14 +102,16 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <C extends CtExecutable<T>> C setThrownTypes(Set<CtTypeReference<? extends Throwable>> thrownTypes) {
-		this.thrownTypes = thrownTypes;
+		modified();
+		this.thrownTypes = new ModelSet<CtTypeReference<? extends Throwable>>(this, thrownTypes);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExecutable<T>> C addThrownType(CtTypeReference<? extends Throwable> throwType) {
+		modified();
 		if (thrownTypes == CtElementImpl.<CtTypeReference<? extends Throwable>>emptySet()) {
-			thrownTypes = new TreeSet<CtTypeReference<? extends Throwable>>();
+			thrownTypes = new ModelSet<CtTypeReference<? extends Throwable>>(this);
 		}
 		thrownTypes.add(throwType);
 		return (C) this;
@@ -112,6 +119,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public boolean removeThrownType(CtTypeReference<? extends Throwable> throwType) {
+		modified();
 		return thrownTypes.remove(throwType);
 	}
 
@@ -127,6 +135,7 @@ public class CtLambdaImpl<T> extends CtExpressionImpl<T> implements CtLambda<T>
 
 	@Override
 	public <C extends CtLambda<T>> C setExpression(CtExpression<T> expression) {
+		modified();
 		if (body != null) {
 			throw new SpoonException("A lambda can't have two bodys.");
 		}
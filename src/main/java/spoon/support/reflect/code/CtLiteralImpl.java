@@ -38,6 +38,7 @@ public class CtLiteralImpl<T extends Object> extends CtExpressionImpl<T>
 
 	@Override
 	public <C extends CtLiteral<T>> C setValue(T value) {
+		modified();
 		this.value = value;
 		return (C) this;
 	}
@@ -32,6 +32,7 @@ import spoon.reflect.reference.CtLocalVariableReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
 
 public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVariable<T> {
 	private static final long serialVersionUID = 1L;
@@ -71,6 +72,7 @@ public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVa
 
 	@Override
 	public <C extends CtVariable<T>> C setDefaultExpression(CtExpression<T> defaultExpression) {
+		modified();
 		if (defaultExpression != null) {
 			defaultExpression.setParent(this);
 		}
@@ -80,13 +82,16 @@ public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVa
 
 	@Override
 	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		modified();
 		this.name = simpleName;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
@@ -102,12 +107,14 @@ public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVa
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -117,11 +124,13 @@ public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVa
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -153,6 +162,7 @@ public class CtLocalVariableImpl<T> extends CtStatementImpl implements CtLocalVa
 
 	@Override
 	public <C extends CtRHSReceiver<T>> C setAssignment(CtExpression<T> assignment) {
+		modified();
 		setDefaultExpression(assignment);
 		return (C) this;
 	}
@@ -34,6 +34,7 @@ public abstract class CtLoopImpl extends CtStatementImpl implements CtLoop {
 
 	@Override
 	public <T extends CtLoop> T setBody(CtStatement body) {
+		modified();
 		if (body != null) {
 			body.setParent(this);
 		}
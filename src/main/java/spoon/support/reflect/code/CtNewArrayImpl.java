@@ -17,13 +17,13 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtExpression;
 import spoon.reflect.code.CtNewArray;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities
 		.NEW_ARRAY_DEFAULT_EXPRESSIONS_CONTAINER_DEFAULT_CAPACITY;
@@ -52,6 +52,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public <C extends CtNewArray<T>> C setDimensionExpressions(List<CtExpression<Integer>> dimensionExpressions) {
+		modified();
 		this.dimensionExpressions.clear();
 		for (CtExpression<Integer> expr : dimensionExpressions) {
 			addDimensionExpression(expr);
@@ -61,8 +62,9 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public <C extends CtNewArray<T>> C addDimensionExpression(CtExpression<Integer> dimension) {
+		modified();
 		if (dimensionExpressions == CtElementImpl.<CtExpression<Integer>>emptyList()) {
-			dimensionExpressions = new ArrayList<CtExpression<Integer>>(
+			dimensionExpressions = new ModelList<CtExpression<Integer>>(this,
 					NEW_ARRAY_DEFAULT_EXPRESSIONS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		dimension.setParent(this);
@@ -72,6 +74,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public boolean removeDimensionExpression(CtExpression<Integer> dimension) {
+		modified();
 		return dimensionExpressions
 				!= CtElementImpl.<CtExpression<Integer>>emptyList()
 				&& dimensionExpressions.remove(dimension);
@@ -79,6 +82,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public <C extends CtNewArray<T>> C setElements(List<CtExpression<?>> expressions) {
+		modified();
 		this.expressions.clear();
 		for (CtExpression<?> expr : expressions) {
 			addElement(expr);
@@ -88,8 +92,9 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public <C extends CtNewArray<T>> C addElement(CtExpression<?> expression) {
+		modified();
 		if (expressions == CtElementImpl.<CtExpression<?>>emptyList()) {
-			this.expressions = new ArrayList<CtExpression<?>>();
+			this.expressions = new ModelList<CtExpression<?>>(this);
 		}
 		expression.setParent(this);
 		expressions.add(expression);
@@ -98,6 +103,7 @@ public class CtNewArrayImpl<T> extends CtExpressionImpl<T> implements CtNewArray
 
 	@Override
 	public boolean removeElement(CtExpression<?> expression) {
+		modified();
 		return expressions != CtElementImpl.<CtExpression<?>>emptyList() && expressions.remove(expression);
 	}
 }
@@ -38,6 +38,7 @@ public class CtNewClassImpl<T> extends CtConstructorCallImpl<T> implements CtNew
 
 	@Override
 	public <N extends CtNewClass> N setAnonymousClass(CtClass<?> anonymousClass) {
+		modified();
 		anonymousClass.setParent(this);
 		this.anonymousClass = anonymousClass;
 		return (N) this;
@@ -39,6 +39,7 @@ public class CtOperatorAssignmentImpl<T, A extends T> extends CtAssignmentImpl<T
 
 	@Override
 	public <C extends CtOperatorAssignment<T, A>> C setKind(BinaryOperatorKind kind) {
+		modified();
 		this.kind = kind;
 		return (C) this;
 	}
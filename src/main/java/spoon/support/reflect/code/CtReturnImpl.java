@@ -40,6 +40,7 @@ public class CtReturnImpl<R> extends CtStatementImpl implements CtReturn<R> {
 
 	@Override
 	public <T extends CtReturn<R>> T setReturnedExpression(CtExpression<R> expression) {
+		modified();
 		if (expression != null) {
 			expression.setParent(this);
 		}
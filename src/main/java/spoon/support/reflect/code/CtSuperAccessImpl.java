@@ -40,6 +40,7 @@ public class CtSuperAccessImpl<T> extends CtVariableReadImpl<T> implements CtSup
 
 	@Override
 	public <C extends CtTargetedExpression<T, CtExpression<?>>> C setTarget(CtExpression<?> target) {
+		modified();
 		if (target != null) {
 			target.setParent(this);
 		}
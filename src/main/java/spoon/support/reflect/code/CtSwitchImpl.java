@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtCase;
@@ -25,6 +24,7 @@ import spoon.reflect.code.CtExpression;
 import spoon.reflect.code.CtSwitch;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.SWITCH_CASES_CONTAINER_DEFAULT_CAPACITY;
 
@@ -52,6 +52,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 
 	@Override
 	public <T extends CtSwitch<S>> T setCases(List<CtCase<? super S>> cases) {
+		modified();
 		this.cases.clear();
 		for (CtCase<? super S> aCase : cases) {
 			addCase(aCase);
@@ -61,6 +62,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 
 	@Override
 	public <T extends CtSwitch<S>> T setSelector(CtExpression<S> selector) {
+		modified();
 		selector.setParent(this);
 		this.expression = selector;
 		return (T) this;
@@ -68,8 +70,9 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 
 	@Override
 	public <T extends CtSwitch<S>> T addCase(CtCase<? super S> c) {
+		modified();
 		if (cases == CtElementImpl.<CtCase<? super S>>emptyList()) {
-			cases = new ArrayList<CtCase<? super S>>(SWITCH_CASES_CONTAINER_DEFAULT_CAPACITY);
+			cases = new ModelList<CtCase<? super S>>(this, SWITCH_CASES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		c.setParent(this);
 		cases.add(c);
@@ -78,6 +81,7 @@ public class CtSwitchImpl<S> extends CtStatementImpl implements CtSwitch<S> {
 
 	@Override
 	public boolean removeCase(CtCase<? super S> c) {
+		modified();
 		return cases != CtElementImpl.<CtCase<? super S>>emptyList() && cases.remove(c);
 	}
 
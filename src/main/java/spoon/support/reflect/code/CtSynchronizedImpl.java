@@ -46,6 +46,7 @@ public class CtSynchronizedImpl extends CtStatementImpl implements CtSynchronize
 
 	@Override
 	public <T extends CtSynchronized> T setBlock(CtBlock<?> block) {
+		modified();
 		block.setParent(this);
 		this.block = block;
 		return (T) this;
@@ -53,6 +54,7 @@ public class CtSynchronizedImpl extends CtStatementImpl implements CtSynchronize
 
 	@Override
 	public <T extends CtSynchronized> T setExpression(CtExpression<?> expression) {
+		modified();
 		expression.setParent(this);
 		this.expression = expression;
 		return (T) this;
@@ -33,6 +33,7 @@ public abstract class CtTargetedExpressionImpl<E, T extends CtExpression<?>>
 
 	@Override
 	public <C extends CtTargetedExpression<E, T>> C setTarget(T target) {
+		modified();
 		if (target != null) {
 			target.setParent(this);
 		}
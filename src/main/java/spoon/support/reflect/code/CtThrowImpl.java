@@ -40,6 +40,7 @@ public class CtThrowImpl extends CtStatementImpl implements CtThrow {
 
 	@Override
 	public <T extends CtThrow> T setThrownExpression(CtExpression<? extends Throwable> expression) {
+		modified();
 		this.throwExpression = expression;
 		throwExpression.setParent(this);
 		return (T) this;
@@ -17,7 +17,6 @@
 
 package spoon.support.reflect.code;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.code.CtBlock;
@@ -27,6 +26,7 @@ import spoon.reflect.code.CtTry;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.CATCH_CASES_CONTAINER_DEFAULT_CAPACITY;
 
@@ -51,6 +51,7 @@ public class CtTryImpl extends CtStatementImpl implements CtTry {
 
 	@Override
 	public <T extends CtTry> T setCatchers(List<CtCatch> catchers) {
+		modified();
 		this.catchers.clear();
 		for (CtCatch c : catchers) {
 			addCatcher(c);
@@ -60,8 +61,9 @@ public class CtTryImpl extends CtStatementImpl implements CtTry {
 
 	@Override
 	public <T extends CtTry> T addCatcher(CtCatch catcher) {
+		modified();
 		if (catchers == CtElementImpl.<CtCatch>emptyList()) {
-			catchers = new ArrayList<CtCatch>(CATCH_CASES_CONTAINER_DEFAULT_CAPACITY);
+			catchers = new ModelList<CtCatch>(this, CATCH_CASES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		catcher.setParent(this);
 		catchers.add(catcher);
@@ -70,6 +72,7 @@ public class CtTryImpl extends CtStatementImpl implements CtTry {
 
 	@Override
 	public boolean removeCatcher(CtCatch catcher) {
+		modified();
 		return catchers != CtElementImpl.<CtCatch>emptyList() && catchers.remove(catcher);
 	}
 
@@ -80,6 +83,7 @@ public class CtTryImpl extends CtStatementImpl implements CtTry {
 
 	@Override
 	public <T extends CtTry> T setFinalizer(CtBlock<?> finalizer) {
+		modified();
 		finalizer.setParent(this);
 		this.finalizer = finalizer;
 		return (T) this;
@@ -92,6 +96,7 @@ public class CtTryImpl extends CtStatementImpl implements CtTry {
 
 	@Override
 	public <T extends CtTry> T setBody(CtBlock<?> body) {
+		modified();
 		body.setParent(this);
 		this.body = body;
 		return (T) this;
@@ -4,8 +4,8 @@ import spoon.reflect.code.CtLocalVariable;
 import spoon.reflect.code.CtTryWithResource;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.RESOURCES_CONTAINER_DEFAULT_CAPACITY;
@@ -28,6 +28,7 @@ public class CtTryWithResourceImpl extends CtTryImpl
 
 	@Override
 	public <T extends CtTryWithResource> T setResources(List<CtLocalVariable<?>> resources) {
+		modified();
 		this.resources.clear();
 		for (CtLocalVariable<?> l : resources) {
 			addResource(l);
@@ -37,8 +38,9 @@ public class CtTryWithResourceImpl extends CtTryImpl
 
 	@Override
 	public <T extends CtTryWithResource> T addResource(CtLocalVariable<?> resource) {
+		modified();
 		if (resources == CtElementImpl.<CtLocalVariable<?>>emptyList()) {
-			resources = new ArrayList<CtLocalVariable<?>>(RESOURCES_CONTAINER_DEFAULT_CAPACITY);
+			resources = new ModelList<CtLocalVariable<?>>(this, RESOURCES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		resource.setParent(this);
 		resources.add(resource);
@@ -47,6 +49,7 @@ public class CtTryWithResourceImpl extends CtTryImpl
 
 	@Override
 	public boolean removeResource(CtLocalVariable<?> resource) {
+		modified();
 		return resources != CtElementImpl.<CtLocalVariable<?>>emptyList() && resources.remove(resource);
 	}
 }
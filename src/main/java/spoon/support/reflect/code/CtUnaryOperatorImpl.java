@@ -56,30 +56,35 @@ public class CtUnaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtUna
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertAfter(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertBefore(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertAfter(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertBefore(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public void replace(CtElement element) {
+		modified();
 		if (element instanceof CtStatementList) {
 			CtStatementImpl.replace(this, (CtStatementList) element);
 		} else {
@@ -89,6 +94,7 @@ public class CtUnaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtUna
 
 	@Override
 	public <C extends CtUnaryOperator> C setOperand(CtExpression<T> expression) {
+		modified();
 		expression.setParent(this);
 		this.operand = expression;
 		return (C) this;
@@ -96,18 +102,21 @@ public class CtUnaryOperatorImpl<T> extends CtExpressionImpl<T> implements CtUna
 
 	@Override
 	public <C extends CtUnaryOperator> C setKind(UnaryOperatorKind kind) {
+		modified();
 		this.kind = kind;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C setLabel(String label) {
+		modified();
 		this.label = label;
 		return (C) this;
 	}
 
 	@Override
 	public void replace(CtStatement element) {
+		modified();
 		replace((CtElement) element);
 	}
 }
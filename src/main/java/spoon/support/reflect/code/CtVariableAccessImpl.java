@@ -3,6 +3,7 @@ package spoon.support.reflect.code;
 import spoon.reflect.code.CtVariableAccess;
 import spoon.reflect.reference.CtVariableReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.reflect.reference.CtReferenceImpl;
 
 public abstract class CtVariableAccessImpl<T> extends CtExpressionImpl<T> implements CtVariableAccess<T> {
 	private static final long serialVersionUID = 1L;
@@ -21,7 +22,9 @@ public abstract class CtVariableAccessImpl<T> extends CtExpressionImpl<T> implem
 
 	@Override
 	public <C extends CtVariableAccess<T>> C setVariable(CtVariableReference<T> variable) {
+		modified();
 		this.variable = variable;
+		CtReferenceImpl.setOwner(this.variable, this);
 		return (C) this;
 	}
 }
@@ -38,6 +38,7 @@ public class CtWhileImpl extends CtLoopImpl implements CtWhile {
 
 	@Override
 	public <T extends CtWhile> T setLoopingExpression(CtExpression<Boolean> expression) {
+		modified();
 		expression.setParent(this);
 		this.expression = expression;
 		return (T) this;
@@ -1,12 +1,15 @@
 package spoon.support.reflect.cu;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.io.FileUtils;
+
 import spoon.processing.FactoryAccessor;
 import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.cu.Import;
@@ -59,51 +62,84 @@ public class CompilationUnitImpl implements CompilationUnit, FactoryAccessor {
 		this.file = file;
 	}
 
-	String originalSourceCode;
+	SoftReference<String> originalSourceCode;
+
+	String encoding;
+
+	int[] lineSeparatorPositions;
 
 	public String getOriginalSourceCode() {
-		try {
-			if (originalSourceCode == null) {
-				FileInputStream s = new FileInputStream(getFile());
-				byte[] elementBytes = new byte[s.available()];
-				s.read(elementBytes);
-				s.close();
-				originalSourceCode = new String(elementBytes);
+		String source = originalSourceCode == null ? null : originalSourceCode.get();
+		if (source == null) {
+			try {
+				source = FileUtils.readFileToString(getFile(), encoding);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			originalSourceCode = new SoftReference<String>(source);
+		}
+		return source;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+		// the source read with the former encoding is decoded again
+		this.originalSourceCode = null;
+	}
+
+	public int[] getLineSeparatorPositions() {
+		if (lineSeparatorPositions == null) {
+			String source = getOriginalSourceCode();
+			int[] positions = new int[source.length()];
+			int count = 0;
+			for (int i = 0; i < source.length(); i++) {
+				if (source.charAt(i) == '\n') {
+					positions[count++] = i;
+				}
 			}
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+			lineSeparatorPositions = Arrays.copyOf(positions, count);
 		}
-		return originalSourceCode;
+		return lineSeparatorPositions;
+	}
+
+	public void setLineSeparatorPositions(int[] lineSeparatorPositions) {
+		this.lineSeparatorPositions = lineSeparatorPositions;
 	}
 
 	public int beginOfLineIndex(int index) {
-		int cur = index;
-		while (cur >= 0 && getOriginalSourceCode().charAt(cur) != '\n') {
-			cur--;
+		int[] separators = getLineSeparatorPositions();
+		// the last separator at or before the index
+		int i = Arrays.binarySearch(separators, index);
+		if (i < 0) {
+			i = -i - 2;
 		}
-		return cur + 1;
+		return i < 0 ? 0 : separators[i] + 1;
 	}
 
 	public int nextLineIndex(int index) {
-		int cur = index;
-		while (cur < getOriginalSourceCode().length()
-				&& getOriginalSourceCode().charAt(cur) != '\n') {
-			cur++;
+		int[] separators = getLineSeparatorPositions();
+		// the first separator at or after the index
+		int i = Arrays.binarySearch(separators, index);
+		if (i < 0) {
+			i = -i - 1;
 		}
-		return cur + 1;
+		return i < separators.length ? separators[i] + 1 : getOriginalSourceCode().length() + 1;
 	}
 
 	public int getTabCount(int index) {
+		String source = getOriginalSourceCode();
 		int cur = index;
 		int tabCount = 0;
 		int whiteSpaceCount = 0;
-		while (cur < getOriginalSourceCode().length()
-				&& (getOriginalSourceCode().charAt(cur) == ' ' || getOriginalSourceCode()
-				.charAt(cur) == '\t')) {
-			if (getOriginalSourceCode().charAt(cur) == '\t') {
+		while (cur < source.length() && (source.charAt(cur) == ' ' || source.charAt(cur) == '\t')) {
+			if (source.charAt(cur) == '\t') {
 				tabCount++;
 			}
-			if (getOriginalSourceCode().charAt(cur) == ' ') {
+			if (source.charAt(cur) == ' ') {
 				whiteSpaceCount++;
 			}
 			cur++;
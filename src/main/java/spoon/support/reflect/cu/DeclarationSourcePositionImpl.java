@@ -0,0 +1,45 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.reflect.cu;
+
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.cu.DeclarationSourcePosition;
+
+/**
+ * This class represents the position of a declaration in a source file.
+ */
+public class DeclarationSourcePositionImpl extends SourcePositionImpl implements DeclarationSourcePosition {
+
+	private static final long serialVersionUID = 1L;
+
+	private int declarationStart, declarationEnd;
+
+	public DeclarationSourcePositionImpl(CompilationUnit compilationUnit, int sourceStart, int sourceEnd, int declarationStart, int declarationEnd, int[] lineSeparatorPositions) {
+		super(compilationUnit, sourceStart, sourceEnd, lineSeparatorPositions);
+		this.declarationStart = declarationStart;
+		this.declarationEnd = declarationEnd;
+	}
+
+	public int getDeclarationStart() {
+		return declarationStart;
+	}
+
+	public int getDeclarationEnd() {
+		return declarationEnd;
+	}
+
+}
@@ -6,9 +6,19 @@ import spoon.support.reflect.cu.CompilationUnitImpl;
 
 public class CompilationUnitVirtualImpl extends CompilationUnitImpl implements Serializable {
 
+	private String originalSourceCode = "";
+
 	@Override
 	public String getOriginalSourceCode() {
-		return "";
+		return originalSourceCode;
+	}
+
+	/**
+	 * Sets the source code of this compilation unit, which has no file to read
+	 * it from.
+	 */
+	public void setOriginalSourceCode(String originalSourceCode) {
+		this.originalSourceCode = originalSourceCode;
 	}
 
 }
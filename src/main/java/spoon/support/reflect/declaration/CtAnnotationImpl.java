@@ -52,6 +52,7 @@ import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.code.CtExpressionImpl;
+import spoon.support.reflect.reference.CtReferenceImpl;
 
 /**
  * The implementation for {@link spoon.reflect.declaration.CtAnnotation}.
@@ -126,6 +127,7 @@ public class CtAnnotationImpl<A extends Annotation> extends CtExpressionImpl<A>
 
 	@Override
 	public <T extends CtAnnotation<A>> T addValue(String elementName, Object value) {
+		modified();
 		if (!elementValues.containsKey(elementName)) {
 			elementValues.put(elementName, value);
 			if (value instanceof CtElement) {
@@ -312,12 +314,15 @@ public class CtAnnotationImpl<A extends Annotation> extends CtExpressionImpl<A>
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T extends CtAnnotation<A>> T setAnnotationType(CtTypeReference<? extends Annotation> annotationType) {
+		modified();
 		this.annotationType = (CtTypeReference<A>) annotationType;
+		CtReferenceImpl.setOwner(this.annotationType, this);
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtAnnotation<A>> T setElementValues(Map<String, Object> values) {
+		modified();
 		this.elementValues.clear();
 		for (Entry<String, Object> e : values.entrySet()) {
 			addValue(e.getKey(), e.getValue());
@@ -51,6 +51,7 @@ public class CtAnnotationTypeImpl<T extends Annotation> extends CtTypeImpl<T> im
 
 	@Override
 	public <C extends CtType<T>> C setSuperInterfaces(Set<CtTypeReference<?>> interfaces) {
+		modified();
 		throw new UnsupportedOperationException("You can't have super interfaces in an annotation.");
 	}
 
@@ -71,31 +72,37 @@ public class CtAnnotationTypeImpl<T extends Annotation> extends CtTypeImpl<T> im
 
 	@Override
 	public <C extends CtType<T>> C setMethods(Set<CtMethod<?>> methods) {
+		modified();
 		throw new UnsupportedOperationException("You can't have methods in an annotation.");
 	}
 
 	@Override
 	public <M, C extends CtType<T>> C addMethod(CtMethod<M> method) {
+		modified();
 		throw new UnsupportedOperationException("You can't have methods in an annotation.");
 	}
 
 	@Override
 	public <M> boolean removeMethod(CtMethod<M> method) {
+		modified();
 		throw new UnsupportedOperationException("You can't have methods in an annotation.");
 	}
 
 	@Override
 	public <C extends CtGenericElement> C setFormalTypeParameters(List<CtTypeReference<?>> formalTypeParameters) {
+		modified();
 		throw new UnsupportedOperationException("You can't have generics in an annotation.");
 	}
 
 	@Override
 	public <C extends CtGenericElement> C addFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		throw new UnsupportedOperationException("You can't have generics in an annotation.");
 	}
 
 	@Override
 	public boolean removeFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		throw new UnsupportedOperationException("You can't have generics in an annotation.");
 	}
 }
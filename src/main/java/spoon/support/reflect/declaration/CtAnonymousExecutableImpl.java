@@ -32,6 +32,8 @@ public class CtAnonymousExecutableImpl extends CtElementImpl implements CtAnonym
 
 	CtBlock<?> body;
 
+	transient BodyLoader bodyLoader;
+
 	Set<ModifierKind> modifiers = emptySet();
 
 	@Override
@@ -41,6 +43,7 @@ public class CtAnonymousExecutableImpl extends CtElementImpl implements CtAnonym
 
 	@Override
 	public <T extends CtModifiable> T addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -50,14 +53,27 @@ public class CtAnonymousExecutableImpl extends CtElementImpl implements CtAnonym
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public CtBlock<?> getBody() {
+		if (bodyLoader != null) {
+			bodyLoader.loadBodies();
+		}
 		return body;
 	}
 
+	/**
+	 * Sets the loader that builds the body the first time it is accessed
+	 * (null if the body is already built).
+	 */
+	public void setBodyLoader(BodyLoader bodyLoader) {
+		modified();
+		this.bodyLoader = bodyLoader;
+	}
+
 	@Override
 	public Set<ModifierKind> getModifiers() {
 		return modifiers;
@@ -89,19 +105,23 @@ public class CtAnonymousExecutableImpl extends CtElementImpl implements CtAnonym
 
 	@Override
 	public <T extends CtAnonymousExecutable> T setBody(CtBlock<?> block) {
+		modified();
 		block.setParent(this);
 		body = block;
+		bodyLoader = null;
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtModifiable> T setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtModifiable> T setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
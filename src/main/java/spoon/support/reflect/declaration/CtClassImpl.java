@@ -24,7 +24,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import spoon.reflect.code.CtCodeElement;
 import spoon.reflect.code.CtStatement;
@@ -39,6 +38,9 @@ import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.code.CtStatementImpl;
 import spoon.support.reflect.eval.VisitorPartialEvaluator;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
 
 /**
  * The implementation for {@link spoon.reflect.declaration.CtClass}.
@@ -88,8 +90,9 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtClass<T>> C addAnonymousExecutable(CtAnonymousExecutable e) {
+		modified();
 		if (anonymousExecutables == CtElementImpl.<CtAnonymousExecutable>emptyList()) {
-			anonymousExecutables = new ArrayList<CtAnonymousExecutable>(
+			anonymousExecutables = new ModelList<CtAnonymousExecutable>(this,
 					ANONYMOUS_EXECUTABLES_CONTAINER_DEFAULT_CAPACITY);
 		}
 		e.setParent(this);
@@ -99,6 +102,7 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public boolean removeAnonymousExecutable(CtAnonymousExecutable e) {
+		modified();
 		return anonymousExecutables != CtElementImpl.<CtAnonymousExecutable>emptyList() && anonymousExecutables
 				.remove(e);
 	}
@@ -110,6 +114,7 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtClass<T>> C setAnonymousExecutables(List<CtAnonymousExecutable> anonymousExecutables) {
+		modified();
 		this.anonymousExecutables.clear();
 		for (CtAnonymousExecutable exec : anonymousExecutables) {
 			addAnonymousExecutable(exec);
@@ -119,14 +124,16 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtClass<T>> C setConstructors(Set<CtConstructor<T>> constructors) {
-		this.constructors = constructors;
+		modified();
+		this.constructors = new ModelSet<CtConstructor<T>>(this, constructors);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtClass<T>> C addConstructor(CtConstructor<T> constructor) {
+		modified();
 		if (constructors == CtElementImpl.<CtConstructor<T>>emptySet()) {
-			constructors = new TreeSet<CtConstructor<T>>();
+			constructors = new ModelSet<CtConstructor<T>>(this);
 		}
 		// this needs to be done because of the set that needs the constructor's
 		// signature : we should use lists!!!
@@ -138,6 +145,7 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public void removeConstructor(CtConstructor<T> constructor) {
+		modified();
 		if (!constructors.isEmpty()) {
 			if (constructors.size() == 1) {
 				if (constructors.contains(constructor)) {
@@ -151,7 +159,9 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtClass<T>> C setSuperclass(CtTypeReference<?> superClass) {
+		modified();
 		this.superClass = superClass;
+		CtReferenceImpl.setOwner(this.superClass, this);
 		return (C) this;
 	}
 
@@ -180,24 +190,28 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertAfter(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertAfter(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertAfter(this, statements);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatement statement) {
+		modified();
 		CtStatementImpl.insertBefore(this, statement);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtStatement> C insertBefore(CtStatementList statements) {
+		modified();
 		CtStatementImpl.insertBefore(this, statements);
 		return (C) this;
 	}
@@ -209,6 +223,7 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public <C extends CtStatement> C setLabel(String label) {
+		modified();
 		throw new UnsupportedOperationException("cannot set a label on a class declaration");
 	}
 
@@ -233,6 +248,7 @@ public class CtClassImpl<T extends Object> extends CtTypeImpl<T> implements CtCl
 
 	@Override
 	public void replace(CtStatement element) {
+		modified();
 		replace((CtElement) element);
 	}
 }
@@ -26,8 +26,8 @@ import spoon.reflect.declaration.CtTypedElement;
 import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -49,6 +49,7 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		modified();
 		throw new UnsupportedOperationException();
 	}
 
@@ -73,6 +74,7 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		throw new UnsupportedOperationException();
 	}
 
@@ -83,11 +85,12 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public <T extends CtGenericElement> T addFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		if (formalTypeParameter == null) {
 			return (T) this;
 		}
 		if (formalTypeParameters == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			formalTypeParameters = new ArrayList<CtTypeReference<?>>(
+			formalTypeParameters = new ModelList<CtTypeReference<?>>(this,
 					CONSTRUCTOR_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		formalTypeParameters.add(formalTypeParameter);
@@ -96,12 +99,14 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public <T extends CtGenericElement> T setFormalTypeParameters(List<CtTypeReference<?>> formalTypeParameters) {
-		this.formalTypeParameters = formalTypeParameters;
+		modified();
+		this.formalTypeParameters = new ModelList<CtTypeReference<?>>(this, formalTypeParameters);
 		return (T) this;
 	}
 
 	@Override
 	public boolean removeFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		return formalTypeParameter != null
 				&& formalTypeParameters != CtElementImpl.<CtTypeReference<?>>emptyList()
 				&& formalTypeParameters.remove(formalTypeParameter);
@@ -119,12 +124,14 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -134,11 +141,13 @@ public class CtConstructorImpl<T> extends CtExecutableImpl<T> implements CtConst
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
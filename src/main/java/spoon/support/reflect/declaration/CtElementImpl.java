@@ -32,6 +32,7 @@ import org.apache.log4j.Logger;
 
 import spoon.Launcher;
 import spoon.processing.FactoryAccessor;
+import spoon.reflect.ModelVersion;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtElement;
@@ -47,8 +48,10 @@ import spoon.reflect.visitor.ModelConsistencyChecker;
 import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.ReferenceFilter;
 import spoon.reflect.visitor.filter.AnnotationFilter;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelNode;
 import spoon.support.util.RtHelper;
-import spoon.support.visitor.SignaturePrinter;
+import spoon.support.visitor.Signature;
 import spoon.support.visitor.TypeReferenceScanner;
 
 /**
@@ -56,7 +59,7 @@ import spoon.support.visitor.TypeReferenceScanner;
  *
  * Implements Comparable for being used in TreeSet
  */
-public abstract class CtElementImpl implements CtElement, Serializable, Comparable<CtElement> {
+public abstract class CtElementImpl implements CtElement, Serializable, Comparable<CtElement>, ModelNode {
 	private static final long serialVersionUID = 1L;
 
 	protected static final Logger LOGGER = Logger.getLogger(CtElementImpl.class);
@@ -139,10 +142,61 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 
 	transient Factory factory;
 
+	/**
+	 * The signature of this element, printed once until this element or one
+	 * of its children is modified (see {@link #modified()}). The signatures
+	 * which depend on the enclosing elements (e.g. the qualified name of a
+	 * type) are not cached (see {@link Signature#isContextual()}).
+	 */
+	private transient volatile Signature signature;
+
+	private Signature getCachedSignature() {
+		Signature s = signature;
+		if (s == null) {
+			s = Signature.of(this);
+			if (!s.isContextual()) {
+				signature = s;
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Tells that this element is modified: clears the signatures of this
+	 * element and of its parents, which are printed from it, and tells the
+	 * model version of the factory (see {@link ModelVersion}).
+	 */
+	@Override
+	public void modified() {
+		CtElement e = this;
+		while (e instanceof CtElementImpl) {
+			CtElementImpl element = (CtElementImpl) e;
+			element.signature = null;
+			e = element.parent;
+		}
+		if (factory != null) {
+			factory.getModelVersion().modified();
+		}
+	}
+
+	/**
+	 * Tells that the given child of this element was renamed, so that the
+	 * indexes of the children by name are maintained. Does nothing by
+	 * default.
+	 */
+	void childRenamed(CtNamedElement child, String oldName) {
+	}
+
 	public String getSignature() {
-		SignaturePrinter pr = new SignaturePrinter();
-		pr.scan(this);
-		return pr.getSignature();
+		return getCachedSignature().getValue();
+	}
+
+	/**
+	 * Gets a 64-bit hash of the signature of this element (see
+	 * {@link #getSignature()}), which is computed with it.
+	 */
+	public long getSignatureHash() {
+		return getCachedSignature().getHash();
 	}
 
 	public Factory getFactory() {
@@ -180,6 +234,12 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 		if (!(o instanceof CtElement)) {
 			return false;
 		}
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof CtElementImpl && getSignatureHash() != ((CtElementImpl) o).getSignatureHash()) {
+			return false;
+		}
 		String current = getSignature();
 		String other = ((CtElement) o).getSignature();
 		return current.equals(other);
@@ -250,10 +310,11 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 
 	@Override
 	public int hashCode() {
-		return getSignature().hashCode();
+		return getCachedSignature().getHashCode();
 	}
 
 	public void replace(CtElement element) {
+		modified();
 		try {
 			replaceIn(this, element, getParent());
 		} catch (CtUncomparableException e1) {
@@ -310,6 +371,7 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 	}
 
 	public <E extends CtElement> E setAnnotations(List<CtAnnotation<? extends Annotation>> annotations) {
+		modified();
 		this.annotations.clear();
 		for (CtAnnotation<? extends Annotation> annot : annotations) {
 			addAnnotation(annot);
@@ -318,8 +380,9 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 	}
 
 	public <E extends CtElement> E addAnnotation(CtAnnotation<? extends Annotation> annotation) {
+		modified();
 		if ((List<?>) this.annotations == (List<?>) emptyList()) {
-			this.annotations = new ArrayList<CtAnnotation<? extends Annotation>>(ANNOTATIONS_CONTAINER_DEFAULT_CAPACITY);
+			this.annotations = new ModelList<CtAnnotation<? extends Annotation>>(this, ANNOTATIONS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		annotation.setParent(this);
 		this.annotations.add(annotation);
@@ -327,10 +390,12 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 	}
 
 	public boolean removeAnnotation(CtAnnotation<? extends Annotation> annotation) {
+		modified();
 		return (List<?>) annotations != (List<?>) emptyList() && this.annotations.remove(annotation);
 	}
 
 	public <E extends CtElement> E setDocComment(String docComment) {
+		modified();
 		this.docComment = docComment;
 		return (E) this;
 	}
@@ -380,6 +445,7 @@ public abstract class CtElementImpl implements CtElement, Serializable, Comparab
 	}
 
 	public <E extends CtElement> E setImplicit(boolean implicit) {
+		modified();
 		this.implicit = implicit;
 		return (E) this;
 	}
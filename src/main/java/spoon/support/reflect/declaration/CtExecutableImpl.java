@@ -22,11 +22,11 @@ import spoon.reflect.declaration.CtExecutable;
 import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
 
@@ -40,6 +40,8 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	CtBlock<?> body;
 
+	transient BodyLoader bodyLoader;
+
 	List<CtParameter<?>> parameters = emptyList();
 
 	Set<CtTypeReference<? extends Throwable>> thrownTypes = emptySet();
@@ -51,16 +53,30 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 	@Override
 	@SuppressWarnings("unchecked")
 	public <B extends R> CtBlock<B> getBody() {
+		if (bodyLoader != null) {
+			bodyLoader.loadBodies();
+		}
 		return (CtBlock<B>) body;
 	}
 
 	@Override
 	public <B extends R, T extends CtExecutable<R>> T setBody(CtBlock<B> body) {
+		modified();
 		body.setParent(this);
 		this.body = body;
+		this.bodyLoader = null;
 		return (T) this;
 	}
 
+	/**
+	 * Sets the loader that builds the body the first time it is accessed
+	 * (null if the body is already built).
+	 */
+	public void setBodyLoader(BodyLoader bodyLoader) {
+		modified();
+		this.bodyLoader = bodyLoader;
+	}
+
 	@Override
 	public List<CtParameter<?>> getParameters() {
 		return parameters;
@@ -68,6 +84,7 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	@Override
 	public <T extends CtExecutable<R>> T setParameters(List<CtParameter<?>> parameters) {
+		modified();
 		this.parameters.clear();
 		for (CtParameter<?> p : parameters) {
 			addParameter(p);
@@ -77,8 +94,9 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	@Override
 	public <T extends CtExecutable<R>> T addParameter(CtParameter<?> parameter) {
+		modified();
 		if (parameters == CtElementImpl.<CtParameter<?>>emptyList()) {
-			parameters = new ArrayList<CtParameter<?>>(
+			parameters = new ModelList<CtParameter<?>>(this,
 					PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		parameter.setParent(this);
@@ -88,6 +106,7 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	@Override
 	public boolean removeParameter(CtParameter<?> parameter) {
+		modified();
 		return parameters != CtElementImpl.<CtParameter<?>>emptyList() && parameters.remove(parameter);
 	}
 
@@ -98,14 +117,16 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	@Override
 	public <T extends CtExecutable<R>> T setThrownTypes(Set<CtTypeReference<? extends Throwable>> thrownTypes) {
-		this.thrownTypes = thrownTypes;
+		modified();
+		this.thrownTypes = new ModelSet<CtTypeReference<? extends Throwable>>(this, thrownTypes);
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtExecutable<R>> T addThrownType(CtTypeReference<? extends Throwable> throwType) {
+		modified();
 		if (thrownTypes == CtElementImpl.<CtTypeReference<? extends Throwable>>emptySet()) {
-			thrownTypes = new TreeSet<CtTypeReference<? extends Throwable>>();
+			thrownTypes = new ModelSet<CtTypeReference<? extends Throwable>>(this);
 		}
 		thrownTypes.add(throwType);
 		return (T) this;
@@ -113,6 +134,7 @@ public abstract class CtExecutableImpl<R> extends CtNamedElementImpl implements
 
 	@Override
 	public boolean removeThrownType(CtTypeReference<? extends Throwable> throwType) {
+		modified();
 		return thrownTypes.remove(throwType);
 	}
 
@@ -32,6 +32,7 @@ import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.reflect.reference.CtReferenceImpl;
 
 /**
  * The implementation for {@link spoon.reflect.declaration.CtField}.
@@ -78,6 +79,7 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public <C extends CtVariable<T>> C setDefaultExpression(CtExpression<T> defaultExpression) {
+		modified();
 		if (defaultExpression != null) {
 			defaultExpression.setParent(this);
 		}
@@ -87,7 +89,9 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
@@ -103,12 +107,14 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -118,11 +124,13 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -149,6 +157,7 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public <R extends T> void replace(CtField<R> element) {
+		modified();
 		replace((CtElement) element);
 	}
 
@@ -159,6 +168,7 @@ public class CtFieldImpl<T> extends CtNamedElementImpl implements CtField<T> {
 
 	@Override
 	public <C extends CtRHSReceiver<T>> C setAssignment(CtExpression<T> assignment) {
+		modified();
 		setDefaultExpression(assignment);
 		return (C) this;
 	}
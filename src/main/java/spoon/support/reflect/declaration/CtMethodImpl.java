@@ -26,8 +26,9 @@ import spoon.reflect.declaration.CtTypedElement;
 import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.reflect.reference.CtReferenceImpl;
+import spoon.support.util.ModelList;
 
-import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -66,7 +67,9 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <C extends CtTypedElement> C setType(CtTypeReference<T> type) {
+		modified();
 		this.returnType = type;
+		CtReferenceImpl.setOwner(this.returnType, this);
 		return (C) this;
 	}
 
@@ -82,6 +85,7 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <C extends CtMethod<T>> C setDefaultMethod(boolean defaultMethod) {
+		modified();
 		this.defaultMethod = defaultMethod;
 		return (C) this;
 	}
@@ -93,11 +97,12 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <T extends CtGenericElement> T addFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		if (formalTypeParameter == null) {
 			return (T) this;
 		}
 		if (formalTypeParameters == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			formalTypeParameters = new ArrayList<CtTypeReference<?>>(
+			formalTypeParameters = new ModelList<CtTypeReference<?>>(this,
 					METHOD_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		formalTypeParameters.add(formalTypeParameter);
@@ -106,12 +111,14 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <T extends CtGenericElement> T setFormalTypeParameters(List<CtTypeReference<?>> formalTypeParameters) {
-		this.formalTypeParameters = formalTypeParameters;
+		modified();
+		this.formalTypeParameters = new ModelList<CtTypeReference<?>>(this, formalTypeParameters);
 		return (T) this;
 	}
 
 	@Override
 	public boolean removeFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		return formalTypeParameter != null
 				&& formalTypeParameters != CtElementImpl.<CtTypeReference<?>>emptyList()
 				&& formalTypeParameters.remove(formalTypeParameter);
@@ -129,12 +136,14 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -144,11 +153,13 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return !modifiers.isEmpty() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -175,6 +186,7 @@ public class CtMethodImpl<T> extends CtExecutableImpl<T> implements CtMethod<T>
 
 	@Override
 	public <R extends T> void replace(CtMethod<T> element) {
+		modified();
 		replace((CtElement) element);
 	}
 }
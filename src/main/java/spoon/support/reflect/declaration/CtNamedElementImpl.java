@@ -40,11 +40,16 @@ public abstract class CtNamedElementImpl extends CtElementImpl implements CtName
 
 	@Override
 	public <T extends CtNamedElement> T setSimpleName(String simpleName) {
+		modified();
 		Factory factory = getFactory();
 		if (factory instanceof FactoryImpl) {
 			simpleName = ((FactoryImpl) factory).dedup(simpleName);
 		}
+		String oldName = this.simpleName;
 		this.simpleName = simpleName;
+		if (parent instanceof CtElementImpl) {
+			((CtElementImpl) parent).childRenamed(this, oldName);
+		}
 		return (T) this;
 	}
 }
@@ -18,25 +18,29 @@
 package spoon.support.reflect.declaration;
 
 import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.util.DeclarationSet;
 
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * The implementation for {@link spoon.reflect.declaration.CtPackage}.
  *
+ * The methods adding, removing and looking up sub-packages and types are
+ * synchronized, so that a model can be built by several threads.
+ *
  * @author Renaud Pawlak
  */
 public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	private static final long serialVersionUID = 1L;
 
-	private Set<CtPackage> packs = new TreeSet<CtPackage>();
+	private DeclarationSet<CtPackage> packs = new DeclarationSet<CtPackage>(this);
 
-	private Set<CtType<?>> types = new TreeSet<CtType<?>>();
+	private DeclarationSet<CtType<?>> types = new DeclarationSet<CtType<?>>(this);
 
 	public CtPackageImpl() {
 		super();
@@ -48,14 +52,16 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	}
 
 	@Override
-	public <T extends CtPackage> T addPackage(CtPackage pack) {
+	public synchronized <T extends CtPackage> T addPackage(CtPackage pack) {
+		modified();
 		pack.setParent(this);
 		packs.add(pack);
 		return (T) this;
 	}
 
 	@Override
-	public boolean removePackage(CtPackage pack) {
+	public synchronized boolean removePackage(CtPackage pack) {
+		modified();
 		return packs.remove(pack);
 	}
 
@@ -65,13 +71,8 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	}
 
 	@Override
-	public CtPackage getPackage(String name) {
-		for (CtPackage p : packs) {
-			if (p.getSimpleName().equals(name)) {
-				return p;
-			}
-		}
-		return null;
+	public synchronized CtPackage getPackage(String name) {
+		return packs.getFirstByName(name);
 	}
 
 	@Override
@@ -79,6 +80,25 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 		return packs;
 	}
 
+	@Override
+	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		super.setSimpleName(simpleName);
+		if (getFactory() != null) {
+			getFactory().Type().declarationRenamed(this);
+		}
+		return (C) this;
+	}
+
+	@Override
+	void childRenamed(CtNamedElement child, String oldName) {
+		// the name indexes of the content are maintained
+		if (child instanceof CtPackage) {
+			packs.renamed(child, oldName);
+		} else if (child instanceof CtType) {
+			types.renamed(child, oldName);
+		}
+	}
+
 	@Override
 	public String getQualifiedName() {
 		if (getDeclaringPackage() == null || TOP_LEVEL_PACKAGE_NAME.equals(
@@ -90,13 +110,8 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 
 	@Override
 	@SuppressWarnings("unchecked")
-	public <T extends CtType<?>> T getType(String simpleName) {
-		for (CtType<?> t : types) {
-			if (t.getSimpleName().equals(simpleName)) {
-				return (T) t;
-			}
-		}
-		return null;
+	public synchronized <T extends CtType<?>> T getType(String simpleName) {
+		return (T) types.getFirstByName(simpleName);
 	}
 
 	@Override
@@ -105,7 +120,8 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	}
 
 	@Override
-	public <T extends CtPackage> T setPackages(Set<CtPackage> packs) {
+	public synchronized <T extends CtPackage> T setPackages(Set<CtPackage> packs) {
+		modified();
 		this.packs.clear();
 		for (CtPackage p : packs) {
 			addPackage(p);
@@ -114,7 +130,8 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	}
 
 	@Override
-	public <T extends CtPackage> T setTypes(Set<CtType<?>> types) {
+	public synchronized <T extends CtPackage> T setTypes(Set<CtType<?>> types) {
+		modified();
 		this.types.clear();
 		for (CtType<?> t : types) {
 			addType(t);
@@ -128,14 +145,16 @@ public class CtPackageImpl extends CtNamedElementImpl implements CtPackage {
 	}
 
 	@Override
-	public <T extends CtPackage> T addType(CtType<?> type) {
+	public synchronized <T extends CtPackage> T addType(CtType<?> type) {
+		modified();
 		type.setParent(this);
 		types.add(type);
 		return (T) this;
 	}
 
 	@Override
-	public void removeType(CtType<?> type) {
+	public synchronized void removeType(CtType<?> type) {
+		modified();
 		types.remove(type);
 	}
 
@@ -25,6 +25,7 @@ import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtGenericElement;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtModifiable;
+import spoon.reflect.declaration.CtNamedElement;
 import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.ModifierKind;
@@ -38,6 +39,11 @@ import spoon.reflect.visitor.CtScanner;
 import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.filter.ReferenceTypeFilter;
 import spoon.support.compiler.SnippetCompilationHelper;
+import spoon.support.util.DeclarationSet;
+import spoon.support.util.ModelList;
+import spoon.support.util.ModelSet;
+import spoon.support.util.NamedElementList;
+import spoon.support.util.NamedElementSet;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
@@ -48,7 +54,6 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.FIELDS_CONTAINER_DEFAULT_CAPACITY;
 import static spoon.reflect.ModelElementContainerDefaultCapacities.TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
@@ -66,7 +71,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	Set<CtMethod<?>> methods = emptySet();
 
-	private List<CtField<?>> fields = new ArrayList<CtField<?>>(FIELDS_CONTAINER_DEFAULT_CAPACITY);
+	private NamedElementList<CtField<?>> fields = new NamedElementList<CtField<?>>(this, FIELDS_CONTAINER_DEFAULT_CAPACITY);
 
 	Set<CtType<?>> nestedTypes = emptySet();
 
@@ -78,6 +83,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <F, C extends CtType<T>> C addField(CtField<F> field) {
+		modified();
 		if (!this.fields.contains(field)) {
 			field.setParent(this);
 			this.fields.add(field);
@@ -89,17 +95,13 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <F> boolean removeField(CtField<F> field) {
+		modified();
 		return this.fields.remove(field);
 	}
 
 	@Override
 	public CtField<?> getField(String name) {
-		for (CtField<?> f : fields) {
-			if (f.getSimpleName().equals(name)) {
-				return f;
-			}
-		}
-		return null;
+		return fields.getFirstByName(name);
 	}
 
 	@Override
@@ -109,8 +111,9 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <N, C extends CtType<T>> C addNestedType(CtType<N> nestedType) {
+		modified();
 		if (nestedTypes == CtElementImpl.<CtType<?>>emptySet()) {
-			nestedTypes = new TreeSet<CtType<?>>();
+			nestedTypes = new DeclarationSet<CtType<?>>(this);
 		}
 		nestedType.setParent(this);
 		this.nestedTypes.add(nestedType);
@@ -119,10 +122,12 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <N> boolean removeNestedType(CtType<N> nestedType) {
+		modified();
 		if (nestedTypes.isEmpty()) {
 			return false;
 		} else if (nestedTypes.size() == 1) {
-			if (nestedTypes.contains(nestedType)) {
+			// the type is removed from the set, which tells the type factory
+			if (nestedTypes.remove(nestedType)) {
 				nestedTypes = CtElementImpl.<CtType<?>>emptySet();
 				return true;
 			} else {
@@ -186,6 +191,14 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	@SuppressWarnings("unchecked")
 	public <N extends CtType<?>> N getNestedType(final String name) {
+		CtType<?> nestedType = null;
+		if (!nestedTypes.isEmpty()) {
+			nestedType = ((DeclarationSet<CtType<?>>) nestedTypes).getFirstByName(name);
+		}
+		if (nestedType != null) {
+			return (N) nestedType;
+		}
+		// the local types are declared in the bodies
 		class NestedTypeScanner extends CtScanner {
 			CtType<?> type;
 
@@ -280,12 +293,14 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <C extends CtModifiable> C setModifiers(Set<ModifierKind> modifiers) {
+		modified();
 		this.modifiers = modifiers;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtModifiable> C addModifier(ModifierKind modifier) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.of(modifier);
 		}
@@ -295,11 +310,13 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public boolean removeModifier(ModifierKind modifier) {
+		modified();
 		return modifiers != CtElementImpl.<ModifierKind>emptySet() && modifiers.remove(modifier);
 	}
 
 	@Override
 	public <C extends CtModifiable> C setVisibility(ModifierKind visibility) {
+		modified();
 		if (modifiers == CtElementImpl.<ModifierKind>emptySet()) {
 			this.modifiers = EnumSet.noneOf(ModifierKind.class);
 		}
@@ -384,8 +401,9 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <M, C extends CtType<T>> C addMethod(CtMethod<M> method) {
+		modified();
 		if (methods == CtElementImpl.<CtMethod<?>>emptySet()) {
-			methods = new TreeSet<CtMethod<?>>();
+			methods = new NamedElementSet<CtMethod<?>>(this);
 		}
 		method.setParent(this);
 		methods.add(method);
@@ -394,6 +412,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <M> boolean removeMethod(CtMethod<M> method) {
+		modified();
 		if (methods.isEmpty()) {
 			return false;
 		} else if (methods.size() == 1) {
@@ -416,8 +435,9 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <S, C extends CtType<T>> C addSuperInterface(CtTypeReference<S> interfac) {
+		modified();
 		if (interfaces == CtElementImpl.<CtTypeReference<?>>emptySet()) {
-			interfaces = new TreeSet<CtTypeReference<?>>();
+			interfaces = new ModelSet<CtTypeReference<?>>(this);
 		}
 		interfaces.add(interfac);
 		return (C) this;
@@ -425,6 +445,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <S> boolean removeSuperInterface(CtTypeReference<S> interfac) {
+		modified();
 		if (interfaces.isEmpty()) {
 			return false;
 		} else if (interfaces.size() == 1) {
@@ -442,8 +463,9 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <C extends CtGenericElement> C addFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		if (formalTypeParameters == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			formalTypeParameters = new ArrayList<CtTypeReference<?>>(TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
+			formalTypeParameters = new ModelList<CtTypeReference<?>>(this, TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		formalTypeParameters.add(formalTypeParameter);
 		return (C) this;
@@ -451,6 +473,7 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public boolean removeFormalTypeParameter(CtTypeReference<?> formalTypeParameter) {
+		modified();
 		return formalTypeParameters.contains(formalTypeParameter) && formalTypeParameters.remove(formalTypeParameter);
 	}
 
@@ -463,23 +486,21 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@SuppressWarnings("unchecked")
 	public <R> CtMethod<R> getMethod(CtTypeReference<R> returnType, String name, CtTypeReference<?>...
 			parameterTypes) {
-		for (CtMethod<?> mm : methods) {
+		for (CtMethod<?> mm : getMethodsNamed(name)) {
 			CtMethod<R> m = (CtMethod<R>) mm;
-			if (m.getSimpleName().equals(name)) {
-				if (!m.getType().equals(returnType)) {
-					continue;
-				}
-				boolean cont = m.getParameters().size() == parameterTypes.length;
-				for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
-					if (!m.getParameters().get(i).getType().getQualifiedName()
-							.equals(parameterTypes[i].getQualifiedName())) {
-						cont = false;
-					}
-				}
-				if (cont) {
-					return m;
+			if (!m.getType().equals(returnType)) {
+				continue;
+			}
+			boolean cont = m.getParameters().size() == parameterTypes.length;
+			for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
+				if (!m.getParameters().get(i).getType().getQualifiedName()
+						.equals(parameterTypes[i].getQualifiedName())) {
+					cont = false;
 				}
 			}
+			if (cont) {
+				return m;
+			}
 		}
 		return null;
 	}
@@ -487,21 +508,19 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 	@Override
 	@SuppressWarnings("unchecked")
 	public <R> CtMethod<R> getMethod(String name, CtTypeReference<?>... parameterTypes) {
-		for (CtMethod<?> m : methods) {
-			if (m.getSimpleName().equals(name)) {
-				boolean cont = m.getParameters().size() == parameterTypes.length;
-				for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
-					// String
-					// s1=m.getParameters().get(i).getType().getQualifiedName();
-					// String s2=parameterTypes[i].getQualifiedName();
-					if (!m.getParameters().get(i).getType().equals(parameterTypes[i])) {
-						cont = false;
-					}
-				}
-				if (cont) {
-					return (CtMethod<R>) m;
+		for (CtMethod<?> m : getMethodsNamed(name)) {
+			boolean cont = m.getParameters().size() == parameterTypes.length;
+			for (int i = 0; cont && (i < m.getParameters().size()) && (i < parameterTypes.length); i++) {
+				// String
+				// s1=m.getParameters().get(i).getType().getQualifiedName();
+				// String s2=parameterTypes[i].getQualifiedName();
+				if (!m.getParameters().get(i).getType().equals(parameterTypes[i])) {
+					cont = false;
 				}
 			}
+			if (cont) {
+				return (CtMethod<R>) m;
+			}
 		}
 		return null;
 	}
@@ -526,13 +545,39 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public List<CtMethod<?>> getMethodsByName(String name) {
-		List<CtMethod<?>> result = new ArrayList<CtMethod<?>>(1);
-		for (CtMethod<?> m : methods) {
-			if (name.equals(m.getSimpleName())) {
-				result.add(m);
+		return new ArrayList<CtMethod<?>>(getMethodsNamed(name));
+	}
+
+	private List<CtMethod<?>> getMethodsNamed(String name) {
+		if (methods.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return ((NamedElementSet<CtMethod<?>>) methods).getByName(name);
+	}
+
+	@Override
+	void childRenamed(CtNamedElement child, String oldName) {
+		// the name indexes of the members are maintained
+		if (child instanceof CtField) {
+			fields.renamed(child, oldName);
+		} else if (child instanceof CtMethod) {
+			if (!methods.isEmpty()) {
+				((NamedElementSet<CtMethod<?>>) methods).renamed(child, oldName);
+			}
+		} else if (child instanceof CtType) {
+			if (!nestedTypes.isEmpty()) {
+				((DeclarationSet<CtType<?>>) nestedTypes).renamed(child, oldName);
 			}
 		}
-		return result;
+	}
+
+	@Override
+	public <C extends CtNamedElement> C setSimpleName(String simpleName) {
+		super.setSimpleName(simpleName);
+		if (getFactory() != null) {
+			getFactory().Type().declarationRenamed(this);
+		}
+		return (C) this;
 	}
 
 	@Override
@@ -556,12 +601,14 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <C extends CtGenericElement> C setFormalTypeParameters(List<CtTypeReference<?>> formalTypeParameters) {
-		this.formalTypeParameters = formalTypeParameters;
+		modified();
+		this.formalTypeParameters = new ModelList<CtTypeReference<?>>(this, formalTypeParameters);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtType<T>> C setMethods(Set<CtMethod<?>> methods) {
+		modified();
 		this.methods.clear();
 		for (CtMethod<?> meth : methods) {
 			addMethod(meth);
@@ -571,7 +618,8 @@ public abstract class CtTypeImpl<T> extends CtNamedElementImpl implements CtType
 
 	@Override
 	public <C extends CtType<T>> C setSuperInterfaces(Set<CtTypeReference<?>> interfaces) {
-		this.interfaces = interfaces;
+		modified();
+		this.interfaces = new ModelSet<CtTypeReference<?>>(this, interfaces);
 		return (C) this;
 	}
 
@@ -17,12 +17,12 @@
 
 package spoon.support.reflect.declaration;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.declaration.CtTypeParameter;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
+import spoon.support.util.ModelList;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities
 		.TYPE_BOUNDS_CONTAINER_DEFAULT_CAPACITY;
@@ -48,8 +48,9 @@ public class CtTypeParameterImpl extends CtNamedElementImpl implements CtTypePar
 
 	@Override
 	public <T extends CtTypeParameter> T addBound(CtTypeReference<?> bound) {
+		modified();
 		if (bounds == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			bounds = new ArrayList<CtTypeReference<?>>(TYPE_BOUNDS_CONTAINER_DEFAULT_CAPACITY);
+			bounds = new ModelList<CtTypeReference<?>>(this, TYPE_BOUNDS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		this.bounds.add(bound);
 		return (T) this;
@@ -57,6 +58,7 @@ public class CtTypeParameterImpl extends CtNamedElementImpl implements CtTypePar
 
 	@Override
 	public boolean removeBound(CtTypeReference<?> bound) {
+		modified();
 		return bounds != CtElementImpl.<CtTypeReference<?>>emptyList() && this.bounds.remove(bound);
 	}
 
@@ -67,7 +69,8 @@ public class CtTypeParameterImpl extends CtNamedElementImpl implements CtTypePar
 
 	@Override
 	public <T extends CtTypeParameter> T setBounds(List<CtTypeReference<?>> bounds) {
-		this.bounds = bounds;
+		modified();
+		this.bounds = new ModelList<CtTypeReference<?>>(this, bounds);
 		return (T) this;
 	}
 }
@@ -45,7 +45,9 @@ public class CtArrayTypeReferenceImpl<T> extends CtTypeReferenceImpl<T>
 
 	@Override
 	public <C extends CtArrayTypeReference<T>> C setComponentType(CtTypeReference<?> componentType) {
+		modified();
 		this.componentType = componentType;
+		CtReferenceImpl.setOwner(this.componentType, this);
 		return (C) this;
 	}
 
@@ -59,6 +61,11 @@ public class CtArrayTypeReferenceImpl<T> extends CtTypeReferenceImpl<T>
 		return Array.class.getCanonicalName();
 	}
 
+	@Override
+	protected String computeIdentity() {
+		return getIdentity(getComponentType()) + "[]";
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Class<T> getActualClass() {
@@ -43,6 +43,7 @@ public class CtCatchVariableReferenceImpl<T> extends CtVariableReferenceImpl<T>
 
 	@Override
 	public <C extends CtCatchVariableReference<T>> C setDeclaration(CtCatchVariable<T> declaration) {
+		modified();
 		this.declaration = declaration;
 		return (C) this;
 	}
@@ -21,7 +21,6 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -39,6 +38,7 @@ import spoon.reflect.reference.CtGenericElementReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 import spoon.support.util.RtHelper;
 
 import static spoon.reflect.ModelElementContainerDefaultCapacities.METHOD_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
@@ -139,6 +139,16 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 	@Override
 	@SuppressWarnings("unchecked")
 	public CtExecutable<T> getDeclaration() {
+		long version = getModelVersion();
+		Object cached = getCachedDeclaration(version);
+		if (cached != UNRESOLVED) {
+			return (CtExecutable<T>) cached;
+		}
+		return cacheDeclaration(resolveDeclaration(), version);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CtExecutable<T> resolveDeclaration() {
 		CtType<?> typeDecl = getDeclaringType().getDeclaration();
 		if (typeDecl == null) {
 			return null;
@@ -177,8 +187,9 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 
 	@Override
 	public <C extends CtExecutableReference<T>> C setParameters(List<CtTypeReference<?>> parameters) {
+		modified();
 		if (this.parameters == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			this.parameters = new ArrayList<CtTypeReference<?>>();
+			this.parameters = new ModelList<CtTypeReference<?>>(this);
 			this.parameters.addAll(parameters);
 		}
 		return (C) this;
@@ -188,7 +199,7 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 	@SuppressWarnings("unchecked")
 	public <S extends T> CtExecutableReference<S> getOverridingExecutable(
 			CtTypeReference<?> subType) {
-		if ((subType == null) || subType.equals(getDeclaringType())) {
+		if ((subType == null) || (getDeclaringType() != null && subType.getQualifiedName().equals(getDeclaringType().getQualifiedName()))) {
 			return null;
 		}
 		CtType<?> t = subType.getDeclaration();
@@ -218,22 +229,51 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 	@Override
 	public <C extends CtGenericElementReference> C setActualTypeArguments(
 			List<CtTypeReference<?>> actualTypeArguments) {
-		this.actualTypeArguments = actualTypeArguments;
+		modified();
+		this.actualTypeArguments = new ModelList<CtTypeReference<?>>(this, actualTypeArguments);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExecutableReference<T>> C setDeclaringType(CtTypeReference<?> declaringType) {
+		modified();
 		this.declaringType = declaringType;
+		CtReferenceImpl.setOwner(this.declaringType, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtExecutableReference<T>> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
+	@Override
+	protected String computeIdentity() {
+		// the erasures of the types, as in the signatures of the executables
+		StringBuilder identity = new StringBuilder();
+		if (getDeclaringType() != null) {
+			identity.append(getErasureIdentity(getDeclaringType()));
+		}
+		identity.append(CtExecutable.EXECUTABLE_SEPARATOR);
+		if (isConstructor()) {
+			identity.append(getDeclaringType().getSimpleName());
+		} else {
+			identity.append(getSimpleName());
+		}
+		identity.append('(');
+		List<CtTypeReference<?>> parameters = getParameters();
+		for (int i = 0; i < parameters.size(); i++) {
+			if (i > 0) {
+				identity.append(", ");
+			}
+			identity.append(getErasureIdentity(parameters.get(i)));
+		}
+		return identity.append(')').toString();
+	}
+
 	@Override
 	protected AnnotatedElement getActualAnnotatedElement() {
 		if (isConstructor()) {
@@ -294,6 +334,7 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 
 	@Override
 	public <C extends CtExecutableReference<T>> C setStatic(boolean b) {
+		modified();
 		this.stat = b;
 		return (C) this;
 	}
@@ -366,8 +407,9 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 
 	@Override
 	public <C extends CtGenericElementReference> C addActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		if (actualTypeArguments == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			actualTypeArguments = new ArrayList<CtTypeReference<?>>(
+			actualTypeArguments = new ModelList<CtTypeReference<?>>(this,
 					METHOD_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		actualTypeArguments.add(actualTypeArgument);
@@ -377,6 +419,7 @@ public class CtExecutableReferenceImpl<T> extends CtReferenceImpl
 	@Override
 	public boolean removeActualTypeArgument(
 			CtTypeReference<?> actualTypeArgument) {
+		modified();
 		return actualTypeArguments != CtElementImpl.<CtTypeReference<?>>emptyList()
 				&& actualTypeArguments.remove(actualTypeArgument);
 	}
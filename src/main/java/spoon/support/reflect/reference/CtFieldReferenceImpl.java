@@ -129,6 +129,16 @@ public class CtFieldReferenceImpl<T> extends CtVariableReferenceImpl<T>
 	@Override
 	@SuppressWarnings("unchecked")
 	public CtField<T> getDeclaration() {
+		long version = getModelVersion();
+		Object cached = getCachedDeclaration(version);
+		if (cached != UNRESOLVED) {
+			return (CtField<T>) cached;
+		}
+		return cacheDeclaration(resolveDeclaration(), version);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CtField<T> resolveDeclaration() {
 		CtType<?> type = declaringType.getDeclaration();
 		if ((declaringType != null) && (type != null)) {
 			return (CtField<T>) type.getField(getSimpleName());
@@ -146,6 +156,16 @@ public class CtFieldReferenceImpl<T> extends CtVariableReferenceImpl<T>
 		return getDeclaringType().getQualifiedName() + "#" + getSimpleName();
 	}
 
+	@Override
+	protected String computeIdentity() {
+		// the erasures of the types, as in the signatures of the fields
+		StringBuilder identity = new StringBuilder(getErasureIdentity(getType())).append(' ');
+		if (getDeclaringType() != null) {
+			identity.append(getErasureIdentity(getDeclaringType())).append(CtField.FIELD_SEPARATOR);
+		}
+		return identity.append(getSimpleName()).toString();
+	}
+
 	@Override
 	public boolean isFinal() {
 		return fina;
@@ -161,18 +181,22 @@ public class CtFieldReferenceImpl<T> extends CtVariableReferenceImpl<T>
 
 	@Override
 	public <C extends CtFieldReference<T>> C setDeclaringType(CtTypeReference<?> declaringType) {
+		modified();
 		this.declaringType = declaringType;
+		CtReferenceImpl.setOwner(this.declaringType, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtFieldReference<T>> C setFinal(boolean b) {
+		modified();
 		fina = b;
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtFieldReference<T>> C setStatic(boolean stat) {
+		modified();
 		this.stat = stat;
 		return (C) this;
 	}
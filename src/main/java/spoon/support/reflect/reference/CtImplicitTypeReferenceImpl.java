@@ -9,6 +9,7 @@ public class CtImplicitTypeReferenceImpl<R> extends CtTypeReferenceImpl<R>
 
 	@Override
 	public <T extends CtReference> T setSimpleName(String simplename) {
+		modified();
 		name = simplename;
 		return (T) this;
 	}
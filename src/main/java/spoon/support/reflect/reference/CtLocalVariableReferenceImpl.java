@@ -43,6 +43,7 @@ public class CtLocalVariableReferenceImpl<T> extends CtVariableReferenceImpl<T>
 
 	@Override
 	public <C extends CtLocalVariableReference<T>> C setDeclaration(CtLocalVariable<T> declaration) {
+		modified();
 		this.declaration = declaration;
 		return (C) this;
 	}
@@ -64,7 +64,9 @@ public class CtParameterReferenceImpl<T> extends CtVariableReferenceImpl<T>
 
 	@Override
 	public <C extends CtParameterReference<T>> C setDeclaringExecutable(CtExecutableReference<?> executable) {
+		modified();
 		this.executable = executable;
+		CtReferenceImpl.setOwner(this.executable, this);
 		return (C) this;
 	}
 }
@@ -22,11 +22,15 @@ import java.lang.reflect.AnnotatedElement;
 
 import spoon.reflect.factory.Factory;
 import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.reference.CtArrayTypeReference;
 import spoon.reflect.reference.CtReference;
+import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
-import spoon.support.visitor.SignaturePrinter;
+import spoon.support.StandardEnvironment;
+import spoon.support.util.ModelNode;
+import spoon.support.visitor.Signature;
 
-public abstract class CtReferenceImpl implements CtReference, Serializable, Comparable<CtReference> {
+public abstract class CtReferenceImpl implements CtReference, Serializable, Comparable<CtReference>, ModelNode {
 
 	private static final long serialVersionUID = 1L;
 
@@ -38,24 +42,184 @@ public abstract class CtReferenceImpl implements CtReference, Serializable, Comp
 		super();
 	}
 
+	/**
+	 * The element or the reference which holds this reference, which is told
+	 * when this reference is modified. It is not serialized, since it may be
+	 * in another compilation unit, and is set again by the deserializer.
+	 */
+	private transient ModelNode owner;
+
+	/**
+	 * The key which identifies this reference in equals, hashCode and
+	 * compareTo, computed once until this reference or one of the references
+	 * it holds is modified (see {@link #modified()}).
+	 */
+	private transient volatile String identity;
+
+	/**
+	 * Gets the key which identifies this reference.
+	 */
+	public final String getIdentity() {
+		String id = identity;
+		if (id == null) {
+			id = computeIdentity();
+			identity = id;
+		}
+		return id;
+	}
+
+	/**
+	 * Computes the key which identifies this reference from its fields and
+	 * from the keys of the references it holds, which tell this reference
+	 * when they are modified.
+	 */
+	protected String computeIdentity() {
+		return String.valueOf(simplename);
+	}
+
+	static String getIdentity(CtReference reference) {
+		if (reference instanceof CtReferenceImpl) {
+			return ((CtReferenceImpl) reference).getIdentity();
+		}
+		return Signature.of(reference).getValue();
+	}
+
+	/**
+	 * Gets the key which identifies the erasure of the given type reference:
+	 * its qualified name, without its type arguments.
+	 */
+	static String getErasureIdentity(CtTypeReference<?> reference) {
+		if (reference == null) {
+			return "<no type>";
+		}
+		if (reference instanceof CtArrayTypeReference) {
+			return getErasureIdentity(((CtArrayTypeReference<?>) reference).getComponentType()) + "[]";
+		}
+		return reference.getQualifiedName();
+	}
+
+	/**
+	 * Gets the element or the reference which holds this reference, if any.
+	 */
+	public ModelNode getOwner() {
+		return owner;
+	}
+
+	/**
+	 * Sets the element or the reference which holds this reference, which is
+	 * told when this reference is modified (see {@link ModelNode}).
+	 */
+	public void setOwner(ModelNode owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * Sets the owner of the given object if it is a reference (see
+	 * {@link #setOwner(ModelNode)}), e.g. when it is given to a setter of an
+	 * element.
+	 */
+	public static void setOwner(Object reference, ModelNode owner) {
+		if (reference instanceof CtReferenceImpl) {
+			((CtReferenceImpl) reference).owner = owner;
+		}
+	}
+
+	/**
+	 * Tells that this reference is modified: clears its identity key and
+	 * tells its owner, or the model version of its factory when it has no
+	 * owner.
+	 */
+	@Override
+	public void modified() {
+		identity = null;
+		if (owner != null) {
+			owner.modified();
+		} else if (factory != null) {
+			factory.getModelVersion().modified();
+		}
+	}
+
+	/**
+	 * Gets the version of the model of the factory of this reference.
+	 */
+	long getModelVersion() {
+		return factory == null ? 0 : factory.getModelVersion().get();
+	}
+
+	/**
+	 * A declaration resolved by a reference, with the version of the model it
+	 * was resolved at.
+	 */
+	private static final class Resolution {
+		final Object declaration;
+
+		final long version;
+
+		Resolution(Object declaration, long version) {
+			this.declaration = declaration;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * Tells that a declaration is not in the cache (see
+	 * {@link #getCachedDeclaration(long)}).
+	 */
+	static final Object UNRESOLVED = new Object();
+
+	private transient volatile Resolution resolution;
+
+	/**
+	 * Gets the declaration of this reference resolved at the given version of
+	 * the model, or {@link #UNRESOLVED} if it must be resolved (see
+	 * {@link spoon.compiler.Environment#isResolutionCacheEnabled()}). The
+	 * version is read before the resolution, so that a modification during
+	 * the resolution makes the cached declaration outdated.
+	 */
+	Object getCachedDeclaration(long version) {
+		if (factory == null || !factory.getEnvironment().isResolutionCacheEnabled()) {
+			return UNRESOLVED;
+		}
+		Resolution r = resolution;
+		boolean cached = r != null && r.version == version;
+		if (factory.getEnvironment() instanceof StandardEnvironment) {
+			((StandardEnvironment) factory.getEnvironment()).countResolution(cached);
+		}
+		return cached ? r.declaration : UNRESOLVED;
+	}
+
+	/**
+	 * Caches the given declaration of this reference, resolved at the given
+	 * version of the model.
+	 *
+	 * @return the given declaration
+	 */
+	<D> D cacheDeclaration(D declaration, long version) {
+		if (factory != null && factory.getEnvironment().isResolutionCacheEnabled()) {
+			resolution = new Resolution(declaration, version);
+		}
+		return declaration;
+	}
+
 	@Override
 	public int compareTo(CtReference o) {
-		SignaturePrinter pr = new SignaturePrinter();
-		pr.scan(this);
-		String current = pr.getSignature();
-		pr.reset();
-		pr.scan(o);
-		return current.compareTo(pr.getSignature());
+		return getIdentity().compareTo(getIdentity(o));
 	}
 
 	@Override
 	public int hashCode() {
-		return toString().hashCode();
+		return getIdentity().hashCode();
 	}
 
 	@Override
 	public boolean equals(Object object) {
-		return object instanceof CtReference && compareTo((CtReference) object) == 0;
+		if (object == this) {
+			return true;
+		}
+		if (!(object instanceof CtReference)) {
+			return false;
+		}
+		return getIdentity().equals(getIdentity((CtReference) object));
 	}
 
 	protected abstract AnnotatedElement getActualAnnotatedElement();
@@ -67,6 +231,7 @@ public abstract class CtReferenceImpl implements CtReference, Serializable, Comp
 
 	@Override
 	public <T extends CtReference> T setSimpleName(String simplename) {
+		modified();
 		if (simplename.contains("?")) {
 			throw new RuntimeException("argl");
 		}
@@ -21,7 +21,6 @@ import static spoon.reflect.ModelElementContainerDefaultCapacities.TYPE_BOUNDS_C
 import static spoon.reflect.ModelElementContainerDefaultCapacities.TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY;
 
 import java.lang.reflect.AnnotatedElement;
-import java.util.ArrayList;
 import java.util.List;
 
 import spoon.reflect.reference.CtGenericElementReference;
@@ -30,6 +29,7 @@ import spoon.reflect.reference.CtTypeParameterReference;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 
 public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 		implements CtTypeParameterReference {
@@ -60,12 +60,14 @@ public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 
 	@Override
 	public <T extends CtTypeParameterReference> T setBounds(List<CtTypeReference<?>> bounds) {
-		this.bounds = bounds;
+		modified();
+		this.bounds = new ModelList<CtTypeReference<?>>(this, bounds);
 		return (T) this;
 	}
 
 	@Override
 	public <T extends CtTypeParameterReference> T setUpper(boolean upper) {
+		modified();
 		this.upper = upper;
 		return (T) this;
 	}
@@ -99,8 +101,9 @@ public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 
 	@Override
 	public <C extends CtGenericElementReference> C addActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		if (actualTypeArguments == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			actualTypeArguments = new ArrayList<CtTypeReference<?>>(
+			actualTypeArguments = new ModelList<CtTypeReference<?>>(this,
 					TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		actualTypeArguments.add(actualTypeArgument);
@@ -109,14 +112,16 @@ public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 
 	@Override
 	public boolean removeActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		return actualTypeArguments != CtElementImpl.<CtTypeReference<?>>emptyList()
 				&& actualTypeArguments.remove(actualTypeArgument);
 	}
 
 	@Override
 	public <T extends CtTypeParameterReference> T addBound(CtTypeReference<?> bound) {
+		modified();
 		if (bounds == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			bounds = new ArrayList<CtTypeReference<?>>(TYPE_BOUNDS_CONTAINER_DEFAULT_CAPACITY);
+			bounds = new ModelList<CtTypeReference<?>>(this, TYPE_BOUNDS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		bounds.add(bound);
 		return (T) this;
@@ -124,6 +129,7 @@ public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 
 	@Override
 	public boolean removeBound(CtTypeReference<?> bound) {
+		modified();
 		return bounds != CtElementImpl.<CtTypeReference<?>>emptyList() && bounds.remove(bound);
 	}
 
@@ -135,6 +141,7 @@ public class CtTypeParameterReferenceImpl extends CtTypeReferenceImpl<Object>
 
 	@Override
 	public <T extends CtReference> T setSimpleName(String simplename) {
+		modified();
 		this.simplename = simplename;
 		return (T) this;
 	}
@@ -50,6 +50,7 @@ import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.CtVisitor;
 import spoon.reflect.visitor.filter.AbstractFilter;
 import spoon.support.reflect.declaration.CtElementImpl;
+import spoon.support.util.ModelList;
 import spoon.support.util.RtHelper;
 
 public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeReference<T> {
@@ -161,6 +162,16 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 	@Override
 	@SuppressWarnings("unchecked")
 	public CtType<T> getDeclaration() {
+		long version = getModelVersion();
+		Object cached = getCachedDeclaration(version);
+		if (cached != UNRESOLVED) {
+			return (CtType<T>) cached;
+		}
+		return cacheDeclaration(resolveDeclaration(), version);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CtType<T> resolveDeclaration() {
 		if (!isPrimitive() && !isAnonymous()) {
 			return (CtType<T>) getFactory().Type().get(getQualifiedName());
 		}
@@ -206,6 +217,22 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 		}
 	}
 
+	@Override
+	protected String computeIdentity() {
+		List<CtTypeReference<?>> arguments = getActualTypeArguments();
+		if (arguments.isEmpty()) {
+			return getQualifiedName();
+		}
+		StringBuilder identity = new StringBuilder(getQualifiedName()).append('<');
+		for (int i = 0; i < arguments.size(); i++) {
+			if (i > 0) {
+				identity.append(',');
+			}
+			identity.append(getIdentity(arguments.get(i)));
+		}
+		return identity.append('>').toString();
+	}
+
 	@Override
 	public boolean isAssignableFrom(CtTypeReference<?> type) {
 		return type != null && type.isSubtypeOf(this);
@@ -291,19 +318,24 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 
 	@Override
 	public <C extends CtGenericElementReference> C setActualTypeArguments(List<CtTypeReference<?>> actualTypeArguments) {
-		this.actualTypeArguments = actualTypeArguments;
+		modified();
+		this.actualTypeArguments = new ModelList<CtTypeReference<?>>(this, actualTypeArguments);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtTypeReference<T>> C setDeclaringType(CtTypeReference<?> declaringType) {
+		modified();
 		this.declaringType = declaringType;
+		CtReferenceImpl.setOwner(this.declaringType, this);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtTypeReference<T>> C setPackage(CtPackageReference pack) {
+		modified();
 		this.pack = pack;
+		CtReferenceImpl.setOwner(this.pack, this);
 		return (C) this;
 	}
 
@@ -462,8 +494,9 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 
 	@Override
 	public <C extends CtGenericElementReference> C addActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		if (actualTypeArguments == CtElementImpl.<CtTypeReference<?>>emptyList()) {
-			actualTypeArguments = new ArrayList<CtTypeReference<?>>(TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
+			actualTypeArguments = new ModelList<CtTypeReference<?>>(this, TYPE_TYPE_PARAMETERS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		actualTypeArguments.add(actualTypeArgument);
 		return (C) this;
@@ -471,6 +504,7 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 
 	@Override
 	public boolean removeActualTypeArgument(CtTypeReference<?> actualTypeArgument) {
+		modified();
 		return actualTypeArguments != CtElementImpl.<CtTypeReference<?>>emptyList() && actualTypeArguments.remove(actualTypeArgument);
 	}
 
@@ -491,17 +525,19 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 
 	@Override
 	public <C extends CtTypeAnnotableReference> C setTypeAnnotations(List<CtAnnotation<? extends Annotation>> annotations) {
-		this.annotations = annotations;
+		modified();
+		this.annotations = new ModelList<CtAnnotation<? extends Annotation>>(this, annotations);
 		return (C) this;
 	}
 
 	@Override
 	public <C extends CtTypeAnnotableReference> C addTypeAnnotation(CtAnnotation<? extends Annotation> annotation) {
+		modified();
 		if (annotation == null) {
 			return (C) this;
 		}
 		if ((List<?>) this.annotations == (List<?>) CtElementImpl.emptyList()) {
-			this.annotations = new ArrayList<CtAnnotation<? extends Annotation>>(ANNOTATIONS_CONTAINER_DEFAULT_CAPACITY);
+			this.annotations = new ModelList<CtAnnotation<? extends Annotation>>(this, ANNOTATIONS_CONTAINER_DEFAULT_CAPACITY);
 		}
 		this.annotations.add(annotation);
 		return (C) this;
@@ -509,6 +545,7 @@ public class CtTypeReferenceImpl<T> extends CtReferenceImpl implements CtTypeRef
 
 	@Override
 	public boolean removeTypeAnnotation(CtAnnotation<? extends Annotation> annotation) {
+		modified();
 		return annotation != null && this.annotations.remove(annotation);
 	}
 
@@ -49,23 +49,15 @@ public abstract class CtVariableReferenceImpl<T> extends CtReferenceImpl
 
 	@Override
 	public <C extends CtVariableReference<T>> C setType(CtTypeReference<T> type) {
+		modified();
 		this.type = type;
+		CtReferenceImpl.setOwner(this.type, this);
 		return (C) this;
 	}
 
 	@Override
-	public boolean equals(Object object) {
-		if (!(object instanceof CtVariableReference)) {
-			return false;
-		}
-		CtVariableReference<?> ref = (CtVariableReference<?>) object;
-		return this.type.equals(ref.getType())
-				&& simplename.equals(ref.getSimpleName());
-	}
-
-	@Override
-	public int hashCode() {
-		return super.hashCode();
+	protected String computeIdentity() {
+		return (type == null ? "<no type>" : getIdentity(type)) + " " + getSimpleName();
 	}
 
 	@Override
@@ -0,0 +1,61 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.Collection;
+
+import spoon.reflect.declaration.CtNamedElement;
+import spoon.reflect.factory.Factory;
+
+/**
+ * A set of the types or of the sub-packages of an element of the model, which
+ * tells the type factory of its element when a type or a package is added or
+ * removed, so that the index of the types is maintained (see
+ * {@link spoon.reflect.factory.TypeFactory#get(String)}), and which indexes
+ * them by simple name.
+ */
+public class DeclarationSet<E extends CtNamedElement> extends NamedElementSet<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	public DeclarationSet(ModelNode owner) {
+		super(owner);
+	}
+
+	public DeclarationSet(ModelNode owner, Collection<? extends E> c) {
+		super(owner, c);
+	}
+
+	@Override
+	protected void added(E e) {
+		super.added(e);
+		Factory factory = e.getFactory();
+		if (factory != null) {
+			factory.Type().declarationAdded(e);
+		}
+	}
+
+	@Override
+	protected void removed(E e) {
+		super.removed(e);
+		Factory factory = e.getFactory();
+		if (factory != null) {
+			factory.Type().declarationRemoved(e);
+		}
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import spoon.support.reflect.reference.CtReferenceImpl;
+
+/**
+ * A list of elements or of references of the model, which tells its owner
+ * when it is modified (see {@link ModelNode}), so that the collections
+ * returned by the getters of the model can be modified directly. The
+ * references added to the list get its owner.
+ */
+public class ModelList<E> extends ArrayList<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private ModelNode owner;
+
+	public ModelList(ModelNode owner) {
+		super();
+		this.owner = owner;
+	}
+
+	public ModelList(ModelNode owner, int initialCapacity) {
+		super(initialCapacity);
+		this.owner = owner;
+	}
+
+	public ModelList(ModelNode owner, Collection<? extends E> c) {
+		super(c);
+		this.owner = owner;
+		for (E e : c) {
+			CtReferenceImpl.setOwner(e, owner);
+		}
+	}
+
+	/**
+	 * Sets the owner of this list (e.g. the owner of a copy of the list).
+	 */
+	public void setOwner(ModelNode owner) {
+		this.owner = owner;
+	}
+
+	private void modified() {
+		if (owner != null) {
+			owner.modified();
+		}
+	}
+
+	@Override
+	public boolean add(E e) {
+		modified();
+		CtReferenceImpl.setOwner(e, owner);
+		super.add(e);
+		added(e);
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		modified();
+		CtReferenceImpl.setOwner(element, owner);
+		super.add(index, element);
+		added(element);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		modified();
+		for (E e : c) {
+			CtReferenceImpl.setOwner(e, owner);
+		}
+		if (super.addAll(c)) {
+			for (E e : c) {
+				added(e);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		modified();
+		for (E e : c) {
+			CtReferenceImpl.setOwner(e, owner);
+		}
+		if (super.addAll(index, c)) {
+			for (E e : c) {
+				added(e);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		modified();
+		CtReferenceImpl.setOwner(element, owner);
+		E previous = super.set(index, element);
+		removed(previous);
+		added(element);
+		return previous;
+	}
+
+	@Override
+	public E remove(int index) {
+		modified();
+		E e = super.remove(index);
+		removed(e);
+		return e;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		// the element of the list which is equal to the given one is removed
+		int index = indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		return removeIf(new Predicate<E>() {
+			@Override
+			public boolean test(E e) {
+				return c.contains(e);
+			}
+		});
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		return removeIf(new Predicate<E>() {
+			@Override
+			public boolean test(E e) {
+				return !c.contains(e);
+			}
+		});
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		// the kept elements are moved in place, and the removed ones notified
+		List<E> removedElements = null;
+		int kept = 0;
+		int size = size();
+		for (int i = 0; i < size; i++) {
+			E e = get(i);
+			if (filter.test(e)) {
+				if (removedElements == null) {
+					removedElements = new ArrayList<E>();
+				}
+				removedElements.add(e);
+			} else {
+				if (kept != i) {
+					super.set(kept, e);
+				}
+				kept++;
+			}
+		}
+		if (removedElements == null) {
+			return false;
+		}
+		super.removeRange(kept, size);
+		modified();
+		for (E e : removedElements) {
+			removed(e);
+		}
+		return true;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		modified();
+		List<E> removedElements = new ArrayList<E>(subList(fromIndex, toIndex));
+		super.removeRange(fromIndex, toIndex);
+		for (E e : removedElements) {
+			removed(e);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (isEmpty()) {
+			return;
+		}
+		modified();
+		List<E> removedElements = new ArrayList<E>(this);
+		super.clear();
+		for (E e : removedElements) {
+			removed(e);
+		}
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		modified();
+		List<E> removedElements = new ArrayList<E>(this);
+		super.replaceAll(operator);
+		for (E e : removedElements) {
+			removed(e);
+		}
+		for (E e : this) {
+			CtReferenceImpl.setOwner(e, owner);
+			added(e);
+		}
+	}
+
+	@Override
+	public void sort(Comparator<? super E> c) {
+		modified();
+		super.sort(c);
+	}
+
+	/**
+	 * Called when the given element was added to this list. Does nothing by
+	 * default.
+	 */
+	protected void added(E e) {
+	}
+
+	/**
+	 * Called when the given element was removed from this list. Does nothing
+	 * by default.
+	 */
+	protected void removed(E e) {
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+/**
+ * An element or a reference of the model, which is told when one of its
+ * collections (see {@link ModelList} and {@link ModelSet}) or of its
+ * references is modified, so that it clears the values it caches from them
+ * (e.g. its signature) and tells its own parent or owner.
+ */
+public interface ModelNode {
+
+	/**
+	 * Tells that this node is modified.
+	 */
+	void modified();
+}
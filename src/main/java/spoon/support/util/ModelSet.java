@@ -0,0 +1,186 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import spoon.support.reflect.reference.CtReferenceImpl;
+
+/**
+ * A sorted set of elements or of references of the model, which tells its
+ * owner when it is modified (see {@link ModelNode}), directly or through its
+ * iterators, so that the collections returned by the getters of the model can
+ * be modified directly. The references added to the set get its owner.
+ */
+public class ModelSet<E> extends TreeSet<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private ModelNode owner;
+
+	public ModelSet(ModelNode owner) {
+		super();
+		this.owner = owner;
+	}
+
+	public ModelSet(ModelNode owner, Collection<? extends E> c) {
+		this(owner);
+		addAll(c);
+	}
+
+	/**
+	 * Sets the owner of this set (e.g. the owner of a copy of the set).
+	 */
+	public void setOwner(ModelNode owner) {
+		this.owner = owner;
+	}
+
+	private void modified() {
+		if (owner != null) {
+			owner.modified();
+		}
+	}
+
+	@Override
+	public boolean add(E e) {
+		if (super.add(e)) {
+			modified();
+			CtReferenceImpl.setOwner(e, owner);
+			added(e);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		// the elements are added one by one, so that each one is notified
+		boolean modified = false;
+		for (E e : c) {
+			modified |= add(e);
+		}
+		return modified;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		if (!contains(o)) {
+			return false;
+		}
+		// the element of the set which is equal to the given one is removed
+		E e = floor((E) o);
+		super.remove(o);
+		modified();
+		removed(e);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		if (isEmpty()) {
+			return;
+		}
+		List<E> elements = new ArrayList<E>(this);
+		super.clear();
+		modified();
+		for (E e : elements) {
+			removed(e);
+		}
+	}
+
+	@Override
+	public E pollFirst() {
+		E e = super.pollFirst();
+		if (e != null) {
+			modified();
+			removed(e);
+		}
+		return e;
+	}
+
+	@Override
+	public E pollLast() {
+		E e = super.pollLast();
+		if (e != null) {
+			modified();
+			removed(e);
+		}
+		return e;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new ModelIterator(super.iterator());
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new ModelIterator(super.descendingIterator());
+	}
+
+	/**
+	 * Called when the given element was added to this set. Does nothing by
+	 * default.
+	 */
+	protected void added(E e) {
+	}
+
+	/**
+	 * Called when the given element was removed from this set. Does nothing
+	 * by default.
+	 */
+	protected void removed(E e) {
+	}
+
+	/**
+	 * An iterator which tells that the model is modified when an element is
+	 * removed with it.
+	 */
+	private class ModelIterator implements Iterator<E> {
+		private final Iterator<E> iterator;
+
+		private E last;
+
+		ModelIterator(Iterator<E> iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			last = iterator.next();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			iterator.remove();
+			modified();
+			removed(last);
+		}
+	}
+}
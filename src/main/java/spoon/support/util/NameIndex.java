@@ -0,0 +1,120 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import spoon.reflect.declaration.CtNamedElement;
+
+/**
+ * An index of the elements of a collection of the model by their simple
+ * names, so that the elements of a given name are looked up in constant time.
+ *
+ * <p>
+ * The index is maintained by the collection (see {@link NamedElementList}
+ * and {@link NamedElementSet}), which tells it when an element is added or
+ * removed, and by the parent of the collection, which tells it when one of
+ * its elements is renamed.
+ * </p>
+ */
+public class NameIndex<E extends CtNamedElement> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String, List<E>> byName = new HashMap<String, List<E>>();
+
+	/**
+	 * Indexes the given element.
+	 */
+	public void add(E element) {
+		add(element.getSimpleName(), element);
+	}
+
+	private void add(String name, E element) {
+		List<E> named = byName.get(name);
+		if (named == null) {
+			named = new ArrayList<E>(1);
+			byName.put(name, named);
+		}
+		named.add(element);
+	}
+
+	/**
+	 * Removes the given element from the index.
+	 *
+	 * @return false if this element was not indexed
+	 */
+	public boolean remove(E element) {
+		return remove(element.getSimpleName(), element);
+	}
+
+	private boolean remove(String name, Object element) {
+		List<E> named = byName.get(name);
+		if (named == null) {
+			return false;
+		}
+		for (int i = 0; i < named.size(); i++) {
+			// the same element, not an equal one
+			if (named.get(i) == element) {
+				named.remove(i);
+				if (named.isEmpty()) {
+					byName.remove(name);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Indexes again the given element, which was renamed, if it was indexed
+	 * with its previous name.
+	 */
+	@SuppressWarnings("unchecked")
+	public void renamed(CtNamedElement element, String oldName) {
+		if (remove(oldName, element)) {
+			add(element.getSimpleName(), (E) element);
+		}
+	}
+
+	/**
+	 * Gets the indexed elements which have the given simple name, in the
+	 * order they were added. The returned list must not be modified.
+	 */
+	public List<E> get(String name) {
+		List<E> named = byName.get(name);
+		if (named == null) {
+			return Collections.emptyList();
+		}
+		return named;
+	}
+
+	/**
+	 * Gets the first indexed element which has the given simple name, or null
+	 * if there is none.
+	 */
+	public E getFirst(String name) {
+		List<E> named = byName.get(name);
+		return named == null ? null : named.get(0);
+	}
+}
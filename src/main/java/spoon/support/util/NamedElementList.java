@@ -0,0 +1,86 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.List;
+
+import spoon.reflect.declaration.CtNamedElement;
+
+/**
+ * A list of named elements of the model (e.g. the fields of a type), which
+ * indexes its elements by simple name (see {@link NameIndex}).
+ */
+public class NamedElementList<E extends CtNamedElement> extends ModelList<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private NameIndex<E> index = new NameIndex<E>();
+
+	public NamedElementList(ModelNode owner) {
+		super(owner);
+	}
+
+	public NamedElementList(ModelNode owner, int initialCapacity) {
+		super(owner, initialCapacity);
+	}
+
+	/**
+	 * Gets the elements of this list which have the given simple name, in
+	 * the order they were added. The returned list must not be modified.
+	 */
+	public List<E> getByName(String name) {
+		return index.get(name);
+	}
+
+	/**
+	 * Gets the first element of this list which has the given simple name,
+	 * or null if there is none.
+	 */
+	public E getFirstByName(String name) {
+		return index.getFirst(name);
+	}
+
+	/**
+	 * Tells that the given element, which may be in this list, was renamed.
+	 */
+	public void renamed(CtNamedElement element, String oldName) {
+		index.renamed(element, oldName);
+	}
+
+	@Override
+	protected void added(E e) {
+		index.add(e);
+	}
+
+	@Override
+	protected void removed(E e) {
+		index.remove(e);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object clone() {
+		// the copy has its own index
+		NamedElementList<E> copy = (NamedElementList<E>) super.clone();
+		copy.index = new NameIndex<E>();
+		for (E e : copy) {
+			copy.index.add(e);
+		}
+		return copy;
+	}
+}
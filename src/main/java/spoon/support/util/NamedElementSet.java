@@ -0,0 +1,102 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import spoon.reflect.declaration.CtNamedElement;
+
+/**
+ * A sorted set of named elements of the model (e.g. the methods of a type),
+ * which indexes its elements by simple name (see {@link NameIndex}).
+ */
+public class NamedElementSet<E extends CtNamedElement> extends ModelSet<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private NameIndex<E> index = new NameIndex<E>();
+
+	public NamedElementSet(ModelNode owner) {
+		super(owner);
+	}
+
+	public NamedElementSet(ModelNode owner, Collection<? extends E> c) {
+		// the elements are added once the index is created
+		super(owner);
+		addAll(c);
+	}
+
+	/**
+	 * Gets the elements of this set which have the given simple name, in the
+	 * order of this set.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<E> getByName(String name) {
+		List<E> named = index.get(name);
+		if (named.size() < 2) {
+			return named;
+		}
+		List<E> sorted = new ArrayList<E>(named);
+		Collections.sort((List<Comparable<Object>>) (List<?>) sorted);
+		return sorted;
+	}
+
+	/**
+	 * Gets the first element of this set which has the given simple name, or
+	 * null if there is none.
+	 */
+	public E getFirstByName(String name) {
+		List<E> named = index.get(name);
+		if (named.size() < 2) {
+			return named.isEmpty() ? null : named.get(0);
+		}
+		return getByName(name).get(0);
+	}
+
+	/**
+	 * Tells that the given element, which may be in this set, was renamed.
+	 */
+	public void renamed(CtNamedElement element, String oldName) {
+		index.renamed(element, oldName);
+	}
+
+	@Override
+	protected void added(E e) {
+		index.add(e);
+	}
+
+	@Override
+	protected void removed(E e) {
+		index.remove(e);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object clone() {
+		// the copy has its own index
+		NamedElementSet<E> copy = (NamedElementSet<E>) super.clone();
+		copy.index = new NameIndex<E>();
+		for (E e : copy) {
+			copy.index.add(e);
+		}
+		return copy;
+	}
+}
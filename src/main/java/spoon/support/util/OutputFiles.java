@@ -0,0 +1,205 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import spoon.SpoonException;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
+import spoon.reflect.visitor.PrettyPrinter;
+import spoon.support.visitor.ModelSnapshot;
+
+/**
+ * A utility class which writes the output files only when their content
+ * changes, so that the files which are generated again with the same content
+ * keep their modification time (e.g. for the incremental compilers and the
+ * build tools watching them).
+ */
+public class OutputFiles {
+
+	private OutputFiles() {
+	}
+
+	/**
+	 * Writes the given content to the given file with the given encoding (null
+	 * for the default encoding of the platform), unless the file already has
+	 * this content.
+	 *
+	 * @return true if the file was written
+	 */
+	public static boolean write(File file, String content, String encoding) throws IOException {
+		byte[] bytes = content.getBytes(getCharset(encoding));
+		if (file.isFile() && file.length() == bytes.length && MessageDigest.isEqual(digest(bytes), digest(file))) {
+			return false;
+		}
+		FileUtils.writeByteArrayToFile(file, bytes);
+		return true;
+	}
+
+	/**
+	 * Writes the result of the given printer to the given file with the given
+	 * encoding (null for the default encoding of the platform), unless the
+	 * file already has this content. The result of a
+	 * {@link DefaultJavaPrettyPrinter} is streamed to the file, and to a
+	 * digest first when the file exists.
+	 *
+	 * @return true if the file was written
+	 */
+	public static boolean write(File file, PrettyPrinter printer, String encoding) throws IOException {
+		if (!(printer instanceof DefaultJavaPrettyPrinter)) {
+			return write(file, printer.getResult(), encoding);
+		}
+		DefaultJavaPrettyPrinter javaPrinter = (DefaultJavaPrettyPrinter) printer;
+		Charset charset = getCharset(encoding);
+		if (file.isFile()) {
+			MessageDigest digest = newDigest();
+			CountingOutputStream counter = new CountingOutputStream();
+			Writer writer = new OutputStreamWriter(new DigestOutputStream(counter, digest), charset);
+			javaPrinter.writeResult(writer);
+			writer.close();
+			if (file.length() == counter.count && MessageDigest.isEqual(digest.digest(), digest(file))) {
+				return false;
+			}
+		}
+		File parent = file.getParentFile();
+		if (parent != null && !parent.mkdirs() && !parent.isDirectory()) {
+			throw new IOException("Cannot create the directory " + parent);
+		}
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), charset);
+		try {
+			javaPrinter.writeResult(writer);
+		} finally {
+			writer.close();
+		}
+		return true;
+	}
+
+	private static Charset getCharset(String encoding) {
+		return encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+	}
+
+	/**
+	 * Tells if the given output file is up to date with the given types of
+	 * the given compilation unit, so that printing them can be skipped: the
+	 * snapshot of their factory records them unchanged since their source was
+	 * read, and the output file is not older than the source file. This is
+	 * only known for the types recorded by the snapshot (see
+	 * {@link spoon.compiler.Environment#isSniperMode()}), the other types
+	 * being compared by content when they are written.
+	 */
+	public static boolean isUpToDate(File file, CompilationUnit cu, List<CtType<?>> types) {
+		if (cu == null || cu.getFile() == null || types.isEmpty()) {
+			return false;
+		}
+		if (!file.isFile() || !cu.getFile().isFile() || file.lastModified() < cu.getFile().lastModified()) {
+			return false;
+		}
+		for (CtType<?> type : types) {
+			ModelSnapshot snapshot = type.getFactory().CompilationUnit().getSnapshot();
+			if (!snapshot.isRecorded(type) || !snapshot.isUnchangedTree(type)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the given file to the given target file, keeping its
+	 * modification time, unless the target file already has its content.
+	 *
+	 * @return true if the file was copied
+	 */
+	public static boolean copy(File source, File target) throws IOException {
+		return copy(source, source.length(), target);
+	}
+
+	/**
+	 * Copies the given file, of the given length (e.g. read while listing
+	 * the files of a folder), to the given target file, keeping its
+	 * modification time, unless the target file already has its content.
+	 *
+	 * @return true if the file was copied
+	 */
+	public static boolean copy(File source, long sourceLength, File target) throws IOException {
+		if (target.isFile() && target.length() == sourceLength && MessageDigest.isEqual(digest(source), digest(target))) {
+			return false;
+		}
+		FileUtils.copyFile(source, target, true);
+		return true;
+	}
+
+	/**
+	 * Counts the bytes of a content which is only digested.
+	 */
+	private static class CountingOutputStream extends OutputStream {
+		long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+
+	private static byte[] digest(byte[] bytes) {
+		return newDigest().digest(bytes);
+	}
+
+	private static byte[] digest(File file) throws IOException {
+		MessageDigest digest = newDigest();
+		InputStream in = new DigestInputStream(new FileInputStream(file), digest);
+		try {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) >= 0) {
+				// the digest is updated while reading
+			}
+		} finally {
+			in.close();
+		}
+		return digest.digest();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new SpoonException(e);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import spoon.SpoonException;
+
+/**
+ * A work made of indexed items, which are dispatched to several threads. Each
+ * thread has its own worker (e.g. a tree builder or a printer), created by
+ * {@link #createWorker()}, and processes the next item which is not taken by
+ * another thread until all the items are processed.
+ *
+ * <p>
+ * The threads have the context class loader of the calling thread. When an
+ * item fails, the other threads stop after their current item, and the
+ * failure is thrown by {@link #run(int, int)}.
+ * </p>
+ *
+ * @param <W>
+ * 		the type of the workers of the threads
+ */
+public abstract class ParallelWork<W> {
+
+	/**
+	 * Creates the worker of a thread.
+	 */
+	protected abstract W createWorker();
+
+	/**
+	 * Processes the item of the given index with the worker of the current
+	 * thread.
+	 */
+	protected abstract void process(W worker, int index);
+
+	/**
+	 * Called in each thread with its worker once the thread has no more items
+	 * to process. Does nothing by default.
+	 */
+	protected void finish(W worker) {
+	}
+
+	/**
+	 * Processes the given number of items with the given number of threads.
+	 * When there is a single thread, the items are processed by the calling
+	 * thread.
+	 */
+	public void run(final int count, int threads) {
+		threads = Math.min(threads, count);
+		if (threads <= 1) {
+			W worker = createWorker();
+			for (int i = 0; i < count; i++) {
+				process(worker, i);
+			}
+			finish(worker);
+			return;
+		}
+		final AtomicInteger next = new AtomicInteger();
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> results = new ArrayList<Future<?>>(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						Thread.currentThread().setContextClassLoader(contextClassLoader);
+						try {
+							W worker = createWorker();
+							int index;
+							while ((index = next.getAndIncrement()) < count) {
+								process(worker, index);
+							}
+							finish(worker);
+						} catch (RuntimeException e) {
+							// stops the other threads
+							next.set(count);
+							throw e;
+						} catch (Error e) {
+							next.set(count);
+							throw e;
+						}
+					}
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SpoonException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new SpoonException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
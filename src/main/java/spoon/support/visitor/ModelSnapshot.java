@@ -0,0 +1,304 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+package spoon.support.visitor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import spoon.SpoonException;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.reference.CtReference;
+import spoon.reflect.visitor.CtScanner;
+
+/**
+ * Records the state of the elements and references of a model, so that the
+ * elements which changed since then can be detected (e.g. to print only these
+ * elements, see {@link spoon.reflect.visitor.SniperJavaPrettyPrinter}).
+ *
+ * <p>
+ * The state of an element is the value of its fields, except its parent and
+ * its position: the sub-elements and the references are compared by identity,
+ * and the collections of them element by element. Hence, an element is
+ * changed when one of its attributes is set, or when one of its sub-elements
+ * is replaced, added or removed, but not when a sub-element is changed.
+ * </p>
+ */
+public class ModelSnapshot {
+
+	private final Map<Object, Object[]> states = new IdentityHashMap<Object, Object[]>();
+
+	/**
+	 * The parents of the recorded roots.
+	 */
+	private final Map<CtElement, CtElement> parents = new IdentityHashMap<CtElement, CtElement>();
+
+	private final Map<Class<?>, List<Field>> fields = new ConcurrentHashMap<Class<?>, List<Field>>();
+
+	/**
+	 * Records the state of the given element, of its sub-elements and of
+	 * their references.
+	 */
+	public void record(CtElement root) {
+		parents.put(root, root.isParentInitialized() ? root.getParent() : null);
+		new CtScanner() {
+			@Override
+			protected void enter(CtElement e) {
+				states.put(e, getState(e));
+			}
+
+			@Override
+			protected void enterReference(CtReference e) {
+				states.put(e, getState(e));
+			}
+		}.scan(root);
+	}
+
+	/**
+	 * Forgets the state of the given element and of its sub-elements.
+	 */
+	public void remove(CtElement root) {
+		parents.remove(root);
+		new CtScanner() {
+			@Override
+			protected void enter(CtElement e) {
+				states.remove(e);
+			}
+
+			@Override
+			protected void enterReference(CtReference e) {
+				states.remove(e);
+			}
+		}.scan(root);
+	}
+
+	/**
+	 * Tells if the state of the given element or reference is recorded.
+	 */
+	public boolean isRecorded(Object element) {
+		return states.containsKey(element);
+	}
+
+	/**
+	 * Tells if the given element or reference is recorded and has the same
+	 * state (its sub-elements being possibly changed). A recorded root must
+	 * also have the same parent.
+	 */
+	public boolean isUnchanged(Object element) {
+		Object[] state = states.get(element);
+		if (state == null) {
+			return false;
+		}
+		if (parents.containsKey(element)) {
+			CtElement e = (CtElement) element;
+			if (parents.get(element) != (e.isParentInitialized() ? e.getParent() : null)) {
+				return false;
+			}
+		}
+		Object[] current = getState(element);
+		for (int i = 0; i < state.length; i++) {
+			if (!isSame(state[i], current[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gives the names of the fields of the given recorded element or reference
+	 * whose value changed, and "parent" if it is a recorded root which has
+	 * another parent.
+	 */
+	public Set<String> getChangedFields(Object element) {
+		Object[] state = states.get(element);
+		if (state == null) {
+			throw new SpoonException("The state of " + element + " is not recorded");
+		}
+		Set<String> changed = new LinkedHashSet<String>();
+		if (parents.containsKey(element)) {
+			CtElement e = (CtElement) element;
+			if (parents.get(element) != (e.isParentInitialized() ? e.getParent() : null)) {
+				changed.add("parent");
+			}
+		}
+		List<Field> elementFields = getFields(element.getClass());
+		Object[] current = getState(element);
+		for (int i = 0; i < state.length; i++) {
+			if (!isSame(state[i], current[i])) {
+				changed.add(elementFields.get(i).getName());
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Gives the elements referenced by the recorded state of the given element
+	 * or reference, i.e. its sub-elements when it was recorded.
+	 */
+	public List<CtElement> getRecordedElements(Object element) {
+		Object[] state = states.get(element);
+		if (state == null) {
+			throw new SpoonException("The state of " + element + " is not recorded");
+		}
+		List<CtElement> elements = new ArrayList<CtElement>();
+		for (Object value : state) {
+			if (value instanceof Map) {
+				value = ((Map<?, ?>) value).values();
+			}
+			if (value instanceof Collection) {
+				for (Object o : (Collection<?>) value) {
+					if (o instanceof CtElement) {
+						elements.add((CtElement) o);
+					}
+				}
+			} else if (value instanceof CtElement) {
+				elements.add((CtElement) value);
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Tells if the given element, its sub-elements and their references are
+	 * unchanged.
+	 */
+	public boolean isUnchangedTree(CtElement element) {
+		final boolean[] unchanged = { true };
+		new CtScanner() {
+			@Override
+			public void scan(CtElement e) {
+				if (unchanged[0] && e != null) {
+					if (!isUnchanged(e)) {
+						unchanged[0] = false;
+						return;
+					}
+					super.scan(e);
+				}
+			}
+
+			@Override
+			public void scan(CtReference e) {
+				if (unchanged[0] && e != null) {
+					if (!isUnchanged(e)) {
+						unchanged[0] = false;
+						return;
+					}
+					super.scan(e);
+				}
+			}
+		}.scan(element);
+		return unchanged[0];
+	}
+
+	private Object[] getState(Object element) {
+		List<Field> elementFields = getFields(element.getClass());
+		Object[] state = new Object[elementFields.size()];
+		try {
+			for (int i = 0; i < state.length; i++) {
+				state[i] = copy(elementFields.get(i).get(element));
+			}
+		} catch (IllegalAccessException e) {
+			throw new SpoonException(e);
+		}
+		return state;
+	}
+
+	/**
+	 * Copies the collections and the maps, which may be changed in place.
+	 */
+	private Object copy(Object value) {
+		if (value instanceof Collection) {
+			return new ArrayList<Object>((Collection<?>) value);
+		}
+		if (value instanceof Map) {
+			return new LinkedHashMap<Object, Object>((Map<?, ?>) value);
+		}
+		return value;
+	}
+
+	private boolean isSame(Object recorded, Object current) {
+		if (recorded == current) {
+			return true;
+		}
+		if (recorded == null || current == null) {
+			return false;
+		}
+		if (recorded instanceof CtElement || recorded instanceof CtReference) {
+			return false;
+		}
+		if (recorded instanceof List && current instanceof List) {
+			List<?> recordedList = (List<?>) recorded;
+			List<?> currentList = (List<?>) current;
+			if (recordedList.size() != currentList.size()) {
+				return false;
+			}
+			Iterator<?> currentIterator = currentList.iterator();
+			for (Object o : recordedList) {
+				if (!isSame(o, currentIterator.next())) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (recorded instanceof Map && current instanceof Map) {
+			Map<?, ?> recordedMap = (Map<?, ?>) recorded;
+			Map<?, ?> currentMap = (Map<?, ?>) current;
+			if (!recordedMap.keySet().equals(currentMap.keySet())) {
+				return false;
+			}
+			for (Map.Entry<?, ?> entry : recordedMap.entrySet()) {
+				if (!isSame(entry.getValue(), currentMap.get(entry.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return recorded.equals(current);
+	}
+
+	/**
+	 * Gets the fields of the state of the instances of the given class.
+	 */
+	private List<Field> getFields(Class<?> type) {
+		List<Field> typeFields = fields.get(type);
+		if (typeFields == null) {
+			typeFields = new ArrayList<Field>();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					int modifiers = field.getModifiers();
+					if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+							|| "parent".equals(field.getName()) || "position".equals(field.getName())) {
+						continue;
+					}
+					field.setAccessible(true);
+					typeFields.add(field);
+				}
+			}
+			fields.put(type, typeFields);
+		}
+		return typeFields;
+	}
+}
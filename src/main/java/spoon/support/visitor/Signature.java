@@ -0,0 +1,154 @@
+/*
+ * Spoon - http://spoon.gforge.inria.fr/
+ * Copyright (C) 2006 INRIA Futurs <renaud.pawlak@inria.fr>
+ *
+ * This software is governed by the CeCILL-C License under French law and
+ * abiding by the rules of distribution of free software. You can use, modify
+ * and/or redistribute the software under the terms of the CeCILL-C license as
+ * circulated by CEA, CNRS and INRIA at http://www.cecill.info.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the CeCILL-C License for more details.
+ *
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C license and that you accept its terms.
+ */
+
+package spoon.support.visitor;
+
+import java.lang.annotation.Annotation;
+
+import spoon.reflect.declaration.CtAnnotationType;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtConstructor;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtEnum;
+import spoon.reflect.declaration.CtInterface;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.reference.CtCatchVariableReference;
+import spoon.reflect.reference.CtReference;
+
+/**
+ * An immutable signature printed by the {@link SignaturePrinter}, with its
+ * 64-bit hash. The elements and the references cache their signature with
+ * it, until they are modified.
+ */
+public final class Signature {
+
+	/**
+	 * A printer which tells if the printed signature depends on elements
+	 * which are not printed, e.g. the qualified name of a type, which depends
+	 * on the enclosing package and types.
+	 */
+	private static class ContextPrinter extends SignaturePrinter {
+		boolean contextual = false;
+
+		@Override
+		public <T> void visitCtClass(CtClass<T> ctClass) {
+			contextual = true;
+			super.visitCtClass(ctClass);
+		}
+
+		@Override
+		public <T> void visitCtInterface(CtInterface<T> intrface) {
+			contextual = true;
+			super.visitCtInterface(intrface);
+		}
+
+		@Override
+		public <T extends Enum<?>> void visitCtEnum(CtEnum<T> ctEnum) {
+			contextual = true;
+			super.visitCtEnum(ctEnum);
+		}
+
+		@Override
+		public <A extends Annotation> void visitCtAnnotationType(CtAnnotationType<A> annotationType) {
+			contextual = true;
+			super.visitCtAnnotationType(annotationType);
+		}
+
+		@Override
+		public <T> void visitCtConstructor(CtConstructor<T> c) {
+			contextual = true;
+			super.visitCtConstructor(c);
+		}
+
+		@Override
+		public void visitCtPackage(CtPackage ctPackage) {
+			contextual = true;
+			super.visitCtPackage(ctPackage);
+		}
+
+		@Override
+		public <T> void visitCtCatchVariableReference(CtCatchVariableReference<T> reference) {
+			contextual = true;
+			super.visitCtCatchVariableReference(reference);
+		}
+	}
+
+	private final String value;
+
+	private final long hash;
+
+	private final boolean contextual;
+
+	private Signature(String value, boolean contextual) {
+		this.value = value;
+		this.contextual = contextual;
+		// FNV-1a
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h = (h ^ value.charAt(i)) * 0x100000001b3L;
+		}
+		this.hash = h;
+	}
+
+	/**
+	 * Prints the signature of the given element.
+	 */
+	public static Signature of(CtElement element) {
+		ContextPrinter pr = new ContextPrinter();
+		pr.scan(element);
+		return new Signature(pr.getSignature(), pr.contextual);
+	}
+
+	/**
+	 * Prints the signature of the given reference.
+	 */
+	public static Signature of(CtReference reference) {
+		ContextPrinter pr = new ContextPrinter();
+		pr.scan(reference);
+		return new Signature(pr.getSignature(), pr.contextual);
+	}
+
+	/**
+	 * Gets the printed signature.
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the 64-bit FNV-1a hash of the printed signature.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Gets a 32-bit hash code folded from the 64-bit hash.
+	 */
+	public int getHashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Tells if the signature depends on elements which were not printed (e.g.
+	 * the enclosing package of a type), in which case it must not be cached
+	 * by the printed element, since it is not told when they are modified.
+	 */
+	public boolean isContextual() {
+		return contextual;
+	}
+}
@@ -0,0 +1,91 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.reflect.code.CtReturn;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.factory.Factory;
+import spoon.support.compiler.InMemoryClassLoader;
+
+public class CompileInMemoryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Object call(Map<String, byte[]> classes, String className) throws Exception {
+		return new InMemoryClassLoader(classes).loadClass(className).getMethod("m").invoke(null);
+	}
+
+	@Test
+	public void testCompileChangedUnitsInMemory() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { public static int m() { return B.n() + B.K + new Inner().n(); } static class Inner { int n() { return 10; } } }");
+		FileUtils.writeStringToFile(new File(src, "a/B.java"), "package a; class B { static final int K = 100; static int n() { return 1; } }");
+		FileUtils.writeStringToFile(new File(src, "c/C.java"), "package c; public class C { public static int m() { return 5; } }");
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(src.getPath());
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+
+		Map<String, byte[]> classes = launcher.getModelBuilder().compileInMemory();
+		assertEquals(4, classes.size());
+		assertTrue(classes.containsKey("a.A$Inner"));
+		assertEquals(111, call(classes, "a.A"));
+		assertEquals(5, call(classes, "c.C"));
+
+		// only the changed unit and its dependents are compiled again
+		@SuppressWarnings("unchecked")
+		CtMethod<Integer> n = (CtMethod<Integer>) factory.Class().get("a.B").getMethodsByName("n").get(0);
+		((CtReturn<Integer>) n.getBody().getStatements().get(0)).setReturnedExpression(factory.Code().createLiteral(2));
+		@SuppressWarnings("unchecked")
+		CtField<Integer> k = (CtField<Integer>) factory.Class().get("a.B").getField("K");
+		k.setDefaultExpression(factory.Code().createLiteral(200));
+		Map<String, byte[]> changedClasses = launcher.getModelBuilder().compileInMemory();
+		assertEquals(4, changedClasses.size());
+		assertSame(classes.get("c.C"), changedClasses.get("c.C"));
+		assertNotSame(classes.get("a.B"), changedClasses.get("a.B"));
+		// the constant is inlined in A
+		assertNotSame(classes.get("a.A"), changedClasses.get("a.A"));
+		assertEquals(212, call(changedClasses, "a.A"));
+
+		// nothing is compiled when the model did not change
+		Map<String, byte[]> sameClasses = launcher.getModelBuilder().compileInMemory();
+		assertSame(changedClasses.get("a.A"), sameClasses.get("a.A"));
+		assertSame(changedClasses.get("a.B"), sameClasses.get("a.B"));
+	}
+
+	@Test
+	public void testInMemoryClassesShadowTheClasspath() throws Exception {
+		// the model declares a type of the classpath, with another method
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "spoon/Launcher.java"), "package spoon; public class Launcher { public static int m() { return 1; } }");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { public static int m() { return spoon.Launcher.m(); } }");
+		Launcher launcher = new Launcher();
+		launcher.addInputResource(src.getPath());
+		launcher.getModelBuilder().setSourceClasspath(new File(Launcher.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+		launcher.buildModel();
+		Factory factory = launcher.getFactory();
+		Map<String, byte[]> classes = launcher.getModelBuilder().compileInMemory();
+		assertEquals(1, call(classes, "a.A"));
+
+		// A is compiled again alone, against the in-memory Launcher
+		factory.Class().get("a.A").getMethodsByName("m").get(0).getBody().insertBegin(factory.Code().createCodeSnippetStatement("int i = 0"));
+		Map<String, byte[]> changedClasses = launcher.getModelBuilder().compileInMemory();
+		assertNotSame(classes.get("a.A"), changedClasses.get("a.A"));
+		assertSame(classes.get("spoon.Launcher"), changedClasses.get("spoon.Launcher"));
+		assertEquals(1, call(changedClasses, "a.A"));
+	}
+}
@@ -0,0 +1,114 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.compiler.SpoonCompiler;
+import spoon.processing.AbstractProcessor;
+import spoon.processing.Processor;
+import spoon.reflect.code.CtCodeElement;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtLocalVariable;
+import spoon.reflect.code.CtStatement;
+import spoon.reflect.declaration.CtAnnotation;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtElement;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+public class DeclarationsOnlyTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SpoonCompiler build() throws Exception {
+		FileUtils.writeStringToFile(new File(folder.getRoot(), "a/A.java"), "package a; public class A {"
+				+ " static int s = 1; static { s = 2; }"
+				+ " private Runnable r = new Runnable() { public void run() { s++; } };"
+				+ " protected A() { super(); s = 3; }"
+				+ " @Deprecated public int m(String p) throws Exception { return p.length(); } }");
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setDeclarationsOnly(true);
+		SpoonCompiler compiler = launcher.createCompiler();
+		compiler.addInputSource(folder.getRoot());
+		compiler.build();
+		return compiler;
+	}
+
+	@Test
+	public void testOnlyDeclarationsAreBuilt() throws Exception {
+		Factory factory = build().getFactory();
+		CtClass<?> type = factory.Class().get("a.A");
+
+		CtMethod<?> m = type.getMethodsByName("m").get(0);
+		assertEquals("int m(java.lang.String)", m.getSignature().trim());
+		assertEquals(1, m.getAnnotations().size());
+		assertEquals(1, m.getThrownTypes().size());
+		assertNull(m.getBody());
+		assertEquals(1, type.getConstructors().size());
+		assertNull(type.getConstructors().iterator().next().getBody());
+		assertNull(type.getAnonymousExecutables().get(0).getBody());
+		assertNull(type.getField("s").getDefaultExpression());
+		assertNull(type.getField("r").getDefaultExpression());
+
+		assertTrue(type.getElements(new TypeFilter<CtCodeElement>(CtCodeElement.class) {
+			@Override
+			public boolean matches(CtCodeElement element) {
+				return element != type && !(element instanceof CtAnnotation);
+			}
+		}).isEmpty());
+	}
+
+	@Test
+	public void testCodeProcessorIsRejected() throws Exception {
+		SpoonCompiler compiler = build();
+		try {
+			compiler.process(Collections.<Processor<? extends CtElement>>singletonList(new AbstractProcessor<CtInvocation<?>>() {
+				@Override
+				public void process(CtInvocation<?> element) {
+				}
+			}));
+			fail();
+		} catch (SpoonException e) {
+			// invocations are not built
+		}
+
+		// processors of declarations are accepted
+		final int[] methods = { 0 };
+		compiler.process(Collections.<Processor<? extends CtElement>>singletonList(new AbstractProcessor<CtMethod<?>>() {
+			@Override
+			public void process(CtMethod<?> element) {
+				methods[0]++;
+			}
+		}));
+		assertEquals(1, methods[0]);
+	}
+
+	@Test
+	public void testSnippetsAreBuiltWithTheirBodies() throws Exception {
+		Factory factory = build().getFactory();
+		CtStatement statement = factory.Code().createCodeSnippetStatement("int x = 1").compile();
+		assertTrue(statement instanceof CtLocalVariable);
+		assertEquals("1", ((CtLocalVariable<?>) statement).getDefaultExpression().toString());
+	}
+
+	@Test
+	public void testDeclarationsOnlyArgument() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "--declarations-only" });
+		assertTrue(launcher.getEnvironment().isDeclarationsOnly());
+	}
+}
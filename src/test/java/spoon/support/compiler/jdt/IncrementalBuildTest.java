@@ -0,0 +1,101 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.compiler.SpoonCompiler;
+import spoon.compiler.SpoonFile;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+import spoon.support.compiler.FileSystemFile;
+
+public class IncrementalBuildTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(String path, String content) throws Exception {
+		File file = new File(folder.getRoot(), path);
+		FileUtils.writeStringToFile(file, content);
+		return file;
+	}
+
+	@Test
+	public void testUpdateChangedAddedAndDeletedFiles() throws Exception {
+		File a = write("a/A.java", "package a; public class A { }");
+		write("b/B.java", "package b; public class B { public int x; }");
+		File c = write("c/C.java", "package c; public class C { }");
+
+		SpoonCompiler compiler = new Launcher().createCompiler();
+		compiler.addInputSource(folder.getRoot());
+		compiler.build();
+		Factory factory = compiler.getFactory();
+		CtClass<?> b = factory.Class().get("b.B");
+		assertNotNull(factory.Class().get("c.C"));
+
+		write("a/A.java", "package a; public class A { int y() { return new b.B().x; } }");
+		File d = write("a/D.java", "package a; public class D extends A { }");
+		c.delete();
+		assertTrue(compiler.update(Arrays.<SpoonFile>asList(new FileSystemFile(a), new FileSystemFile(d)),
+				Collections.<SpoonFile>singletonList(new FileSystemFile(c))));
+
+		// the deleted type and its package are removed
+		assertNull(factory.Class().get("c.C"));
+		assertNull(factory.Package().get("c"));
+		assertEquals(3, factory.CompilationUnit().getMap().size());
+
+		// the changed type is resolved against the existing model
+		CtMethod<?> y = factory.Class().get("a.A").getMethodsByName("y").get(0);
+		CtFieldAccess<?> access = y.getElements(new TypeFilter<CtFieldAccess<?>>(CtFieldAccess.class)).get(0);
+		assertEquals("b.B", access.getVariable().getDeclaringType().getQualifiedName());
+		assertEquals(int.class, access.getType().getActualClass());
+		assertEquals("a.A", factory.Class().get("a.D").getSuperclass().getQualifiedName());
+
+		// the unchanged type is kept
+		assertSame(b, factory.Class().get("b.B"));
+		assertEquals(1, factory.Package().get("b").getTypes().size());
+	}
+
+	@Test
+	public void testUpdateIgnoresUnchangedContent() throws Exception {
+		File a = write("a/A.java", "package a; public class A { }");
+
+		SpoonCompiler compiler = new Launcher().createCompiler();
+		compiler.addInputSource(folder.getRoot());
+		compiler.build();
+		CtClass<?> type = compiler.getFactory().Class().get("a.A");
+
+		// touching the file does not build it again
+		a.setLastModified(a.lastModified() + 10000);
+		compiler.update(Collections.<SpoonFile>singletonList(new FileSystemFile(a)), Collections.<SpoonFile>emptyList());
+		assertSame(type, compiler.getFactory().Class().get("a.A"));
+
+		write("a/A.java", "package a; public class A { int i; }");
+		compiler.update(Collections.<SpoonFile>singletonList(new FileSystemFile(a)), Collections.<SpoonFile>emptyList());
+		assertNotSame(type, compiler.getFactory().Class().get("a.A"));
+		assertNotNull(compiler.getFactory().Class().get("a.A").getField("i"));
+	}
+
+	@Test(expected = SpoonException.class)
+	public void testUpdateBeforeBuild() throws Exception {
+		new Launcher().createCompiler().update(Collections.<SpoonFile>emptyList(), Collections.<SpoonFile>emptyList());
+	}
+}
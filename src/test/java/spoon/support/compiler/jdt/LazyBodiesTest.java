@@ -0,0 +1,110 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+public class LazyBodiesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Factory build(boolean lazy, boolean noClasspath, File... sources) {
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setNoClasspath(noClasspath);
+		launcher.getEnvironment().setLazyBodies(lazy);
+		SpoonCompiler compiler = launcher.createCompiler();
+		for (File source : sources) {
+			compiler.addInputSource(source);
+		}
+		compiler.build();
+		return compiler.getFactory();
+	}
+
+	private List<String> print(Factory factory) {
+		List<String> printed = new ArrayList<String>();
+		for (CtPackage p : factory.Package().getAll()) {
+			for (CtType<?> t : p.getTypes()) {
+				printed.add(t.toString());
+			}
+		}
+		return printed;
+	}
+
+	@Test
+	public void testLazyModelIsTheSameOnceScanned() throws Exception {
+		File[] sources = { new File("./src/main/java/spoon/reflect/factory"), new File("./src/main/java/spoon/support/reflect/cu"), new File("./src/test/java/spoon/test/initializers") };
+		List<String> expected = print(build(false, true, sources));
+		assertTrue(expected.size() > 10);
+		assertEquals(expected, print(build(true, true, sources)));
+	}
+
+	@Test
+	public void testBodiesAreBuiltOnFirstAccess() throws Exception {
+		File a = new File(folder.getRoot(), "a/A.java");
+		FileUtils.writeStringToFile(a, "package a; public class A {"
+				+ " static int s; static { s = 1; }"
+				+ " Runnable r = new Runnable() { public void run() { s++; } };"
+				+ " A() { super(); s = 2; }"
+				+ " int m() { return new b.B().x; } }");
+		FileUtils.writeStringToFile(new File(folder.getRoot(), "b/B.java"), "package b; public class B { public int x; }");
+		Factory factory = build(true, false, folder.getRoot());
+		CtClass<?> type = factory.Class().get("a.A");
+		CtMethod<?> m = type.getMethodsByName("m").get(0);
+
+		// the signatures are built
+		assertEquals("int m()", m.getSignature().trim());
+
+		// the body of m is built with its references
+		CtFieldAccess<?> access = m.getBody().getElements(new TypeFilter<CtFieldAccess<?>>(CtFieldAccess.class)).get(0);
+		assertEquals(int.class, access.getType().getActualClass());
+		assertEquals(m.getBody(), access.getParent(CtMethod.class).getBody());
+
+		// the other bodies of the unit are built at the same time
+		assertEquals(2, type.getConstructors().iterator().next().getBody().getStatements().size());
+		assertEquals(1, type.getAnonymousExecutables().get(0).getBody().getStatements().size());
+		assertNotNull(type.getField("r").getDefaultExpression());
+	}
+
+	@Test
+	public void testChangedSourceIsRejected() throws Exception {
+		File a = new File(folder.getRoot(), "A.java");
+		FileUtils.writeStringToFile(a, "class A { void m() { } }");
+		Factory factory = build(true, false, folder.getRoot());
+		FileUtils.writeStringToFile(a, "class A { void n() { } }");
+		try {
+			factory.Class().get("A").getMethodsByName("m").get(0).getBody();
+			fail();
+		} catch (SpoonException e) {
+			// the body was not built before
+		}
+	}
+
+	@Test
+	public void testLazyBodiesArgument() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "--lazy-bodies" });
+		assertTrue(launcher.getEnvironment().isLazyBodies());
+	}
+}
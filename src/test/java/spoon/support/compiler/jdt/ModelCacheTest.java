@@ -0,0 +1,198 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.filter.TypeFilter;
+
+public class ModelCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Factory build(File cache, boolean noClasspath, File... sources) {
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setNoClasspath(noClasspath);
+		launcher.getEnvironment().setModelCacheDirectory(cache);
+		SpoonCompiler compiler = launcher.createCompiler();
+		for (File source : sources) {
+			compiler.addInputSource(source);
+		}
+		compiler.build();
+		return compiler.getFactory();
+	}
+
+	private List<String> print(Factory factory) {
+		List<String> printed = new ArrayList<String>();
+		for (CtPackage p : factory.Package().getAll()) {
+			printed.add(p.getQualifiedName());
+			for (CtType<?> t : p.getTypes()) {
+				printed.add(t.toString());
+				assertEquals(p, t.getParent());
+			}
+		}
+		for (CompilationUnit cu : factory.CompilationUnit().getMap().values()) {
+			printed.add(cu.getFile().getName() + cu.getDeclaredTypes());
+		}
+		return printed;
+	}
+
+	@Test
+	public void testWarmBuildLoadsSameModel() throws Exception {
+		File cache = folder.newFolder("cache");
+		File[] sources = { new File("./src/main/java/spoon/reflect/factory"), new File("./src/main/java/spoon/support/reflect/cu") };
+
+		List<String> expected = print(build(null, true, sources));
+		assertEquals(expected, print(build(cache, true, sources)));
+		assertTrue(cache.list().length > 10);
+		assertEquals(expected, print(build(cache, true, sources)));
+	}
+
+	@Test
+	public void testChangedUnitIsBuiltAgainstCachedUnits() throws Exception {
+		File cache = folder.newFolder("cache");
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { }");
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; public class B { public int x; }");
+		build(cache, false, src);
+		assertEquals(2, cache.list().length);
+
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { int y() { return new b.B().x; } }");
+		Factory factory = build(cache, false, src);
+		assertEquals(3, cache.list().length);
+
+		CtMethod<?> y = factory.Class().get("a.A").getMethodsByName("y").get(0);
+		CtFieldAccess<?> access = y.getElements(new TypeFilter<CtFieldAccess<?>>(CtFieldAccess.class)).get(0);
+		assertEquals(int.class, access.getType().getActualClass());
+		assertEquals(factory, factory.Class().get("b.B").getField("x").getFactory());
+	}
+
+	@Test
+	public void testChangedDependencyInvalidatesTheEntry() throws Exception {
+		File cache = folder.newFolder("cache");
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { Object y() { return new b.B().x; } }");
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; public class B { public int x; }");
+		build(cache, false, src);
+
+		// the cached model of A refers to the type of the field of B
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; public class B { public long x; }");
+		Factory factory = build(cache, false, src);
+		CtMethod<?> y = factory.Class().get("a.A").getMethodsByName("y").get(0);
+		CtFieldAccess<?> access = y.getElements(new TypeFilter<CtFieldAccess<?>>(CtFieldAccess.class)).get(0);
+		assertEquals(long.class, access.getType().getActualClass());
+	}
+
+	@Test
+	public void testChangedClasspathChangesTheKeys() throws Exception {
+		File jar = folder.newFile("lib.jar");
+		FileUtils.writeStringToFile(jar, "first");
+		Factory factory = new Launcher().getFactory();
+		List<String> args = Arrays.asList("-1.8", "-cp", "." + File.pathSeparator + jar.getPath());
+		String key = new ModelCache(factory, folder.getRoot(), args).getKey(new byte[] { 1 });
+		assertEquals(key, new ModelCache(factory, folder.getRoot(), args).getKey(new byte[] { 1 }));
+
+		FileUtils.writeStringToFile(jar, "second jar");
+		assertFalse(key.equals(new ModelCache(factory, folder.getRoot(), args).getKey(new byte[] { 1 })));
+	}
+
+	@Test
+	public void testCacheSizeIsBounded() throws Exception {
+		File cache = folder.newFolder("cache");
+		Factory factory = build(null, true, new File("./src/main/java/spoon/reflect/factory"));
+		ModelCache modelCache = new ModelCache(factory, cache, new ArrayList<String>());
+		modelCache.setMaxSize(100000);
+		Map<String, String> keys = new HashMap<String, String>();
+		for (String path : factory.CompilationUnit().getMap().keySet()) {
+			keys.put(path, modelCache.getKey(path.getBytes("UTF-8")));
+		}
+		modelCache.store(keys.keySet(), keys, new HashMap<String, byte[]>());
+
+		long size = 0;
+		for (File entry : cache.listFiles()) {
+			size += entry.length();
+		}
+		assertTrue(size <= 100000);
+		assertTrue(cache.list().length > 0);
+	}
+
+	@Test
+	public void testChangedSupertypeInvalidatesTheEntry() throws Exception {
+		File cache = folder.newFolder("cache");
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A extends b.B { }");
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; public class B extends c.C { }");
+		FileUtils.writeStringToFile(new File(src, "c/C.java"), "package c; public class C { }");
+		Factory factory = build(null, false, src);
+		Map<String, String> keys = new HashMap<String, String>();
+		Map<String, byte[]> digests = new HashMap<String, byte[]>();
+		String a = null;
+		for (String path : factory.CompilationUnit().getMap().keySet()) {
+			keys.put(path, "k" + keys.size());
+			digests.put(path, path.getBytes("UTF-8"));
+			if (path.endsWith("A.java")) {
+				a = path;
+			}
+		}
+		new ModelCache(factory, cache, new ArrayList<String>()).store(keys.keySet(), keys, digests);
+		assertTrue(new ModelCache(new Launcher().getFactory(), cache, new ArrayList<String>()).load(a, keys.get(a), digests));
+
+		// A depends on the unit of the supertype of its superclass
+		for (String path : digests.keySet()) {
+			if (path.endsWith("C.java")) {
+				digests.put(path, new byte[] { 0 });
+			}
+		}
+		assertFalse(new ModelCache(new Launcher().getFactory(), cache, new ArrayList<String>()).load(a, keys.get(a), digests));
+	}
+
+	@Test
+	public void testOnlyModelClassesAreRead() throws Exception {
+		File cache = folder.newFolder("cache");
+		ModelCache modelCache = new ModelCache(new Launcher().getFactory(), cache, new ArrayList<String>());
+		writeEntry(new File(cache, "allowed.ser"), new HashMap<String, byte[]>());
+		assertTrue(modelCache.load("A.java", "allowed", new HashMap<String, byte[]>()));
+
+		// the classes out of spoon, java.util and java.lang are rejected
+		writeEntry(new File(cache, "rejected.ser"), new ConcurrentHashMap<String, byte[]>());
+		assertFalse(modelCache.load("A.java", "rejected", new HashMap<String, byte[]>()));
+	}
+
+	private void writeEntry(File entry, Map<String, byte[]> dependencies) throws Exception {
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(entry));
+		out.writeObject(dependencies);
+		out.writeObject(new ArrayList<CtType<?>>());
+		out.close();
+	}
+
+	@Test
+	public void testModelCacheArgument() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "--model-cache", "target/model-cache" });
+		assertEquals(new File("target/model-cache"), launcher.getEnvironment().getModelCacheDirectory());
+	}
+}
@@ -0,0 +1,82 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import spoon.Launcher;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.cu.CompilationUnit;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+
+public class ParallelBuildTest {
+
+	private Factory build(int threads) {
+		return build(threads, "./src/main/java/spoon/reflect/factory", "./src/main/java/spoon/support/reflect/declaration");
+	}
+
+	private Factory build(int threads, String... sources) {
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setBuildThreads(threads);
+		SpoonCompiler compiler = launcher.createCompiler();
+		for (String source : sources) {
+			compiler.addInputSource(new File(source));
+		}
+		compiler.build();
+		return compiler.getFactory();
+	}
+
+	private List<String> print(Factory factory) {
+		List<String> printed = new ArrayList<String>();
+		for (CtPackage p : factory.Package().getAll()) {
+			printed.add(p.getQualifiedName());
+			for (CtType<?> t : p.getTypes()) {
+				printed.add(t.toString());
+			}
+		}
+		return printed;
+	}
+
+	@Test
+	public void testParallelBuildProducesSameModel() throws Exception {
+		Factory sequential = build(1);
+		Factory parallel = build(4);
+
+		List<String> expected = print(sequential);
+		assertTrue(expected.size() > 40);
+		assertEquals(expected, print(parallel));
+
+		assertEquals(sequential.CompilationUnit().getMap().keySet(), parallel.CompilationUnit().getMap().keySet());
+		for (CompilationUnit cu : parallel.CompilationUnit().getMap().values()) {
+			assertEquals(sequential.CompilationUnit().getMap().get(cu.getFile().getPath()).getDeclaredTypes().toString(),
+					cu.getDeclaredTypes().toString());
+		}
+	}
+
+	@Test
+	public void testParallelBuildsOfALargeTreeProduceSameModel() throws Exception {
+		// the classes of the JDK used by the sources are resolved lazily
+		// while the model is built, by all the threads at the same time
+		String[] sources = { "./src/main/java/spoon/reflect", "./src/main/java/spoon/support/reflect" };
+		List<String> expected = print(build(1, sources));
+		assertTrue(expected.size() > 250);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(expected, print(build(8, sources)));
+		}
+	}
+
+	@Test
+	public void testBuildThreadsArgument() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "--build-threads", "3" });
+		assertEquals(3, launcher.getEnvironment().getBuildThreads());
+	}
+}
@@ -0,0 +1,42 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import spoon.Launcher;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.reference.CtTypeReference;
+
+public class ReferenceCacheTest {
+
+	@Test
+	public void testReferencesOfSameBindingAreCopies() throws Exception {
+		Launcher launcher = new Launcher();
+		launcher.getEnvironment().setNoClasspath(true);
+		SpoonCompiler compiler = launcher.createCompiler();
+		compiler.addInputSource(new File("./src/main/java/spoon/reflect/factory"));
+		compiler.build();
+
+		// the type references are mostly built from the cache
+		double hitRate = ((JDTBasedSpoonCompiler) compiler).getReferenceCacheHitRate();
+		assertTrue(String.valueOf(hitRate), hitRate > 0.5);
+
+		CtClass<?> type = compiler.getFactory().Class().get("spoon.reflect.factory.SubFactory");
+		CtTypeReference<?> first = type.getField("factory").getType();
+		CtTypeReference<?> second = type.getConstructors().iterator().next().getParameters().get(0).getType();
+		assertEquals("spoon.reflect.factory.Factory", first.getQualifiedName());
+		assertEquals(first, second);
+		assertNotSame(first, second);
+		assertNotSame(first.getPackage(), second.getPackage());
+
+		// changing a reference does not change the other ones
+		first.setSimpleName("Other");
+		assertEquals("spoon.reflect.factory.Factory", second.getQualifiedName());
+	}
+}
@@ -0,0 +1,88 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.declaration.CtClass;
+
+public class SharedClasspathJarTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private CtClass<?> build(File jar) throws Exception {
+		Launcher launcher = new Launcher();
+		SpoonCompiler compiler = launcher.createCompiler();
+		compiler.setSourceClasspath(jar.getPath());
+		compiler.addInputSource(new File(folder.getRoot(), "src"));
+		compiler.build();
+		return compiler.getFactory().Class().get("A");
+	}
+
+	@Test
+	public void testJarIsSharedUntilItChanges() throws Exception {
+		File jar = new File(folder.getRoot(), "snakeyaml.jar");
+		FileUtils.copyFile(new File("./src/test/resources/visibility/snakeyaml-1.9.jar"), jar);
+		FileUtils.writeStringToFile(new File(folder.getRoot(), "src/A.java"), "class A { org.yaml.snakeyaml.Yaml yaml; }");
+
+		FileSystem.Classpath shared = SharedClasspathJar.get(new ClasspathJar(jar, true, null, null));
+		shared.initialize();
+		assertSame(shared, SharedClasspathJar.get(new ClasspathJar(jar, true, null, null)));
+		shared.reset();
+
+		// the builds resolve the types of the shared jar, and release it
+		assertEquals("org.yaml.snakeyaml.Yaml", build(jar).getField("yaml").getType().getQualifiedName());
+		assertEquals("org.yaml.snakeyaml.Yaml", build(jar).getField("yaml").getType().getQualifiedName());
+		assertSame(shared, SharedClasspathJar.get(new ClasspathJar(jar, true, null, null)));
+
+		// a changed jar is opened again, the former one being closed when
+		// it is released
+		jar.setLastModified(jar.lastModified() - 10000);
+		FileSystem.Classpath changed = SharedClasspathJar.get(new ClasspathJar(jar, true, null, null));
+		assertNotSame(shared, changed);
+		assertTrue(((SharedClasspathJar) shared).isOpen());
+		// released by the two uses above
+		shared.reset();
+		shared.reset();
+		assertFalse(((SharedClasspathJar) shared).isOpen());
+
+		// a closed jar is opened again by the late lookups
+		assertTrue(shared.isPackage("org/yaml/snakeyaml"));
+		changed.reset();
+	}
+
+	@Test
+	public void testUnusedJarsAreClosed() throws Exception {
+		File original = new File(folder.getRoot(), "snakeyaml.jar");
+		FileUtils.copyFile(new File("./src/test/resources/visibility/snakeyaml-1.9.jar"), original);
+		List<SharedClasspathJar> jars = new ArrayList<SharedClasspathJar>();
+		for (int i = 0; i <= SharedClasspathJar.MAX_IDLE_JARS; i++) {
+			File jar = new File(folder.getRoot(), "snakeyaml" + i + ".jar");
+			Files.createLink(jar.toPath(), original.toPath());
+			SharedClasspathJar shared = (SharedClasspathJar) SharedClasspathJar.get(new ClasspathJar(jar, true, null, null));
+			shared.initialize();
+			shared.reset();
+			jars.add(shared);
+		}
+		// the least recently released jar is closed
+		assertFalse(jars.get(0).isOpen());
+		assertTrue(jars.get(jars.size() - 1).isOpen());
+	}
+}
@@ -0,0 +1,109 @@
+package spoon.support.compiler.jdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.processing.AbstractProcessor;
+import spoon.processing.CompilationUnitLocal;
+import spoon.reflect.code.CtFieldAccess;
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+
+public class StreamingTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static class FieldAccessRecorder extends AbstractProcessor<CtFieldAccess<?>> implements CompilationUnitLocal {
+		final List<String> types = new ArrayList<String>();
+
+		int batches = 0;
+
+		@Override
+		public void init() {
+			batches++;
+		}
+
+		@Override
+		public void process(CtFieldAccess<?> element) {
+			types.add(element.getType().getQualifiedName());
+		}
+	}
+
+	static class MethodRenamer extends AbstractProcessor<CtMethod<?>> implements CompilationUnitLocal {
+		@Override
+		public void process(CtMethod<?> element) {
+			element.setSimpleName(element.getSimpleName() + "Renamed");
+		}
+	}
+
+	private Launcher createLauncher() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { int y() { return new b.B().x; } }");
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; /* package c; */ public class B { public int x; }");
+		FileUtils.writeStringToFile(new File(src, "b/C.java"), "package b; class C { b.B b; void z() { } }");
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "-i", src.getPath(), "-o", new File(folder.getRoot(), "out").getPath(), "--streaming", "1" });
+		return launcher;
+	}
+
+	@Test
+	public void testUnitsAreProcessedAndPrintedByBatches() throws Exception {
+		Launcher launcher = createLauncher();
+		FieldAccessRecorder recorder = new FieldAccessRecorder();
+		launcher.addProcessor(recorder);
+		launcher.addProcessor(new MethodRenamer());
+		launcher.run();
+
+		// the types of the other batches are resolved
+		assertEquals(3, recorder.batches);
+		assertEquals(1, recorder.types.size());
+		assertEquals("int", recorder.types.get(0));
+
+		// each batch is printed and then removed from the model
+		String a = FileUtils.readFileToString(new File(folder.getRoot(), "out/a/A.java"));
+		assertTrue(a, a.contains("yRenamed()"));
+		String c = FileUtils.readFileToString(new File(folder.getRoot(), "out/b/C.java"));
+		assertTrue(c, c.contains("zRenamed()"));
+		assertTrue(new File(folder.getRoot(), "out/b/B.java").isFile());
+		assertTrue(launcher.getFactory().CompilationUnit().getMap().isEmpty());
+		assertTrue(launcher.getFactory().Package().getRootPackage().getPackages().isEmpty());
+	}
+
+	@Test
+	public void testNonLocalProcessorIsRejected() throws Exception {
+		Launcher launcher = createLauncher();
+		launcher.addProcessor(new AbstractProcessor<CtField<?>>() {
+			@Override
+			public void process(CtField<?> element) {
+			}
+		});
+		try {
+			launcher.run();
+			fail();
+		} catch (SpoonException e) {
+			// the processor could see other units
+		}
+		// no batch is built
+		assertTrue(launcher.getFactory().CompilationUnit().getMap().isEmpty());
+		assertTrue(launcher.getFactory().Package().getRootPackage().getPackages().isEmpty());
+	}
+
+	@Test
+	public void testStreamingArgument() throws Exception {
+		assertEquals(1, createLauncher().getEnvironment().getStreamingBatchSize());
+		assertEquals(0, new Launcher().getEnvironment().getStreamingBatchSize());
+	}
+}
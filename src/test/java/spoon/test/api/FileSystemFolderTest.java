@@ -1,17 +1,29 @@
 package spoon.test.api;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import spoon.Launcher;
+import spoon.compiler.SpoonFile;
 import spoon.compiler.SpoonFolder;
 import spoon.support.compiler.FileSystemFolder;
 
 public class FileSystemFolderTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void jarFileIsNotSubfolder() {
 		String folderPath = "./src/test/resources/folderWithJar";
@@ -19,4 +31,55 @@ public class FileSystemFolderTest {
 		List<SpoonFolder> subFolders = folder.getSubFolders();
 		assertTrue(subFolders.isEmpty());
 	}
+
+	private File createTree() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; class A { }");
+		FileUtils.writeStringToFile(new File(src, "a/A.properties"), "a=1");
+		FileUtils.writeStringToFile(new File(src, "a/generated/G.java"), "package a.generated; class G { }");
+		FileUtils.writeStringToFile(new File(src, "b/B.java"), "package b; class B { }");
+		FileUtils.writeStringToFile(new File(src, "C.java"), "class C { }");
+		return src;
+	}
+
+	private List<String> getNames(List<SpoonFile> files) {
+		List<String> names = new ArrayList<String>();
+		for (SpoonFile file : files) {
+			names.add(file.getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void testFilesAreScannedInStableOrder() throws Exception {
+		FileSystemFolder src = new FileSystemFolder(createTree());
+		assertEquals(Arrays.asList("C.java", "A.java", "A.properties", "G.java", "B.java"), getNames(src.getAllFiles()));
+		assertEquals(Arrays.asList("C.java", "A.java", "G.java", "B.java"), getNames(src.getAllJavaFiles()));
+		assertEquals(5, src.getAllFileSystemFiles().size());
+
+		assertEquals(3, src.getAttributes(new File(src.toFile(), "a/A.properties")).size());
+
+		// the added and deleted files are listed after a refresh only
+		FileUtils.writeStringToFile(new File(src.toFile(), "b/D.java"), "package b; class D { }");
+		new File(src.toFile(), "C.java").delete();
+		assertEquals(Arrays.asList("C.java", "A.java", "G.java", "B.java"), getNames(src.getAllJavaFiles()));
+		src.refresh();
+		assertEquals(Arrays.asList("A.java", "G.java", "B.java", "D.java"), getNames(src.getAllJavaFiles()));
+	}
+
+	@Test
+	public void testIncludeAndExcludePatterns() throws Exception {
+		File src = createTree();
+		FileSystemFolder filtered = new FileSystemFolder(src, Arrays.asList("**/*.java"), Arrays.asList("**/generated", "b"));
+		assertEquals(Arrays.asList("A.java"), getNames(filtered.getAllFiles()));
+
+		// the patterns are given to the launcher
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "-i", src.getPath(), "-o", new File(folder.getRoot(), "out").getPath(), "--exclude", "**/generated" });
+		launcher.run();
+		assertTrue(new File(folder.getRoot(), "out/a/A.java").isFile());
+		assertTrue(new File(folder.getRoot(), "out/a/A.properties").isFile());
+		assertFalse(new File(folder.getRoot(), "out/a/generated").exists());
+		assertEquals(3, launcher.getFactory().Class().getAll().size());
+	}
 }
@@ -0,0 +1,198 @@
+package spoon.test.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.SpoonException;
+import spoon.processing.AbstractProcessor;
+import spoon.reflect.declaration.CtMethod;
+import spoon.support.ModelDaemon;
+
+public class ModelDaemonTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	public static class Renamer extends AbstractProcessor<CtMethod<?>> {
+		@Override
+		public void process(CtMethod<?> element) {
+			element.setSimpleName(element.getSimpleName() + "Renamed");
+		}
+	}
+
+	private Launcher createLauncher() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { int m() { return 1; } }");
+		FileUtils.writeStringToFile(new File(src, "a/B.java"), "package a; public class B { }");
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "-i", src.getPath(), "-o", new File(folder.getRoot(), "out").getPath() });
+		launcher.buildModel();
+		return launcher;
+	}
+
+	private String serve(ModelDaemon daemon, String requests) throws Exception {
+		StringWriter out = new StringWriter();
+		daemon.serve(new BufferedReader(new StringReader(requests)), new PrintWriter(out));
+		return out.toString().replace(System.getProperty("line.separator"), "\n");
+	}
+
+	@Test
+	public void testRequestsOnResidentModel() throws Exception {
+		Launcher launcher = createLauncher();
+		ModelDaemon daemon = new ModelDaemon(launcher);
+		File a = new File(folder.getRoot(), "src/a/A.java");
+		File b = new File(folder.getRoot(), "src/a/B.java");
+
+		String status = serve(daemon, "status\n");
+		assertTrue(status, status.startsWith("compilation-units 2\ntypes 2\nuptime "));
+		assertTrue(status, status.endsWith("OK\n"));
+
+		// the changed and deleted files are updated
+		FileUtils.writeStringToFile(a, "package a; public class A { int m() { return 2; } int n() { return 3; } }");
+		b.delete();
+		assertEquals("compiled true\nOK\n", serve(daemon, "update " + a.getPath() + " " + b.getPath() + "\n"));
+		assertEquals(1, launcher.getFactory().Class().getAll().size());
+		assertEquals("(" + a.getCanonicalPath() + ":1)\n(" + a.getCanonicalPath() + ":1)\nOK\n",
+				serve(daemon, "query spoon.reflect.declaration.CtMethod\n"));
+
+		// the input folders are walked again on request only
+		assertEquals("files 1\nOK\n", serve(daemon, "refresh\n"));
+
+		// the processed unit is printed
+		assertEquals("OK\nOK\n", serve(daemon, "process " + Renamer.class.getName() + "\nprint " + a.getPath() + "\n"));
+		String printed = FileUtils.readFileToString(new File(folder.getRoot(), "out/a/A.java"));
+		assertTrue(printed, printed.contains("nRenamed()"));
+
+		// each request prints with a new output processor
+		assertEquals("OK\n", serve(daemon, "print " + a.getPath() + "\n"));
+		assertEquals(1, launcher.getEnvironment().getDefaultFileGenerator().getCreatedFiles().size());
+
+		assertTrue(serve(daemon, "unknown\nquery\n").startsWith("ERROR Unknown command: unknown\nERROR "));
+		assertEquals("OK\n", serve(daemon, "shutdown\nstatus\n"));
+		assertTrue(daemon.isShutdown());
+	}
+
+	@Test
+	public void testSocketDaemon() throws Exception {
+		Launcher launcher = createLauncher();
+		final ModelDaemon daemon = new ModelDaemon(launcher);
+		final File portFile = new File(folder.getRoot(), "daemon.port");
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					daemon.listen(portFile, 10000);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		thread.start();
+		while (!ModelDaemon.isRunning(portFile)) {
+			Thread.sleep(10);
+		}
+
+		// a single daemon runs for a port file
+		try {
+			new ModelDaemon(launcher).listen(portFile, 10000);
+			fail();
+		} catch (SpoonException e) {
+			// already running
+		}
+
+		// the port file is only readable by its owner
+		if (portFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(portFile.toPath()));
+		}
+		String[] portAndToken = FileUtils.readFileToString(portFile).split(" ");
+		int port = Integer.parseInt(portAndToken[0]);
+		String token = portAndToken[1];
+
+		// the requests without the token are rejected
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		out.println("query java.lang.Object");
+		assertEquals("ERROR Invalid token", in.readLine());
+		assertNull(in.readLine());
+		socket.close();
+
+		socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		out = new PrintWriter(socket.getOutputStream(), true);
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		out.println(token + " status");
+		assertEquals("compilation-units 2", in.readLine());
+		out.println(token + " shutdown");
+		in.readLine();
+		in.readLine();
+		assertEquals("OK", in.readLine());
+		socket.close();
+
+		thread.join();
+		assertFalse(portFile.exists());
+	}
+
+	@Test
+	public void testIdleConnectionIsClosed() throws Exception {
+		final ModelDaemon daemon = new ModelDaemon(createLauncher());
+		daemon.setConnectionTimeout(100);
+		final File portFile = new File(folder.getRoot(), "daemon.port");
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					daemon.listen(portFile, Long.MAX_VALUE);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		thread.start();
+		while (!ModelDaemon.isRunning(portFile)) {
+			Thread.sleep(10);
+		}
+		String[] portAndToken = FileUtils.readFileToString(portFile).split(" ");
+		int port = Integer.parseInt(portAndToken[0]);
+
+		// a silent client does not block the next one
+		Socket silent = new Socket(InetAddress.getLoopbackAddress(), port);
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		out.println(portAndToken[1] + " shutdown");
+		assertEquals("OK", in.readLine());
+		assertNull(new BufferedReader(new InputStreamReader(silent.getInputStream(), "UTF-8")).readLine());
+		silent.close();
+		socket.close();
+		thread.join();
+	}
+
+	@Test
+	public void testIdleTimeout() throws Exception {
+		ModelDaemon daemon = new ModelDaemon(createLauncher());
+		File portFile = new File(folder.getRoot(), "daemon.port");
+		daemon.listen(portFile, 100);
+		assertFalse(daemon.isShutdown());
+		assertFalse(portFile.exists());
+	}
+}
@@ -0,0 +1,83 @@
+package spoon.test.factory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static spoon.test.TestUtils.build;
+
+import org.junit.Test;
+
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.TypeFactory;
+
+public class TypeFactoryTest {
+
+	@Test
+	public void testGetFollowsTheModifications() throws Exception {
+		CtType<?> foo = build("spoon.test.model", "Foo");
+		TypeFactory tf = foo.getFactory().Type();
+		int all = tf.getAll(true).size();
+		assertTrue(all > tf.getAll().size());
+
+		for (int i = 0; i < 3; i++) {
+			assertSame(foo, tf.get("spoon.test.model.Foo"));
+			assertEquals("Inner", tf.get("spoon.test.model.Baz$Inner").getSimpleName());
+			assertNull(tf.get("spoon.test.model.Unknown"));
+			assertNull(tf.get("spoon.test.model.Baz$Unknown"));
+		}
+
+		CtClass<?> created = foo.getFactory().Class().create("spoon.test.model.Created");
+		assertSame(created, tf.get("spoon.test.model.Created"));
+		assertEquals(all + 1, tf.getAll(true).size());
+
+		created.setSimpleName("Renamed");
+		assertNull(tf.get("spoon.test.model.Created"));
+		assertSame(created, tf.get("spoon.test.model.Renamed"));
+		assertSame(created, tf.get("spoon.test.model.Renamed"));
+
+		foo.getPackage().removeType(tf.get("spoon.test.model.Bar"));
+		assertNull(tf.get("spoon.test.model.Bar"));
+		assertEquals(all, tf.getAll(true).size());
+	}
+
+	@Test
+	public void testIndexIsMaintainedThroughTheCollections() throws Exception {
+		CtType<?> foo = build("spoon.test.model", "Foo");
+		TypeFactory tf = foo.getFactory().Type();
+		assertSame(foo, tf.get("spoon.test.model.Foo"));
+
+		// the sets returned by the getters tell the factory
+		CtType<?> bar = tf.get("spoon.test.model.Bar");
+		foo.getPackage().getTypes().remove(bar);
+		assertNull(tf.get("spoon.test.model.Bar"));
+		foo.getPackage().getTypes().add(bar);
+		assertSame(bar, tf.get("spoon.test.model.Bar"));
+
+		// the nested types
+		CtClass<?> nested = foo.getFactory().Class().create((CtClass<?>) foo, "Nested");
+		foo.addNestedType(nested);
+		assertSame(nested, tf.get("spoon.test.model.Foo$Nested"));
+		foo.removeNestedType(nested);
+		assertNull(tf.get("spoon.test.model.Foo$Nested"));
+
+		// the renamed packages and declaring types
+		CtType<?> inner = tf.get("spoon.test.model.Baz$Inner");
+		inner.getDeclaringType().setSimpleName("Renamed");
+		assertSame(inner, tf.get("spoon.test.model.Renamed$Inner"));
+		foo.getPackage().setSimpleName("other");
+		assertNull(tf.get("spoon.test.model.Foo"));
+		assertSame(foo, tf.get("spoon.test.other.Foo"));
+		assertSame(inner, tf.get("spoon.test.other.Renamed$Inner"));
+
+		// the types moved to another package
+		CtPackage pack = foo.getFactory().Package().getOrCreate("spoon.test.moved");
+		foo.getPackage().removeType(foo);
+		pack.addType(foo);
+		assertNull(tf.get("spoon.test.other.Foo"));
+		assertSame(foo, tf.get("spoon.test.moved.Foo"));
+		assertTrue(tf.getAll().contains(foo));
+	}
+}
@@ -2,18 +2,26 @@ package spoon.test.jar;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import spoon.Launcher;
 import spoon.compiler.SpoonCompiler;
+import spoon.compiler.SpoonFile;
 import spoon.compiler.SpoonResourceHelper;
 import spoon.reflect.factory.Factory;
 import spoon.support.compiler.VirtualFile;
+import spoon.support.compiler.ZipFolder;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.List;
 
 public class JarTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testJar() throws Exception {
 		Launcher spoon = new Launcher();
@@ -55,4 +63,40 @@ public class JarTest {
 		Assert.assertNotNull(launcher.getFactory().Type().get("Foo"));
 	}
 
+	@Test
+	public void testInMemorySourcesOnly() throws Exception {
+		Launcher launcher = new Launcher();
+
+		SpoonCompiler compiler = launcher.createCompiler(
+				launcher.getFactory(),
+				Arrays.asList(
+						new VirtualFile("package a; public class A { b.B b; }", "A.java"),
+						new VirtualFile("package b; public class B { a.A a; }", "B.java")
+				));
+		Assert.assertTrue(compiler.build());
+		Assert.assertEquals("b.B", launcher.getFactory().Class().get("a.A").getField("b").getType().getQualifiedName());
+
+		File output = folder.newFolder();
+		compiler.setBinaryOutputDirectory(output);
+		Assert.assertTrue(compiler.compileInputSources());
+		Assert.assertTrue(new File(output, "a/A.class").isFile());
+		Assert.assertTrue(new File(output, "b/B.class").isFile());
+	}
+
+	@Test
+	public void testZipFolderIndexesEntriesOnly() throws Exception {
+		ZipFolder zip = new ZipFolder(new File("./src/test/resources/sourceJar/test.jar"));
+
+		// the directories are not listed
+		List<SpoonFile> files = zip.getAllJavaFiles();
+		Assert.assertEquals(1, files.size());
+		Assert.assertEquals(files, zip.getFiles());
+		Assert.assertEquals("spoon/test/strings/Main.java", files.get(0).getName());
+
+		// the content is inflated on each read
+		String content = IOUtils.toString(files.get(0).getContent());
+		Assert.assertTrue(content, content.contains("class Main"));
+		Assert.assertEquals(content, IOUtils.toString(files.get(0).getContent()));
+	}
+
 }
@@ -1,7 +1,9 @@
 package spoon.test.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static spoon.test.TestUtils.build;
 
@@ -10,6 +12,9 @@ import java.util.Set;
 
 import org.junit.Test;
 
+import spoon.reflect.declaration.CtField;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.TypeFactory;
 import spoon.reflect.reference.CtExecutableReference;
@@ -55,4 +60,70 @@ public class TypeTest {
 		CtTypeReference<?> inface = interfaces.iterator().next();
 		assertNull(inface.getSuperclass());
 	}
+
+	@Test
+	public void testNamedLookupsFollowTheModifications() throws Exception {
+		CtType<?> type = build("spoon.test.model", "Foo");
+		CtType<?> baz = type.getPackage().getType("Baz");
+		assertEquals("spoon.test.model.Baz", baz.getQualifiedName());
+		assertEquals(type.getPackage(), type.getFactory().Package().getRootPackage().getPackage("spoon").getPackage("test").getPackage("model"));
+
+		// the lookups are done twice, the second one using the index
+		for (int i = 0; i < 2; i++) {
+			assertEquals("Inner", baz.getNestedType("Inner").getSimpleName());
+			assertEquals("j", baz.getField("j").getSimpleName());
+			assertEquals(1, baz.getMethodsByName("m").size());
+			assertNull(baz.getField("i"));
+		}
+
+		CtField<?> j = baz.getField("j");
+		j.setSimpleName("k");
+		assertNull(baz.getField("j"));
+		assertEquals(j, baz.getField("k"));
+		baz.removeField(j);
+		assertNull(baz.getField("k"));
+		assertNull(baz.getField("k"));
+
+		CtMethod<?> m = type.getFactory().Core().clone(baz.getMethodsByName("m").get(0));
+		m.addParameter(type.getFactory().Core().clone(type.getMethodsByName("useInner").get(0).getParameters().get(0)));
+		baz.addMethod(m);
+		assertEquals(2, baz.getMethodsByName("m").size());
+		assertEquals(m, baz.getMethod("m", type.getFactory().Type().createReference("spoon.test.model.Baz$Inner")));
+
+		baz.getNestedType("Inner").setSimpleName("Other");
+		assertNull(baz.getNestedType("Inner"));
+		assertEquals("Other", baz.getNestedType("Other").getSimpleName());
+		type.getPackage().removeType(baz);
+		assertNull(type.getPackage().getType("Baz"));
+	}
+
+	@Test
+	public void testNameIndexesAreMaintainedThroughTheCollections() throws Exception {
+		CtType<?> type = build("spoon.test.model", "Foo");
+		CtType<?> baz = type.getPackage().getType("Baz");
+		CtField<?> j = baz.getField("j");
+
+		// the collections returned by the getters are indexed
+		baz.getFields().remove(j);
+		assertNull(baz.getField("j"));
+		CtField<?> copy = type.getFactory().Core().clone(j);
+		baz.getFields().add(copy);
+		assertSame(copy, baz.getField("j"));
+		baz.getFields().set(baz.getFields().indexOf(copy), j);
+		assertSame(j, baz.getField("j"));
+
+		// a clone has its own indexes
+		CtType<?> clone = type.getFactory().Core().clone(baz);
+		assertNotSame(j, clone.getField("j"));
+		clone.getFields().clear();
+		assertNull(clone.getField("j"));
+		assertSame(j, baz.getField("j"));
+
+		// the packages are indexed by name in their parent package
+		CtPackage pack = type.getPackage();
+		CtPackage parent = pack.getDeclaringPackage();
+		pack.setSimpleName("renamed");
+		assertNull(parent.getPackage("model"));
+		assertSame(pack, parent.getPackage("renamed"));
+	}
 }
@@ -2,9 +2,12 @@ package spoon.test.prettyprinter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -19,6 +22,7 @@ import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.reference.CtImplicitTypeReference;
 import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.test.TestUtils;
@@ -235,4 +239,30 @@ public class DefaultPrettyPrinterTest {
 		;
 		assertEquals( "the toString method of CtElementImpl should not shorten type names as it has no context or import statements", expected, computed );
 	}
+
+	@Test
+	public void autoImportsAreCollectedWhilePrinting() throws Exception {
+		Factory factory = TestUtils.build(AClass.class);
+		factory.getEnvironment().setAutoImports(true);
+		CtType<?> aClass = factory.Type().get(AClass.class);
+
+		DefaultJavaPrettyPrinter printer = new DefaultJavaPrettyPrinter(factory.getEnvironment());
+		printer.calculate(aClass.getPosition().getCompilationUnit(), Collections.<CtType<?>>singletonList(aClass));
+		String[] lines = printer.getResult().split(nl);
+		assertEquals("package spoon.test.prettyprinter.testclasses;", lines[0]);
+		assertEquals("", lines[1]);
+		assertEquals("import java.util.ArrayList;", lines[2]);
+		assertEquals("import java.util.List;", lines[3]);
+		assertEquals("", lines[4]);
+		assertTrue(lines[5], lines[5].startsWith("public class AClass {"));
+
+		// the line numbers follow the inserted imports
+		for (Map.Entry<Integer, Integer> mapping : printer.getLineNumberMapping().entrySet()) {
+			if (lines[mapping.getKey() - 1].contains("return new ArrayList")) {
+				assertEquals(8, (int) mapping.getValue());
+				return;
+			}
+		}
+		fail();
+	}
 }
@@ -0,0 +1,84 @@
+package spoon.test.prettyprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.support.JavaOutputProcessor;
+
+public class ParallelOutputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JavaOutputProcessor print(String input, File output, int threads, String outputType) {
+		Launcher launcher = new Launcher();
+		launcher.run(new String[] { "-i", input, "-o", output.getPath(), "--output-type", outputType, "--output-threads", String.valueOf(threads) });
+		return (JavaOutputProcessor) launcher.getEnvironment().getDefaultFileGenerator();
+	}
+
+	private void assertSameFiles(File expected, File actual) throws Exception {
+		@SuppressWarnings("unchecked")
+		Collection<File> expectedFiles = FileUtils.listFiles(expected, null, true);
+		assertTrue(expectedFiles.size() > 1);
+		for (File file : expectedFiles) {
+			String path = file.getPath().substring(expected.getPath().length());
+			assertEquals(path, FileUtils.readFileToString(file), FileUtils.readFileToString(new File(actual, path)));
+		}
+		assertEquals(expectedFiles.size(), FileUtils.listFiles(actual, null, true).size());
+	}
+
+	private List<String> relativePaths(File root, List<File> files) throws Exception {
+		List<String> paths = new ArrayList<String>();
+		for (File file : files) {
+			paths.add(file.getPath().substring(root.getCanonicalPath().length()));
+		}
+		return paths;
+	}
+
+	@Test
+	public void testParallelOutputOfTypes() throws Exception {
+		File sequentialOutput = folder.newFolder("sequential");
+		File parallelOutput = folder.newFolder("parallel");
+		JavaOutputProcessor sequential = print("./src/test/java/spoon/test/annotation/testclasses", sequentialOutput, 1, "classes");
+		JavaOutputProcessor parallel = print("./src/test/java/spoon/test/annotation/testclasses", parallelOutput, 4, "classes");
+
+		assertSameFiles(sequentialOutput, parallelOutput);
+		assertEquals(relativePaths(sequentialOutput, sequential.getCreatedFiles()), relativePaths(parallelOutput, parallel.getCreatedFiles()));
+		assertEquals(sequential.getLineNumberMappings(), parallel.getLineNumberMappings());
+	}
+
+	@Test
+	public void testParallelOutputOfCompilationUnits() throws Exception {
+		File sequentialOutput = folder.newFolder("sequential");
+		File parallelOutput = folder.newFolder("parallel");
+		print("./src/test/java/spoon/test/prettyprinter/testclasses", sequentialOutput, 1, "compilationunits");
+		print("./src/test/java/spoon/test/prettyprinter/testclasses", parallelOutput, 4, "compilationunits");
+
+		assertSameFiles(sequentialOutput, parallelOutput);
+	}
+
+	@Test
+	public void testLineNumberMappingOfEachType() throws Exception {
+		File output = folder.newFolder("sequential");
+		JavaOutputProcessor sequential = print("./src/test/java/spoon/test/annotation/testclasses", output, 1, "classes");
+		for (Map.Entry<String, Map<Integer, Integer>> mapping : sequential.getLineNumberMappings().entrySet()) {
+			// the lines of a type are counted from the beginning of its own file
+			int lines = FileUtils.readLines(new File(output, mapping.getKey().replace('.', File.separatorChar) + ".java")).size();
+			for (int line : mapping.getValue().keySet()) {
+				assertTrue(mapping.getKey() + ":" + line, line <= lines);
+			}
+		}
+	}
+}
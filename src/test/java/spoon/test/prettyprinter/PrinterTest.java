@@ -2,6 +2,11 @@ package spoon.test.prettyprinter;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -9,6 +14,7 @@ import spoon.Launcher;
 import spoon.compiler.SpoonResourceHelper;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.DefaultJavaPrettyPrinter;
 
 public class PrinterTest {
 
@@ -38,4 +44,28 @@ public class PrinterTest {
 
 	}
 
+	@Test
+	public void testWriteResult() throws Exception {
+		for (CtType<?> t : factory.Type().getAll()) {
+			DefaultJavaPrettyPrinter printer = new DefaultJavaPrettyPrinter(factory.getEnvironment());
+			printer.calculate(t.getPosition().getCompilationUnit(), Collections.<CtType<?>>singletonList(t));
+
+			StringWriter writer = new StringWriter();
+			printer.writeResult(writer);
+			assertEquals(printer.getResult(), writer.toString());
+
+			// the result is streamed to a channel with an encoding
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			printer.writeResult(Channels.newWriter(Channels.newChannel(out), "UTF-8"));
+			assertEquals(printer.getResult(), new String(out.toByteArray(), "UTF-8"));
+
+			// the printer is reused after a reset
+			String result = printer.getResult();
+			printer.reset();
+			assertEquals("", printer.getResult());
+			printer.calculate(t.getPosition().getCompilationUnit(), Collections.<CtType<?>>singletonList(t));
+			assertEquals(result, printer.getResult());
+		}
+	}
+
 }
@@ -0,0 +1,113 @@
+package spoon.test.prettyprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.reflect.code.CtReturn;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+import spoon.reflect.visitor.PrettyPrinter;
+import spoon.reflect.visitor.SniperJavaPrettyPrinter;
+import spoon.support.visitor.ModelSnapshot;
+
+public class SniperPrinterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String SOURCE = "package a;\n"
+			+ "\n"
+			+ "import java.util.List;\n"
+			+ "\n"
+			+ "// the class comment\n"
+			+ "public class A {\n"
+			+ "    /** the field */\n"
+			+ "    int   f = 1; // kept as is\n"
+			+ "\n"
+			+ "    int m() {\n"
+			+ "        return   1; // changed\n"
+			+ "    }\n"
+			+ "\n"
+			+ "    /* removed */\n"
+			+ "    void removed() { }\n"
+			+ "\n"
+			+ "    static class Nested {\n"
+			+ "        List<String>   l; // in the nested class\n"
+			+ "    }\n"
+			+ "}\n";
+
+	private Launcher build() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), SOURCE);
+		Launcher launcher = new Launcher();
+		launcher.setArgs(new String[] { "-i", src.getPath(), "-o", folder.newFolder("out").getPath(), "--sniper" });
+		launcher.buildModel();
+		return launcher;
+	}
+
+	private String print(Launcher launcher, CtType<?> type) {
+		PrettyPrinter printer = launcher.createPrettyPrinter();
+		assertTrue(printer instanceof SniperJavaPrettyPrinter);
+		printer.calculate(type.getPosition().getCompilationUnit(), type.getPosition().getCompilationUnit().getDeclaredTypes());
+		return printer.getResult();
+	}
+
+	@Test
+	public void testUnchangedModelIsCopied() throws Exception {
+		Launcher launcher = build();
+		CtClass<?> a = launcher.getFactory().Class().get("a.A");
+		ModelSnapshot snapshot = launcher.getFactory().CompilationUnit().getSnapshot();
+		assertTrue(snapshot.isUnchangedTree(a));
+		assertEquals(SOURCE, print(launcher, a));
+	}
+
+	@Test
+	public void testChangedMembersArePrinted() throws Exception {
+		Launcher launcher = build();
+		Factory factory = launcher.getFactory();
+		CtClass<?> a = factory.Class().get("a.A");
+		CtMethod<?> m = a.getMethodsByName("m").get(0);
+		((CtReturn<?>) m.getBody().getStatement(0)).setReturnedExpression(factory.Code().createCodeSnippetExpression("2"));
+		a.removeMethod(a.getMethodsByName("removed").get(0));
+		CtMethod<?> added = factory.Core().clone(m);
+		added.setSimpleName("added");
+		a.addMethod(added);
+
+		String printed = print(launcher, a);
+		assertTrue(printed, printed.startsWith("package a;\n\nimport java.util.List;\n\n// the class comment\npublic class A {\n"
+				+ "    /** the field */\n    int   f = 1; // kept as is\n\n    "));
+		assertTrue(printed, printed.contains("return 2;"));
+		assertFalse(printed, printed.contains("return   1;"));
+		assertTrue(printed, printed.contains("int added() {"));
+		assertFalse(printed, printed.contains("removed"));
+		assertTrue(printed, printed.contains("    static class Nested {\n        List<String>   l; // in the nested class\n    }"));
+		assertTrue(printed, printed.endsWith("}\n"));
+
+		// the spliced source code compiles
+		assertTrue(launcher.getModelBuilder().compileInMemory().containsKey("a.A"));
+	}
+
+	@Test
+	public void testChangedHeaderPrintsType() throws Exception {
+		Launcher launcher = build();
+		CtClass<?> a = launcher.getFactory().Class().get("a.A");
+		CtType<?> nested = a.getNestedType("Nested");
+		nested.setSimpleName("Renamed");
+
+		String printed = print(launcher, a);
+		assertTrue(printed, printed.contains("int m() {\n        return   1; // changed\n    }"));
+		assertTrue(printed, printed.contains("class Renamed {"));
+		assertTrue(printed, printed.contains("java.util.List<java.lang.String> l;"));
+	}
+}
@@ -0,0 +1,109 @@
+package spoon.test.prettyprinter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import spoon.Launcher;
+import spoon.support.JavaOutputProcessor;
+import spoon.support.util.OutputFiles;
+
+public class UnchangedOutputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final long OLD = 1000000000000L;
+
+	private JavaOutputProcessor print(File src, File out, String outputType) {
+		Launcher launcher = new Launcher();
+		launcher.run(new String[] { "-i", src.getPath(), "-o", out.getPath(), "--output-type", outputType });
+		return (JavaOutputProcessor) launcher.getEnvironment().getDefaultFileGenerator();
+	}
+
+	@Test
+	public void testUnchangedFilesAreNotWritten() throws Exception {
+		File src = folder.newFolder("src");
+		FileUtils.writeStringToFile(new File(src, "a/A.java"), "package a; public class A { int m() { return 1; } }");
+		FileUtils.writeStringToFile(new File(src, "a/B.java"), "package a; public class B { }");
+		File out = folder.newFolder("out");
+
+		assertEquals(2, print(src, out, "classes").getWrittenFileCount());
+		File a = new File(out, "a/A.java");
+		File b = new File(out, "a/B.java");
+		assertTrue(a.setLastModified(OLD));
+		assertTrue(b.setLastModified(OLD));
+
+		// only the changed type is written again
+		FileUtils.writeStringToFile(new File(src, "a/B.java"), "package a; public class B { int f; }");
+		JavaOutputProcessor output = print(src, out, "classes");
+		assertEquals(2, output.getCreatedFiles().size());
+		assertEquals(1, output.getWrittenFileCount());
+		assertEquals(OLD, a.lastModified());
+		assertTrue(b.lastModified() != OLD);
+
+		// the same with the compilation units
+		assertTrue(b.setLastModified(OLD));
+		print(src, out, "compilationunits");
+		assertEquals(OLD, a.lastModified());
+		assertEquals(OLD, b.lastModified());
+	}
+
+	@Test
+	public void testRecordedUnchangedTypesAreNotPrinted() throws Exception {
+		File src = folder.newFolder("src");
+		File source = new File(src, "a/A.java");
+		FileUtils.writeStringToFile(source, "package a; public class A { int m() { return 1; } }");
+		assertTrue(source.setLastModified(OLD));
+		File out = folder.newFolder("out");
+		File a = new File(out, "a/A.java");
+
+		for (String outputType : new String[] { "classes", "compilationunits" }) {
+			Launcher launcher = new Launcher();
+			launcher.run(new String[] { "-i", src.getPath(), "-o", out.getPath(), "--output-type", outputType, "--sniper" });
+			assertTrue(a.isFile());
+
+			// the output file is not compared to the printed type, which is
+			// not printed
+			FileUtils.writeStringToFile(a, "not printed");
+			launcher = new Launcher();
+			launcher.run(new String[] { "-i", src.getPath(), "-o", out.getPath(), "--output-type", outputType, "--sniper" });
+			assertEquals("not printed", FileUtils.readFileToString(a));
+
+			// a source newer than the output file is printed again
+			assertTrue(a.setLastModified(OLD - 1000));
+			launcher = new Launcher();
+			launcher.run(new String[] { "-i", src.getPath(), "-o", out.getPath(), "--output-type", outputType, "--sniper" });
+			assertEquals(FileUtils.readFileToString(source), FileUtils.readFileToString(a));
+			a.delete();
+		}
+	}
+
+	@Test
+	public void testOutputFiles() throws Exception {
+		File file = new File(folder.getRoot(), "f.txt");
+		assertTrue(OutputFiles.write(file, "content", null));
+		assertTrue(!OutputFiles.write(file, "content", null));
+		assertTrue(OutputFiles.write(file, "other", null));
+		assertEquals("other", FileUtils.readFileToString(file));
+
+		// the content is encoded with the given encoding
+		File encoded = new File(folder.getRoot(), "e.txt");
+		assertTrue(OutputFiles.write(encoded, "\u00e9", "ISO-8859-1"));
+		assertEquals(1, encoded.length());
+		assertTrue(!OutputFiles.write(encoded, "\u00e9", "ISO-8859-1"));
+		assertTrue(OutputFiles.write(encoded, "\u00e9", "UTF-8"));
+		assertEquals(2, encoded.length());
+
+		File copy = new File(folder.getRoot(), "copy/f.txt");
+		assertTrue(OutputFiles.copy(file, copy));
+		assertTrue(!OutputFiles.copy(file, copy));
+		assertEquals("other", FileUtils.readFileToString(copy));
+	}
+}
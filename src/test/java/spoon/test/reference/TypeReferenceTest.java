@@ -2,6 +2,7 @@ package spoon.test.reference;
 
 import org.junit.Test;
 import spoon.Launcher;
+import spoon.compiler.Environment;
 import spoon.compiler.SpoonCompiler;
 import spoon.compiler.SpoonResource;
 import spoon.compiler.SpoonResourceHelper;
@@ -16,10 +17,16 @@ import spoon.reflect.visitor.Query;
 import spoon.reflect.visitor.filter.ReferenceTypeFilter;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static spoon.test.TestUtils.build;
 
 /**
  * @author Lionel Seinturier
@@ -173,4 +180,94 @@ public class TypeReferenceTest {
         CtTypeReference<Boolean> boxedBoolean = factory.Class().createReference(Boolean.class);
         assertEquals(boxedBoolean.unbox().getActualClass(), boolean.class);
     }
+
+	@Test
+	public void testEqualsAndHashCode() throws Exception {
+		Factory factory = new Launcher().createFactory();
+		CtTypeReference<?> stringList = factory.Type().createReference(List.class);
+		stringList.addActualTypeArgument(factory.Type().createReference(String.class));
+		CtTypeReference<?> integerList = factory.Type().createReference(List.class);
+		integerList.addActualTypeArgument(factory.Type().createReference(Integer.class));
+
+		// the type arguments identify the references
+		assertFalse(stringList.equals(integerList));
+		assertFalse(stringList.hashCode() == integerList.hashCode());
+		Set<CtTypeReference<?>> references = new HashSet<CtTypeReference<?>>();
+		references.add(stringList);
+		assertFalse(references.contains(integerList));
+
+		// the identity follows the modifications of the nested references
+		integerList.getActualTypeArguments().get(0).setSimpleName("String");
+		assertEquals(stringList, integerList);
+		assertEquals(stringList.hashCode(), integerList.hashCode());
+		assertTrue(references.contains(integerList));
+
+		// and of the reference itself
+		CtTypeReference<?> set = factory.Type().createReference(Set.class);
+		set.addActualTypeArgument(factory.Type().createReference(String.class));
+		integerList.setSimpleName("Set");
+		assertFalse(stringList.equals(integerList));
+		assertEquals(set, integerList);
+		assertEquals(set.hashCode(), integerList.hashCode());
+		integerList.getPackage().setSimpleName("java.lang");
+		assertEquals("java.lang.Set", integerList.getQualifiedName());
+		assertFalse(set.equals(integerList));
+	}
+
+	@Test
+	public void testResolvedDeclarationsAreCached() throws Exception {
+		CtType<?> foo = build("spoon.test.model", "Foo");
+		Factory factory = foo.getFactory();
+		Environment environment = factory.getEnvironment();
+		CtTypeReference<?> reference = factory.Type().createReference("spoon.test.model.Foo");
+		CtFieldReference<?> field = foo.getField("i").getReference();
+
+		long hits = environment.getResolutionCacheHits();
+		long misses = environment.getResolutionCacheMisses();
+		assertSame(foo, reference.getDeclaration());
+		assertSame(foo, reference.getDeclaration());
+		assertSame(foo.getField("i"), field.getDeclaration());
+		assertSame(foo.getField("i"), field.getDeclaration());
+		assertEquals(hits + 2, environment.getResolutionCacheHits());
+
+		// the declarations are resolved again when the model is modified
+		foo.getField("i").setSimpleName("j");
+		assertSame(foo, reference.getDeclaration());
+		assertNull(field.getDeclaration());
+		assertTrue(environment.getResolutionCacheMisses() > misses + 2);
+
+		environment.setResolutionCacheEnabled(false);
+		hits = environment.getResolutionCacheHits();
+		misses = environment.getResolutionCacheMisses();
+		assertSame(foo, reference.getDeclaration());
+		assertSame(foo, reference.getDeclaration());
+		assertEquals(hits, environment.getResolutionCacheHits());
+		assertEquals(misses, environment.getResolutionCacheMisses());
+	}
+
+	@Test
+	public void testDirectModificationsOfTheCollectionsInvalidateTheCaches() throws Exception {
+		CtType<?> foo = build("spoon.test.model", "Foo");
+		Factory factory = foo.getFactory();
+		CtTypeReference<?> reference = factory.Type().createReference("spoon.test.model.Created");
+		assertNull(reference.getDeclaration());
+		assertNull(reference.getDeclaration());
+
+		// the collections returned by the getters are modified directly
+		CtInterface<?> created = factory.Interface().create(foo.getPackage(), "Created");
+		assertSame(created, reference.getDeclaration());
+		foo.getPackage().getTypes().remove(created);
+		assertNull(reference.getDeclaration());
+
+		CtField<?> field = factory.Core().createField();
+		field.setSimpleName("created");
+		field.setParent(foo);
+		assertNull(foo.getField("created"));
+		assertNull(foo.getField("created"));
+		foo.getFields().add(field);
+		assertSame(field, foo.getField("created"));
+		assertSame(field, foo.getField("created"));
+		foo.getFields().remove(field);
+		assertNull(foo.getField("created"));
+	}
 }
@@ -20,6 +20,7 @@ import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.factory.Factory;
 import spoon.reflect.factory.FactoryImpl;
+import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.support.DefaultCoreFactory;
 import spoon.support.StandardEnvironment;
@@ -290,5 +291,59 @@ public class SignatureTest {
 		assertTrue(sigAssign.contains("<no type>"));
 	
 	}
-	
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testSignatureIsComputedAgainAfterModifications() throws Exception {
+		Factory factory = new Launcher().createFactory();
+		CtClass<?> clazz = factory.Code().createCodeSnippetStatement(
+				"class X { int m(int p) { return p; } int n(int p) { return p; } }").compile();
+		CtMethod<?> m = clazz.getMethodsByName("m").get(0);
+		CtMethod<?> n = clazz.getMethodsByName("n").get(0);
+
+		// the signature is cached while the models do not change
+		String signature = m.getSignature();
+		assertSame(signature, m.getSignature());
+		assertFalse(m.equals(n));
+
+		n.setSimpleName("m");
+		assertEquals(signature, n.getSignature());
+		assertEquals(m, n);
+		assertEquals(m.hashCode(), n.hashCode());
+
+		// the references and the collections of the elements are modified
+		CtTypeReference type = factory.Type().createReference("p.T");
+		n.setType(type);
+		assertFalse(m.equals(n));
+		assertEquals("p.T m(int)", n.getSignature());
+		type.setSimpleName("U");
+		assertEquals("p.U m(int)", n.getSignature());
+		n.addParameter(factory.Core().clone(m.getParameters().get(0)));
+		assertEquals("p.U m(int,int)", n.getSignature());
+		assertEquals(signature, m.getSignature());
+	}
+
+	@Test
+	public void testSignatureIsClearedUpTheParentChain() throws Exception {
+		Factory factory = new Launcher().createFactory();
+		Factory other = new Launcher().createFactory();
+		CtClass<?> clazz = factory.Code().createCodeSnippetStatement(
+				"class X { int m(int p) { return p; } }").compile();
+		CtMethod<?> m = clazz.getMethodsByName("m").get(0);
+		String signature = m.getSignature();
+
+		// setting the parent is not a modification
+		long version = factory.getModelVersion().get();
+		m.getParameters().get(0).setParent(m);
+		assertSame(signature, m.getSignature());
+		assertEquals(version, factory.getModelVersion().get());
+
+		// a reference of a child of the method is modified in place
+		long otherVersion = other.getModelVersion().get();
+		m.getParameters().get(0).getType().setSimpleName("long");
+		assertEquals("int m(long)", m.getSignature());
+		assertTrue(factory.getModelVersion().get() > version);
+		assertEquals(otherVersion, other.getModelVersion().get());
+	}
+
 }
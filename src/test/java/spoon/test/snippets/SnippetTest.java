@@ -3,11 +3,22 @@ package spoon.test.snippets;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
 import org.junit.Test;
 
+import spoon.reflect.code.CtCodeElement;
+import spoon.reflect.code.CtInvocation;
+import spoon.reflect.code.CtLocalVariable;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.declaration.ModifierKind;
 import spoon.reflect.factory.Factory;
+import spoon.support.compiler.SnippetCompilationHelper;
 import spoon.test.TestUtils;
 
 public class SnippetTest {
@@ -38,4 +49,55 @@ public class SnippetTest {
 		}
 	}
 
+	@Test
+	public void testCompileSnippetsAtOnce() {
+		List<CtCodeElement> snippets = new ArrayList<CtCodeElement>();
+		snippets.add(factory.Code().createCodeSnippetStatement("int i = 1"));
+		snippets.add(factory.Code().createCodeSnippetExpression("\"a\".length()"));
+		snippets.add(factory.Code().createCodeSnippetStatement("java.util.List<String> l = null"));
+		int types = factory.Type().getAll().size();
+
+		List<CtCodeElement> compiled = SnippetCompilationHelper.compileSnippets(snippets);
+
+		assertEquals(3, compiled.size());
+		assertEquals("int", ((CtLocalVariable<?>) compiled.get(0)).getType().getSimpleName());
+		assertEquals("length", ((CtInvocation<?>) compiled.get(1)).getExecutable().getSimpleName());
+		assertEquals("java.util.List<java.lang.String>", ((CtLocalVariable<?>) compiled.get(2)).getType().toString());
+
+		// the wrappers are removed
+		assertEquals(types, factory.Type().getAll().size());
+
+		snippets.add(factory.Code().createCodeSnippetStatement("int j = "));
+		try {
+			SnippetCompilationHelper.compileSnippets(snippets);
+			fail();
+		} catch (Exception e) {
+			// a snippet is incorrect
+		}
+		assertEquals(types, factory.Type().getAll().size());
+	}
+
+	@Test
+	public void testCompileSnippetsInTheirContextTypes() {
+		CtClass<?> context = factory.Class().create("p.Context");
+		factory.Field().create(context, EnumSet.noneOf(ModifierKind.class), factory.Type().createReference(ArrayList.class), "list");
+		List<CtCodeElement> snippets = new ArrayList<CtCodeElement>();
+		snippets.add(factory.Code().createCodeSnippetStatement("ArrayList<String> l = new ArrayList<String>()"));
+		snippets.add(factory.Code().createCodeSnippetStatement("int i = 1"));
+		int types = factory.Type().getAll(true).size();
+
+		// the wrappers are in the package of their context type, with its imports
+		List<CtCodeElement> compiled = SnippetCompilationHelper.compileSnippets(snippets, Arrays.<CtType<?>>asList(context, null));
+		assertEquals("java.util.ArrayList<java.lang.String>", ((CtLocalVariable<?>) compiled.get(0)).getType().toString());
+		assertEquals("int", ((CtLocalVariable<?>) compiled.get(1)).getType().getSimpleName());
+		assertEquals(types, factory.Type().getAll(true).size());
+
+		try {
+			SnippetCompilationHelper.compileSnippets(snippets.subList(0, 1));
+			fail();
+		} catch (Exception e) {
+			// ArrayList is not imported without a context type
+		}
+	}
+
 }
@@ -3,10 +3,18 @@ package spoon.test.sourcePosition;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import spoon.Launcher;
+import spoon.compiler.SpoonCompiler;
+import spoon.reflect.cu.CompilationUnit;
 import spoon.reflect.cu.SourcePosition;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.factory.Factory;
@@ -16,6 +24,9 @@ import spoon.test.TestUtils;
 
 public class SourcePositionTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void equalPositionsHaveSameHashcode() throws Exception {
 		String packageName = "spoon.test";
@@ -39,6 +50,35 @@ public class SourcePositionTest {
 		}
 	}
 	
+	@Test
+	public void testOriginalSourceCodeOfCompilationUnit() throws Exception {
+		File file = folder.newFile("A.java");
+		String source = "class A {\n\tString s = \"\u00e9t\u00e9\";\n    int i;\n}";
+		FileUtils.writeStringToFile(file, source, "ISO-8859-1");
+		Launcher launcher = new Launcher();
+		SpoonCompiler compiler = launcher.createCompiler();
+		compiler.setEncoding("ISO-8859-1");
+		compiler.addInputSource(file);
+		compiler.build();
+
+		// the source is decoded with the encoding of the compiler
+		CompilationUnit cu = launcher.getFactory().Class().get("A").getPosition().getCompilationUnit();
+		assertEquals("ISO-8859-1", cu.getEncoding());
+		assertEquals(source, cu.getOriginalSourceCode());
+
+		// the lines are those computed by the compiler
+		assertTrue(Arrays.equals(new int[] { 9, 28, 39 }, cu.getLineSeparatorPositions()));
+		assertEquals(0, cu.beginOfLineIndex(5));
+		assertEquals(10, cu.beginOfLineIndex(9));
+		assertEquals(10, cu.beginOfLineIndex(20));
+		assertEquals(10, cu.nextLineIndex(0));
+		assertEquals(29, cu.nextLineIndex(10));
+		assertEquals(source.length() + 1, cu.nextLineIndex(41));
+		assertEquals(1, cu.getTabCount(10));
+		assertEquals(1, cu.getTabCount(29));
+		assertEquals("\tString s = \"\u00e9t\u00e9\";", source.substring(cu.beginOfLineIndex(20), cu.nextLineIndex(20) - 1));
+	}
+
 	private Factory factoryFor(String packageName, String className) throws Exception {
 		return TestUtils.build(packageName, className).getFactory();
 	}